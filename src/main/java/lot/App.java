@@ -2,13 +2,13 @@ package lot;
 
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
+import lot.controllers.utils.ViewRegistry;
 import lot.database.DatabaseInitializer;
+import lot.services.EmailService;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -18,6 +18,8 @@ import java.sql.SQLException;
  * Extends JavaFX Application class to provide the GUI interface.
  */
 public class App extends Application {
+    private final ApplicationContext context = new ApplicationContext();
+
     /**
      * Constructs a new instance of the class with default values.
      * Initializes all fields to their default initial values.
@@ -26,7 +28,8 @@ public class App extends Application {
 
     /**
      * The main entry point for JavaFX applications.
-     * Initializes and configures the primary application window.
+     * Starts creating the application services in the background, initializes and configures the primary
+     * application window, whose single scene shows all views, and preloads the menu view once the window is shown.
      *
      * @param primaryStage the primary stage for this application
      * @throws IOException if the FXML file cannot be loaded
@@ -34,16 +37,18 @@ public class App extends Application {
     @Override
     public void start(Stage primaryStage) throws IOException {
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/lot/views/MainApp.fxml"));
-
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/lot/css/MainApp.css").toExternalForm());
+            context.warmUp();
+            ViewRegistry views = ViewRegistry.getInstance();
+            views.setControllerFactory(context::createController);
+            Scene scene = views.createScene(ViewRegistry.MAIN_VIEW, "MainApp.css");
 
             primaryStage.setTitle("Flight Management System");
             primaryStage.setScene(scene);
             primaryStage.getIcons().add(new Image(getClass().getResourceAsStream("/plane.png")));
             primaryStage.setResizable(false);
             primaryStage.show();
+
+            views.preload(ViewRegistry.MENU_VIEW, "Menu.css");
         }
         catch (IOException e) {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -68,6 +73,15 @@ public class App extends Application {
         }
     }
 
+    /**
+     * Called when the application exits.
+     * Stops the background email sender; emails still in the outbox are sent on the next start.
+     */
+    @Override
+    public void stop() {
+        EmailService.shutdown();
+    }
+
     /**
      * Main method that launches the application.
      * Initializes the database before starting the JavaFX application.
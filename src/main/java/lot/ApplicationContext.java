@@ -0,0 +1,147 @@
+package lot;
+
+import lot.controllers.operations.FlightOperationsController;
+import lot.controllers.operations.PassengerOperationsController;
+import lot.controllers.operations.ReservationOperationsController;
+import lot.controllers.utils.ControllerUtils;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.services.EmailService;
+import lot.services.FlightNotificationService;
+import lot.services.FlightService;
+import lot.services.PassengerService;
+import lot.services.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Application-scoped container of the services and DAOs used by the controllers.
+ * <p>
+ * Every service and DAO is created once, on first use, and shared by all controllers, which receive them
+ * through the controller factory of their views, see {@link #createController(Class)}. Creation can also be
+ * started in the background with {@link #warmUp()}, so independent services, e.g. the email service reading
+ * its configuration, are created in parallel before the first view needs them.
+ */
+public class ApplicationContext {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationContext.class);
+
+    private final Lazy<FlightDao> flightDao = new Lazy<>(FlightDao::new);
+    private final Lazy<PassengerDao> passengerDao = new Lazy<>(PassengerDao::new);
+    private final Lazy<ReservationDao> reservationDao = new Lazy<>(ReservationDao::new);
+    private final Lazy<EmailService> emailService = new Lazy<>(EmailService::new);
+    private final Lazy<FlightNotificationService> flightNotificationService = new Lazy<>(FlightNotificationService::new);
+    private final Lazy<FlightService> flightService = new Lazy<>(() ->
+            new FlightService(flightDao.get(), flightNotificationService.get()));
+    private final Lazy<PassengerService> passengerService = new Lazy<>(() ->
+            new PassengerService(passengerDao.get()));
+    private final Lazy<ReservationService> reservationService = new Lazy<>(() ->
+            new ReservationService(reservationDao.get(), flightDao.get(), passengerDao.get(), emailService.get()));
+
+    /**
+     * Constructs a context without creating any service yet.
+     */
+    public ApplicationContext() {}
+
+    /**
+     * Starts creating all services in the background, each on its own virtual thread, and returns at once.
+     * Services needed before their creation finishes are waited for, and services which fail to be created
+     * are created again on first use, so the failure is reported where the service is needed.
+     */
+    public void warmUp() {
+        for (Lazy<?> service : List.of(flightService, passengerService, reservationService)) {
+            Thread.ofVirtual().name("service-warm-up").start(() -> {
+                try {
+                    service.get();
+                }
+                catch (RuntimeException e) {
+                    LOGGER.warn("Failed to create a service in the background", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the flight service.
+     *
+     * @return the shared flight service
+     */
+    public FlightService getFlightService() {
+        return flightService.get();
+    }
+
+    /**
+     * Returns the passenger service.
+     *
+     * @return the shared passenger service
+     */
+    public PassengerService getPassengerService() {
+        return passengerService.get();
+    }
+
+    /**
+     * Returns the reservation service.
+     *
+     * @return the shared reservation service
+     */
+    public ReservationService getReservationService() {
+        return reservationService.get();
+    }
+
+    /**
+     * Creates the controller of a view, injecting the shared services.
+     * Used as the controller factory of every loaded view.
+     *
+     * @param type the class of the controller
+     * @return the controller
+     */
+    public Object createController(Class<?> type) {
+        if (type == FlightOperationsController.class) {
+            return new FlightOperationsController(getFlightService(), new ControllerUtils());
+        }
+        else if (type == ReservationOperationsController.class) {
+            return new ReservationOperationsController(getReservationService(), new ControllerUtils());
+        }
+        else if (type == PassengerOperationsController.class) {
+            return new PassengerOperationsController(getPassengerService(), new ControllerUtils());
+        }
+
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Value created on first use, at most once even if requested by several threads at the same time.
+     *
+     * @param <T> the type of the value
+     */
+    private static final class Lazy<T> {
+        private final Supplier<T> supplier;
+        private volatile T value;
+
+        private Lazy(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        private T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = supplier.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -2,13 +2,9 @@ package lot.controllers;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
-import javafx.stage.Stage;
 import lot.controllers.menu.MenuController;
+import lot.controllers.utils.ViewRegistry;
 
 import java.io.IOException;
 
@@ -17,8 +13,6 @@ import java.io.IOException;
  * Provides methods to switch between flight, passenger, and reservation management views.
  */
 public class MainAppController {
-    private Stage stage;
-
     /**
      * Constructs a new instance of the class with default values.
      * Initializes all fields to their default initial values.
@@ -32,15 +26,7 @@ public class MainAppController {
      */
     @FXML
     private void manageFlights(ActionEvent event) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/lot/views/menu/MenuView.fxml"));
-        try {
-            setStage(event, loader, "flight");
-        }
-        catch (IOException e) {
-            showErrorAlert(e.getMessage());
-            return;
-        }
-        stage.show();
+        showMenu("flight");
     }
 
     /**
@@ -50,15 +36,7 @@ public class MainAppController {
      */
     @FXML
     private void manageReservations(ActionEvent event) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/lot/views/menu/MenuView.fxml"));
-        try {
-            setStage(event, loader, "reservation");
-        }
-        catch (IOException e) {
-            showErrorAlert(e.getMessage());
-            return;
-        }
-        stage.show();
+        showMenu("reservation");
     }
 
     /**
@@ -68,30 +46,22 @@ public class MainAppController {
      */
     @FXML
     private void managePassengers(ActionEvent event) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/lot/views/menu/MenuView.fxml"));
-        try {
-            setStage(event, loader, "passenger");
-        }
-        catch (IOException e) {
-            showErrorAlert(e.getMessage());
-            return;
-        }
-        stage.show();
+        showMenu("passenger");
     }
 
     /**
-     * Configures and displays the stage with the loaded view.
+     * Shows the menu view of the given resource type.
      *
-     * @param event the action event that triggered this navigation
+     * @param type the type of resource to manage ("flight", "passenger", or "reservation")
      */
-    private void setStage(ActionEvent event, FXMLLoader loader, String type) throws IOException {
-        Parent root = loader.load();
-        MenuController controller = loader.getController();
-        controller.setResourceType(type);
-        stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        Scene scene = new Scene(root);
-        scene.getStylesheets().add(getClass().getResource("/lot/css/Menu.css").toExternalForm());
-        stage.setScene(scene);
+    private void showMenu(String type) {
+        try {
+            MenuController controller = ViewRegistry.getInstance().show(ViewRegistry.MENU_VIEW, "Menu.css");
+            controller.setResourceType(type);
+        }
+        catch (IOException e) {
+            showErrorAlert(e.getMessage());
+        }
     }
 
     private void showErrorAlert(String message) {
@@ -2,32 +2,21 @@ package lot.controllers.menu;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.stage.Stage;
 import lot.controllers.operations.FlightOperationsController;
 import lot.controllers.operations.PassengerOperationsController;
 import lot.controllers.operations.ReservationOperationsController;
-import lot.dao.FlightDao;
-import lot.dao.PassengerDao;
-import lot.dao.ReservationDao;
-import lot.services.EmailService;
-import lot.services.FlightService;
-import lot.services.PassengerService;
-import lot.services.ReservationService;
-import lot.controllers.utils.ControllerUtils;
+import lot.controllers.utils.ViewRegistry;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Menu controller that manages navigation between different operation views
  * (view all, search, add, update, delete) for flights, passengers, and reservations.
- * Also initializes and injects the appropriate services into operation controllers.
+ * The operation controllers receive their services from the application context, see {@link lot.ApplicationContext}.
  */
 public class MenuController {
     @FXML
@@ -43,11 +32,10 @@ public class MenuController {
     @FXML
     private Button deleteButton;
 
-    private Stage stage;
+    private static final List<String> RESOURCE_TYPES = List.of("flight", "passenger", "reservation");
+    private static final List<String> OPERATION_VIEWS = List.of("SeeAllView", "SearchView", "AddView", "UpdateView", "DeleteView");
+
     private String resourceType;
-    private final FlightService flightService = new FlightService(new FlightDao());
-    private final ReservationService reservationService = new ReservationService(new ReservationDao(), new FlightDao(), new PassengerDao(), new EmailService());
-    private final PassengerService passengerService = new PassengerService(new PassengerDao());
 
     /**
      * Constructs a new instance of the class with default values.
@@ -55,6 +43,19 @@ public class MenuController {
      */
     public MenuController() {}
 
+    /**
+     * Initializes the controller and queues the operation views of all resource types for preloading,
+     * so they open without loading once chosen.
+     */
+    @FXML
+    public void initialize() {
+        for (String type : RESOURCE_TYPES) {
+            for (String view : OPERATION_VIEWS) {
+                ViewRegistry.getInstance().preload(viewPath(type, view), cssName(view));
+            }
+        }
+    }
+
     /**
      * Sets the resource type (flight, passenger, or reservation) and updates UI labels accordingly.
      *
@@ -77,9 +78,9 @@ public class MenuController {
      */
     @FXML
     private void seeAllOperation(ActionEvent event) {
-        FXMLLoader loader = this.getLoader("SeeAllView");
+        Object controller;
         try {
-            setStage(event, loader, "SearchView.css");
+            controller = showView("SeeAllView");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
@@ -88,19 +89,18 @@ public class MenuController {
 
         switch(resourceType) {
             case "flight":
-                FlightOperationsController flightController = loader.getController();
+                FlightOperationsController flightController = (FlightOperationsController) controller;
                 flightController.seeAllFlights();
                 break;
             case "passenger":
-                PassengerOperationsController passengerController = loader.getController();
+                PassengerOperationsController passengerController = (PassengerOperationsController) controller;
                 passengerController.seeAllPassengers();
                 break;
             case "reservation":
-                ReservationOperationsController reservationController = loader.getController();
+                ReservationOperationsController reservationController = (ReservationOperationsController) controller;
                 reservationController.seeAllReservations();
                 break;
         }
-        stage.show();
     }
 
     /**
@@ -110,16 +110,12 @@ public class MenuController {
      */
     @FXML
     private void searchOperation(ActionEvent event) {
-        FXMLLoader loader = this.getLoader("SearchView");
         try {
-            setStage(event, loader, "SearchView.css");
+            showView("SearchView");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
-            return;
         }
-
-        stage.show();
     }
 
     /**
@@ -130,9 +126,9 @@ public class MenuController {
      */
     @FXML
     private void addNewOperation(ActionEvent event) {
-        FXMLLoader loader = this.getLoader("AddView");
+        Object controller;
         try {
-            setStage(event, loader, "AddUpdateView.css");
+            controller = showView("AddView");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
@@ -140,10 +136,9 @@ public class MenuController {
         }
 
         if (resourceType.equals("reservation")) {
-            ReservationOperationsController reservationController = loader.getController();
+            ReservationOperationsController reservationController = (ReservationOperationsController) controller;
             reservationController.configureFlightsAndPassengersIds("add");
         }
-        stage.show();
     }
 
     /**
@@ -153,9 +148,9 @@ public class MenuController {
      */
     @FXML
     private void updateOperation(ActionEvent event) {
-        FXMLLoader loader = this.getLoader("UpdateView");
+        Object controller;
         try {
-            setStage(event, loader, "AddUpdateView.css");
+            controller = showView("UpdateView");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
@@ -164,19 +159,18 @@ public class MenuController {
 
         switch(resourceType) {
             case "flight":
-                FlightOperationsController flightController = loader.getController();
+                FlightOperationsController flightController = (FlightOperationsController) controller;
                 flightController.configureFlightsIds("update");
                 break;
             case "passenger":
-                PassengerOperationsController passengerController = loader.getController();
+                PassengerOperationsController passengerController = (PassengerOperationsController) controller;
                 passengerController.configurePassengersIds("update");
                 break;
             case "reservation":
-                ReservationOperationsController reservationController = loader.getController();
+                ReservationOperationsController reservationController = (ReservationOperationsController) controller;
                 reservationController.configureReservationIds("update");
                 break;
         }
-        stage.show();
     }
 
     /**
@@ -186,9 +180,9 @@ public class MenuController {
      */
     @FXML
     private void deleteOperation(ActionEvent event) {
-        FXMLLoader loader = this.getLoader("DeleteView");
+        Object controller;
         try {
-            setStage(event, loader, "DeleteView.css");
+            controller = showView("DeleteView");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
@@ -197,19 +191,18 @@ public class MenuController {
 
         switch(resourceType) {
             case "flight":
-                FlightOperationsController flightController = loader.getController();
+                FlightOperationsController flightController = (FlightOperationsController) controller;
                 flightController.configureFlightsIds("delete");
                 break;
             case "passenger":
-                PassengerOperationsController passengerController = loader.getController();
+                PassengerOperationsController passengerController = (PassengerOperationsController) controller;
                 passengerController.configurePassengersIds("delete");
                 break;
             case "reservation":
-                ReservationOperationsController reservationController = loader.getController();
+                ReservationOperationsController reservationController = (ReservationOperationsController) controller;
                 reservationController.configureReservationIds("delete");
                 break;
         }
-        stage.show();
     }
 
     /**
@@ -219,59 +212,48 @@ public class MenuController {
      */
     @FXML
     private void goBack(ActionEvent event) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/lot/views/MainApp.fxml"));
         try {
-            setStage(event, loader, "MainApp.css");
+            ViewRegistry.getInstance().show(ViewRegistry.MAIN_VIEW, "MainApp.css");
         }
         catch (IOException e) {
             this.showErrorAlert(e.getMessage());
-            return;
         }
-        stage.show();
     }
 
     /**
-     * Creates and configures an FXMLLoader for the specified view.
-     * Sets up the appropriate controller factory based on resource type.
+     * Shows an operation view of the current resource type, loading it first if needed.
      *
-     * @param view the name of the view to load (without extension)
-     * @return configured FXMLLoader instance
+     * @param view the name of the view to show (without the resource type and extension)
+     * @return the controller of the view
+     * @throws IOException if the FXML file cannot be loaded
      */
-    private FXMLLoader getLoader(String view) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/lot/views/operations/" + resourceType + "/" + resourceType.substring(0, 1).toUpperCase() + resourceType.substring(1) + view + ".fxml"));
-        loader.setControllerFactory(type -> {
-            if (type == FlightOperationsController.class) {
-                return new FlightOperationsController(flightService, new ControllerUtils());
-            }
-            else if (type == ReservationOperationsController.class) {
-                return new ReservationOperationsController(reservationService, new ControllerUtils());
-            }
-            else if (type == PassengerOperationsController.class) {
-                return new PassengerOperationsController(passengerService, new ControllerUtils());
-            }
+    private Object showView(String view) throws IOException {
+        return ViewRegistry.getInstance().show(viewPath(resourceType, view), cssName(view));
+    }
 
-            try {
-                return type.getDeclaredConstructor().newInstance();
-            }
-            catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        return loader;
+    /**
+     * Returns the path to the FXML file of an operation view.
+     *
+     * @param type the type of resource ("flight", "passenger", or "reservation")
+     * @param view the name of the view (without the resource type and extension)
+     * @return the path to the FXML file
+     */
+    private static String viewPath(String type, String view) {
+        return "/lot/views/operations/" + type + "/" + type.substring(0, 1).toUpperCase() + type.substring(1) + view + ".fxml";
     }
 
     /**
-     * Configures and displays the stage with the loaded view and specified CSS.
+     * Returns the name of the stylesheet of an operation view.
      *
-     * @param event the action event that triggered this navigation
-     * @param cssName the name of the CSS file to apply
+     * @param view the name of the view (without the resource type and extension)
+     * @return the name of the CSS file
      */
-    private void setStage(ActionEvent event, FXMLLoader loader, String cssName) throws IOException {
-        Parent root = loader.load();
-        stage = (Stage) ((Node)event.getSource()).getScene().getWindow();
-        Scene scene = new Scene(root);
-        scene.getStylesheets().add(getClass().getResource("/lot/css/" + cssName).toExternalForm());
-        stage.setScene(scene);
+    private static String cssName(String view) {
+        return switch (view) {
+            case "AddView", "UpdateView" -> "AddUpdateView.css";
+            case "DeleteView" -> "DeleteView.css";
+            default -> "SearchView.css";
+        };
     }
 
     private void showErrorAlert(String message) {
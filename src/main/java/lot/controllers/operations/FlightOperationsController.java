@@ -1,31 +1,37 @@
 package lot.controllers.operations;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.event.ActionEvent;
 
-import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Flight;
+import lot.models.NotificationJob;
 import lot.services.FlightService;
+import lot.controllers.utils.BackgroundTasks;
+import lot.controllers.utils.CellValues;
 import lot.controllers.utils.ControllerUtils;
+import lot.controllers.utils.PagedItems;
+import lot.controllers.utils.ResettableView;
+import lot.controllers.utils.ViewRegistry;
+import lot.dao.PageQuery;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for handling flight-related operations in the UI.
  * Manages the display, search, addition, update, and deletion of flights.
+ * All service calls run in the background, so the UI stays responsive while the database works.
  */
-public class FlightOperationsController {
+public class FlightOperationsController implements ResettableView {
     @FXML
     private AnchorPane searchPane;
     @FXML
@@ -95,9 +101,12 @@ public class FlightOperationsController {
     @FXML
     private AnchorPane addPane;
 
-    private final ObservableList<Integer> ids = FXCollections.observableArrayList();
+    private static final Duration NOTIFICATION_TIMEOUT = Duration.ofMinutes(10);
+
     private final FlightService flightService;
     private final ControllerUtils utils;
+    private final BackgroundTasks tasks = new BackgroundTasks();
+    private final PagedItems<Flight> flights;
 
     /**
      * Constructs a FlightOperationsController with the specified FlightService.
@@ -108,18 +117,23 @@ public class FlightOperationsController {
     public FlightOperationsController(FlightService flightService, ControllerUtils utils) {
         this.flightService = flightService;
         this.utils = utils;
+        this.flights = new PagedItems<>(flightService::countFlights, flightService::getFlightsWindow, Flight::getId,
+                tasks, e -> utils.showApplicationErrorMessage(e.getMessage()));
     }
 
     /**
-     * Initializes the controller and sets up table column bindings.
+     * Initializes the controller, sets up table column bindings and the ID picker of the search view.
      */
     @FXML
     public void initialize() {
+        if (idSearchField != null) {
+            utils.configureIdPicker(idSearchField, tasks, flightService::getIdsByPrefix);
+        }
         if (flightTable != null) {
-            idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-            departureColumn.setCellValueFactory(new PropertyValueFactory<>("departure"));
-            destinationColumn.setCellValueFactory(new PropertyValueFactory<>("destination"));
-            departureDateColumn.setCellValueFactory(new PropertyValueFactory<>("departureDate"));
+            idColumn.setCellValueFactory(CellValues.of(Flight::getId));
+            departureColumn.setCellValueFactory(CellValues.of(Flight::getDeparture));
+            destinationColumn.setCellValueFactory(CellValues.of(Flight::getDestination));
+            departureDateColumn.setCellValueFactory(CellValues.of(Flight::getDepartureDate));
             departureDateColumn.setCellFactory(column -> new TableCell<>() {
                 private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
@@ -134,8 +148,52 @@ public class FlightOperationsController {
                 }
             });
 
-            durationColumn.setCellValueFactory(new PropertyValueFactory<>("duration"));
-            seatRowsAmountColumn.setCellValueFactory(new PropertyValueFactory<>("seatRowsAmount"));
+            durationColumn.setCellValueFactory(CellValues.of(Flight::getDuration));
+            seatRowsAmountColumn.setCellValueFactory(CellValues.of(Flight::getSeatRowsAmount));
+
+            flightTable.setItems(flights);
+            flights.bindSorting(flightTable, Map.of(
+                    idColumn, "id",
+                    departureColumn, "departure",
+                    destinationColumn, "destination",
+                    departureDateColumn, "departureDate",
+                    durationColumn, "duration",
+                    seatRowsAmountColumn, "seatRowsAmount"
+            ));
+        }
+    }
+
+    /**
+     * Resets the view before it is shown again: cancels its background tasks and clears its table, forms and ID pickers.
+     */
+    @Override
+    public void resetView() {
+        tasks.cancelAll();
+        if (flightTable != null) {
+            flights.reset();
+            flightTable.getSortOrder().clear();
+        }
+        if (searchPane != null) {
+            dateSearchField.setVisible(false);
+            destinationSearchField.setVisible(false);
+            departureSearchField.setVisible(false);
+            idSearchField.setVisible(false);
+
+            dateSearchField.setValue(null);
+            destinationSearchField.clear();
+            departureSearchField.clear();
+            idSearchField = utils.clearComboBox(searchPane, idSearchField);
+        }
+        if (addPane != null) {
+            utils.clearForm(addPane, "Type new flight data");
+        }
+        if (updatePane != null) {
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+        }
+        if (deletionPane != null) {
+            utils.clearForm(deletionPane, "Select number for deletion");
+            deleteId = utils.clearComboBox(deletionPane, deleteId);
         }
     }
 
@@ -145,32 +203,21 @@ public class FlightOperationsController {
      * @param type the type of operation ("delete" or "update")
      */
     public void configureFlightsIds(String type) {
-        ids.clear();
-        ids.addAll(flightService.getIds().stream().sorted().toList());
-
         if (type.equals("delete")) {
-            deleteId.getItems().addAll(ids);
+            utils.configureIdPicker(deleteId, tasks, flightService::getIdsByPrefix);
             deleteId.setOnAction(this::changeDeletionLabel);
-            deleteId.setVisibleRowCount(5);
         }
         else if (type.equals("update")) {
-            idToUpdateSelectorBox.setItems(ids);
+            utils.configureIdPicker(idToUpdateSelectorBox, tasks, flightService::getIdsByPrefix);
             idToUpdateSelectorBox.setOnAction(this::loadSelectedFlightDetails);
-            idToUpdateSelectorBox.setVisibleRowCount(5);
         }
     }
 
     /**
-     * Loads and displays all flights in the table.
+     * Displays all flights in the table, read page by page while the table is scrolled.
      */
     public void seeAllFlights() {
-        try {
-            List<Flight> flights = flightService.getAllFlights();
-            ObservableList<Flight> flightObservableList = FXCollections.observableArrayList(flights);
-            flightTable.setItems(flightObservableList);
-        } catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-        }
+        showInTable(PageQuery.all());
     }
 
     /**
@@ -192,11 +239,6 @@ public class FlightOperationsController {
                 destinationSearchField.clear();
                 departureSearchField.clear();
                 dateSearchField.setValue(null);
-
-                ids.clear();
-                ids.addAll(flightService.getIds().stream().sorted().toList());
-                idSearchField.setItems(ids);
-                idSearchField.setVisibleRowCount(5);
                 break;
             case "buttonDepartureSearch":
                 dateSearchField.setVisible(false);
@@ -241,45 +283,45 @@ public class FlightOperationsController {
      */
     @FXML
     private void performSearchByCriteria(ActionEvent event) {
-        try {
-            if (dateSearchField.isVisible()) {
-                LocalDate date = dateSearchField.getValue();
-                if (date == null) {
-                    return;
-                }
-                List<Flight> flights = flightService.getFlightByDate(date);
-                flightTable.setItems(FXCollections.observableArrayList(flights));
-            }
-            else if (destinationSearchField.isVisible()) {
-                String destination = destinationSearchField.getText();
-                if (destination.isEmpty()) {
-                    return;
-                }
-                List<Flight> flights = flightService.getFlightByDestination(destination);
-                flightTable.setItems(FXCollections.observableArrayList(flights));
+        if (dateSearchField.isVisible()) {
+            LocalDate date = dateSearchField.getValue();
+            if (date == null) {
+                return;
             }
-            else if (departureSearchField.isVisible()) {
-                String departure = departureSearchField.getText();
-                if (departure.isEmpty()) {
-                    return;
-                }
-                List<Flight> flights = flightService.getFlightByDeparture(departure);
-                flightTable.setItems(FXCollections.observableArrayList(flights));
+            showInTable(PageQuery.all().where("date", date));
+        }
+        else if (destinationSearchField.isVisible()) {
+            String destination = destinationSearchField.getText();
+            if (destination.isEmpty()) {
+                return;
             }
-            else if (idSearchField.isVisible()) {
-                Integer id = idSearchField.getValue();
-                if (id == null) {
-                    return;
-                }
-                Flight flight = flightService.getFlightById(id);
-                flightTable.setItems(FXCollections.observableArrayList(flight));
+            showInTable(PageQuery.all().where("destination", destination));
+        }
+        else if (departureSearchField.isVisible()) {
+            String departure = departureSearchField.getText();
+            if (departure.isEmpty()) {
+                return;
             }
+            showInTable(PageQuery.all().where("departure", departure));
         }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
+        else if (idSearchField.isVisible()) {
+            Integer id = idSearchField.getValue();
+            if (id == null) {
+                return;
+            }
+            showInTable(PageQuery.all().where("id", id));
         }
     }
 
+    /**
+     * Displays the flights matching a query in the table, superseding any previous load.
+     *
+     * @param query the filters of the flights to display
+     */
+    private void showInTable(PageQuery query) {
+        utils.showProgress(flightTable, flights.load(query));
+    }
+
     /**
      * Deletes the selected flight after confirmation.
      *
@@ -296,18 +338,14 @@ public class FlightOperationsController {
 
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Deletion");
-        alert.setHeaderText("You are about to delete reservation with number: " + choice);
-        alert.setContentText("Are you sure you want to continue?");
+        alert.setHeaderText("You are about to cancel flight with number: " + choice);
+        alert.setContentText("Passengers of an upcoming flight will be notified by email.\nAre you sure you want to continue?");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            try {
-                flightService.deleteFlight(choice);
-            }
-            catch (ServiceException e) {
-                utils.showApplicationErrorMessage(e.getMessage());
-            }
-            ids.remove(choice);
-            deleteId.setItems(ids);
+            tasks.run(progress -> flightService.deleteFlight(choice), notification -> {
+                deleteId.getItems().remove(choice);
+                notification.ifPresent(job -> trackNotification(job, choiceLabel));
+            }, e -> utils.showApplicationErrorMessage(e.getMessage()));
         }
         utils.clearForm(deletionPane, "Select number for deletion");
         deleteId = utils.clearComboBox(deletionPane, deleteId);
@@ -354,28 +392,27 @@ public class FlightOperationsController {
             return;
         }
 
-        int id;
-        try {
-            id = flightService.addNewFlight(departure, destination, departureDate, time, durationNum, seatNum);
-        }
-        catch (ValidationException e) {
-            utils.showDataValidationErrorMessage(e.getMessage());
-            addLabel.setText("Type new flight data");
-            addLabel.setTextFill(Color.BLACK);
-            return;
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(addPane, "Type new flight data");
-            return;
-        }
-
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Adding new flight");
-        alert.setHeaderText("Flight with id: " + id  + " has been added successfully");
-        alert.showAndWait();
+        addPane.setDisable(true);
+        tasks.run(progress -> flightService.addNewFlight(departure, destination, departureDate, time, durationNum, seatNum), id -> {
+            addPane.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Adding new flight");
+            alert.setHeaderText("Flight with id: " + id  + " has been added successfully");
+            alert.showAndWait();
 
-        utils.clearForm(addPane, "Type new flight data");
+            utils.clearForm(addPane, "Type new flight data");
+        }, e -> {
+            addPane.setDisable(false);
+            if (e instanceof ValidationException) {
+                utils.showDataValidationErrorMessage(e.getMessage());
+                addLabel.setText("Type new flight data");
+                addLabel.setTextFill(Color.BLACK);
+            }
+            else {
+                utils.showApplicationErrorMessage(e.getMessage());
+                utils.clearForm(addPane, "Type new flight data");
+            }
+        });
     }
 
     /**
@@ -420,28 +457,44 @@ public class FlightOperationsController {
             return;
         }
 
-        try {
-            flightService.updateExistingFlight(id, departure, destination, departureDate, time, durationNum, seatNum);
-        }
-        catch (ValidationException e) {
-            utils.showDataValidationErrorMessage(e.getMessage());
-            updateLabel.setText("Provide updated data (first, on the left, select which to update)");
-            updateLabel.setTextFill(Color.BLACK);
-            return;
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-            return;
-        }
+        updatePane.setDisable(true);
+        tasks.run(progress -> flightService.updateExistingFlight(id, departure, destination, departureDate, time, durationNum, seatNum), notification -> {
+            updatePane.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Updating flight");
+            alert.setHeaderText("Flight with id: " + id  + " has been updated successfully"
+                    + notification.map(job -> "\n" + job.getTotal() + " passengers will be notified about the new departure").orElse(""));
+            alert.showAndWait();
 
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Updating flight");
-        alert.setHeaderText("Flight with id: " + id  + " has been updated successfully");
-        alert.showAndWait();
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+            notification.ifPresent(job -> trackNotification(job, updateLabel));
+        }, e -> {
+            updatePane.setDisable(false);
+            if (e instanceof ValidationException) {
+                utils.showDataValidationErrorMessage(e.getMessage());
+                updateLabel.setText("Provide updated data (first, on the left, select which to update)");
+                updateLabel.setTextFill(Color.BLACK);
+            }
+            else {
+                utils.showApplicationErrorMessage(e.getMessage());
+                utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            }
+        });
+    }
 
-        utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-        idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+    /**
+     * Shows the progress of notifying passengers about a change of their flight in the label, until all emails are sent.
+     *
+     * @param job the queued notification
+     * @param label the label showing the progress
+     */
+    private void trackNotification(NotificationJob job, Label label) {
+        tasks.runLatest("notification", progress -> flightService.awaitNotification(job.getId(), NOTIFICATION_TIMEOUT,
+                report -> Platform.runLater(() -> label.setText(report.toString()))), report -> {
+            label.setText(report.toString());
+            label.setTextFill(report.getFailed() == 0 ? Color.BLACK : Color.RED);
+        }, e -> utils.showApplicationErrorMessage(e.getMessage()));
     }
 
     /**
@@ -451,8 +504,9 @@ public class FlightOperationsController {
      */
     @FXML
     private void goBack(ActionEvent event) {
+        tasks.cancelAll();
         try {
-            utils.loadView("/lot/views/menu/MenuView.fxml", event, "flight");
+            utils.loadView(ViewRegistry.MENU_VIEW, "flight");
         }
         catch (IOException e) {
             utils.showApplicationErrorMessage("Failed to load MenuView. " + e.getMessage());
@@ -467,6 +521,9 @@ public class FlightOperationsController {
     @FXML
     private void changeDeletionLabel(ActionEvent event) {
         Integer choice = deleteId.getValue();
+        if (choice == null) {
+            return;
+        }
         choiceLabel.setText("You chose number: " + choice);
         choiceLabel.setTextFill(Color.BLACK);
     }
@@ -476,21 +533,16 @@ public class FlightOperationsController {
         if (id == null) {
             return;
         }
-        Flight flight;
-        try {
-            flight = flightService.getFlightById(id);
-        }
-        catch (ServiceException e) {
+        tasks.runLatest("details", progress -> flightService.getFlightById(id), flight -> {
+            updateDepartureField.setText(flight.getDeparture());
+            updateDestinationField.setText(flight.getDestination());
+            updateDepartureDateField.setValue(flight.getDepartureDate().toLocalDate());
+            updateTimeField.setText(flight.getDepartureDate().toLocalTime().toString());
+            updateDurationField.setText(Integer.toString(flight.getDuration()));
+            updateSeatRowsAmountField.setText(Integer.toString(flight.getSeatRowsAmount()));
+        }, e -> {
             utils.showApplicationErrorMessage(e.getMessage());
             utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-            return;
-        }
-
-        updateDepartureField.setText(flight.getDeparture());
-        updateDestinationField.setText(flight.getDestination());
-        updateDepartureDateField.setValue(flight.getDepartureDate().toLocalDate());
-        updateTimeField.setText(flight.getDepartureDate().toLocalTime().toString());
-        updateDurationField.setText(Integer.toString(flight.getDuration()));
-        updateSeatRowsAmountField.setText(Integer.toString(flight.getSeatRowsAmount()));
+        });
     }
 }
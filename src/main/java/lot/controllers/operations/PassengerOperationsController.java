@@ -1,28 +1,31 @@
 package lot.controllers.operations;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.event.ActionEvent;
 
-import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Passenger;
 import lot.services.PassengerService;
+import lot.controllers.utils.BackgroundTasks;
+import lot.controllers.utils.CellValues;
 import lot.controllers.utils.ControllerUtils;
+import lot.controllers.utils.PagedItems;
+import lot.controllers.utils.ResettableView;
+import lot.controllers.utils.ViewRegistry;
+import lot.dao.PageQuery;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for handling passenger-related operations in the UI.
  * Manages the display, search, addition, update, and deletion of passengers.
+ * All service calls run in the background, so the UI stays responsive while the database works.
  */
-public class PassengerOperationsController {
+public class PassengerOperationsController implements ResettableView {
     @FXML
     private AnchorPane searchPane;
     @FXML
@@ -78,9 +81,10 @@ public class PassengerOperationsController {
     @FXML
     private ComboBox<Integer> idToUpdateSelectorBox;
 
-    private final ObservableList<Integer> ids = FXCollections.observableArrayList();
     private final PassengerService passengerService;
     private final ControllerUtils utils;
+    private final BackgroundTasks tasks = new BackgroundTasks();
+    private final PagedItems<Passenger> passengers;
 
 
     /**
@@ -92,19 +96,63 @@ public class PassengerOperationsController {
     public PassengerOperationsController(PassengerService passengerService, ControllerUtils utils) {
         this.passengerService = passengerService;
         this.utils = utils;
+        this.passengers = new PagedItems<>(passengerService::countPassengers, passengerService::getPassengersWindow,
+                Passenger::getId, tasks, e -> utils.showApplicationErrorMessage(e.getMessage()));
     }
 
     /**
-     * Initializes the controller and sets up table column bindings.
+     * Initializes the controller, sets up table column bindings and the ID picker of the search view.
      */
     @FXML
     public void initialize() {
+        if (idSearchField != null) {
+            utils.configureIdPicker(idSearchField, tasks, passengerService::getIdsByPrefix);
+        }
+        if (passengerTable != null) {
+            idColumn.setCellValueFactory(CellValues.of(Passenger::getId));
+            nameColumn.setCellValueFactory(CellValues.of(Passenger::getName));
+            surnameColumn.setCellValueFactory(CellValues.of(Passenger::getSurname));
+            emailColumn.setCellValueFactory(CellValues.of(Passenger::getEmail));
+            phoneNumberColumn.setCellValueFactory(CellValues.of(Passenger::getPhoneNumber));
+
+            passengerTable.setItems(passengers);
+            passengers.bindSorting(passengerTable, Map.of(
+                    idColumn, "id",
+                    nameColumn, "name",
+                    surnameColumn, "surname",
+                    emailColumn, "email",
+                    phoneNumberColumn, "phoneNumber"
+            ));
+        }
+    }
+
+    /**
+     * Resets the view before it is shown again: cancels its background tasks and clears its table, forms and ID pickers.
+     */
+    @Override
+    public void resetView() {
+        tasks.cancelAll();
         if (passengerTable != null) {
-            idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-            nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-            surnameColumn.setCellValueFactory(new PropertyValueFactory<>("surname"));
-            emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-            phoneNumberColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
+            passengers.reset();
+            passengerTable.getSortOrder().clear();
+        }
+        if (searchPane != null) {
+            surnameSearchField.setVisible(false);
+            idSearchField.setVisible(false);
+
+            surnameSearchField.clear();
+            idSearchField = utils.clearComboBox(searchPane, idSearchField);
+        }
+        if (addPane != null) {
+            utils.clearForm(addPane, "Type new passenger data");
+        }
+        if (updatePane != null) {
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+        }
+        if (deletionPane != null) {
+            utils.clearForm(deletionPane, "Select number for deletion");
+            deleteId = utils.clearComboBox(deletionPane, deleteId);
         }
     }
 
@@ -114,30 +162,21 @@ public class PassengerOperationsController {
      * @param type the type of operation ("delete" or "update")
      */
     public void configurePassengersIds(String type) {
-        ids.addAll(passengerService.getIds().stream().sorted().toList());
         if (type.equals("delete")) {
-            deleteId.getItems().addAll(ids);
+            utils.configureIdPicker(deleteId, tasks, passengerService::getIdsByPrefix);
             deleteId.setOnAction(this::changeDeletionLabel);
-            deleteId.setVisibleRowCount(5);
         }
         else if (type.equals("update")) {
-            idToUpdateSelectorBox.setItems(ids);
+            utils.configureIdPicker(idToUpdateSelectorBox, tasks, passengerService::getIdsByPrefix);
             idToUpdateSelectorBox.setOnAction(this::loadSelectedPassengerDetails);
-            idToUpdateSelectorBox.setVisibleRowCount(5);
         }
     }
 
     /**
-     * Loads and displays all passengers in the table.
+     * Displays all passengers in the table, read page by page while the table is scrolled.
      */
     public void seeAllPassengers() {
-        try {
-            List<Passenger> passengers = passengerService.getAllPassengers();
-            ObservableList<Passenger> flightObservableList = FXCollections.observableArrayList(passengers);
-            passengerTable.setItems(flightObservableList);
-        } catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-        }
+        showInTable(PageQuery.all());
     }
 
     /**
@@ -155,10 +194,6 @@ public class PassengerOperationsController {
 
                 surnameSearchField.setVisible(false);
                 idSearchField.setVisible(true);
-                ids.clear();
-                ids.addAll(passengerService.getIds().stream().sorted().toList());
-                idSearchField.setItems(ids);
-                idSearchField.setVisibleRowCount(5);
                 break;
             case "buttonSurnameSearch":
                 surnameSearchField.setVisible(true);
@@ -175,29 +210,31 @@ public class PassengerOperationsController {
      */
     @FXML
     private void performSearchByCriteria(ActionEvent event) {
-        try {
-            if (idSearchField.isVisible()) {
-                Integer id = idSearchField.getValue();
-                if (id == null) {
-                    return;
-                }
-                Passenger passenger = passengerService.getPassengerById(id);
-                passengerTable.setItems(FXCollections.observableArrayList(passenger));
-            }
-            else if (surnameSearchField.isVisible()) {
-                String surname = surnameSearchField.getText();
-                if (surname.isEmpty()) {
-                    return;
-                }
-                List<Passenger> passengers = passengerService.getPassengerBySurname(surname);
-                passengerTable.setItems(FXCollections.observableArrayList(passengers));
+        if (idSearchField.isVisible()) {
+            Integer id = idSearchField.getValue();
+            if (id == null) {
+                return;
             }
+            showInTable(PageQuery.all().where("id", id));
         }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
+        else if (surnameSearchField.isVisible()) {
+            String surname = surnameSearchField.getText();
+            if (surname.isEmpty()) {
+                return;
+            }
+            showInTable(PageQuery.all().where("surname", surname));
         }
     }
 
+    /**
+     * Displays the passengers matching a query in the table, superseding any previous load.
+     *
+     * @param query the filters of the passengers to display
+     */
+    private void showInTable(PageQuery query) {
+        utils.showProgress(passengerTable, passengers.load(query));
+    }
+
     /**
      * Deletes the selected passenger after confirmation.
      *
@@ -217,14 +254,10 @@ public class PassengerOperationsController {
         alert.setContentText("Are you sure you want to continue?");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            try {
+            tasks.run(progress -> {
                 passengerService.deletePassenger(choice);
-            }
-            catch (ServiceException e) {
-                utils.showApplicationErrorMessage(e.getMessage());
-            }
-            ids.remove(choice);
-            deleteId.setItems(ids);
+                return choice;
+            }, deleted -> deleteId.getItems().remove(deleted), e -> utils.showApplicationErrorMessage(e.getMessage()));
         }
         utils.clearForm(deletionPane, "Select number for deletion");
         deleteId = utils.clearComboBox(deletionPane, deleteId);
@@ -248,28 +281,27 @@ public class PassengerOperationsController {
             return;
         }
 
-        int id;
-        try {
-            id = passengerService.addNewPassenger(name, surname, email, phoneNumber);
-        }
-        catch (ValidationException e) {
-            utils.showDataValidationErrorMessage(e.getMessage());
-            addLabel.setText("Type new passenger data");
-            addLabel.setTextFill(Color.BLACK);
-            return;
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(addPane, "Type new passenger data");
-            return;
-        }
-
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Adding new passenger");
-        alert.setHeaderText("Passenger with id: " + id  + " has been added successfully");
-        alert.showAndWait();
+        addPane.setDisable(true);
+        tasks.run(progress -> passengerService.addNewPassenger(name, surname, email, phoneNumber), id -> {
+            addPane.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Adding new passenger");
+            alert.setHeaderText("Passenger with id: " + id  + " has been added successfully");
+            alert.showAndWait();
 
-        utils.clearForm(addPane, "Type new passenger data");
+            utils.clearForm(addPane, "Type new passenger data");
+        }, e -> {
+            addPane.setDisable(false);
+            if (e instanceof ValidationException) {
+                utils.showDataValidationErrorMessage(e.getMessage());
+                addLabel.setText("Type new passenger data");
+                addLabel.setTextFill(Color.BLACK);
+            }
+            else {
+                utils.showApplicationErrorMessage(e.getMessage());
+                utils.clearForm(addPane, "Type new passenger data");
+            }
+        });
     }
 
     /**
@@ -291,27 +323,31 @@ public class PassengerOperationsController {
             return;
         }
 
-        try {
+        updatePane.setDisable(true);
+        tasks.run(progress -> {
             passengerService.updateExistingPassenger(id, name, surname, email, phoneNumber);
-        }
-        catch (ValidationException e) {
-            utils.showDataValidationErrorMessage(e.getMessage());
-            updateLabel.setText("Provide updated data (first, on the left, select which to update)");
-            updateLabel.setTextFill(Color.BLACK);
-            return;
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-        }
+            return id;
+        }, updatedId -> {
+            updatePane.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Updating passenger");
+            alert.setHeaderText("Passenger with id: " + updatedId  + " has been updated successfully");
+            alert.showAndWait();
 
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Updating passenger");
-        alert.setHeaderText("Passenger with id: " + id  + " has been updated successfully");
-        alert.showAndWait();
-
-        utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-        idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+        }, e -> {
+            updatePane.setDisable(false);
+            if (e instanceof ValidationException) {
+                utils.showDataValidationErrorMessage(e.getMessage());
+                updateLabel.setText("Provide updated data (first, on the left, select which to update)");
+                updateLabel.setTextFill(Color.BLACK);
+            }
+            else {
+                utils.showApplicationErrorMessage(e.getMessage());
+                utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            }
+        });
     }
 
     /**
@@ -322,6 +358,9 @@ public class PassengerOperationsController {
     @FXML
     private void changeDeletionLabel(ActionEvent event) {
         Integer choice = deleteId.getValue();
+        if (choice == null) {
+            return;
+        }
         choiceLabel.setText("You chose number: " + choice);
     }
 
@@ -332,8 +371,9 @@ public class PassengerOperationsController {
      */
     @FXML
     private void goBack(ActionEvent event) {
+        tasks.cancelAll();
         try {
-            utils.loadView("/lot/views/menu/MenuView.fxml", event, "passenger");
+            utils.loadView(ViewRegistry.MENU_VIEW, "passenger");
         }
         catch (IOException e) {
             utils.showApplicationErrorMessage("Failed to load MenuView. " + e.getMessage());
@@ -345,19 +385,14 @@ public class PassengerOperationsController {
         if (id == null) {
             return;
         }
-        Passenger passenger;
-        try {
-            passenger = passengerService.getPassengerById(id);
-        }
-        catch (ServiceException e) {
+        tasks.runLatest("details", progress -> passengerService.getPassengerById(id), passenger -> {
+            updateNameField.setText(passenger.getName());
+            updateSurnameField.setText(passenger.getSurname());
+            updateEmailField.setText(passenger.getEmail());
+            updatePhoneNumberField.setText(passenger.getPhoneNumber());
+        }, e -> {
             utils.showApplicationErrorMessage(e.getMessage());
             utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-            return;
-        }
-
-        updateNameField.setText(passenger.getName());
-        updateSurnameField.setText(passenger.getSurname());
-        updateEmailField.setText(passenger.getEmail());
-        updatePhoneNumberField.setText(passenger.getPhoneNumber());
+        });
     }
 }
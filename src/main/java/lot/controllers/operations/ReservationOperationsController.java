@@ -4,26 +4,32 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.event.ActionEvent;
 
-import lot.exceptions.services.EmailException;
-import lot.exceptions.services.ServiceException;
+import lot.exceptions.services.ValidationException;
 import lot.models.Reservation;
 import lot.services.ReservationService;
+import lot.controllers.utils.BackgroundTasks;
+import lot.controllers.utils.CellValues;
 import lot.controllers.utils.ControllerUtils;
+import lot.controllers.utils.PagedItems;
+import lot.controllers.utils.ResettableView;
+import lot.controllers.utils.ViewRegistry;
+import lot.dao.PageQuery;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Controller for handling reservation-related operations in the UI.
  * Manages the display, search, addition, update, and deletion of reservations.
+ * All service calls run in the background, so the UI stays responsive while the database works.
  */
-public class ReservationOperationsController {
+public class ReservationOperationsController implements ResettableView {
     @FXML
     private AnchorPane searchPane;
     @FXML
@@ -84,12 +90,11 @@ public class ReservationOperationsController {
     @FXML
     private Label updateLabel;
 
-    private final ObservableList<Integer> reservationIds = FXCollections.observableArrayList();
-    private final ObservableList<Integer> flightIds = FXCollections.observableArrayList();
-    private final ObservableList<Integer> passengerIds = FXCollections.observableArrayList();
     private final ObservableList<String> availableSeatsNumbers = FXCollections.observableArrayList();
     private final ReservationService reservationService;
     private final ControllerUtils utils;
+    private final BackgroundTasks tasks = new BackgroundTasks();
+    private final PagedItems<Reservation> reservations;
 
 
     /**
@@ -101,22 +106,88 @@ public class ReservationOperationsController {
     public ReservationOperationsController(ReservationService reservationService, ControllerUtils utils) {
         this.reservationService = reservationService;
         this.utils = utils;
+        this.reservations = new PagedItems<>(reservationService::countReservations,
+                reservationService::getReservationsWindow, Reservation::getId, tasks,
+                e -> utils.showApplicationErrorMessage(e.getMessage()));
     }
 
     /**
-     * Initializes the controller and sets up table column bindings.
+     * Initializes the controller, sets up table column bindings and the ID pickers of the search view.
      */
     @FXML
     public void initialize() {
+        if (idSearchField != null) {
+            utils.configureIdPicker(idSearchField, tasks, reservationService::getIdsByPrefix);
+            utils.configureIdPicker(flightIdSearchField, tasks, reservationService::getFlightIdsByPrefix);
+            utils.configureIdPicker(passengerIdSearchField, tasks, reservationService::getPassengerIdsByPrefix);
+        }
         if (reservationTable != null) {
-            idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-            flightIdColumn.setCellValueFactory(new PropertyValueFactory<>("flightId"));
-            passengerIdColumn.setCellValueFactory(new PropertyValueFactory<>("passengerId"));
-            passengerNameColumn.setCellValueFactory(new PropertyValueFactory<>("passengerName"));
-            passengerSurnameColumn.setCellValueFactory(new PropertyValueFactory<>("passengerSurname"));
-            seatNumberColumn.setCellValueFactory(new PropertyValueFactory<>("seatNumber"));
-            departureDateColumn.setCellValueFactory(new PropertyValueFactory<>("departureDate"));
-            tookPlaceColumn.setCellValueFactory(new PropertyValueFactory<>("tookPlace"));
+            idColumn.setCellValueFactory(CellValues.of(Reservation::getId));
+            flightIdColumn.setCellValueFactory(CellValues.of(Reservation::getFlightId));
+            passengerIdColumn.setCellValueFactory(CellValues.of(Reservation::getPassengerId));
+            passengerNameColumn.setCellValueFactory(CellValues.of(Reservation::getPassengerName));
+            passengerSurnameColumn.setCellValueFactory(CellValues.of(Reservation::getPassengerSurname));
+            seatNumberColumn.setCellValueFactory(CellValues.of(Reservation::getSeatNumber));
+            departureDateColumn.setCellValueFactory(CellValues.of(Reservation::getDepartureDate));
+            tookPlaceColumn.setCellValueFactory(CellValues.of(Reservation::getTookPlace));
+
+            reservationTable.setItems(reservations);
+            reservations.bindSorting(reservationTable, Map.of(
+                    idColumn, "id",
+                    flightIdColumn, "flightId",
+                    passengerIdColumn, "passengerId",
+                    passengerNameColumn, "passengerName",
+                    passengerSurnameColumn, "passengerSurname",
+                    seatNumberColumn, "seatNumber",
+                    departureDateColumn, "departureDate",
+                    tookPlaceColumn, "tookPlace"
+            ));
+        }
+    }
+
+    /**
+     * Resets the view before it is shown again: cancels its background tasks and clears its table, forms and ID pickers.
+     */
+    @Override
+    public void resetView() {
+        tasks.cancelAll();
+        if (reservationTable != null) {
+            reservations.reset();
+            reservationTable.getSortOrder().clear();
+        }
+        if (searchPane != null) {
+            surnameSearchField.setVisible(false);
+            idSearchField.setVisible(false);
+            flightIdSearchField.setVisible(false);
+            passengerIdSearchField.setVisible(false);
+
+            surnameSearchField.clear();
+            idSearchField = utils.clearComboBox(searchPane, idSearchField);
+            flightIdSearchField = utils.clearComboBox(searchPane, flightIdSearchField);
+            passengerIdSearchField = utils.clearComboBox(searchPane, passengerIdSearchField);
+        }
+        if (addPane != null) {
+            utils.clearForm(addPane, "Type new reservation data");
+            flightIdBox = utils.clearComboBox(addPane, flightIdBox);
+            passengerIdBox = utils.clearComboBox(addPane, passengerIdBox);
+
+            availableSeatsNumbers.clear();
+            seatNumberBox.setItems(availableSeatsNumbers);
+            seatNumberBox = utils.clearComboBox(addPane, seatNumberBox);
+        }
+        if (updatePane != null) {
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+            updateFlightIdBox = utils.clearComboBox(updatePane, updateFlightIdBox);
+            updatePassengerIdBox = utils.clearComboBox(updatePane, updatePassengerIdBox);
+
+            availableSeatsNumbers.clear();
+            updateSeatNumberBox.setItems(availableSeatsNumbers);
+            updateSeatNumberBox = utils.clearComboBox(updatePane, updateSeatNumberBox);
+        }
+        if (deletionPane != null) {
+            utils.clearForm(deletionPane, "Select number for deletion");
+            deleteId = utils.clearComboBox(deletionPane, deleteId);
         }
     }
 
@@ -126,16 +197,13 @@ public class ReservationOperationsController {
      * @param type the type of operation ("delete" or "update")
      */
     public void configureReservationIds(String type) {
-        reservationIds.addAll(reservationService.getIds().stream().sorted().toList());
         if (type.equals("delete")) {
-            deleteId.setItems(reservationIds);
+            utils.configureIdPicker(deleteId, tasks, reservationService::getIdsByPrefix);
             deleteId.setOnAction(this::changeDeletionLabel);
-            deleteId.setVisibleRowCount(5);
         }
         else if (type.equals("update")) {
-            idToUpdateSelectorBox.setItems(reservationIds);
+            utils.configureIdPicker(idToUpdateSelectorBox, tasks, reservationService::getIdsByPrefix);
             idToUpdateSelectorBox.setOnAction(this::loadSelectedReservationDetails);
-            idToUpdateSelectorBox.setVisibleRowCount(5);
         }
     }
 
@@ -145,38 +213,23 @@ public class ReservationOperationsController {
      * @param type the type of operation ("add" or "update")
      */
     public void configureFlightsAndPassengersIds(String type) {
-        flightIds.addAll(reservationService.getFlightIds().stream().sorted().toList());
-        passengerIds.addAll(reservationService.getPassengerIds().stream().sorted().toList());
-
         if (type.equals("add")) {
-            flightIdBox.setItems(flightIds);
+            utils.configureIdPicker(flightIdBox, tasks, reservationService::getFlightIdsByPrefix);
             flightIdBox.setOnAction(this::getAvailableSeats);
-            flightIdBox.setVisibleRowCount(5);
-
-            passengerIdBox.setItems(passengerIds);
-            passengerIdBox.setVisibleRowCount(5);
+            utils.configureIdPicker(passengerIdBox, tasks, reservationService::getPassengerIdsByPrefix);
         }
         else if (type.equals("update")) {
-            updateFlightIdBox.setItems(flightIds);
+            utils.configureIdPicker(updateFlightIdBox, tasks, reservationService::getFlightIdsByPrefix);
             updateFlightIdBox.setOnAction(this::getAvailableSeats);
-            updateFlightIdBox.setVisibleRowCount(5);
-
-            updatePassengerIdBox.setItems(passengerIds);
-            updatePassengerIdBox.setVisibleRowCount(5);
+            utils.configureIdPicker(updatePassengerIdBox, tasks, reservationService::getPassengerIdsByPrefix);
         }
     }
 
     /**
-     * Loads and displays all reservations in the table.
+     * Displays all reservations in the table, read page by page while the table is scrolled.
      */
     public void seeAllReservations() {
-        try {
-            List<Reservation> reservations = reservationService.getAllReservations();
-            ObservableList<Reservation> flightObservableList = FXCollections.observableArrayList(reservations);
-            reservationTable.setItems(flightObservableList);
-        } catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-        }
+        showInTable(PageQuery.all());
     }
 
     /**
@@ -196,10 +249,6 @@ public class ReservationOperationsController {
                 flightIdSearchField.setVisible(false);
                 passengerIdSearchField.setVisible(false);
                 idSearchField.setVisible(true);
-                reservationIds.clear();
-                reservationIds.addAll(reservationService.getIds().stream().sorted().toList());
-                idSearchField.setItems(reservationIds);
-                idSearchField.setVisibleRowCount(5);
                 flightIdSearchField = utils.clearComboBox(searchPane, flightIdSearchField);
                 passengerIdSearchField = utils.clearComboBox(searchPane, passengerIdSearchField);
                 break;
@@ -210,10 +259,6 @@ public class ReservationOperationsController {
                 flightIdSearchField.setVisible(true);
                 passengerIdSearchField.setVisible(false);
                 idSearchField.setVisible(false);
-                flightIds.clear();
-                flightIds.addAll(reservationService.getFlightIds().stream().sorted().toList());
-                flightIdSearchField.setItems(flightIds);
-                flightIdSearchField.setVisibleRowCount(5);
                 idSearchField = utils.clearComboBox(searchPane, idSearchField);
                 passengerIdSearchField = utils.clearComboBox(searchPane, passengerIdSearchField);
                 break;
@@ -224,10 +269,6 @@ public class ReservationOperationsController {
                 flightIdSearchField.setVisible(false);
                 passengerIdSearchField.setVisible(true);
                 idSearchField.setVisible(false);
-                passengerIds.clear();
-                passengerIds.addAll(reservationService.getPassengerIds().stream().sorted().toList());
-                passengerIdSearchField.setItems(passengerIds);
-                passengerIdSearchField.setVisibleRowCount(5);
                 idSearchField = utils.clearComboBox(searchPane, idSearchField);
                 flightIdSearchField = utils.clearComboBox(searchPane, flightIdSearchField);
                 break;
@@ -254,45 +295,45 @@ public class ReservationOperationsController {
      */
     @FXML
     private void performSearchByCriteria(ActionEvent event) {
-        try {
-            if (surnameSearchField.isVisible()) {
-                String surname = surnameSearchField.getText();
-                if (surname.isEmpty()) {
-                    return;
-                }
-                List<Reservation> reservations = reservationService.getReservationBySurname(surname);
-                reservationTable.setItems(FXCollections.observableArrayList(reservations));
-            }
-            else if (flightIdSearchField.isVisible()) {
-                Integer flightId = flightIdSearchField.getValue();
-                if (flightId == null) {
-                    return;
-                }
-                List<Reservation> reservations = reservationService.getReservationsByFlightId(flightId);
-                reservationTable.setItems(FXCollections.observableArrayList(reservations));
+        if (surnameSearchField.isVisible()) {
+            String surname = surnameSearchField.getText();
+            if (surname.isEmpty()) {
+                return;
             }
-            else if (passengerIdSearchField.isVisible()) {
-                Integer passengerId = passengerIdSearchField.getValue();
-                if (passengerId == null) {
-                    return;
-                }
-                List<Reservation> reservations = reservationService.getReservationsByPassengerId(passengerId);
-                reservationTable.setItems(FXCollections.observableArrayList(reservations));
+            showInTable(PageQuery.all().where("surname", surname));
+        }
+        else if (flightIdSearchField.isVisible()) {
+            Integer flightId = flightIdSearchField.getValue();
+            if (flightId == null) {
+                return;
             }
-            else if (idSearchField.isVisible()) {
-                Integer id = idSearchField.getValue();
-                if (id == null) {
-                    return;
-                }
-                Reservation reservation = reservationService.getReservationById(id);
-                reservationTable.setItems(FXCollections.observableArrayList(reservation));
+            showInTable(PageQuery.all().where("flightId", flightId));
+        }
+        else if (passengerIdSearchField.isVisible()) {
+            Integer passengerId = passengerIdSearchField.getValue();
+            if (passengerId == null) {
+                return;
             }
+            showInTable(PageQuery.all().where("passengerId", passengerId));
         }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
+        else if (idSearchField.isVisible()) {
+            Integer id = idSearchField.getValue();
+            if (id == null) {
+                return;
+            }
+            showInTable(PageQuery.all().where("id", id));
         }
     }
 
+    /**
+     * Displays the reservations matching a query in the table, superseding any previous load.
+     *
+     * @param query the filters of the reservations to display
+     */
+    private void showInTable(PageQuery query) {
+        utils.showProgress(reservationTable, reservations.load(query));
+    }
+
     /**
      * Deletes the selected reservation after confirmation.
      *
@@ -312,14 +353,10 @@ public class ReservationOperationsController {
         alert.setContentText("Are you sure you want to continue?");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            try {
+            tasks.run(progress -> {
                 reservationService.deleteReservation(choice);
-            }
-            catch (ServiceException e) {
-                utils.showApplicationErrorMessage(e.getMessage());
-            }
-            reservationIds.remove(choice);
-            deleteId.setItems(reservationIds);
+                return choice;
+            }, deleted -> deleteId.getItems().remove(deleted), e -> utils.showApplicationErrorMessage(e.getMessage()));
         }
         utils.clearForm(deletionPane, "Select number for deletion");
         deleteId = utils.clearComboBox(deletionPane, deleteId);
@@ -336,45 +373,39 @@ public class ReservationOperationsController {
         Integer passengerIdChoice = passengerIdBox.getValue();
         String seatNumber = seatNumberBox.getValue();
 
-        boolean hasBeenSent = true;
-
-        if (flightIdChoice == null || passengerIdChoice == null || seatNumber.isEmpty()) {
+        if (flightIdChoice == null || passengerIdChoice == null || seatNumber == null || seatNumber.isEmpty()) {
             addLabel.setText("You need to provide all information!");
             addLabel.setTextFill(Color.RED);
             return;
         }
 
-        int id;
-        try {
-            id = reservationService.makeNewReservation(flightIdChoice, passengerIdChoice, seatNumber);
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(addPane, "Type new reservation data");
-            return;
-        }
-
-        try {
-            reservationService.sendEmail(id);
-        }
-        catch (EmailException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            hasBeenSent = false;
-        }
-
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Adding new reservation");
-        alert.setHeaderText("Reservation with id: " + id  + " has been added successfully\n"
-                + (hasBeenSent ? "\nConfirmation email has been automatically sent" : ""));
-        alert.showAndWait();
-
-        utils.clearForm(addPane, "Type new reservation data");
-        flightIdBox = utils.clearComboBox(addPane, flightIdBox);
-        passengerIdBox = utils.clearComboBox(addPane, passengerIdBox);
-
-        availableSeatsNumbers.clear();
-        seatNumberBox.setItems(availableSeatsNumbers);
-        seatNumberBox = utils.clearComboBox(addPane, seatNumberBox);
+        addPane.setDisable(true);
+        tasks.run(progress -> reservationService.makeNewReservation(flightIdChoice, passengerIdChoice, seatNumber),
+                id -> sendEmail(id, hasBeenSent -> {
+                    addPane.setDisable(false);
+                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                    alert.setTitle("Adding new reservation");
+                    alert.setHeaderText("Reservation with id: " + id  + " has been added successfully\n"
+                            + (hasBeenSent ? "\nConfirmation email will be sent shortly" : ""));
+                    alert.showAndWait();
+
+                    utils.clearForm(addPane, "Type new reservation data");
+                    flightIdBox = utils.clearComboBox(addPane, flightIdBox);
+                    passengerIdBox = utils.clearComboBox(addPane, passengerIdBox);
+
+                    availableSeatsNumbers.clear();
+                    seatNumberBox.setItems(availableSeatsNumbers);
+                    seatNumberBox = utils.clearComboBox(addPane, seatNumberBox);
+                }), e -> {
+                    addPane.setDisable(false);
+                    if (e instanceof ValidationException) {
+                        utils.showDataValidationErrorMessage(e.getMessage());
+                    }
+                    else {
+                        utils.showApplicationErrorMessage(e.getMessage());
+                        utils.clearForm(addPane, "Type new reservation data");
+                    }
+                });
     }
 
     /**
@@ -389,45 +420,56 @@ public class ReservationOperationsController {
         Integer passengerIdChoice = updatePassengerIdBox.getValue();
         String seatNumber = updateSeatNumberBox.getValue();
 
-        boolean hasBeenSent = true;
-
-        if (reservationIdChoice == null || flightIdChoice == null || passengerIdChoice == null || seatNumber.isEmpty()) {
+        if (reservationIdChoice == null || flightIdChoice == null || passengerIdChoice == null || seatNumber == null || seatNumber.isEmpty()) {
             updateLabel.setText("You need to provide all information!");
             updateLabel.setTextFill(Color.RED);
             return;
         }
 
-        try {
+        updatePane.setDisable(true);
+        tasks.run(progress -> {
             reservationService.updateExistingReservation(reservationIdChoice, flightIdChoice, passengerIdChoice, seatNumber);
-        }
-        catch (ServiceException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-            return;
-        }
+            return reservationIdChoice;
+        }, id -> sendEmail(id, hasBeenSent -> {
+            updatePane.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Updating reservation");
+            alert.setHeaderText("Reservation with id: " + id  + " has been updated successfully"
+                    + (hasBeenSent ? "\nConfirmation email will be sent shortly" : ""));
+            alert.showAndWait();
 
-        try {
-            reservationService.sendEmail(reservationIdChoice);
-        }
-        catch (EmailException e) {
-            utils.showApplicationErrorMessage(e.getMessage());
-            hasBeenSent = false;
-        }
-
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Updating reservation");
-        alert.setHeaderText("Reservation with id: " + reservationIdChoice  + " has been updated successfully"
-                + (hasBeenSent ? "\nConfirmation email has been automatically sent" : ""));
-        alert.showAndWait();
+            utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
+            updateFlightIdBox = utils.clearComboBox(updatePane, updateFlightIdBox);
+            updatePassengerIdBox = utils.clearComboBox(updatePane, updatePassengerIdBox);
 
-        utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-        idToUpdateSelectorBox = utils.clearComboBox(updatePane, idToUpdateSelectorBox);
-        updateFlightIdBox = utils.clearComboBox(updatePane, updateFlightIdBox);
-        updatePassengerIdBox = utils.clearComboBox(updatePane, updatePassengerIdBox);
+            availableSeatsNumbers.clear();
+            updateSeatNumberBox.setItems(availableSeatsNumbers);
+            updateSeatNumberBox = utils.clearComboBox(updatePane, updateSeatNumberBox);
+        }), e -> {
+            updatePane.setDisable(false);
+            if (e instanceof ValidationException) {
+                utils.showDataValidationErrorMessage(e.getMessage());
+            }
+            else {
+                utils.showApplicationErrorMessage(e.getMessage());
+                utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
+            }
+        });
+    }
 
-        availableSeatsNumbers.clear();
-        updateSeatNumberBox.setItems(availableSeatsNumbers);
-        updateSeatNumberBox = utils.clearComboBox(updatePane, updateSeatNumberBox);
+    /**
+     * Queues the confirmation email of a reservation in the background.
+     * A failure to queue the email is shown to the user, but does not undo the reservation.
+     *
+     * @param reservationId the ID of the reservation
+     * @param onFinished the action called with information whether the email has been queued
+     */
+    private void sendEmail(int reservationId, Consumer<Boolean> onFinished) {
+        tasks.run(progress -> reservationService.sendEmail(reservationId), onFinished, e -> {
+            utils.showApplicationErrorMessage(e.getMessage());
+            onFinished.accept(false);
+        });
     }
 
     /**
@@ -438,6 +480,9 @@ public class ReservationOperationsController {
     @FXML
     private void changeDeletionLabel(ActionEvent event) {
         Integer choice = deleteId.getValue();
+        if (choice == null) {
+            return;
+        }
         choiceLabel.setText("You chose number: " + choice);
     }
 
@@ -448,8 +493,9 @@ public class ReservationOperationsController {
      */
     @FXML
     private void goBack(ActionEvent event) {
+        tasks.cancelAll();
         try {
-            utils.loadView("/lot/views/menu/MenuView.fxml", event, "reservation");
+            utils.loadView(ViewRegistry.MENU_VIEW, "reservation");
         }
         catch (IOException e) {
             utils.showApplicationErrorMessage("Failed to load MenuView. " + e.getMessage());
@@ -463,17 +509,19 @@ public class ReservationOperationsController {
             return;
         }
 
-        availableSeatsNumbers.clear();
-        availableSeatsNumbers.addAll(reservationService.getAvailableSeats(choice.getValue()));
+        int flightId = choice.getValue();
+        tasks.runLatest("seats", progress -> reservationService.getAvailableSeats(flightId), seats -> {
+            availableSeatsNumbers.setAll(seats);
 
-        if (seatNumberBox != null) {
-            seatNumberBox.setItems(availableSeatsNumbers);
-            seatNumberBox.setVisibleRowCount(5);
-        }
-        else if (updateSeatNumberBox != null) {
-            updateSeatNumberBox.setItems(availableSeatsNumbers);
-            updateSeatNumberBox.setVisibleRowCount(5);
-        }
+            if (seatNumberBox != null) {
+                seatNumberBox.setItems(availableSeatsNumbers);
+                seatNumberBox.setVisibleRowCount(5);
+            }
+            else if (updateSeatNumberBox != null) {
+                updateSeatNumberBox.setItems(availableSeatsNumbers);
+                updateSeatNumberBox.setVisibleRowCount(5);
+            }
+        }, e -> utils.showApplicationErrorMessage(e.getMessage()));
     }
 
     private void loadSelectedReservationDetails(ActionEvent event) {
@@ -481,19 +529,15 @@ public class ReservationOperationsController {
         if (id == null) {
             return;
         }
-        Reservation reservation;
-        try {
-            reservation = reservationService.getReservationById(id);
-        }
-        catch (ServiceException e) {
+        tasks.runLatest("details", progress -> reservationService.getReservationById(id), reservation -> {
+            this.configureFlightsAndPassengersIds("update");
+
+            updateFlightIdBox.setValue(reservation.getFlightId());
+            updatePassengerIdBox.setValue(reservation.getPassengerId());
+            updateSeatNumberBox.setValue(reservation.getSeatNumber());
+        }, e -> {
             utils.showApplicationErrorMessage(e.getMessage());
             utils.clearForm(updatePane, "Provide updated data (first, on the left, select which to update)");
-            return;
-        }
-        this.configureFlightsAndPassengersIds("update");
-
-        updateFlightIdBox.setValue(reservation.getFlightId());
-        updatePassengerIdBox.setValue(reservation.getPassengerId());
-        updateSeatNumberBox.setValue(reservation.getSeatNumber());
+        });
     }
 }
@@ -0,0 +1,175 @@
+package lot.controllers.utils;
+
+import javafx.concurrent.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs service calls of a controller off the JavaFX Application Thread.
+ * Every call is wrapped in a JavaFX {@link Task} executed on its own virtual thread, and its result or failure
+ * is handed back to the caller on the JavaFX Application Thread. Tasks started with {@link #runLatest}
+ * supersede the previous task started with the same key, so a stale search never overwrites a newer one.
+ * Methods of this class must be called on the JavaFX Application Thread.
+ */
+public class BackgroundTasks {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, Task<?>> latestTasks = new HashMap<>();
+
+    /**
+     * Constructs a new instance with no running tasks.
+     */
+    public BackgroundTasks() {}
+
+    /**
+     * Work done by a background task.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        /**
+         * Performs the work.
+         *
+         * @param progress the progress of the task, used to report progress and check for cancellation
+         * @return the result of the work
+         * @throws Exception if the work fails
+         */
+        T call(Progress progress) throws Exception;
+    }
+
+    /**
+     * Progress of a background task, reported by its work.
+     */
+    public interface Progress {
+        /**
+         * Updates the progress of the task.
+         *
+         * @param done the amount of work done
+         * @param total the total amount of work, or -1 if it is unknown
+         */
+        void update(long done, long total);
+
+        /**
+         * Updates the message describing what the task is doing.
+         *
+         * @param message the message
+         */
+        void message(String message);
+
+        /**
+         * Checks if the task was cancelled.
+         *
+         * @return true if the task was cancelled
+         */
+        boolean isCancelled();
+
+        /**
+         * Stops the work by throwing CancellationException if the task was cancelled.
+         *
+         * @throws CancellationException if the task was cancelled
+         */
+        default void checkCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    /**
+     * Starts a task which is not superseded by other tasks.
+     *
+     * @param <T> the type of the result
+     * @param work the work to do in the background
+     * @param onSuccess the action called with the result on the JavaFX Application Thread
+     * @param onFailure the action called with the failure cause on the JavaFX Application Thread
+     * @return the started task
+     */
+    public <T> Task<T> run(Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        BackgroundTask<T> task = new BackgroundTask<>(work);
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Starts a task and cancels the previous task started with the same key.
+     * The result of a superseded task is never delivered.
+     *
+     * @param <T> the type of the result
+     * @param key the key identifying tasks which supersede each other, e.g. "search"
+     * @param work the work to do in the background
+     * @param onSuccess the action called with the result on the JavaFX Application Thread
+     * @param onFailure the action called with the failure cause on the JavaFX Application Thread
+     * @return the started task
+     */
+    public <T> Task<T> runLatest(String key, Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        cancel(key);
+        BackgroundTask<T> task = new BackgroundTask<>(work);
+        latestTasks.put(key, task);
+        task.setOnSucceeded(e -> {
+            if (latestTasks.remove(key, task)) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            if (latestTasks.remove(key, task)) {
+                onFailure.accept(task.getException());
+            }
+        });
+        task.setOnCancelled(e -> latestTasks.remove(key, task));
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Cancels the latest task started with the given key, if it is still running.
+     * The task is not interrupted, so a database call in progress is allowed to finish,
+     * but its result is discarded and streaming work stops at its next cancellation check.
+     *
+     * @param key the key of the task
+     */
+    public void cancel(String key) {
+        Task<?> task = latestTasks.remove(key);
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Cancels all running tasks started with {@link #runLatest}, e.g. when leaving a view.
+     */
+    public void cancelAll() {
+        latestTasks.values().forEach(task -> task.cancel(false));
+        latestTasks.clear();
+    }
+
+    private static class BackgroundTask<T> extends Task<T> implements Progress {
+        private final Work<T> work;
+
+        BackgroundTask(Work<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            return work.call(this);
+        }
+
+        @Override
+        public void update(long done, long total) {
+            updateProgress(done, total);
+        }
+
+        @Override
+        public void message(String message) {
+            updateMessage(message);
+        }
+    }
+}
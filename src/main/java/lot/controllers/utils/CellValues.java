@@ -0,0 +1,67 @@
+package lot.controllers.utils;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.function.Function;
+
+/**
+ * Cell value factories reading table cells through typed getters of the models.
+ * <p>
+ * Unlike {@link javafx.scene.control.cell.PropertyValueFactory}, which looks the getter up and invokes it
+ * reflectively for every cell, these factories call the getter directly, and wrap its result in a constant
+ * observable value without listener support, as the models are not observable and their values never change
+ * while they are shown.
+ */
+public final class CellValues {
+    private CellValues() {}
+
+    /**
+     * Creates a cell value factory showing the value returned by a getter of the row.
+     * Rows which have not been read yet (see {@link PagedItems}) are shown as empty cells.
+     *
+     * @param getter the getter of the shown value, e.g. {@code Flight::getDeparture}
+     * @param <S> the type of rows
+     * @param <T> the type of the shown value
+     * @return the cell value factory
+     */
+    public static <S, T> Callback<TableColumn.CellDataFeatures<S, T>, ObservableValue<T>> of(Function<S, T> getter) {
+        return features -> {
+            S row = features.getValue();
+            return row == null ? null : new ConstantValue<>(getter.apply(row));
+        };
+    }
+
+    /**
+     * Observable value which never changes, so its listeners are never called and need not be stored.
+     *
+     * @param <T> the type of the value
+     */
+    private static final class ConstantValue<T> implements ObservableValue<T> {
+        private final T value;
+
+        private ConstantValue(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {}
+
+        @Override
+        public void removeListener(InvalidationListener listener) {}
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {}
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {}
+    }
+}
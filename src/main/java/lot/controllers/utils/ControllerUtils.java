@@ -1,16 +1,15 @@
 package lot.controllers.utils;
 
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.stage.Stage;
 import lot.controllers.menu.MenuController;
 
 import java.io.IOException;
@@ -19,32 +18,78 @@ import java.util.List;
 
 /**
  * Utility class providing common controller-related operations for JavaFX applications.
- * Contains methods for view loading, error handling, form clearing, and ComboBox management.
+ * Contains methods for view loading, error handling, form clearing, and ComboBox management, including type-ahead ID pickers.
  */
 public class ControllerUtils {
+    /**
+     * The maximum number of IDs suggested by an ID picker.
+     */
+    public static final int ID_SUGGESTIONS = 20;
+    /**
+     * The time without typing after which an ID picker looks up its suggestions, in milliseconds.
+     */
+    public static final long ID_LOOKUP_DELAY_MS = 250;
+
+    /**
+     * Looks up the IDs suggested by an ID picker.
+     */
+    @FunctionalInterface
+    public interface IdLookup {
+        /**
+         * Finds IDs starting with the typed digits.
+         *
+         * @param prefix the typed digits, possibly empty
+         * @param limit the maximum number of IDs to return
+         * @return the matching IDs
+         */
+        List<Integer> find(String prefix, int limit);
+    }
+
     /**
      * Constructs a new instance of the class with default values.
      */
     public ControllerUtils() {}
 
     /**
-     * Loads a new view from the specified FXML file and replaces the current scene.
+     * Shows the menu view of the given resource type, see {@link ViewRegistry}.
      *
-     * @param viewPath      the path to the FXML file to load
-     * @param event         the ActionEvent that triggered the view change
+     * @param viewPath      the path to the FXML file of the menu view
      * @param resourceType  the type of resource to be set in the MenuController
      * @throws IOException  if the FXML file cannot be loaded
      */
-    public void loadView(String viewPath, ActionEvent event, String resourceType) throws IOException {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource(viewPath));
-        Parent root = loader.load();
-        MenuController controller = loader.getController();
+    public void loadView(String viewPath, String resourceType) throws IOException {
+        MenuController controller = ViewRegistry.getInstance().show(viewPath, "Menu.css");
         controller.setResourceType(resourceType);
-        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        Scene scene = new Scene(root);
-        scene.getStylesheets().add(getClass().getResource("/lot/css/Menu.css").toExternalForm());
-        stage.setScene(scene);
-        stage.show();
+    }
+
+    /**
+     * Shows progress of a background task in place of the table content until the task finishes.
+     * The table is emptied and its placeholder replaced with a progress indicator, the task message
+     * and a button cancelling the task.
+     *
+     * @param table the table which will display the result of the task
+     * @param task  the task loading the table content
+     */
+    public void showProgress(TableView<?> table, Task<?> task) {
+        Node placeholder = table.getPlaceholder();
+
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.progressProperty().bind(task.progressProperty());
+        Label message = new Label();
+        message.textProperty().bind(task.messageProperty());
+        Button cancel = new Button("Cancel");
+        cancel.setOnAction(e -> task.cancel(false));
+
+        VBox progressBox = new VBox(10, indicator, message, cancel);
+        progressBox.setAlignment(Pos.CENTER);
+
+        table.getItems().clear();
+        table.setPlaceholder(progressBox);
+        task.runningProperty().addListener((observable, wasRunning, running) -> {
+            if (!running && table.getPlaceholder() == progressBox) {
+                table.setPlaceholder(placeholder);
+            }
+        });
     }
 
     /**
@@ -97,15 +142,47 @@ public class ControllerUtils {
     }
 
     /**
-     * Recreates a ComboBox with the same properties but cleared state.
-     * Useful for completely resetting a ComboBox while maintaining its visual properties.
+     * Turns a ComboBox into a type-ahead ID picker. Instead of holding every ID, the ComboBox is editable
+     * and suggests at most {@value #ID_SUGGESTIONS} IDs starting with the typed digits. The IDs are looked up
+     * in the background once typing pauses for {@value #ID_LOOKUP_DELAY_MS} ms. A lookup still running
+     * when the text changes again is cancelled at once, and suggestions for any other text than the current one
+     * are dropped, so stale suggestions are never shown.
+     *
+     * @param comboBox the ComboBox to configure
+     * @param tasks    the tasks of the controller, used to look up IDs in the background
+     * @param lookup   the function returning IDs starting with a prefix, e.g. a service call
+     */
+    public void configureIdPicker(ComboBox<Integer> comboBox, BackgroundTasks tasks, IdLookup lookup) {
+        if (!comboBox.isEditable()) {
+            new IdPicker(comboBox, tasks, lookup, e -> showApplicationErrorMessage(e.getMessage()));
+        }
+    }
+
+    /**
+     * Clears a ComboBox. A plain ComboBox is recreated with the same properties but cleared state, which
+     * is useful for completely resetting it while maintaining its visual properties; an ID picker
+     * (see {@link #configureIdPicker}) is kept, only its value and typed text are cleared and its suggestions
+     * are looked up again.
      *
      * @param <T>        the type of elements in the ComboBox
      * @param anchorPane the parent container of the ComboBox
      * @param comboBox   the ComboBox to reset
-     * @return the newly created ComboBox instance
+     * @return the cleared ComboBox, a new instance unless it is editable
      */
     public <T> ComboBox<T> clearComboBox(AnchorPane anchorPane, ComboBox<T> comboBox) {
+        if (comboBox.isEditable()) {
+            EventHandler<ActionEvent> onAction = comboBox.getOnAction();
+            comboBox.setOnAction(null);
+            comboBox.setValue(null);
+            comboBox.getEditor().clear();
+            comboBox.setOnAction(onAction);
+            if (comboBox.getProperties().get(IdPicker.class) instanceof IdPicker picker) {
+                picker.refresh();
+            }
+            return comboBox;
+        }
+
+        String id = comboBox.getId();
         String prompt = comboBox.getPromptText();
         double layoutX = comboBox.getLayoutX();
         double layoutY = comboBox.getLayoutY();
@@ -120,6 +197,7 @@ public class ControllerUtils {
         anchorPane.getChildren().remove(comboBox);
 
         ComboBox<T> newComboBox = new ComboBox<>();
+        newComboBox.setId(id);
         newComboBox.setPromptText(prompt);
         newComboBox.setUserData(userData);
         newComboBox.setLayoutX(layoutX);
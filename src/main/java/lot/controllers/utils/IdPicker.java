@@ -0,0 +1,99 @@
+package lot.controllers.utils;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Type-ahead behaviour of an editable ComboBox of IDs, see {@link ControllerUtils#configureIdPicker}.
+ */
+final class IdPicker {
+    private final ComboBox<Integer> comboBox;
+    private final TextField editor;
+    private final BackgroundTasks tasks;
+    private final ControllerUtils.IdLookup lookup;
+    private final Consumer<Throwable> onFailure;
+    private final String key;
+    private final PauseTransition delay = new PauseTransition(Duration.millis(ControllerUtils.ID_LOOKUP_DELAY_MS));
+
+    private boolean restoringText;
+
+    IdPicker(ComboBox<Integer> comboBox, BackgroundTasks tasks, ControllerUtils.IdLookup lookup,
+             Consumer<Throwable> onFailure) {
+        this.comboBox = comboBox;
+        this.editor = comboBox.getEditor();
+        this.tasks = tasks;
+        this.lookup = lookup;
+        this.onFailure = onFailure;
+        this.key = "ids:" + comboBox.getId();
+
+        comboBox.setEditable(true);
+        comboBox.setVisibleRowCount(5);
+        comboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Integer id) {
+                return id == null ? "" : id.toString();
+            }
+
+            @Override
+            public Integer fromString(String text) {
+                try {
+                    return text == null || text.isBlank() ? null : Integer.valueOf(text.trim());
+                }
+                catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        });
+
+        delay.setOnFinished(event -> lookUp());
+        editor.textProperty().addListener((observable, oldText, newText) -> {
+            if (!restoringText && !newText.trim().equals(oldText.trim())) {
+                // a lookup of the previous text must not show its suggestions while the next one is delayed
+                tasks.cancel(key);
+                delay.playFromStart();
+            }
+        });
+        comboBox.getProperties().put(IdPicker.class, this);
+        lookUp();
+    }
+
+    /**
+     * Looks up the suggestions again at once, e.g. after the picker is cleared.
+     */
+    void refresh() {
+        delay.stop();
+        lookUp();
+    }
+
+    private void lookUp() {
+        String prefix = editor.getText().trim();
+        tasks.runLatest(key, progress -> lookup.find(prefix, ControllerUtils.ID_SUGGESTIONS),
+                ids -> suggest(prefix, ids), onFailure);
+    }
+
+    private void suggest(String prefix, List<Integer> ids) {
+        // replacing the items may reset the editor of an editable ComboBox, so the typed text is restored
+        String text = editor.getText();
+        if (!text.trim().equals(prefix)) {
+            return;
+        }
+        comboBox.getItems().setAll(ids);
+        if (!editor.getText().equals(text)) {
+            restoringText = true;
+            editor.setText(text);
+            editor.positionCaret(text.length());
+            restoringText = false;
+        }
+
+        boolean typed = !text.equals(comboBox.getConverter().toString(comboBox.getValue()));
+        if (typed && editor.isFocused() && !ids.isEmpty()) {
+            comboBox.show();
+        }
+    }
+}
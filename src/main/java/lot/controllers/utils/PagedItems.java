@@ -0,0 +1,343 @@
+package lot.controllers.utils;
+
+import javafx.collections.ObservableListBase;
+import javafx.concurrent.Task;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import lot.dao.PageQuery;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Table items read from the database page by page while the table is scrolled.
+ * <p>
+ * A {@link TableView} only asks for the rows it displays, so only the pages containing them are fetched,
+ * in the background, and until a page arrives its rows are shown empty. At most {@code maxPages} pages are cached,
+ * the least recently used ones are dropped, so memory usage and the time to show the first rows do not depend on
+ * the number of matching rows. Filtering and sorting are done by the database, see {@link PageQuery}.
+ * The first page is shown as soon as it is read, and the table grows to all matching rows when they are counted.
+ * Pages of rows ordered by ID are read after the last ID of the nearest cached page before them, so the database
+ * seeks to them in the ID index instead of skipping all rows before them.
+ * Methods of this class must be called on the JavaFX Application Thread.
+ *
+ * @param <T> the type of rows
+ */
+public class PagedItems<T> extends ObservableListBase<T> {
+    /**
+     * The default number of rows fetched at once.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /**
+     * The default number of pages kept in memory.
+     */
+    public static final int DEFAULT_MAX_PAGES = 20;
+
+    private static final int MAX_PAGES_IN_FLIGHT = 4;
+
+    /**
+     * Reads a window of rows matching a query.
+     *
+     * @param <T> the type of rows
+     */
+    @FunctionalInterface
+    public interface WindowLoader<T> {
+        /**
+         * Reads a window of rows.
+         *
+         * @param query the filters and sort order
+         * @param offset the number of matching rows to skip
+         * @param limit the maximum number of rows to return
+         * @return the rows of the window
+         */
+        List<T> load(PageQuery query, long offset, int limit);
+    }
+
+    private final ToLongFunction<PageQuery> counter;
+    private final WindowLoader<T> loader;
+    private final ToIntFunction<T> idOf;
+    private final BackgroundTasks tasks;
+    private final Consumer<Throwable> onFailure;
+    private final int pageSize;
+    private final int maxPages;
+
+    private final Map<Integer, List<T>> pages;
+    private final Set<Integer> loading = new HashSet<>();
+    private final Deque<Integer> waiting = new ArrayDeque<>();
+
+    private PageQuery query;
+    private List<PageQuery.Sort> sorts = List.of();
+    private int size;
+    private int generation;
+    private boolean failed;
+
+    /**
+     * Constructs empty items with the default page size and number of cached pages.
+     *
+     * @param counter the function counting the rows matching a query
+     * @param loader the function reading a window of the rows matching a query
+     * @param idOf the function returning the ID of a row
+     * @param tasks the tasks of the controller, used to read pages in the background
+     * @param onFailure the action called with the failure cause when rows cannot be read
+     */
+    public PagedItems(ToLongFunction<PageQuery> counter, WindowLoader<T> loader, ToIntFunction<T> idOf,
+                      BackgroundTasks tasks, Consumer<Throwable> onFailure) {
+        this(counter, loader, idOf, tasks, onFailure, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Constructs empty items.
+     *
+     * @param counter the function counting the rows matching a query
+     * @param loader the function reading a window of the rows matching a query
+     * @param idOf the function returning the ID of a row
+     * @param tasks the tasks of the controller, used to read pages in the background
+     * @param onFailure the action called with the failure cause when rows cannot be read
+     * @param pageSize the number of rows fetched at once
+     * @param maxPages the maximum number of pages kept in memory
+     */
+    public PagedItems(ToLongFunction<PageQuery> counter, WindowLoader<T> loader, ToIntFunction<T> idOf,
+                      BackgroundTasks tasks, Consumer<Throwable> onFailure, int pageSize, int maxPages) {
+        this.counter = counter;
+        this.loader = loader;
+        this.idOf = idOf;
+        this.tasks = tasks;
+        this.onFailure = onFailure;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedItems.this.maxPages;
+            }
+        };
+    }
+
+    /**
+     * Replaces the rows with the rows matching a query, sorted by the sort order of the bound table.
+     * The rows are removed at once; the first page is read in the background, superseding a previous load which
+     * has not finished yet, and only after it is shown the matching rows are counted to show the remaining ones.
+     *
+     * @param query the filters of the rows to show
+     * @return the task reading the first page, e.g. to show its progress
+     */
+    public Task<?> load(PageQuery query) {
+        clear();
+        this.query = query.sortedBy(sorts);
+        int loadGeneration = ++generation;
+        loading.clear();
+        waiting.clear();
+        failed = false;
+
+        PageQuery loadQuery = this.query;
+        return tasks.runLatest("table", progress -> loader.load(loadQuery, 0, pageSize), rows -> {
+            if (loadGeneration != generation) {
+                return;
+            }
+            pages.put(0, rows);
+            resize(rows.size());
+            if (rows.size() == pageSize) {
+                count(loadQuery, loadGeneration);
+            }
+        }, onFailure);
+    }
+
+    /**
+     * Removes all rows and forgets the query, so changing the sort order of the table does not read rows
+     * until the next {@link #load}. Reads in progress are ignored when they finish.
+     */
+    public void reset() {
+        generation++;
+        query = null;
+        loading.clear();
+        waiting.clear();
+        failed = false;
+        clear();
+    }
+
+    /**
+     * Makes the bound table sort its rows on the database side: changing the sort order of the table reloads the rows
+     * in the new order. Columns missing in the map cannot be used for sorting.
+     *
+     * @param table the table showing these items
+     * @param properties the model properties of the sortable columns, by column
+     */
+    public void bindSorting(TableView<T> table, Map<TableColumn<T, ?>, String> properties) {
+        properties.keySet().forEach(column -> column.setSortable(true));
+        table.getColumns().stream()
+                .filter(column -> !properties.containsKey(column))
+                .forEach(column -> column.setSortable(false));
+
+        table.setSortPolicy(sortedTable -> {
+            List<PageQuery.Sort> newSorts = new ArrayList<>();
+            for (TableColumn<T, ?> column : sortedTable.getSortOrder()) {
+                String property = properties.get(column);
+                if (property != null) {
+                    newSorts.add(new PageQuery.Sort(property, column.getSortType() == TableColumn.SortType.ASCENDING));
+                }
+            }
+            if (!newSorts.equals(sorts)) {
+                sorts = List.copyOf(newSorts);
+                if (query != null) {
+                    load(query);
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Returns the row at the position, or null if its page has not been read yet.
+     * Reading a missing page is started in the background, and the table is notified when it arrives.
+     *
+     * @param index the position of the row
+     * @return the row, or null if it is not available yet
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return null;
+        }
+        int row = index % pageSize;
+        return row < rows.size() ? rows.get(row) : null;
+    }
+
+    /**
+     * Returns the number of rows matching the query.
+     *
+     * @return the number of rows
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all rows and the cached pages. A load in progress is not cancelled and shows its rows when it finishes.
+     */
+    @Override
+    public void clear() {
+        pages.clear();
+        if (size == 0) {
+            return;
+        }
+        int oldSize = size;
+        size = 0;
+        beginChange();
+        nextRemove(0, Collections.nCopies(oldSize, null));
+        endChange();
+    }
+
+    private void count(PageQuery countQuery, int countGeneration) {
+        tasks.runLatest("count", progress -> counter.applyAsLong(countQuery), count -> {
+            if (countGeneration == generation) {
+                resize((int) Math.min(count, Integer.MAX_VALUE));
+            }
+        }, e -> {
+            if (countGeneration == generation) {
+                onFailure.accept(e);
+            }
+        });
+    }
+
+    private void resize(int newSize) {
+        if (newSize == size) {
+            return;
+        }
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        }
+        else {
+            nextRemove(newSize, Collections.nCopies(oldSize - newSize, null));
+        }
+        endChange();
+    }
+
+    private void request(int page) {
+        if (failed || query == null || loading.contains(page)) {
+            return;
+        }
+        if (loading.size() >= MAX_PAGES_IN_FLIGHT) {
+            // while scrolling fast, only the most recently shown pages are worth reading
+            waiting.remove(page);
+            waiting.addFirst(page);
+            if (waiting.size() > MAX_PAGES_IN_FLIGHT) {
+                waiting.removeLast();
+            }
+            return;
+        }
+
+        loading.add(page);
+        int pageGeneration = generation;
+        PageQuery pageQuery = query;
+        long offset = (long) page * pageSize;
+        if (query.isOrderedById()) {
+            // seek after the last row of the nearest full page before this one, skipping only the pages between them
+            int anchor = -1;
+            T anchorRow = null;
+            for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+                List<T> rows = entry.getValue();
+                if (entry.getKey() < page && entry.getKey() > anchor && rows.size() == pageSize) {
+                    anchor = entry.getKey();
+                    anchorRow = rows.get(pageSize - 1);
+                }
+            }
+            if (anchorRow != null) {
+                pageQuery = query.after(idOf.applyAsInt(anchorRow));
+                offset = (long) (page - anchor - 1) * pageSize;
+            }
+        }
+        PageQuery windowQuery = pageQuery;
+        long windowOffset = offset;
+        tasks.run(progress -> loader.load(windowQuery, windowOffset, pageSize), rows -> {
+            if (pageGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            pages.put(page, rows);
+            int from = page * pageSize;
+            int to = Math.min(size, from + pageSize);
+            if (from < to) {
+                beginChange();
+                nextReplace(from, to, Collections.nCopies(to - from, null));
+                endChange();
+            }
+            requestWaiting();
+        }, e -> {
+            if (pageGeneration != generation) {
+                return;
+            }
+            loading.remove(page);
+            waiting.clear();
+            failed = true;
+            onFailure.accept(e);
+        });
+    }
+
+    private void requestWaiting() {
+        while (!waiting.isEmpty() && loading.size() < MAX_PAGES_IN_FLIGHT) {
+            int page = waiting.removeFirst();
+            if (!pages.containsKey(page)) {
+                request(page);
+            }
+        }
+    }
+}
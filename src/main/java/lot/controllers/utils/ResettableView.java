@@ -0,0 +1,12 @@
+package lot.controllers.utils;
+
+/**
+ * Controller of a view which is loaded once and shown again on later navigations, see {@link ViewRegistry}.
+ */
+public interface ResettableView {
+    /**
+     * Brings the view back to the state it had after loading, e.g. clears forms and tables,
+     * before the view is shown again.
+     */
+    void resetView();
+}
@@ -0,0 +1,162 @@
+package lot.controllers.utils;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.util.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of the views of the application, each loaded from its FXML file only once.
+ * <p>
+ * All views are shown in a single {@link Scene} of the primary stage, and navigating to a view only replaces
+ * the root of the scene, so neither the FXML file nor the stylesheet of the view is parsed again. Controllers
+ * implementing {@link ResettableView} are reset every time their view is shown. Views can be preloaded
+ * while the application is idle, so even the first navigation to them does not wait for loading.
+ * The time of every navigation is logged at debug level. Methods of this class must be called on the
+ * JavaFX Application Thread.
+ */
+public final class ViewRegistry {
+    /**
+     * The path of the main view of the application.
+     */
+    public static final String MAIN_VIEW = "/lot/views/MainApp.fxml";
+    /**
+     * The path of the menu view of flights, passengers and reservations.
+     */
+    public static final String MENU_VIEW = "/lot/views/menu/MenuView.fxml";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ViewRegistry.class);
+    private static final ViewRegistry INSTANCE = new ViewRegistry();
+
+    private record View(Parent root, Object controller) {}
+
+    private record PendingView(String viewPath, String cssName) {}
+
+    private final Map<String, View> views = new HashMap<>();
+    private final Deque<PendingView> pending = new ArrayDeque<>();
+    private Scene scene;
+    private Callback<Class<?>, Object> controllerFactory;
+
+    private ViewRegistry() {}
+
+    /**
+     * Returns the registry of the application.
+     *
+     * @return the registry
+     */
+    public static ViewRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the factory creating the controllers of the views loaded from now on,
+     * e.g. to inject application-scoped services.
+     *
+     * @param controllerFactory the controller factory, or null for the default one
+     */
+    public void setControllerFactory(Callback<Class<?>, Object> controllerFactory) {
+        this.controllerFactory = controllerFactory;
+    }
+
+    /**
+     * Creates the scene showing all views, starting with the given one.
+     *
+     * @param viewPath the path to the FXML file of the first view
+     * @param cssName the name of the stylesheet of the view
+     * @return the scene to set on the primary stage
+     * @throws IOException if the FXML file cannot be loaded
+     */
+    public Scene createScene(String viewPath, String cssName) throws IOException {
+        scene = new Scene(get(viewPath, cssName).root());
+        return scene;
+    }
+
+    /**
+     * Shows a view in the scene, loading it first if it has not been loaded yet.
+     *
+     * @param <T> the type of the controller
+     * @param viewPath the path to the FXML file of the view
+     * @param cssName the name of the stylesheet of the view
+     * @return the controller of the view
+     * @throws IOException if the FXML file cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T show(String viewPath, String cssName) throws IOException {
+        long start = System.nanoTime();
+        boolean cached = views.containsKey(viewPath);
+        View view = get(viewPath, cssName);
+        if (view.controller() instanceof ResettableView controller) {
+            controller.resetView();
+        }
+        scene.setRoot(view.root());
+        LOGGER.debug("Navigated to {} in {} ms ({})", viewPath, (System.nanoTime() - start) / 1_000_000.0,
+                cached ? "cached" : "loaded");
+        return (T) view.controller();
+    }
+
+    /**
+     * Loads a view later, while the application is idle, unless it is loaded before.
+     * Views are preloaded one at a time, so user input is handled between them.
+     * A view which fails to load is skipped, and the failure is shown when the view is opened.
+     *
+     * @param viewPath the path to the FXML file of the view
+     * @param cssName the name of the stylesheet of the view
+     */
+    public void preload(String viewPath, String cssName) {
+        pending.addLast(new PendingView(viewPath, cssName));
+        if (pending.size() == 1) {
+            Platform.runLater(this::preloadNext);
+        }
+    }
+
+    private void preloadNext() {
+        PendingView next = pending.peekFirst();
+        try {
+            get(next.viewPath(), next.cssName());
+        }
+        catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to preload {}", next.viewPath(), e);
+        }
+        // loading a view may queue further views, so the finished one is removed only now
+        pending.removeFirst();
+        if (!pending.isEmpty()) {
+            Platform.runLater(this::preloadNext);
+        }
+    }
+
+    /**
+     * Returns a loaded view, loading it if needed.
+     *
+     * @param viewPath the path to the FXML file of the view
+     * @param cssName the name of the stylesheet of the view
+     * @return the view
+     * @throws IOException if the FXML file cannot be loaded
+     */
+    private View get(String viewPath, String cssName) throws IOException {
+        View view = views.get(viewPath);
+        if (view != null) {
+            return view;
+        }
+
+        long start = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(viewPath));
+        if (controllerFactory != null) {
+            loader.setControllerFactory(controllerFactory);
+        }
+        Parent root = loader.load();
+        root.getStylesheets().add(getClass().getResource("/lot/css/" + cssName).toExternalForm());
+        view = new View(root, loader.getController());
+        views.put(viewPath, view);
+        LOGGER.debug("Loaded {} in {} ms", viewPath, (System.nanoTime() - start) / 1_000_000.0);
+        return view;
+    }
+}
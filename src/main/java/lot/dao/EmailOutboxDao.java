@@ -0,0 +1,240 @@
+package lot.dao;
+
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.OutboxEmail;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the email outbox, a persistent queue of emails sent in the background.
+ * Emails are claimed by senders with a lease: a claimed email is not returned again until the lease expires,
+ * so an email whose sender crashed is picked up again, and several senders never send the same email at once.
+ */
+public class EmailOutboxDao {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * Constructs a new instance of the class with default values.
+     * Initializes all fields to their default initial values.
+     */
+    public EmailOutboxDao() {}
+
+    /**
+     * Adds an email to the outbox, to be sent as soon as possible.
+     *
+     * @param email the email to add
+     * @return the ID of the queued email
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public int enqueue(OutboxEmail email) throws DatabaseActionException {
+        String query =
+                """
+                INSERT INTO email_outbox (recipient, subject, body, nextAttemptAt) VALUES
+                (?, ?, ?, CURRENT_TIMESTAMP)
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+        ) {
+            ps.setString(1, email.getRecipient());
+            ps.setString(2, email.getSubject());
+            ps.setString(3, email.getBody());
+            ps.executeUpdate();
+
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new DatabaseActionException("No generated ID received after queueing new email");
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while queueing email to " + email.getRecipient(), e);
+        }
+    }
+
+    /**
+     * Adds emails of a bulk notification job to the outbox with one batched insert, to be sent as soon as possible.
+     *
+     * @param emails the emails to add
+     * @param jobId the ID of the notification job the emails belong to
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public void enqueueAll(List<OutboxEmail> emails, int jobId) throws DatabaseActionException {
+        String query =
+                """
+                INSERT INTO email_outbox (jobId, recipient, subject, body, nextAttemptAt) VALUES
+                (?, ?, ?, ?, CURRENT_TIMESTAMP)
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            for (OutboxEmail email : emails) {
+                ps.setInt(1, jobId);
+                ps.setString(2, email.getRecipient());
+                ps.setString(3, email.getSubject());
+                ps.setString(4, email.getBody());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while queueing emails of notification job " + jobId, e);
+        }
+    }
+
+    /**
+     * Claims pending emails whose next attempt is due, oldest first, and leases them until the given time.
+     * The emails are selected with row locks and leased in one transaction.
+     *
+     * @param now the current time
+     * @param limit the maximum number of emails to claim
+     * @param leaseUntil the time until which the claimed emails are not returned to other senders
+     * @return the claimed emails, empty if none is due
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public List<OutboxEmail> claimDue(LocalDateTime now, int limit, LocalDateTime leaseUntil) throws DatabaseActionException {
+        String selectQuery =
+                """
+                SELECT id, recipient, subject, body, attempts
+                FROM email_outbox
+                WHERE status = 'PENDING' AND nextAttemptAt <= ?
+                ORDER BY nextAttemptAt
+                FETCH FIRST ? ROWS ONLY
+                FOR UPDATE
+                """;
+        String leaseQuery =
+                """
+                UPDATE email_outbox
+                SET nextAttemptAt = ?
+                WHERE id = ?
+                """;
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.setAutoCommit(false);
+            try (
+                    PreparedStatement select = conn.prepareStatement(selectQuery);
+                    PreparedStatement lease = conn.prepareStatement(leaseQuery)
+            ) {
+                select.setTimestamp(1, Timestamp.valueOf(now));
+                select.setInt(2, limit);
+                List<OutboxEmail> emails = new ArrayList<>();
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        emails.add(new OutboxEmail(rs.getInt("id"), rs.getString("recipient"),
+                                rs.getString("subject"), rs.getString("body"), rs.getInt("attempts")));
+                    }
+                }
+
+                for (OutboxEmail email : emails) {
+                    lease.setTimestamp(1, Timestamp.valueOf(leaseUntil));
+                    lease.setInt(2, email.getId());
+                    lease.addBatch();
+                }
+                if (!emails.isEmpty()) {
+                    lease.executeBatch();
+                }
+                conn.commit();
+                return emails;
+            }
+            catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while claiming emails to send", e);
+        }
+    }
+
+    /**
+     * Marks an email as sent.
+     *
+     * @param id the ID of the email
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public void markSent(int id) throws DatabaseActionException {
+        String query =
+                """
+                UPDATE email_outbox
+                SET status = 'SENT', sentAt = CURRENT_TIMESTAMP, lastError = NULL
+                WHERE id = ?
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setInt(1, id);
+            ps.executeUpdate();
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while marking email " + id + " as sent", e);
+        }
+    }
+
+    /**
+     * Records a failed attempt to send an email.
+     *
+     * @param id the ID of the email
+     * @param nextAttemptAt the time of the next attempt, or null if the email should not be retried
+     * @param error the description of the failure
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public void markFailed(int id, LocalDateTime nextAttemptAt, String error) throws DatabaseActionException {
+        String query =
+                """
+                UPDATE email_outbox
+                SET attempts = attempts + 1, status = ?, nextAttemptAt = COALESCE(?, nextAttemptAt), lastError = ?
+                WHERE id = ?
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setString(1, (nextAttemptAt == null ? OutboxEmail.Status.FAILED : OutboxEmail.Status.PENDING).name());
+            ps.setTimestamp(2, nextAttemptAt == null ? null : Timestamp.valueOf(nextAttemptAt));
+            ps.setString(3, error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH));
+            ps.setInt(4, id);
+            ps.executeUpdate();
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while recording failure of email " + id, e);
+        }
+    }
+
+    /**
+     * Counts emails with the given status.
+     *
+     * @param status the status to count
+     * @return the number of emails with the status
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public int countByStatus(OutboxEmail.Status status) throws DatabaseActionException {
+        String query =
+                """
+                SELECT COUNT(*)
+                FROM email_outbox
+                WHERE status = ?
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setString(1, status.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while counting emails", e);
+        }
+    }
+}
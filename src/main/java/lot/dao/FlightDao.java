@@ -1,19 +1,46 @@
 package lot.dao;
 
 import lot.database.DatabaseInitializer;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
 import lot.models.Flight;
+import lot.dao.cache.EntityCaches;
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.dao.utils.IdPrefixSearch;
+import lot.dao.utils.PageSql;
 import lot.dao.utils.ResultSetMapper;
+import lot.dao.utils.ResultSetStream;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Flight entities, providing database operations.
  */
 public class FlightDao implements GenericDao<Flight> {
+    private static final Map<String, PageSql.Filter> FILTERS = Map.of(
+            "id", PageSql.Filter.equalTo("f.id"),
+            "departure", PageSql.Filter.equalTo("f.departure"),
+            "destination", PageSql.Filter.equalTo("f.destination"),
+            "date", new PageSql.Filter("f.departureDate >= ? AND f.departureDate < ?", value -> {
+                LocalDate date = (LocalDate) value;
+                return List.of(Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+            })
+    );
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "f.id",
+            "departure", "f.departure",
+            "destination", "f.destination",
+            "departureDate", "f.departureDate",
+            "duration", "f.duration",
+            "seatRowsAmount", "f.seatRowsAmount"
+    );
+
     /**
      * Constructs a new instance of the class with default values.
      * Initializes all fields to their default initial values.
@@ -22,9 +49,27 @@ public class FlightDao implements GenericDao<Flight> {
 
     /**
      * {@inheritDoc}
+     * Served from the flights cache, which is invalidated by every update and deletion of the flight.
      */
     @Override
-    public Flight findById(int id) throws DatabaseActionException {
+    public Optional<Flight> findById(int id) throws DatabaseActionException {
+        return EntityCaches.flights().get(id, this::loadById);
+    }
+
+    /**
+     * Retrieves a flight by its ID directly from the database, bypassing the flights cache.
+     * Used for decisions of writes, e.g. which seat rows to add, which must not rely on a cached copy
+     * that another process may have made stale.
+     *
+     * @param id the ID of the flight
+     * @return the flight, or an empty Optional if it does not exist
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public Optional<Flight> findByIdUncached(int id) throws DatabaseActionException {
+        return loadById(id);
+    }
+
+    private Optional<Flight> loadById(int id) throws DatabaseActionException {
         String query =
                 """
                 SELECT *
@@ -37,11 +82,9 @@ public class FlightDao implements GenericDao<Flight> {
                 PreparedStatement ps = conn.prepareStatement(query)
         ) {
             ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            Flight flight = ResultSetMapper.mapFlight(rs);
-            rs.close();
-            return flight;
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(ResultSetMapper.mapFlight(rs)) : Optional.empty();
+            }
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while fetching flight details by id", e);
@@ -120,22 +163,37 @@ public class FlightDao implements GenericDao<Flight> {
      * Finds flights by departure date.
      *
      * @param date the departure date to search for
-     * @return a list of flights matching the departure date
+     * @return a list of flights matching the departure date, ordered by departure date and time
      * @throws DatabaseActionException if a database error occurs
      */
     public List<Flight> findByDate(LocalDate date) throws DatabaseActionException {
+        return findByDateRange(date, date);
+    }
+
+    /**
+     * Finds flights departing between two dates, both inclusive.
+     * The dates are compared as a half-open timestamp range, so the index on departure date can be used.
+     *
+     * @param from the first departure date of the range
+     * @param to the last departure date of the range
+     * @return a list of flights departing within the range, ordered by departure date and time
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public List<Flight> findByDateRange(LocalDate from, LocalDate to) throws DatabaseActionException {
         String query =
                 """
                 SELECT *
                 FROM flights f
-                WHERE CAST(departureDate AS DATE) = ?
+                WHERE f.departureDate >= ? AND f.departureDate < ?
+                ORDER BY f.departureDate, f.id
                 """;
 
         try (
                 Connection conn = DatabaseInitializer.getConnection();
                 PreparedStatement ps = conn.prepareStatement(query)
         ) {
-            ps.setDate(1, Date.valueOf(date));
+            ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
             ResultSet rs = ps.executeQuery();
             List<Flight> flights = new ArrayList<>();
             while (rs.next()) {
@@ -146,7 +204,7 @@ public class FlightDao implements GenericDao<Flight> {
             return flights;
         }
         catch (SQLException e) {
-            throw new DatabaseActionException("Database error while fetching flight details by destination", e);
+            throw new DatabaseActionException("Database error while fetching flight details by date range", e);
         }
     }
 
@@ -183,33 +241,158 @@ public class FlightDao implements GenericDao<Flight> {
      * {@inheritDoc}
      */
     @Override
-    public int save(Flight flight) throws DatabaseActionException {
+    public List<Flight> findPage(int afterId, int pageSize) throws DatabaseActionException {
         String query =
                 """
-                INSERT INTO flights (departure, destination, departureDate, duration, seatRowsAmount) VALUES
-                (?, ?, ?, ?, ?)
+                SELECT *
+                FROM flights f
+                WHERE f.id > ?
+                ORDER BY f.id
+                LIMIT ?
                 """;
+
         try (
                 Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                PreparedStatement ps = conn.prepareStatement(query)
         ) {
-            ps.setString(1, flight.getDeparture());
-            ps.setString(2, flight.getDestination());
-            ps.setTimestamp(3, Timestamp.valueOf(flight.getDepartureDate()));
-            ps.setInt(4, flight.getDuration());
-            ps.setInt(5, flight.getSeatRowsAmount());
+            ps.setInt(1, afterId);
+            ps.setInt(2, pageSize);
+            ResultSet rs = ps.executeQuery();
+            List<Flight> flights = new ArrayList<>();
+            while (rs.next()) {
+                flights.add(ResultSetMapper.mapFlight(rs));
+            }
+            rs.close();
+            return flights;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching page of flights details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Flights can be filtered by "id", "departure", "destination" and "date" (the {@link LocalDate} of departure),
+     * and sorted by any of their properties.
+     */
+    @Override
+    public long count(PageQuery query) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "flights", FILTERS, SORT_COLUMNS, "f.id");
+        String countQuery =
+                """
+                SELECT COUNT(*)
+                FROM flights f
+                """ + sql.where();
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(countQuery)
+        ) {
+            sql.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while counting flights", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Flights can be filtered by "id", "departure", "destination" and "date" (the {@link LocalDate} of departure),
+     * and sorted by any of their properties.
+     */
+    @Override
+    public List<Flight> findWindow(PageQuery query, long offset, int limit) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "flights", FILTERS, SORT_COLUMNS, "f.id");
+        String windowQuery =
+                """
+                SELECT *
+                FROM flights f
+                """ + sql.where() + "\n" + sql.orderBy() + "\nOFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(windowQuery)
+        ) {
+            int index = sql.bind(ps);
+            ps.setLong(index, offset);
+            ps.setInt(index + 1, limit);
+            List<Flight> flights = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    flights.add(ResultSetMapper.mapFlight(rs));
+                }
+            }
+            return flights;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching window of flights details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Flight> streamAll(int fetchSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT *
+                FROM flights f
+                ORDER BY f.id
+                """;
+
+        try {
+            return ResultSetStream.stream(query, fetchSize, ResultSetMapper::mapFlight);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while streaming all flights details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int save(Flight flight) throws DatabaseActionException {
+        String query =
+                """
+                INSERT INTO flights (departure, destination, departureDate, duration, seatRowsAmount) VALUES
+                (?, ?, ?, ?, ?)
+                """;
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, flight.getDeparture());
+                ps.setString(2, flight.getDestination());
+                ps.setTimestamp(3, Timestamp.valueOf(flight.getDepartureDate()));
+                ps.setInt(4, flight.getDuration());
+                ps.setInt(5, flight.getSeatRowsAmount());
 
-            ps.executeUpdate();
-            int newId;
-            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    newId = generatedKeys.getInt(1);
-                } else {
-                    throw new DatabaseActionException("No generated ID received after saving new flight");
+                ps.executeUpdate();
+                int newId;
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        newId = generatedKeys.getInt(1);
+                    } else {
+                        throw new DatabaseActionException("No generated ID received after saving new flight");
+                    }
                 }
+                createSeats(conn, newId, 1, flight.getSeatRowsAmount());
+                conn.commit();
+                UnitOfWork.afterCompletion(() -> SeatAvailabilityCache.getInstance().invalidate(newId));
+                return newId;
+            }
+            catch (SQLException | DatabaseActionException e) {
+                conn.rollback();
+                throw e;
+            }
+            finally {
+                conn.setAutoCommit(true);
             }
-            createSeats(conn, newId, 1, flight.getSeatRowsAmount());
-            return newId;
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while saving new flight", e);
@@ -220,7 +403,7 @@ public class FlightDao implements GenericDao<Flight> {
      * {@inheritDoc}
      */
     @Override
-    public void update(Flight flight) throws DatabaseActionException {
+    public int update(Flight flight) throws DatabaseActionException {
         String query =
                 """
                 UPDATE flights
@@ -238,7 +421,9 @@ public class FlightDao implements GenericDao<Flight> {
             ps.setInt(5, flight.getSeatRowsAmount());
             ps.setInt(6, flight.getId());
 
-            ps.executeUpdate();
+            int updated = ps.executeUpdate();
+            invalidateCached(flight.getId());
+            return updated;
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while updating flight details", e);
@@ -247,32 +432,49 @@ public class FlightDao implements GenericDao<Flight> {
 
     /**
      * Updates a flight and handles seat adjustments.
+     * Flight details and newly added seat rows are written in a single transaction.
      *
      * @param flight the flight to update
      * @param previousSeatRowsAmount the previous number of seat rows
+     * @return the number of updated rows, 0 if the flight does not exist
      * @throws DatabaseActionException if a database error occurs
      */
-    public void update(Flight flight, int previousSeatRowsAmount) throws DatabaseActionException {
+    public int update(Flight flight, int previousSeatRowsAmount) throws DatabaseActionException {
         String query =
                 """
                 UPDATE flights
                 SET departure = ?, destination = ?, departureDate = ?, duration = ?, seatRowsAmount = ?
                 WHERE id = ?
                 """;
-        try (
-                Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query)
-        ) {
-            ps.setString(1, flight.getDeparture());
-            ps.setString(2, flight.getDestination());
-            ps.setTimestamp(3, Timestamp.valueOf(flight.getDepartureDate()));
-            ps.setInt(4, flight.getDuration());
-            ps.setInt(5, flight.getSeatRowsAmount());;
-            ps.setInt(6, flight.getId());
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setString(1, flight.getDeparture());
+                ps.setString(2, flight.getDestination());
+                ps.setTimestamp(3, Timestamp.valueOf(flight.getDepartureDate()));
+                ps.setInt(4, flight.getDuration());
+                ps.setInt(5, flight.getSeatRowsAmount());
+                ps.setInt(6, flight.getId());
 
-            ps.executeUpdate();
+                int updated = ps.executeUpdate();
+                if (updated == 0) {
+                    conn.rollback();
+                    return 0;
+                }
 
-            createSeats(conn, flight.getId(), previousSeatRowsAmount + 1, flight.getSeatRowsAmount());
+                createSeats(conn, flight.getId(), previousSeatRowsAmount + 1, flight.getSeatRowsAmount());
+                conn.commit();
+                invalidateCached(flight.getId());
+                UnitOfWork.afterCompletion(() -> SeatAvailabilityCache.getInstance().invalidate(flight.getId()));
+                return updated;
+            }
+            catch (SQLException | DatabaseActionException e) {
+                conn.rollback();
+                throw e;
+            }
+            finally {
+                conn.setAutoCommit(true);
+            }
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while updating flight details", e);
@@ -283,7 +485,7 @@ public class FlightDao implements GenericDao<Flight> {
      * {@inheritDoc}
      */
     @Override
-    public void delete(int id) throws DatabaseActionException {
+    public int delete(int id) throws DatabaseActionException {
         String query =
                 """
                 DELETE FROM flights
@@ -294,7 +496,11 @@ public class FlightDao implements GenericDao<Flight> {
                 PreparedStatement ps = conn.prepareStatement(query)
         ) {
             ps.setInt(1, id);
-            ps.executeUpdate();
+            // seats are deleted together with the flight, so in STATEMENTS mode its reservations need no seat updates
+            int deleted = ps.executeUpdate();
+            invalidateCached(id);
+            UnitOfWork.afterCompletion(() -> SeatAvailabilityCache.getInstance().invalidate(id));
+            return deleted;
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while deleting flight", e);
@@ -332,6 +538,19 @@ public class FlightDao implements GenericDao<Flight> {
         }
     }
 
+    /**
+     * Checks if a seat of a flight is available.
+     * Uses the seat availability cache, so only the first check for a flight after its seats change queries the database.
+     *
+     * @param flightId the ID of the flight
+     * @param seatNumber the seat number to check
+     * @return true if the seat exists and is available, false otherwise
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public boolean isSeatAvailable(int flightId, String seatNumber) throws DatabaseActionException {
+        return SeatAvailabilityCache.getInstance().isAvailable(flightId, seatNumber, this::getAvailableSeatsNumbers);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -361,6 +580,19 @@ public class FlightDao implements GenericDao<Flight> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> findIdsByPrefix(String prefix, int limit) throws DatabaseActionException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            return IdPrefixSearch.findIds(conn, "flights", prefix, limit);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while searching flight IDs", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -389,6 +621,8 @@ public class FlightDao implements GenericDao<Flight> {
 
     /**
      * Creates seats for a flight.
+     * All seats are sent to the database as a single batch using the provided connection,
+     * so they become part of the caller's transaction.
      *
      * @param conn the database connection
      * @param flightId the ID of the flight
@@ -404,20 +638,30 @@ public class FlightDao implements GenericDao<Flight> {
                 """;
         String[] letters = new String[] {"A", "B", "C", "D", "E", "F"};
 
-        try {
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
             for (int i = initialNumber; i <= seatRowsAmount; i++) {
                 for (int j = 0; j < 6; j++) {
-                    try (PreparedStatement ps = conn.prepareStatement(query)) {
-                        ps.setInt(1, flightId);
-                        ps.setString(2, i + letters[j]);
-                        ps.setBoolean(3, true);
-                        ps.executeUpdate();
-                    }
+                    ps.setInt(1, flightId);
+                    ps.setString(2, i + letters[j]);
+                    ps.setBoolean(3, true);
+                    ps.addBatch();
                 }
             }
+            ps.executeBatch();
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while creating seats", e);
         }
     }
+
+    /**
+     * Drops a cached flight now and once the current unit of work completes,
+     * so neither this transaction nor other connections keep reading a stale copy.
+     *
+     * @param id the ID of the flight
+     */
+    private static void invalidateCached(int id) {
+        EntityCaches.flights().invalidate(id);
+        UnitOfWork.afterCompletion(() -> EntityCaches.flights().invalidate(id));
+    }
 }
@@ -3,6 +3,9 @@ package lot.dao;
 import lot.exceptions.dao.DatabaseActionException;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Generic Data Access Object (DAO) interface that defines common CRUD operations.
@@ -12,12 +15,13 @@ import java.util.List;
 public interface GenericDao<T> {
     /**
      * Retrieves an entity by its ID.
+     * Checking whether the entity exists and loading it is a single query.
      *
      * @param id the ID of the entity to find
-     * @return the found entity
+     * @return the found entity, or an empty Optional if there is no entity with this ID
      * @throws DatabaseActionException if a database error occurs
      */
-    T findById(int id) throws DatabaseActionException;
+    Optional<T> findById(int id) throws DatabaseActionException;
 
     /**
      * Retrieves all entities of type T.
@@ -27,6 +31,67 @@ public interface GenericDao<T> {
      */
     List<T> findAll() throws DatabaseActionException;
 
+    /**
+     * Retrieves a page of entities ordered by ID using keyset pagination.
+     * The next page is fetched by passing the ID of the last entity of the current page.
+     *
+     * @param afterId the ID after which the page starts, 0 for the first page
+     * @param pageSize the maximum number of entities in the page
+     * @return a list of at most pageSize entities with IDs greater than afterId
+     * @throws DatabaseActionException if a database error occurs
+     */
+    List<T> findPage(int afterId, int pageSize) throws DatabaseActionException;
+
+    /**
+     * Counts the entities matching the filters of the query.
+     *
+     * @param query the query whose filters are applied; its sort order is ignored
+     * @return the number of matching entities
+     * @throws DatabaseActionException if a database error occurs or the query uses an unsupported property
+     */
+    long count(PageQuery query) throws DatabaseActionException;
+
+    /**
+     * Retrieves a window of the entities matching the query, in its sort order.
+     * Unlike {@link #findPage}, any window can be fetched directly, e.g. the rows scrolled into view.
+     * The database skips the offset rows one by one, so windows of queries ordered by ID should be read
+     * with {@link PageQuery#after} the last ID of the previous window and a small offset instead.
+     *
+     * @param query the filters and sort order
+     * @param offset the number of matching entities skipped before the window
+     * @param limit the maximum number of entities in the window
+     * @return a list of at most limit entities
+     * @throws DatabaseActionException if a database error occurs or the query uses an unsupported property
+     */
+    List<T> findWindow(PageQuery query, long offset, int limit) throws DatabaseActionException;
+
+    /**
+     * Passes every entity, ordered by ID, to the provided action without loading all of them into memory.
+     * This is the preferred way to read all entities: the database connection is released when it returns.
+     * Must not be called inside a {@link lot.database.UnitOfWork}.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param action the action to perform for each entity
+     * @throws DatabaseActionException if a database error occurs
+     */
+    default void forEach(int fetchSize, Consumer<? super T> action) throws DatabaseActionException {
+        try (Stream<T> stream = streamAll(fetchSize)) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * Streams all entities ordered by ID, mapping rows lazily while the stream is consumed.
+     * Meant only for callers which need to pull the entities themselves, e.g. writers throwing checked exceptions;
+     * prefer {@link #forEach(int, Consumer)}. The stream holds a pooled database connection until it is closed,
+     * so it must be opened in a try-with-resources block. Must not be called inside a {@link lot.database.UnitOfWork}.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @return a stream of all entities, which must be closed after use
+     * @throws DatabaseActionException if a database error occurs
+     */
+    Stream<T> streamAll(int fetchSize) throws DatabaseActionException;
+
     /**
      * Retrieves all entities IDs.
      *
@@ -35,6 +100,16 @@ public interface GenericDao<T> {
      */
     List<Integer> findAllId() throws DatabaseActionException;
 
+    /**
+     * Retrieves the IDs starting with the typed digits, without reading all IDs.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching IDs, shorter ones first and ascending within the same length
+     * @throws DatabaseActionException if a database error occurs
+     */
+    List<Integer> findIdsByPrefix(String prefix, int limit) throws DatabaseActionException;
+
     /**
      * Saves a new entity to the database.
      *
@@ -48,17 +123,19 @@ public interface GenericDao<T> {
      * Updates an existing entity in the database.
      *
      * @param t the entity to update
+     * @return the number of updated rows, 0 if there is no entity with the ID of t
      * @throws DatabaseActionException if a database error occurs
      */
-    void update(T t) throws DatabaseActionException;
+    int update(T t) throws DatabaseActionException;
 
     /**
      * Deletes an entity by its ID.
      *
      * @param id the ID of the entity to delete
+     * @return the number of deleted rows, 0 if there is no entity with this ID
      * @throws DatabaseActionException if a database error occurs
      */
-    void delete(int id) throws DatabaseActionException;
+    int delete(int id) throws DatabaseActionException;
 
     /**
      * Checks if an entity with provided ID exists in the database
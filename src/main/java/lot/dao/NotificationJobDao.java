@@ -0,0 +1,133 @@
+package lot.dao;
+
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.NotificationJob;
+import lot.models.NotificationRecipient;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data Access Object for bulk notifications of the passengers of a flight.
+ * A job records how many emails were queued; its progress is counted from the statuses of its emails in the outbox.
+ */
+public class NotificationJobDao {
+    /**
+     * Constructs a new instance of the class with default values.
+     * Initializes all fields to their default initial values.
+     */
+    public NotificationJobDao() {}
+
+    /**
+     * Finds the passengers holding a reservation on a flight, with one query.
+     *
+     * @param flightId the ID of the flight
+     * @return the passengers to notify, ordered by reservation ID
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public List<NotificationRecipient> findRecipients(int flightId) throws DatabaseActionException {
+        String query =
+                """
+                SELECT r.id, p.name, p.surname, p.email, r.seatNumber
+                FROM reservations r
+                JOIN passengers p ON r.passengerId = p.id
+                WHERE r.flightId = ?
+                ORDER BY r.id
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setInt(1, flightId);
+            List<NotificationRecipient> recipients = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    recipients.add(new NotificationRecipient(rs.getInt("id"), rs.getString("name"),
+                            rs.getString("surname"), rs.getString("email"), rs.getString("seatNumber")));
+                }
+            }
+            return recipients;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching passengers of flight with id: " + flightId, e);
+        }
+    }
+
+    /**
+     * Records a new notification job.
+     *
+     * @param flightId the ID of the flight the passengers are notified about
+     * @param kind the kind of notification
+     * @param total the number of emails queued by the job
+     * @return the ID of the new job
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public int save(int flightId, String kind, int total) throws DatabaseActionException {
+        String query =
+                """
+                INSERT INTO notification_jobs (flightId, kind, total) VALUES
+                (?, ?, ?)
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+        ) {
+            ps.setInt(1, flightId);
+            ps.setString(2, kind);
+            ps.setInt(3, total);
+            ps.executeUpdate();
+
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new DatabaseActionException("No generated ID received after saving new notification job");
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while saving notification job for flight with id: " + flightId, e);
+        }
+    }
+
+    /**
+     * Finds a notification job with the progress of sending its emails.
+     *
+     * @param id the ID of the job
+     * @return the job, or empty if it does not exist
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public Optional<NotificationJob> findById(int id) throws DatabaseActionException {
+        String query =
+                """
+                SELECT j.id, j.flightId, j.kind, j.total, j.createdAt,
+                       COUNT(CASE WHEN o.status = 'SENT' THEN 1 END) AS sent,
+                       COUNT(CASE WHEN o.status = 'FAILED' THEN 1 END) AS failed,
+                       MAX(o.sentAt) AS lastSentAt
+                FROM notification_jobs j
+                LEFT JOIN email_outbox o ON o.jobId = j.id
+                WHERE j.id = ?
+                GROUP BY j.id, j.flightId, j.kind, j.total, j.createdAt
+                """;
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(new NotificationJob(rs.getInt("id"), rs.getInt("flightId"), rs.getString("kind"),
+                        rs.getInt("total"), rs.getInt("sent"), rs.getInt("failed"),
+                        rs.getObject("createdAt", LocalDateTime.class), rs.getObject("lastSentAt", LocalDateTime.class)));
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching notification job with id: " + id, e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package lot.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * Filters and sort order of a paged query, evaluated by the database, optionally starting after a given ID.
+ * Filters and sort keys are model property names, e.g. "departure" or "surname"; every DAO translates them
+ * to its own columns and rejects properties it does not support. Instances are immutable.
+ */
+public final class PageQuery {
+    /**
+     * Sort order by a single property.
+     *
+     * @param property the model property to sort by
+     * @param ascending true for ascending order, false for descending
+     */
+    public record Sort(String property, boolean ascending) {}
+
+    private static final Sort BY_ID = new Sort("id", true);
+    private static final PageQuery ALL = new PageQuery(Map.of(), List.of(), null);
+
+    private final Map<String, Object> filters;
+    private final List<Sort> sorts;
+    private final Integer afterId;
+
+    private PageQuery(Map<String, Object> filters, List<Sort> sorts, Integer afterId) {
+        this.filters = filters;
+        this.sorts = sorts;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Returns a query matching all rows, ordered by ID.
+     *
+     * @return the query without filters and sort order
+     */
+    public static PageQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Returns a copy of this query, which also requires the property to be equal to the value.
+     *
+     * @param property the model property to filter by
+     * @param value the value the property must have; for dates of date-time properties, the day
+     * @return the new query
+     */
+    public PageQuery where(String property, Object value) {
+        Map<String, Object> newFilters = new LinkedHashMap<>(filters);
+        newFilters.put(property, Objects.requireNonNull(value));
+        return new PageQuery(Collections.unmodifiableMap(newFilters), sorts, afterId);
+    }
+
+    /**
+     * Returns a copy of this query with the given sort order. Rows equal on all sort properties are ordered by ID.
+     *
+     * @param sorts the sort order, the most significant property first
+     * @return the new query
+     */
+    public PageQuery sortedBy(List<Sort> sorts) {
+        return new PageQuery(filters, List.copyOf(sorts), afterId);
+    }
+
+    /**
+     * Returns a copy of this query, which only matches rows with IDs greater than the given one.
+     * Reading the next window after the last row of the previous one this way lets the database seek
+     * to the window in the ID index instead of skipping all rows before it. Only queries ordered by ID support it.
+     *
+     * @param id the ID of the last row before the window
+     * @return the new query
+     * @see #isOrderedById()
+     */
+    public PageQuery after(int id) {
+        return new PageQuery(filters, sorts, id);
+    }
+
+    /**
+     * Checks if the rows are ordered by ascending ID, i.e. the query has no sort order or is sorted by ID only.
+     *
+     * @return true if the rows are ordered by ID
+     */
+    public boolean isOrderedById() {
+        return sorts.isEmpty() || sorts.equals(List.of(BY_ID));
+    }
+
+    /**
+     * Returns the filters of the query.
+     *
+     * @return the values the properties must have, by property name
+     */
+    public Map<String, Object> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Returns the sort order of the query.
+     *
+     * @return the sort order, the most significant property first
+     */
+    public List<Sort> getSorts() {
+        return sorts;
+    }
+
+    /**
+     * Returns the ID after which the matching rows start.
+     *
+     * @return the ID given to {@link #after}, or an empty optional if the rows start at the first row
+     */
+    public OptionalInt getAfterId() {
+        return afterId == null ? OptionalInt.empty() : OptionalInt.of(afterId);
+    }
+
+    /**
+     * Compares queries by their filters, sort order and starting ID.
+     *
+     * @param o the object to compare with
+     * @return true if the object is a query with the same filters, sort order and starting ID
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PageQuery other && filters.equals(other.filters) && sorts.equals(other.sorts)
+                && Objects.equals(afterId, other.afterId);
+    }
+
+    /**
+     * Returns a hash code of the filters, sort order and starting ID.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(filters, sorts, afterId);
+    }
+
+    /**
+     * Returns a string representation of the query.
+     *
+     * @return a string containing the filters and sort order
+     */
+    @Override
+    public String toString() {
+        List<String> order = new ArrayList<>();
+        for (Sort sort : sorts) {
+            order.add(sort.property() + (sort.ascending() ? " asc" : " desc"));
+        }
+        return "PageQuery{filters=" + filters + ", sorts=" + order + (afterId == null ? "" : ", afterId=" + afterId) + "}";
+    }
+}
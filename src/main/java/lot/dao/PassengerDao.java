@@ -1,18 +1,40 @@
 package lot.dao;
 
 import lot.database.DatabaseInitializer;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
 import lot.models.Passenger;
+import lot.dao.cache.EntityCaches;
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.dao.utils.IdPrefixSearch;
+import lot.dao.utils.PageSql;
 import lot.dao.utils.ResultSetMapper;
+import lot.dao.utils.ResultSetStream;
+import lot.dao.utils.SeatStatements;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Passenger entities, providing database operations.
  */
 public class PassengerDao implements GenericDao<Passenger> {
+    private static final Map<String, PageSql.Filter> FILTERS = Map.of(
+            "id", PageSql.Filter.equalTo("p.id"),
+            "surname", PageSql.Filter.equalTo("p.surname")
+    );
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "surname", "p.surname",
+            "email", "p.email",
+            "phoneNumber", "p.phoneNumber"
+    );
+
     /**
      * Constructs a new instance of the class with default values.
      * Initializes all fields to their default initial values.
@@ -21,9 +43,14 @@ public class PassengerDao implements GenericDao<Passenger> {
 
     /**
      * {@inheritDoc}
+     * Served from the passengers cache, which is invalidated by every update and deletion of the passenger.
      */
     @Override
-    public Passenger findById(int id) throws DatabaseActionException {
+    public Optional<Passenger> findById(int id) throws DatabaseActionException {
+        return EntityCaches.passengers().get(id, this::loadById);
+    }
+
+    private Optional<Passenger> loadById(int id) throws DatabaseActionException {
         String query =
                 """
                 SELECT *
@@ -36,11 +63,9 @@ public class PassengerDao implements GenericDao<Passenger> {
                 PreparedStatement ps = conn.prepareStatement(query)
         ) {
             ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            Passenger passenger = ResultSetMapper.mapPassenger(rs);
-            rs.close();
-            return passenger;
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(ResultSetMapper.mapPassenger(rs)) : Optional.empty();
+            }
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while fetching passenger details", e);
@@ -110,6 +135,120 @@ public class PassengerDao implements GenericDao<Passenger> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Passenger> findPage(int afterId, int pageSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT *
+                FROM passengers p
+                WHERE p.id > ?
+                ORDER BY p.id
+                LIMIT ?
+                """;
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, pageSize);
+            ResultSet rs = ps.executeQuery();
+            List<Passenger> passengers = new ArrayList<>();
+            while (rs.next()) {
+                passengers.add(ResultSetMapper.mapPassenger(rs));
+            }
+            rs.close();
+            return passengers;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching page of passengers details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Passengers can be filtered by "id" and "surname", and sorted by any of their properties.
+     */
+    @Override
+    public long count(PageQuery query) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "passengers", FILTERS, SORT_COLUMNS, "p.id");
+        String countQuery =
+                """
+                SELECT COUNT(*)
+                FROM passengers p
+                """ + sql.where();
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(countQuery)
+        ) {
+            sql.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while counting passengers", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Passengers can be filtered by "id" and "surname", and sorted by any of their properties.
+     */
+    @Override
+    public List<Passenger> findWindow(PageQuery query, long offset, int limit) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "passengers", FILTERS, SORT_COLUMNS, "p.id");
+        String windowQuery =
+                """
+                SELECT *
+                FROM passengers p
+                """ + sql.where() + "\n" + sql.orderBy() + "\nOFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(windowQuery)
+        ) {
+            int index = sql.bind(ps);
+            ps.setLong(index, offset);
+            ps.setInt(index + 1, limit);
+            List<Passenger> passengers = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    passengers.add(ResultSetMapper.mapPassenger(rs));
+                }
+            }
+            return passengers;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching window of passengers details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Passenger> streamAll(int fetchSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT *
+                FROM passengers p
+                ORDER BY p.id
+                """;
+
+        try {
+            return ResultSetStream.stream(query, fetchSize, ResultSetMapper::mapPassenger);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while streaming all passengers details", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -150,7 +289,7 @@ public class PassengerDao implements GenericDao<Passenger> {
      * {@inheritDoc}
      */
     @Override
-    public void update(Passenger passenger) throws DatabaseActionException {
+    public int update(Passenger passenger) throws DatabaseActionException {
         String query =
                 """
                 UPDATE passengers
@@ -167,7 +306,9 @@ public class PassengerDao implements GenericDao<Passenger> {
             ps.setString(4, passenger.getPhoneNumber());
             ps.setInt(5, passenger.getId());
 
-            ps.executeUpdate();
+            int updated = ps.executeUpdate();
+            invalidateCached(passenger.getId());
+            return updated;
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while updating passenger details", e);
@@ -178,22 +319,28 @@ public class PassengerDao implements GenericDao<Passenger> {
      * {@inheritDoc}
      */
     @Override
-    public void delete(int id) throws DatabaseActionException {
+    public int delete(int id) throws DatabaseActionException {
         String query =
                 """
                 DELETE FROM passengers
                 WHERE id = ?
                 """;
-        try (
-                Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query)
-        ) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
-        }
-        catch (SQLException e) {
-            throw new DatabaseActionException("Database error while deleting passenger details", e);
-        }
+        return UnitOfWork.call(() -> {
+            try (
+                    Connection conn = DatabaseInitializer.getConnection();
+                    PreparedStatement ps = conn.prepareStatement(query)
+            ) {
+                SeatStatements.releasePassenger(conn, id);
+                ps.setInt(1, id);
+                int deleted = ps.executeUpdate();
+                invalidateCached(id);
+                UnitOfWork.afterCompletion(SeatAvailabilityCache.getInstance()::invalidateAll);
+                return deleted;
+            }
+            catch (SQLException e) {
+                throw new DatabaseActionException("Database error while deleting passenger details", e);
+            }
+        });
     }
 
     /**
@@ -225,6 +372,19 @@ public class PassengerDao implements GenericDao<Passenger> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> findIdsByPrefix(String prefix, int limit) throws DatabaseActionException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            return IdPrefixSearch.findIds(conn, "passengers", prefix, limit);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while searching passenger IDs", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -250,4 +410,15 @@ public class PassengerDao implements GenericDao<Passenger> {
             throw new DatabaseActionException("Database error while checking if passenger exists", e);
         }
     }
+
+    /**
+     * Drops a cached passenger now and once the current unit of work completes,
+     * so neither this transaction nor other connections keep reading a stale copy.
+     *
+     * @param id the ID of the passenger
+     */
+    private static void invalidateCached(int id) {
+        EntityCaches.passengers().invalidate(id);
+        UnitOfWork.afterCompletion(() -> EntityCaches.passengers().invalidate(id));
+    }
 }
@@ -1,17 +1,45 @@
 package lot.dao;
 
 import lot.database.DatabaseInitializer;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.ReservationRejectedException;
+import lot.models.ManifestEntry;
 import lot.models.Reservation;
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.dao.utils.IdPrefixSearch;
+import lot.dao.utils.PageSql;
 import lot.dao.utils.ResultSetMapper;
+import lot.dao.utils.ResultSetStream;
+import lot.dao.utils.SeatStatements;
 
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for Reservation entities, providing database operations.
  */
 public class ReservationDao implements GenericDao<Reservation> {
+    private static final Map<String, PageSql.Filter> FILTERS = Map.of(
+            "id", PageSql.Filter.equalTo("r.id"),
+            "flightId", PageSql.Filter.equalTo("r.flightId"),
+            "passengerId", PageSql.Filter.equalTo("r.passengerId"),
+            "surname", PageSql.Filter.equalTo("p.surname")
+    );
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "r.id",
+            "flightId", "r.flightId",
+            "passengerId", "r.passengerId",
+            "passengerName", "p.name",
+            "passengerSurname", "p.surname",
+            "seatNumber", "r.seatNumber",
+            "departureDate", "f.departureDate",
+            "tookPlace", "(f.departureDate <= CURRENT_TIMESTAMP)"
+    );
+
+    private static final String DUPLICATE_KEY_STATE = "23505";
+
     /**
      * Constructs a new instance of the class with default values.
      * Initializes all fields to their default initial values.
@@ -22,10 +50,11 @@ public class ReservationDao implements GenericDao<Reservation> {
      * {@inheritDoc}
      */
     @Override
-    public Reservation findById(int id) throws DatabaseActionException {
+    public Optional<Reservation> findById(int id) throws DatabaseActionException {
         String query =
                 """
-                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
                 FROM reservations r
                 JOIN passengers p ON r.passengerId = p.id
                 JOIN flights f ON r.flightId = f.id
@@ -37,12 +66,9 @@ public class ReservationDao implements GenericDao<Reservation> {
                 PreparedStatement ps = conn.prepareStatement(query)
         ) {
             ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            Reservation reservation = ResultSetMapper.mapReservation(rs);
-            reservation.setTookPlace(this.hasTakenPlace(reservation.getFlightId()));
-            rs.close();
-            return reservation;
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(ResultSetMapper.mapReservation(rs)) : Optional.empty();
+            }
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while fetching reservation details by reservationId", e);
@@ -58,7 +84,8 @@ public class ReservationDao implements GenericDao<Reservation> {
 
         String query =
                 """
-                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
                 FROM reservations r
                 JOIN passengers p ON r.passengerId = p.id
                 JOIN flights f ON r.flightId = f.id
@@ -70,9 +97,7 @@ public class ReservationDao implements GenericDao<Reservation> {
         ) {
             ResultSet rs = statement.executeQuery(query);
             while (rs.next()) {
-                Reservation reservation = ResultSetMapper.mapReservation(rs);
-                reservation.setTookPlace(this.hasTakenPlace(reservation.getFlightId()));
-                reservations.add(reservation);
+                reservations.add(ResultSetMapper.mapReservation(rs));
             }
             rs.close();
             return reservations;
@@ -82,6 +107,171 @@ public class ReservationDao implements GenericDao<Reservation> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Reservation> findPage(int afterId, int pageSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
+                FROM reservations r
+                JOIN passengers p ON r.passengerId = p.id
+                JOIN flights f ON r.flightId = f.id
+                WHERE r.id > ?
+                ORDER BY r.id
+                LIMIT ?
+                """;
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)
+        ) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, pageSize);
+            ResultSet rs = ps.executeQuery();
+            List<Reservation> reservations = new ArrayList<>();
+            while (rs.next()) {
+                reservations.add(ResultSetMapper.mapReservation(rs));
+            }
+            rs.close();
+            return reservations;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching page of reservations details", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Reservations can be filtered by "id", "flightId", "passengerId" and "surname" of the passenger,
+     * and sorted by any of their properties.
+     */
+    @Override
+    public long count(PageQuery query) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "reservations", FILTERS, SORT_COLUMNS, "r.id");
+        String countQuery = "SELECT COUNT(*)\nFROM reservations r\n" + joinsUsedBy(sql) + sql.where();
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(countQuery)
+        ) {
+            sql.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while counting reservations", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Reservations can be filtered by "id", "flightId", "passengerId" and "surname" of the passenger,
+     * and sorted by any of their properties.
+     */
+    @Override
+    public List<Reservation> findWindow(PageQuery query, long offset, int limit) throws DatabaseActionException {
+        PageSql sql = PageSql.of(query, "reservations", FILTERS, SORT_COLUMNS, "r.id");
+        // the IDs of the window are selected first, so the skipped rows are not joined with passengers and flights
+        String windowIds = "SELECT r.id\nFROM reservations r\n" + joinsUsedBy(sql) + sql.where() + "\n"
+                + sql.orderBy() + "\nOFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        String windowQuery =
+                """
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
+                FROM (%s) w
+                JOIN reservations r ON r.id = w.id
+                JOIN passengers p ON r.passengerId = p.id
+                JOIN flights f ON r.flightId = f.id
+                """.formatted(windowIds) + sql.orderBy();
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement(windowQuery)
+        ) {
+            int index = sql.bind(ps);
+            ps.setLong(index, offset);
+            ps.setInt(index + 1, limit);
+            List<Reservation> reservations = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    reservations.add(ResultSetMapper.mapReservation(rs));
+                }
+            }
+            return reservations;
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while fetching window of reservations details", e);
+        }
+    }
+
+    /**
+     * Returns the joins needed by the filters and sort order of a query, so queries which only use
+     * the columns of reservations do not join the other tables.
+     *
+     * @param sql the translated query
+     * @return the JOIN clauses, each ending with a new line
+     */
+    private static String joinsUsedBy(PageSql sql) {
+        return (sql.references("p") ? "JOIN passengers p ON r.passengerId = p.id\n" : "")
+                + (sql.references("f") ? "JOIN flights f ON r.flightId = f.id\n" : "");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Reservation> streamAll(int fetchSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
+                FROM reservations r
+                JOIN passengers p ON r.passengerId = p.id
+                JOIN flights f ON r.flightId = f.id
+                ORDER BY r.id
+                """;
+
+        try {
+            return ResultSetStream.stream(query, fetchSize, ResultSetMapper::mapReservation);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while streaming all reservations details", e);
+        }
+    }
+
+    /**
+     * Streams the manifest of a flight: its reservations ordered by ID, with the passengers' contact data.
+     * The stream holds a pooled database connection until it is closed, so it must be opened
+     * in a try-with-resources block, and must not be opened inside a {@link UnitOfWork}.
+     *
+     * @param flightId the flight ID
+     * @param fetchSize the number of rows fetched from the database at once
+     * @return a stream of manifest entries
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public Stream<ManifestEntry> streamManifest(int flightId, int fetchSize) throws DatabaseActionException {
+        String query =
+                """
+                SELECT r.id, r.seatNumber, r.passengerId, p.name, p.surname, p.email, p.phoneNumber
+                FROM reservations r
+                JOIN passengers p ON r.passengerId = p.id
+                WHERE r.flightId = ?
+                ORDER BY r.id
+                """;
+
+        try {
+            return ResultSetStream.stream(query, fetchSize, ResultSetMapper::mapManifestEntry, flightId);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while streaming manifest of flight with id: " + flightId, e);
+        }
+    }
+
     /**
      * Finds reservations by a foreign key (flight or passenger).
      *
@@ -104,7 +294,8 @@ public class ReservationDao implements GenericDao<Reservation> {
         List<Reservation> reservations = new ArrayList<>();
         String query =
                 """
-                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
                 FROM reservations r
                 JOIN passengers p ON r.passengerId = p.id
                 JOIN flights f ON r.flightId = f.id
@@ -118,9 +309,7 @@ public class ReservationDao implements GenericDao<Reservation> {
             ps.setInt(1, foreignKeyId);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                Reservation reservation = ResultSetMapper.mapReservation(rs);
-                reservation.setTookPlace(this.hasTakenPlace(reservation.getFlightId()));
-                reservations.add(reservation);
+                reservations.add(ResultSetMapper.mapReservation(rs));
             }
             rs.close();
             return reservations;
@@ -141,7 +330,8 @@ public class ReservationDao implements GenericDao<Reservation> {
         List<Reservation> reservations = new ArrayList<>();
         String query =
                 """
-                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate
+                SELECT r.id, r.flightId, r.passengerId, p.name, p.surname, r.seatNumber, f.departureDate,
+                       f.departureDate <= CURRENT_TIMESTAMP AS tookPlace
                 FROM reservations r
                 JOIN passengers p ON r.passengerId = p.id
                 JOIN flights f ON r.flightId = f.id
@@ -154,9 +344,7 @@ public class ReservationDao implements GenericDao<Reservation> {
             ps.setString(1, surname);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                Reservation reservation = ResultSetMapper.mapReservation(rs);
-                reservation.setTookPlace(this.hasTakenPlace(reservation.getFlightId()));
-                reservations.add(reservation);
+                reservations.add(ResultSetMapper.mapReservation(rs));
             }
             rs.close();
             return reservations;
@@ -176,25 +364,124 @@ public class ReservationDao implements GenericDao<Reservation> {
                 INSERT INTO reservations (flightId, passengerId, seatNumber) VALUES
                 (?, ?, ?)
                 """;
-        try (
-                Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
-        ) {
-            ps.setInt(1, reservation.getFlightId());
-            ps.setInt(2, reservation.getPassengerId());
-            ps.setString(3, reservation.getSeatNumber());
-
-            ps.executeUpdate();
-
-            int newId;
-            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    newId = generatedKeys.getInt(1);
-                } else {
-                    throw new DatabaseActionException("No generated ID received after saving new reservation");
+        return UnitOfWork.call(() -> {
+            try (
+                    Connection conn = DatabaseInitializer.getConnection();
+                    PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+            ) {
+                ps.setInt(1, reservation.getFlightId());
+                ps.setInt(2, reservation.getPassengerId());
+                ps.setString(3, reservation.getSeatNumber());
+
+                ps.executeUpdate();
+                SeatStatements.claim(conn, reservation.getFlightId(), reservation.getSeatNumber());
+
+                int newId;
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        newId = generatedKeys.getInt(1);
+                    } else {
+                        throw new DatabaseActionException("No generated ID received after saving new reservation");
+                    }
+                }
+                UnitOfWork.afterCompletion(() -> SeatAvailabilityCache.getInstance().invalidate(reservation.getFlightId()));
+                return newId;
+            }
+            catch (SQLException e) {
+                throw new DatabaseActionException("Database error while saving new reservation", e);
+            }
+        });
+    }
+
+    /**
+     * Saves a new reservation after checking that its flight and passenger exist and its seat is available.
+     * The check, the seat claim and the insert are done in one transaction on a single connection.
+     * The seat is claimed with a conditional update, which locks its row until the transaction ends,
+     * so of concurrent bookings of one seat exactly one succeeds and the others are rejected as taken.
+     *
+     * @param reservation the reservation to save
+     * @return the ID of the newly created reservation
+     * @throws ReservationRejectedException if the flight or passenger does not exist, the seat is not available
+     *         or it was taken by a concurrent reservation
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public int saveValidated(Reservation reservation) throws DatabaseActionException {
+        String validationQuery =
+                """
+                SELECT EXISTS(SELECT 1 FROM flights f WHERE f.id = ?) AS flightExists,
+                       EXISTS(SELECT 1 FROM passengers p WHERE p.id = ?) AS passengerExists,
+                       EXISTS(SELECT 1 FROM seats s WHERE s.flightId = ? AND s.seatNumber = ? AND s.available) AS seatAvailable
+                """;
+        String claimQuery =
+                """
+                UPDATE seats
+                SET available = false
+                WHERE flightId = ? AND seatNumber = ? AND available = true
+                """;
+        String insertQuery =
+                """
+                INSERT INTO reservations (flightId, passengerId, seatNumber) VALUES
+                (?, ?, ?)
+                """;
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.setAutoCommit(false);
+            try (
+                    PreparedStatement validation = conn.prepareStatement(validationQuery);
+                    PreparedStatement claim = conn.prepareStatement(claimQuery);
+                    PreparedStatement insert = conn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)
+            ) {
+                validation.setInt(1, reservation.getFlightId());
+                validation.setInt(2, reservation.getPassengerId());
+                validation.setInt(3, reservation.getFlightId());
+                validation.setString(4, reservation.getSeatNumber());
+
+                try (ResultSet rs = validation.executeQuery()) {
+                    rs.next();
+                    if (!rs.getBoolean("flightExists")) {
+                        throw new ReservationRejectedException(ReservationRejectedException.Reason.FLIGHT_NOT_FOUND);
+                    }
+                    if (!rs.getBoolean("passengerExists")) {
+                        throw new ReservationRejectedException(ReservationRejectedException.Reason.PASSENGER_NOT_FOUND);
+                    }
+                    if (!rs.getBoolean("seatAvailable")) {
+                        throw new ReservationRejectedException(ReservationRejectedException.Reason.SEAT_NOT_AVAILABLE);
+                    }
+                }
+
+                claim.setInt(1, reservation.getFlightId());
+                claim.setString(2, reservation.getSeatNumber());
+                if (claim.executeUpdate() == 0) {
+                    throw new ReservationRejectedException(ReservationRejectedException.Reason.SEAT_TAKEN);
+                }
+
+                insert.setInt(1, reservation.getFlightId());
+                insert.setInt(2, reservation.getPassengerId());
+                insert.setString(3, reservation.getSeatNumber());
+                insert.executeUpdate();
+
+                int newId;
+                try (ResultSet generatedKeys = insert.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        newId = generatedKeys.getInt(1);
+                    } else {
+                        throw new DatabaseActionException("No generated ID received after saving new reservation");
+                    }
+                }
+                conn.commit();
+                UnitOfWork.afterCompletion(() -> SeatAvailabilityCache.getInstance().invalidate(reservation.getFlightId()));
+                return newId;
+            }
+            catch (SQLException | DatabaseActionException e) {
+                conn.rollback();
+                if (e instanceof SQLException sqlException && DUPLICATE_KEY_STATE.equals(sqlException.getSQLState())) {
+                    throw new ReservationRejectedException(ReservationRejectedException.Reason.SEAT_TAKEN);
                 }
+                throw e;
+            }
+            finally {
+                conn.setAutoCommit(true);
             }
-            return newId;
         }
         catch (SQLException e) {
             throw new DatabaseActionException("Database error while saving new reservation", e);
@@ -205,49 +492,62 @@ public class ReservationDao implements GenericDao<Reservation> {
      * {@inheritDoc}
      */
     @Override
-    public void update(Reservation reservation) throws DatabaseActionException {
+    public int update(Reservation reservation) throws DatabaseActionException {
         String query =
                 """
                 UPDATE reservations
                 SET flightId = ?, passengerId = ?, seatNumber = ?
                 WHERE id = ?
                 """;
-        try (
-                Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query)
-        ) {
-            ps.setInt(1, reservation.getFlightId());
-            ps.setInt(2, reservation.getPassengerId());
-            ps.setString(3, reservation.getSeatNumber());
-            ps.setInt(4, reservation.getId());
+        return UnitOfWork.call(() -> {
+            try (
+                    Connection conn = DatabaseInitializer.getConnection();
+                    PreparedStatement ps = conn.prepareStatement(query)
+            ) {
+                SeatStatements.releaseReservation(conn, reservation.getId());
+                ps.setInt(1, reservation.getFlightId());
+                ps.setInt(2, reservation.getPassengerId());
+                ps.setString(3, reservation.getSeatNumber());
+                ps.setInt(4, reservation.getId());
 
-            ps.executeUpdate();
-        }
-        catch (SQLException e) {
-            throw new DatabaseActionException("Database error while updating reservation details", e);
-        }
+                int updated = ps.executeUpdate();
+                if (updated > 0) {
+                    SeatStatements.claim(conn, reservation.getFlightId(), reservation.getSeatNumber());
+                }
+                UnitOfWork.afterCompletion(SeatAvailabilityCache.getInstance()::invalidateAll);
+                return updated;
+            }
+            catch (SQLException e) {
+                throw new DatabaseActionException("Database error while updating reservation details", e);
+            }
+        });
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void delete(int id) throws DatabaseActionException {
+    public int delete(int id) throws DatabaseActionException {
         String query =
                 """
                 DELETE FROM reservations
                 WHERE id = ?
                 """;
-        try (
-                Connection conn = DatabaseInitializer.getConnection();
-                PreparedStatement ps = conn.prepareStatement(query)
-        ) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
-        }
-        catch (SQLException e) {
-            throw new DatabaseActionException("Database error while deleting reservation details", e);
-        }
+        return UnitOfWork.call(() -> {
+            try (
+                    Connection conn = DatabaseInitializer.getConnection();
+                    PreparedStatement ps = conn.prepareStatement(query)
+            ) {
+                SeatStatements.releaseReservation(conn, id);
+                ps.setInt(1, id);
+                int deleted = ps.executeUpdate();
+                UnitOfWork.afterCompletion(SeatAvailabilityCache.getInstance()::invalidateAll);
+                return deleted;
+            }
+            catch (SQLException e) {
+                throw new DatabaseActionException("Database error while deleting reservation details", e);
+            }
+        });
     }
 
     /**
@@ -308,6 +608,19 @@ public class ReservationDao implements GenericDao<Reservation> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Integer> findIdsByPrefix(String prefix, int limit) throws DatabaseActionException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            return IdPrefixSearch.findIds(conn, "reservations", prefix, limit);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while searching reservation IDs", e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,96 @@
+package lot.dao.cache;
+
+/**
+ * Snapshot of the statistics of an {@link EntityCache}.
+ */
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Constructs a snapshot of cache statistics.
+     *
+     * @param name the name of the cache
+     * @param size the number of cached entities
+     * @param hits the number of requests served from the cache
+     * @param misses the number of requests which loaded the entity from the database
+     * @param evictions the number of entities dropped because the cache was full or they expired
+     */
+    public CacheStats(String name, int size, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the name of the cache.
+     *
+     * @return the cache name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of cached entities.
+     *
+     * @return the cache size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of requests served from the cache.
+     *
+     * @return the hits count
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests which loaded the entity from the database.
+     *
+     * @return the misses count
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entities dropped because the cache was full or they expired.
+     * Invalidated entities are not counted.
+     *
+     * @return the evictions count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the fraction of requests served from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if there were no requests
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Returns a one-line summary of the statistics, suitable for logging.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d hits=%d misses=%d evictions=%d hitRate=%.2f",
+                name, size, hits, misses, evictions, getHitRate());
+    }
+}
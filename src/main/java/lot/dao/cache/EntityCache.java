@@ -0,0 +1,191 @@
+package lot.dao.cache;
+
+import lot.exceptions.dao.DatabaseActionException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded cache of entities loaded by their ID.
+ * Holds at most {@code maximumSize} entries, evicting the least recently used one when full,
+ * and drops entries older than {@code timeToLive}, so rows changed outside the application are eventually reloaded.
+ * Entities are mutable, so the cache stores and returns copies; a caller modifying a returned entity never changes
+ * the cached one. Hits, misses and evictions are counted and exposed with {@link #getStats()}.
+ *
+ * @param <T> the type of cached entities
+ */
+public class EntityCache<T> {
+    private final String name;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final UnaryOperator<T> copier;
+    private final LongSupplier ticker;
+    private final Map<Integer, Entry<T>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile boolean enabled = true;
+    private long generation;
+
+    /**
+     * Loads an entity from the database.
+     *
+     * @param <T> the type of the entity
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * Loads the entity.
+         *
+         * @param id the ID of the entity
+         * @return the loaded entity, or an empty Optional if it does not exist
+         * @throws DatabaseActionException if a database error occurs
+         */
+        Optional<T> load(int id) throws DatabaseActionException;
+    }
+
+    private record Entry<T>(T value, long expiresAt) {}
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param name the name of the cache, used in its statistics
+     * @param maximumSize the maximum number of cached entities
+     * @param timeToLive how long an entity stays cached after it is loaded
+     * @param copier function creating an independent copy of an entity
+     */
+    public EntityCache(String name, int maximumSize, Duration timeToLive, UnaryOperator<T> copier) {
+        this(name, maximumSize, timeToLive, copier, System::nanoTime);
+    }
+
+    /**
+     * Constructs an empty cache measuring time with the provided ticker.
+     *
+     * @param name the name of the cache, used in its statistics
+     * @param maximumSize the maximum number of cached entities
+     * @param timeToLive how long an entity stays cached after it is loaded
+     * @param copier function creating an independent copy of an entity
+     * @param ticker the source of the current time in nanoseconds
+     */
+    EntityCache(String name, int maximumSize, Duration timeToLive, UnaryOperator<T> copier, LongSupplier ticker) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size of cache " + name + " must be positive, but was: " + maximumSize);
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.copier = copier;
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                if (size() > EntityCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the entity with the given ID, loading it with the provided loader if it is not cached or has expired.
+     * The database is queried without holding the cache lock, and a loaded entity is not cached
+     * if the cache was invalidated in the meantime, so a stale entity is never left behind.
+     * Missing entities are not cached, and a disabled cache loads the entity on every call.
+     *
+     * @param id the ID of the entity
+     * @param loader the loader used when the entity is not cached
+     * @return a copy of the entity, or an empty Optional if it does not exist
+     * @throws DatabaseActionException if loading the entity fails
+     */
+    public Optional<T> get(int id, Loader<T> loader) throws DatabaseActionException {
+        if (!enabled) {
+            misses.increment();
+            return loader.load(id);
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (entry.expiresAt() - ticker.getAsLong() > 0) {
+                    hits.increment();
+                    return Optional.of(copier.apply(entry.value()));
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        Optional<T> loaded = loader.load(id);
+        if (loaded.isPresent()) {
+            synchronized (this) {
+                if (loadGeneration == generation && enabled) {
+                    entries.put(id, new Entry<>(copier.apply(loaded.get()), ticker.getAsLong() + timeToLiveNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Enables or disables the cache. Disabling the cache drops all cached entities.
+     *
+     * @param enabled whether entities are cached
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        invalidateAll();
+    }
+
+    /**
+     * Drops the cached entity with the given ID.
+     *
+     * @param id the ID of the entity
+     */
+    public synchronized void invalidate(int id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    /**
+     * Drops all cached entities.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Drops all expired entities, counting them as evictions.
+     * Expired entities are otherwise dropped only when they are requested again.
+     */
+    public synchronized void cleanUp() {
+        long now = ticker.getAsLong();
+        Iterator<Entry<T>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() - now <= 0) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the cache statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,60 @@
+package lot.dao.cache;
+
+import lot.models.Flight;
+import lot.models.Passenger;
+
+import java.time.Duration;
+
+/**
+ * Application-wide caches of entities read by their ID.
+ * Flights and passengers change rarely compared with how often they are read, e.g. by every update form
+ * and confirmation email, so they are kept in bounded caches invalidated by DAO writes.
+ */
+public final class EntityCaches {
+    private static final int MAXIMUM_SIZE = 10_000;
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private static final EntityCache<Flight> FLIGHTS = new EntityCache<>("flights", MAXIMUM_SIZE, TIME_TO_LIVE,
+            f -> new Flight(f.getId(), f.getDeparture(), f.getDestination(), f.getDepartureDate(), f.getDuration(), f.getSeatRowsAmount()));
+    private static final EntityCache<Passenger> PASSENGERS = new EntityCache<>("passengers", MAXIMUM_SIZE, TIME_TO_LIVE,
+            p -> new Passenger(p.getId(), p.getName(), p.getSurname(), p.getEmail(), p.getPhoneNumber()));
+
+    private EntityCaches() {}
+
+    /**
+     * Returns the cache of flights.
+     *
+     * @return the flights cache
+     */
+    public static EntityCache<Flight> flights() {
+        return FLIGHTS;
+    }
+
+    /**
+     * Returns the cache of passengers.
+     *
+     * @return the passengers cache
+     */
+    public static EntityCache<Passenger> passengers() {
+        return PASSENGERS;
+    }
+
+    /**
+     * Enables or disables all entity caches, e.g. disables them when other processes may change the database,
+     * whose changes would not invalidate them.
+     *
+     * @param enabled whether entities are cached
+     */
+    public static void setEnabled(boolean enabled) {
+        FLIGHTS.setEnabled(enabled);
+        PASSENGERS.setEnabled(enabled);
+    }
+
+    /**
+     * Drops all cached entities, e.g. when the database changes.
+     */
+    public static void invalidateAll() {
+        FLIGHTS.invalidateAll();
+        PASSENGERS.invalidateAll();
+    }
+}
@@ -0,0 +1,188 @@
+package lot.dao.cache;
+
+import lot.exceptions.dao.DatabaseActionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Application-wide cache of seat availability, holding one bitset per flight.
+ * A seat is identified by its row and letter, so checking whether a seat is free is a single bit lookup
+ * without any allocation. Bitsets are loaded on first use and dropped whenever the seats of a flight may
+ * have changed, so the next check reloads them from the database.
+ * <p>
+ * Bitsets are loaded without holding any lock, and a loaded bitset is not cached if the cache was invalidated
+ * in the meantime. Cached bitsets also expire after {@code timeToLive}, which bounds how long changes that are
+ * not invalidated here stay unnoticed, e.g. changes committed after the reservation triggers invalidated the cache.
+ * Invalidation only reaches the cache of this process, so the cache must be disabled with
+ * {@link #setEnabled(boolean)} when other processes may write to the same database.
+ */
+public class SeatAvailabilityCache {
+    private static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+    private static final SeatAvailabilityCache INSTANCE = new SeatAvailabilityCache(TIME_TO_LIVE, System::nanoTime);
+    private static final int SEATS_IN_ROW = 6;
+    private static final int MAX_ROW = 999;
+
+    private final ConcurrentMap<Integer, Entry> availableSeats = new ConcurrentHashMap<>();
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private volatile boolean enabled = true;
+    private long generation;
+
+    /**
+     * Loads numbers of available seats of a flight from the database.
+     */
+    @FunctionalInterface
+    public interface AvailableSeatsLoader {
+        /**
+         * Loads available seat numbers.
+         *
+         * @param flightId the ID of the flight
+         * @return a list of available seat numbers
+         * @throws DatabaseActionException if a database error occurs
+         */
+        List<String> load(int flightId) throws DatabaseActionException;
+    }
+
+    private record Entry(long[] bits, long expiresAt) {}
+
+    /**
+     * Constructs an empty cache measuring time with the provided ticker.
+     *
+     * @param timeToLive how long the seats of a flight stay cached after they are loaded
+     * @param ticker the source of the current time in nanoseconds
+     */
+    SeatAvailabilityCache(Duration timeToLive, LongSupplier ticker) {
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns the application-wide cache instance.
+     *
+     * @return the seat availability cache
+     */
+    public static SeatAvailabilityCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enables or disables the cache. A disabled cache loads the seats of a flight on every check.
+     * Disabling the cache drops all cached seats.
+     *
+     * @param enabled whether seats are cached
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        invalidateAll();
+    }
+
+    /**
+     * Checks if a seat is available, loading the flight's bitset with the provided loader if it is not cached
+     * or has expired.
+     *
+     * @param flightId the ID of the flight
+     * @param seatNumber the seat number, e.g. "12C"
+     * @param loader the loader used when the flight's seats are not cached yet
+     * @return true if the seat exists and is available, false otherwise
+     * @throws DatabaseActionException if loading seats from the database fails
+     */
+    public boolean isAvailable(int flightId, String seatNumber, AvailableSeatsLoader loader) throws DatabaseActionException {
+        int index = seatIndex(seatNumber);
+        if (index < 0) {
+            return false;
+        }
+
+        long[] bits = enabled ? cachedBits(flightId, loader) : toBits(loader.load(flightId));
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private long[] cachedBits(int flightId, AvailableSeatsLoader loader) throws DatabaseActionException {
+        Entry entry = availableSeats.get(flightId);
+        if (entry != null && entry.expiresAt() - ticker.getAsLong() > 0) {
+            return entry.bits();
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        long[] bits = toBits(loader.load(flightId));
+        synchronized (this) {
+            if (loadGeneration == generation && enabled) {
+                availableSeats.put(flightId, new Entry(bits, ticker.getAsLong() + timeToLiveNanos));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Drops the cached seats of a flight.
+     * A load of seats which is in progress is not cached, so a stale bitset is never left behind.
+     *
+     * @param flightId the ID of the flight
+     */
+    public synchronized void invalidate(int flightId) {
+        generation++;
+        availableSeats.remove(flightId);
+    }
+
+    /**
+     * Drops cached seats of all flights.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        availableSeats.clear();
+    }
+
+    /**
+     * Converts a seat number to its position in a flight's bitset.
+     *
+     * @param seatNumber the seat number, e.g. "12C"
+     * @return the bit index of the seat, or -1 if the seat number is malformed
+     */
+    private static int seatIndex(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2 || seatNumber.charAt(0) == '0') {
+            return -1;
+        }
+
+        int last = seatNumber.length() - 1;
+        int letter = seatNumber.charAt(last) - 'A';
+        if (letter < 0 || letter >= SEATS_IN_ROW) {
+            return -1;
+        }
+
+        int row = 0;
+        for (int i = 0; i < last; i++) {
+            char c = seatNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            row = row * 10 + (c - '0');
+            if (row > MAX_ROW) {
+                return -1;
+            }
+        }
+        return (row - 1) * SEATS_IN_ROW + letter;
+    }
+
+    private static long[] toBits(List<String> seatNumbers) {
+        int maxIndex = -1;
+        for (String seatNumber : seatNumbers) {
+            maxIndex = Math.max(maxIndex, seatIndex(seatNumber));
+        }
+
+        long[] bits = new long[maxIndex < 0 ? 0 : (maxIndex >>> 6) + 1];
+        for (String seatNumber : seatNumbers) {
+            int index = seatIndex(seatNumber);
+            if (index >= 0) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return bits;
+    }
+}
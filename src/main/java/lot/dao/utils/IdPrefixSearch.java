@@ -0,0 +1,72 @@
+package lot.dao.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the IDs of a table whose decimal form starts with a typed prefix, e.g. for type-ahead pickers.
+ * <p>
+ * IDs starting with "12" are 12, then 120-129, then 1200-1299 and so on, so the search is a few range scans
+ * of the primary key index, shortest IDs first, which stop as soon as enough IDs are found.
+ * The cost depends on the limit, not on the size of the table.
+ */
+public final class IdPrefixSearch {
+    private static final int MAX_PREFIX_LENGTH = String.valueOf(Integer.MAX_VALUE).length();
+
+    private IdPrefixSearch() {}
+
+    /**
+     * Finds IDs starting with the prefix, shorter IDs first and ascending within the same length.
+     *
+     * @param conn the database connection
+     * @param table the table whose {@code id} column is searched
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching IDs, empty if the prefix is not a positive number
+     * @throws SQLException if a database access error occurs
+     */
+    public static List<Integer> findIds(Connection conn, String table, String prefix, int limit) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        String query =
+                """
+                SELECT id
+                FROM %s
+                WHERE id BETWEEN ? AND ?
+                ORDER BY id
+                FETCH FIRST ? ROWS ONLY
+                """.formatted(table);
+
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            if (prefix.isEmpty()) {
+                addRange(ps, 1, Integer.MAX_VALUE, limit, ids);
+                return ids;
+            }
+            if (prefix.length() > MAX_PREFIX_LENGTH || !prefix.matches("[1-9][0-9]*")) {
+                return ids;
+            }
+
+            long value = Long.parseLong(prefix);
+            for (long scale = 1; value * scale <= Integer.MAX_VALUE && ids.size() < limit; scale *= 10) {
+                long low = value * scale;
+                long high = Math.min((value + 1) * scale - 1, Integer.MAX_VALUE);
+                addRange(ps, (int) low, (int) high, limit - ids.size(), ids);
+            }
+            return ids;
+        }
+    }
+
+    private static void addRange(PreparedStatement ps, int low, int high, int limit, List<Integer> ids) throws SQLException {
+        ps.setInt(1, low);
+        ps.setInt(2, high);
+        ps.setInt(3, limit);
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package lot.dao.utils;
+
+import lot.dao.PageQuery;
+import lot.exceptions.dao.DatabaseActionException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Translates a {@link PageQuery} into the WHERE and ORDER BY clauses of a DAO query.
+ * Only properties listed by the DAO can be used, so query values never become part of the SQL text.
+ */
+public final class PageSql {
+    /**
+     * Condition used for filtering by a property.
+     *
+     * @param condition the SQL condition with {@code ?} placeholders
+     * @param parameters the function converting the filter value to the values of the placeholders
+     */
+    public record Filter(String condition, Function<Object, List<Object>> parameters) {
+        /**
+         * Creates a filter comparing a column with the value.
+         *
+         * @param column the column compared with the filter value
+         * @return the filter
+         */
+        public static Filter equalTo(String column) {
+            return new Filter(column + " = ?", List::of);
+        }
+    }
+
+    private final String where;
+    private final String orderBy;
+    private final List<Object> parameters;
+
+    private PageSql(String where, String orderBy, List<Object> parameters) {
+        this.where = where;
+        this.orderBy = orderBy;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Translates a query.
+     *
+     * @param query the query to translate
+     * @param table the name of the table used in error messages
+     * @param filters the supported filters, by property name
+     * @param sortColumns the columns of the properties the rows can be sorted by, by property name
+     * @param idColumn the ID column, used to order rows equal on all sort properties
+     * @return the translated query
+     * @throws DatabaseActionException if the query uses a property which is not supported,
+     *                                 or starts after an ID but is not ordered by ID
+     */
+    public static PageSql of(PageQuery query, String table, Map<String, Filter> filters,
+                             Map<String, String> sortColumns, String idColumn) throws DatabaseActionException {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : query.getFilters().entrySet()) {
+            Filter filter = filters.get(entry.getKey());
+            if (filter == null) {
+                throw new DatabaseActionException("Table " + table + " can not be filtered by " + entry.getKey());
+            }
+            conditions.add(filter.condition());
+            parameters.addAll(filter.parameters().apply(entry.getValue()));
+        }
+        if (query.getAfterId().isPresent()) {
+            if (!query.isOrderedById()) {
+                throw new DatabaseActionException("Table " + table + " can only be read after an ID when ordered by ID");
+            }
+            conditions.add(idColumn + " > ?");
+            parameters.add(query.getAfterId().getAsInt());
+        }
+
+        List<String> order = new ArrayList<>();
+        for (PageQuery.Sort sort : query.getSorts()) {
+            String column = sortColumns.get(sort.property());
+            if (column == null) {
+                throw new DatabaseActionException("Table " + table + " can not be sorted by " + sort.property());
+            }
+            order.add(column + (sort.ascending() ? " ASC" : " DESC"));
+        }
+        order.add(idColumn);
+
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+        return new PageSql(where, "ORDER BY " + String.join(", ", order), parameters);
+    }
+
+    /**
+     * Returns the WHERE clause.
+     *
+     * @return the WHERE clause, or an empty string if the query has no filters
+     */
+    public String where() {
+        return where;
+    }
+
+    /**
+     * Returns the ORDER BY clause, which always ends with the ID column so the order is stable between pages.
+     *
+     * @return the ORDER BY clause
+     */
+    public String orderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Checks if the WHERE or ORDER BY clause uses a column of the table with the given alias,
+     * e.g. to join the table only when it is needed.
+     *
+     * @param alias the alias of the table in the query
+     * @return true if a column of the table is used
+     */
+    public boolean references(String alias) {
+        return Pattern.compile("\\b" + Pattern.quote(alias) + "\\.").matcher(where + " " + orderBy).find();
+    }
+
+    /**
+     * Sets the values of the filter placeholders.
+     *
+     * @param ps the statement
+     * @return the index of the next placeholder of the statement
+     * @throws SQLException if a database access error occurs
+     */
+    public int bind(PreparedStatement ps) throws SQLException {
+        int index = 1;
+        for (Object parameter : parameters) {
+            ps.setObject(index++, parameter);
+        }
+        return index;
+    }
+}
@@ -1,6 +1,7 @@
 package lot.dao.utils;
 
 import lot.models.Flight;
+import lot.models.ManifestEntry;
 import lot.models.Passenger;
 import lot.models.Reservation;
 import java.sql.ResultSet;
@@ -55,13 +56,14 @@ public class ResultSetMapper {
 
     /**
      * Maps a ResultSet row to a Reservation object.
+     * The row must also contain a boolean {@code tookPlace} column computed by the query.
      *
      * @param rs the ResultSet containing reservation data (must be positioned at the desired row)
      * @return a new Reservation object populated with data from the ResultSet
      * @throws SQLException if a database access error occurs or any column value is invalid
      */
     public static Reservation mapReservation(ResultSet rs) throws SQLException {
-        return new Reservation(
+        Reservation reservation = new Reservation(
                 rs.getInt("id"),
                 rs.getInt("flightId"),
                 rs.getInt("passengerId"),
@@ -70,5 +72,26 @@ public class ResultSetMapper {
                 rs.getString("seatNumber"),
                 rs.getObject("departureDate", LocalDateTime.class)
         );
+        reservation.setTookPlace(rs.getBoolean("tookPlace"));
+        return reservation;
+    }
+
+    /**
+     * Maps a ResultSet row to a ManifestEntry object.
+     *
+     * @param rs the ResultSet containing reservation and passenger data (must be positioned at the desired row)
+     * @return a new ManifestEntry object populated with data from the ResultSet
+     * @throws SQLException if a database access error occurs or any column value is invalid
+     */
+    public static ManifestEntry mapManifestEntry(ResultSet rs) throws SQLException {
+        return new ManifestEntry(
+                rs.getInt("id"),
+                rs.getString("seatNumber"),
+                rs.getInt("passengerId"),
+                rs.getString("name"),
+                rs.getString("surname"),
+                rs.getString("email"),
+                rs.getString("phoneNumber")
+        );
     }
 }
@@ -0,0 +1,132 @@
+package lot.dao.utils;
+
+import lot.database.DatabaseInitializer;
+import lot.database.UnitOfWork;
+import lot.exceptions.dao.DatabaseStreamException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility class for exposing query results as lazily mapped rows.
+ * Rows are read through a lazily executed forward-only cursor and mapped only when they are consumed,
+ * so memory usage does not depend on the number of rows returned by the query.
+ * <p>
+ * The cursor holds a pooled connection of its own until all rows are read. {@link #forEach} releases it
+ * when it returns and should be preferred; {@link #stream} is meant for callers which need to pull rows themselves,
+ * and leaks the connection if the stream is not closed. Lazy query execution is switched on the session of the
+ * connection, so neither method may be used inside a {@link UnitOfWork}, whose connection is shared with other statements.
+ */
+public class ResultSetStream {
+    /**
+     * Constructs a new instance of the class with default values.
+     * Initializes all fields to their default initial values.
+     */
+    public ResultSetStream() {}
+
+    /**
+     * Executes the query on a new pooled connection and passes its rows to the action, one at a time.
+     * The connection is returned to the pool when all rows have been passed or the action throws an exception.
+     *
+     * @param query the SQL query to execute
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param mapper the mapper converting each row to a model object
+     * @param action the action to perform for each mapped row
+     * @param parameters the values of the query parameters, in order
+     * @param <T> the type of mapped objects
+     * @throws SQLException if a database access error occurs while executing the query
+     * @throws DatabaseStreamException if a database access error occurs while the rows are read
+     * @throws IllegalStateException if called inside a unit of work
+     */
+    public static <T> void forEach(String query, int fetchSize, RowMapper<T> mapper, Consumer<? super T> action,
+                                   Object... parameters) throws SQLException {
+        try (Stream<T> stream = stream(query, fetchSize, mapper, parameters)) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * Executes the query on a new pooled connection and returns its rows as a stream.
+     * The connection stays open until the returned stream is closed, so the stream must be used
+     * in a try-with-resources block; a stream which is never closed leaks the connection, which is reported
+     * only by the leak detection of the pool, see {@code DB_LEAK_DETECTION_MS}. Prefer {@link #forEach}.
+     *
+     * @param query the SQL query to execute
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param mapper the mapper converting each row to a model object
+     * @param parameters the values of the query parameters, in order
+     * @param <T> the type of streamed objects
+     * @return a stream of mapped rows, which must be closed after use
+     * @throws SQLException if a database access error occurs while executing the query
+     * @throws DatabaseStreamException if a database access error occurs while the stream is consumed
+     * @throws IllegalStateException if called inside a unit of work
+     */
+    public static <T> Stream<T> stream(String query, int fetchSize, RowMapper<T> mapper, Object... parameters) throws SQLException {
+        if (UnitOfWork.isActive()) {
+            throw new IllegalStateException("Query results cannot be streamed inside a unit of work, "
+                    + "because streaming changes the session of the connection shared by the unit of work");
+        }
+        Connection conn = DatabaseInitializer.getConnection();
+        try {
+            setLazyQueryExecution(conn, true);
+            PreparedStatement ps = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            ResultSet rs = ps.executeQuery();
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    }
+                    catch (SQLException e) {
+                        throw new DatabaseStreamException("Database error while reading streamed rows", e);
+                    }
+                }
+            };
+
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try (conn) {
+                    setLazyQueryExecution(conn, false);
+                }
+                catch (SQLException e) {
+                    throw new DatabaseStreamException("Database error while closing streamed rows", e);
+                }
+            });
+        }
+        catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Switches H2 lazy query execution for the session of the provided connection.
+     * With lazy execution enabled rows are produced while the cursor advances,
+     * instead of the whole result being built before the first row is returned.
+     *
+     * @param conn the database connection
+     * @param enabled true to enable lazy query execution, false to disable it
+     * @throws SQLException if a database access error occurs
+     */
+    private static void setLazyQueryExecution(Connection conn, boolean enabled) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + enabled);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package lot.dao.utils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Functional interface for mapping a single ResultSet row to a model object.
+ * Methods of {@link ResultSetMapper} can be used as its implementations.
+ *
+ * @param <T> the type of object produced from a row
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * Maps the current row of the ResultSet.
+     *
+     * @param rs the ResultSet positioned at the row to map
+     * @return the mapped object
+     * @throws SQLException if a database access error occurs or any column value is invalid
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,111 @@
+package lot.dao.utils;
+
+import lot.database.DatabaseInitializer;
+import lot.database.SeatMaintenance;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Set-based statements keeping seat availability in sync with reservations when
+ * {@link SeatMaintenance#STATEMENTS} is used instead of the reservation triggers.
+ * Every method updates all affected seats with a single indexed statement, which must be executed
+ * in the same transaction as the change of reservations, and does nothing in {@link SeatMaintenance#TRIGGERS} mode.
+ */
+public class SeatStatements {
+    /**
+     * Constructs a new instance of the class with default values.
+     * Initializes all fields to their default initial values.
+     */
+    public SeatStatements() {}
+
+    /**
+     * Checks if seats have to be maintained by the DAOs, because no reservation triggers are installed.
+     *
+     * @return true in {@link SeatMaintenance#STATEMENTS} mode
+     */
+    public static boolean enabled() {
+        return DatabaseInitializer.getSeatMaintenance() == SeatMaintenance.STATEMENTS;
+    }
+
+    /**
+     * Marks a seat unavailable. Called after a reservation of the seat is inserted.
+     *
+     * @param conn the connection of the transaction inserting the reservation
+     * @param flightId the ID of the flight
+     * @param seatNumber the number of the reserved seat
+     * @throws SQLException if a database access error occurs
+     */
+    public static void claim(Connection conn, int flightId, String seatNumber) throws SQLException {
+        if (!enabled()) {
+            return;
+        }
+        String query =
+                """
+                UPDATE seats
+                SET available = false
+                WHERE flightId = ? AND seatNumber = ?
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, flightId);
+            ps.setString(2, seatNumber);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Marks the seat of a reservation available. Called before the reservation is deleted or moved to another seat.
+     *
+     * @param conn the connection of the transaction changing the reservation
+     * @param reservationId the ID of the reservation
+     * @throws SQLException if a database access error occurs
+     */
+    public static void releaseReservation(Connection conn, int reservationId) throws SQLException {
+        setReserved(conn, "id = ?", false, reservationId);
+    }
+
+    /**
+     * Marks the seats of all reservations of a passenger available. Called before the passenger is deleted.
+     *
+     * @param conn the connection of the transaction deleting the passenger
+     * @param passengerId the ID of the passenger
+     * @throws SQLException if a database access error occurs
+     */
+    public static void releasePassenger(Connection conn, int passengerId) throws SQLException {
+        setReserved(conn, "passengerId = ?", false, passengerId);
+    }
+
+    /**
+     * Marks the seats of all reservations of a range of flights unavailable.
+     * Called after reservations of the flights are inserted in bulk.
+     *
+     * @param conn the connection of the transaction inserting the reservations
+     * @param fromFlightId the first flight ID of the range
+     * @param toFlightId the last flight ID of the range, inclusive
+     * @throws SQLException if a database access error occurs
+     */
+    public static void claimFlights(Connection conn, int fromFlightId, int toFlightId) throws SQLException {
+        setReserved(conn, "flightId BETWEEN ? AND ?", true, fromFlightId, toFlightId);
+    }
+
+    private static void setReserved(Connection conn, String condition, boolean reserved, int... parameters) throws SQLException {
+        if (!enabled()) {
+            return;
+        }
+        String query =
+                """
+                MERGE INTO seats s
+                USING (SELECT flightId, seatNumber FROM reservations WHERE %s) r
+                ON s.flightId = r.flightId AND s.seatNumber = r.seatNumber
+                WHEN MATCHED THEN UPDATE SET available = ?
+                """.formatted(condition);
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setInt(i + 1, parameters[i]);
+            }
+            ps.setBoolean(parameters.length + 1, !reserved);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package lot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Database and connection pool settings loaded from external configuration.
+ * Values are read from the {@code .env} file or environment variables; every setting is optional
+ * and falls back to the defaults the application used before it was configurable.
+ */
+public class DatabaseConfig {
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int maximumPoolSize;
+    private final int minimumIdle;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long leakDetectionThresholdMs;
+    private final boolean registerMbeans;
+    private final SeatMaintenance seatMaintenance;
+    private final String seatCache;
+
+    private DatabaseConfig(Function<String, String> source) {
+        this.jdbcUrl = buildJdbcUrl(source);
+        this.username = text(source, "DB_USER", "sa");
+        this.password = text(source, "DB_PASSWORD", "");
+        this.maximumPoolSize = (int) number(source, "DB_POOL_MAX_SIZE", 10, 1);
+        this.minimumIdle = (int) number(source, "DB_POOL_MIN_IDLE", 2, 0);
+        this.connectionTimeoutMs = number(source, "DB_CONNECTION_TIMEOUT_MS", 30_000, 250);
+        this.idleTimeoutMs = number(source, "DB_IDLE_TIMEOUT_MS", 600_000, 0);
+        this.maxLifetimeMs = number(source, "DB_MAX_LIFETIME_MS", 1_800_000, 0);
+        this.leakDetectionThresholdMs = number(source, "DB_LEAK_DETECTION_MS", 0, 0);
+        this.registerMbeans = Boolean.parseBoolean(text(source, "DB_POOL_REGISTER_MBEANS", "false"));
+        this.seatMaintenance = seatMaintenance(source);
+        this.seatCache = seatCache(source);
+    }
+
+    /**
+     * Loads the configuration from the {@code .env} file, if it exists, and environment variables.
+     *
+     * @return the loaded configuration
+     * @throws IllegalStateException if any of the settings has an invalid value
+     */
+    public static DatabaseConfig load() {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        return from(dotenv::get);
+    }
+
+    /**
+     * Creates the configuration from the provided source of settings.
+     *
+     * @param source function returning the value of a setting by its name, or null if it is not set
+     * @return the configuration
+     * @throws IllegalStateException if any of the settings has an invalid value
+     */
+    public static DatabaseConfig from(Function<String, String> source) {
+        return new DatabaseConfig(source);
+    }
+
+    /**
+     * Creates the HikariCP configuration described by these settings.
+     *
+     * @param metricsTrackerFactory the factory of trackers recording pool metrics
+     * @return the pool configuration
+     */
+    public HikariConfig toHikariConfig(MetricsTrackerFactory metricsTrackerFactory) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(Math.min(minimumIdle, maximumPoolSize));
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setLeakDetectionThreshold(leakDetectionThresholdMs);
+        config.setRegisterMbeans(registerMbeans);
+        config.setMetricsTrackerFactory(metricsTrackerFactory);
+        return config;
+    }
+
+    /**
+     * Returns the JDBC URL of the database.
+     *
+     * @return the JDBC URL
+     */
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    /**
+     * Checks if other processes may open the database while this application uses it, i.e. if the database
+     * is reached through an H2 server or opened with {@code AUTO_SERVER}, which the default {@code file} mode does.
+     * Changes made by other processes are not seen by the caches of this process.
+     *
+     * @return true if the database may be shared with other processes
+     */
+    public boolean isSharedWithOtherProcesses() {
+        String url = jdbcUrl.toUpperCase(Locale.ROOT);
+        return url.startsWith("JDBC:H2:TCP:") || url.startsWith("JDBC:H2:SSL:") || url.contains(";AUTO_SERVER=TRUE");
+    }
+
+    /**
+     * Returns the seat cache setting, {@code auto}, {@code on} or {@code off}.
+     *
+     * @return the value of {@code DB_SEAT_CACHE}
+     */
+    public String getSeatCache() {
+        return seatCache;
+    }
+
+    /**
+     * Checks if the seat availability cache is used. With {@code DB_SEAT_CACHE=auto}, the default, the cache is used
+     * only if the database is not shared with other processes, see {@link #isSharedWithOtherProcesses()};
+     * {@code on} and {@code off} override this, e.g. {@code on} for a single client of a file database.
+     *
+     * @return true if seat availability is cached
+     */
+    public boolean isSeatCacheEnabled() {
+        return switch (seatCache) {
+            case "on" -> true;
+            case "off" -> false;
+            default -> !isSharedWithOtherProcesses();
+        };
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * Returns the minimum number of idle connections kept in the pool.
+     *
+     * @return the minimum idle connections count
+     */
+    public int getMinimumIdle() {
+        return minimumIdle;
+    }
+
+    /**
+     * Returns how long a caller waits for a connection before failing, in milliseconds.
+     *
+     * @return the connection timeout
+     */
+    public long getConnectionTimeoutMs() {
+        return connectionTimeoutMs;
+    }
+
+    /**
+     * Returns the strategy keeping seat availability in sync with reservations.
+     *
+     * @return the seat maintenance strategy
+     */
+    public SeatMaintenance getSeatMaintenance() {
+        return seatMaintenance;
+    }
+
+    /**
+     * Builds the JDBC URL from {@code DB_URL}, or from {@code DB_MODE} and the settings of the chosen mode.
+     * Supported modes are {@code file} (embedded database file), {@code memory} and {@code tcp} (H2 server).
+     * {@code DB_STATEMENT_CACHE_SIZE} sets the number of parsed statements H2 caches per connection.
+     *
+     * @param source the source of settings
+     * @return the JDBC URL
+     */
+    private static String buildJdbcUrl(Function<String, String> source) {
+        String url = source.apply("DB_URL");
+        if (url == null || url.isBlank()) {
+            String mode = text(source, "DB_MODE", "file");
+            url = switch (mode) {
+                case "file" -> "jdbc:h2:" + text(source, "DB_PATH", "./lotdb") + ";AUTO_SERVER=TRUE;DB_CLOSE_DELAY=-1";
+                case "memory" -> "jdbc:h2:mem:" + text(source, "DB_PATH", "lotdb") + ";DB_CLOSE_DELAY=-1";
+                case "tcp" -> "jdbc:h2:tcp://" + text(source, "DB_TCP_HOST", "localhost:9092") + "/" + text(source, "DB_PATH", "./lotdb");
+                default -> throw new IllegalStateException("Unknown DB_MODE: " + mode + ". Accepted values are: file, memory, tcp");
+            };
+        }
+
+        if (source.apply("DB_STATEMENT_CACHE_SIZE") != null) {
+            url += ";QUERY_CACHE_SIZE=" + number(source, "DB_STATEMENT_CACHE_SIZE", 8, 0);
+        }
+        return url;
+    }
+
+    private static SeatMaintenance seatMaintenance(Function<String, String> source) {
+        String value = text(source, "DB_SEAT_MAINTENANCE", "triggers");
+        try {
+            return SeatMaintenance.parse(value);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown DB_SEAT_MAINTENANCE: " + value + ". Accepted values are: triggers, statements");
+        }
+    }
+
+    private static String seatCache(Function<String, String> source) {
+        String value = text(source, "DB_SEAT_CACHE", "auto").toLowerCase(Locale.ROOT);
+        if (!value.equals("auto") && !value.equals("on") && !value.equals("off")) {
+            throw new IllegalStateException("Unknown DB_SEAT_CACHE: " + value + ". Accepted values are: auto, on, off");
+        }
+        return value;
+    }
+
+    private static String text(Function<String, String> source, String key, String defaultValue) {
+        String value = source.apply(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static long number(Function<String, String> source, String key, long defaultValue, long minValue) {
+        String value = source.apply(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < minValue) {
+                throw new IllegalStateException(key + " must be at least " + minValue + ", but was: " + number);
+            }
+            return number;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalStateException(key + " must be a number, but was: " + value);
+        }
+    }
+}
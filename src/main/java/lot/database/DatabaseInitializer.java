@@ -1,21 +1,47 @@
 package lot.database;
 
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.cache.EntityCaches;
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.database.metrics.PoolMetrics;
 import org.jetbrains.annotations.TestOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.List;
 
 /**
  * Initializes and manages the database connection pool and schema.
- * Uses HikariCP for connection pooling and handles database schema initialization.
+ * Uses HikariCP for connection pooling, configured with {@link DatabaseConfig}, and handles database schema initialization.
  */
 public class DatabaseInitializer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseInitializer.class);
+
+    private static final String DROP_TRIGGERS_QUERY =
+            """
+            DROP TRIGGER IF EXISTS reservation_added;
+            DROP TRIGGER IF EXISTS reservation_updated;
+            DROP TRIGGER IF EXISTS reservation_deleted;
+            """;
+
+    /**
+     * Migrations of the schema, in the order they are applied. Migration {@code n} is the script
+     * {@code /db/migrations/V<n>__<name>.sql} at index {@code n - 1}. Applied migrations must never be changed,
+     * every change of an existing database goes into a new migration appended to this list.
+     */
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__search_indexes.sql",
+            "V2__email_outbox_indexes.sql"
+    );
+
     private static DataSource dataSource;
+    private static PoolMetrics poolMetrics;
+    private static SeatMaintenance seatMaintenance;
 
     static {
         configureDefault();
@@ -28,26 +54,59 @@ public class DatabaseInitializer {
     public DatabaseInitializer() {}
 
     private static void configureDefault() {
-        String dbUrl = "jdbc:h2:./lotdb;AUTO_SERVER=TRUE;DB_CLOSE_DELAY=-1";
-        String dbUser = "sa";
-        String dbPass = "";
+        DatabaseConfig config = DatabaseConfig.load();
+        poolMetrics = new PoolMetrics();
+        dataSource = new HikariDataSource(config.toHikariConfig(poolMetrics));
+        seatMaintenance = config.getSeatMaintenance();
+        EntityCaches.setEnabled(!config.isSharedWithOtherProcesses());
+        SeatAvailabilityCache.getInstance().setEnabled(config.isSeatCacheEnabled());
+        if (!config.isSeatCacheEnabled()) {
+            LOGGER.warn("Seat availability cache is disabled (DB_SEAT_CACHE={}, database shared with other processes: {}),"
+                    + " every seat check queries the database", config.getSeatCache(), config.isSharedWithOtherProcesses());
+        }
+    }
 
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(dbUrl);
-        config.setUsername(dbUser);
-        config.setPassword(dbPass);
+    /**
+     * Returns metrics of the default connection pool.
+     * Metrics are not recorded for data sources set with {@link #overrideDataSource(DataSource)}.
+     *
+     * @return the pool metrics
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
 
-        dataSource = new HikariDataSource(config);
+    /**
+     * Returns the strategy keeping seat availability in sync with reservations.
+     *
+     * @return the seat maintenance strategy
+     */
+    public static SeatMaintenance getSeatMaintenance() {
+        return seatMaintenance;
     }
 
     /**
-     * Sets dataSource field to provided DataSource object
+     * Sets the seat maintenance strategy. The reservation triggers are installed or dropped
+     * on the next call of {@link #initialize()}, which must follow before the database is used.
+     *
+     * @param maintenance the strategy to use
+     */
+    @TestOnly
+    public static void overrideSeatMaintenance(SeatMaintenance maintenance) {
+        seatMaintenance = maintenance;
+    }
+
+    /**
+     * Sets dataSource field to provided DataSource object.
+     * The database is assumed to be used by this process only, so the seat availability and entity caches are enabled.
      *
      * @param ds DataSource object to set dataSource field to
      */
     @TestOnly
     public static void overrideDataSource(DataSource ds) {
         dataSource = ds;
+        SeatAvailabilityCache.getInstance().setEnabled(true);
+        EntityCaches.setEnabled(true);
     }
 
     /**
@@ -56,11 +115,15 @@ public class DatabaseInitializer {
     @TestOnly
     public static void resetToDefault() {
         configureDefault();
+        EntityCaches.invalidateAll();
     }
 
     /**
      * Initializes the database by executing schema and data scripts.
-     * Only loads initial data if new tables were created during schema initialization.
+     * Only loads initial data if the flights table was created during schema initialization,
+     * so tables added in later versions are created in existing databases without loading the data again.
+     * Then applies the schema migrations which the database has not recorded yet, see {@link #migrate(Connection)}.
+     * Installs the reservation triggers in {@link SeatMaintenance#TRIGGERS} mode and drops them otherwise.
      *
      * @throws SQLException if a database access error occurs
      * @throws IOException if there's an error reading schema or data files
@@ -72,46 +135,129 @@ public class DatabaseInitializer {
         InputStream schema = DatabaseInitializer.class.getResourceAsStream("/db/schema.sql");
         String schemaQuery = new String(schema.readAllBytes(), StandardCharsets.UTF_8);
 
-        int countBefore = countTables(conn);
+        boolean newDatabase = !tableExists(conn, "FLIGHTS");
         stmt.execute(schemaQuery);
         schema.close();
-        int countAfter = countTables(conn);
+        migrate(conn);
+
+        if (seatMaintenance == SeatMaintenance.TRIGGERS) {
+            InputStream triggers = DatabaseInitializer.class.getResourceAsStream("/db/triggers.sql");
+            stmt.execute(new String(triggers.readAllBytes(), StandardCharsets.UTF_8));
+            triggers.close();
+        }
+        else {
+            stmt.execute(DROP_TRIGGERS_QUERY);
+        }
 
-        if (countAfter > countBefore) {
+        if (newDatabase) {
             InputStream data = DatabaseInitializer.class.getResourceAsStream("/db/data.sql");
             String dataQuery = new String(data.readAllBytes(), StandardCharsets.UTF_8);
             stmt.execute(dataQuery);
             data.close();
+            if (seatMaintenance == SeatMaintenance.STATEMENTS) {
+                resyncSeats(conn);
+            }
         }
 
         stmt.close();
         conn.close();
     }
 
+    /**
+     * Applies the pending schema migrations in order, recording the version of each applied one
+     * in the {@code schema_version} table, so every migration runs once per database.
+     *
+     * @param conn the database connection to use
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if there's an error reading a migration file
+     */
+    private static void migrate(Connection conn) throws SQLException, IOException {
+        int currentVersion = schemaVersion(conn);
+        String insertQuery = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+        for (int version = currentVersion + 1; version <= MIGRATIONS.size(); version++) {
+            String migration = MIGRATIONS.get(version - 1);
+            try (InputStream script = DatabaseInitializer.class.getResourceAsStream("/db/migrations/" + migration);
+                 Statement stmt = conn.createStatement();
+                 PreparedStatement insert = conn.prepareStatement(insertQuery)) {
+                stmt.execute(new String(script.readAllBytes(), StandardCharsets.UTF_8));
+                insert.setInt(1, version);
+                insert.setString(2, migration);
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the schema, i.e. the number of the last applied migration.
+     *
+     * @param conn the database connection to use
+     * @return the schema version, 0 if no migration has been applied
+     * @throws SQLException if a database access error occurs
+     */
+    static int schemaVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Returns the number of the latest schema migration.
+     *
+     * @return the latest schema version
+     */
+    static int latestSchemaVersion() {
+        return MIGRATIONS.size();
+    }
+
+    /**
+     * Recomputes the availability of all seats from the reservations with a single statement.
+     * Needed in {@link SeatMaintenance#STATEMENTS} mode after reservations were changed with SQL outside the DAOs.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    public static void resyncSeats() throws SQLException {
+        try (Connection conn = getConnection()) {
+            resyncSeats(conn);
+        }
+        SeatAvailabilityCache.getInstance().invalidateAll();
+    }
+
+    private static void resyncSeats(Connection conn) throws SQLException {
+        String query =
+                """
+                UPDATE seats s
+                SET available = NOT EXISTS(SELECT 1 FROM reservations r WHERE r.flightId = s.flightId AND r.seatNumber = s.seatNumber)
+                """;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(query);
+        }
+    }
+
     /**
      * Gets a database connection from the connection pool.
+     * Inside a {@link UnitOfWork}, returns the connection shared by the unit of work instead.
      *
      * @return a Connection object from the pool
      * @throws SQLException if a database access error occurs
      */
     public static Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        Connection shared = UnitOfWork.currentConnection(dataSource);
+        return shared != null ? shared : dataSource.getConnection();
     }
 
     /**
-     * Counts the number of tables in the database.
+     * Checks if a table exists in the database.
      *
      * @param conn the database connection to use
-     * @return the number of tables in the database
+     * @param tableName the name of the table, in upper case
+     * @return true if the table exists
      * @throws SQLException if a database access error occurs
      */
-    private static int countTables(Connection conn) throws SQLException {
-        try (ResultSet rs = conn.getMetaData().getTables(null, null, "%", null)) {
-            int count = 0;
-            while (rs.next()) {
-                count++;
-            }
-            return count;
+    private static boolean tableExists(Connection conn, String tableName) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(null, null, tableName, null)) {
+            return rs.next();
         }
     }
 }
@@ -0,0 +1,31 @@
+package lot.database;
+
+/**
+ * Strategy keeping the {@code available} flag of seats in sync with reservations.
+ */
+public enum SeatMaintenance {
+    /**
+     * Row-level Java triggers on the reservations table update the seat of every inserted, updated or deleted row.
+     * Works for any statement changing reservations, including SQL run outside the DAOs,
+     * but costs one Java callback per row, e.g. for every reservation removed when a flight is deleted.
+     */
+    TRIGGERS,
+
+    /**
+     * No triggers are installed. The DAOs update seats themselves with set-based statements in the transaction
+     * changing the reservations, and skip the update entirely when the seats are deleted anyway.
+     * Reservations changed with SQL outside the DAOs must be followed by {@link DatabaseInitializer#resyncSeats()}.
+     */
+    STATEMENTS;
+
+    /**
+     * Parses the name of a strategy, ignoring case.
+     *
+     * @param name the name of the strategy, e.g. {@code triggers}
+     * @return the strategy
+     * @throws IllegalArgumentException if there is no strategy with this name
+     */
+    public static SeatMaintenance parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,216 @@
+package lot.database;
+
+import lot.exceptions.dao.DatabaseActionException;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scope in which all DAO calls made on the current thread share one database connection and one transaction.
+ * <p>
+ * Inside {@link #call(Work)} or {@link #run(Action)}, {@link DatabaseInitializer#getConnection()} returns the connection
+ * of the unit of work instead of borrowing a new one from the pool. The connection is borrowed lazily on first use,
+ * DAOs closing it or managing its transaction have no effect, and it is committed when the work completes,
+ * or rolled back if the work throws any exception. Nested units of work join the outermost one.
+ */
+public final class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final List<Runnable> completionActions = new ArrayList<>();
+    private Connection connection;
+    private Connection sharedConnection;
+
+    private UnitOfWork() {}
+
+    /**
+     * Work done in a unit of work, returning a result.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        /**
+         * Performs the work.
+         *
+         * @return the result of the work
+         * @throws DatabaseActionException if a database error occurs
+         */
+        T execute() throws DatabaseActionException;
+    }
+
+    /**
+     * Work done in a unit of work, without a result.
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Performs the work.
+         *
+         * @throws DatabaseActionException if a database error occurs
+         */
+        void execute() throws DatabaseActionException;
+    }
+
+    /**
+     * Executes the work in a unit of work and commits it, or joins the unit of work already open on this thread.
+     *
+     * @param <T> the type of the result
+     * @param work the work to execute
+     * @return the result of the work
+     * @throws DatabaseActionException if the work or the commit fails with a database error
+     */
+    public static <T> T call(Work<T> work) throws DatabaseActionException {
+        if (CURRENT.get() != null) {
+            return work.execute();
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork();
+        CURRENT.set(unitOfWork);
+        try {
+            T result = work.execute();
+            unitOfWork.commit();
+            return result;
+        }
+        catch (DatabaseActionException | RuntimeException | Error e) {
+            unitOfWork.rollback(e);
+            throw e;
+        }
+        finally {
+            CURRENT.remove();
+            unitOfWork.complete();
+        }
+    }
+
+    /**
+     * Executes the work in a unit of work and commits it, or joins the unit of work already open on this thread.
+     *
+     * @param action the work to execute
+     * @throws DatabaseActionException if the work or the commit fails with a database error
+     */
+    public static void run(Action action) throws DatabaseActionException {
+        call(() -> {
+            action.execute();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action when the unit of work open on this thread completes, whether it is committed or rolled back,
+     * or immediately if there is none. Used to invalidate caches only once changes are visible to other connections.
+     *
+     * @param action the action to run
+     */
+    public static void afterCompletion(Runnable action) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            action.run();
+        }
+        else {
+            unitOfWork.completionActions.add(action);
+        }
+    }
+
+    /**
+     * Checks if a unit of work is open on this thread.
+     *
+     * @return true if DAO calls on this thread share the connection of a unit of work
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns the connection of the unit of work open on this thread, borrowing it from the data source on first use.
+     *
+     * @param dataSource the data source to borrow the connection from
+     * @return the shared connection, or null if no unit of work is open
+     * @throws SQLException if the connection cannot be borrowed
+     */
+    static Connection currentConnection(DataSource dataSource) throws SQLException {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            return null;
+        }
+        if (unitOfWork.connection == null) {
+            Connection conn = dataSource.getConnection();
+            conn.setAutoCommit(false);
+            unitOfWork.connection = conn;
+            unitOfWork.sharedConnection = shared(conn);
+        }
+        return unitOfWork.sharedConnection;
+    }
+
+    /**
+     * Wraps the connection, so DAOs cannot close it or end its transaction.
+     */
+    private static Connection shared(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "commit", "setAutoCommit" -> {
+                            return null;
+                        }
+                        case "rollback" -> {
+                            if (args == null) {
+                                return null;
+                            }
+                        }
+                        case "isClosed" -> {
+                            return conn.isClosed();
+                        }
+                        default -> {}
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    }
+                    catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+        );
+    }
+
+    private void commit() throws DatabaseActionException {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.commit();
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while committing unit of work", e);
+        }
+    }
+
+    private void rollback(Throwable cause) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        }
+        catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private void complete() {
+        if (connection != null) {
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            }
+            catch (SQLException ignored) {
+                // the pool discards connections which fail to reset
+            }
+        }
+        completionActions.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,509 @@
+package lot.database.generator;
+
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.dao.utils.SeatStatements;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+/**
+ * Fills the {@code passengers}, {@code flights}, {@code seats} and {@code reservations} tables with synthetic data
+ * of any size, e.g. for load tests and benchmarks.
+ * <p>
+ * The data has a realistic skew: routes and passenger surnames follow Zipf distributions, so a few routes
+ * have many flights and a few surnames are very common, and the occupancy of flights varies around the mean
+ * needed to reach the requested number of reservations.
+ * <p>
+ * Rows are written with batched JDBC inserts in parallel chunks, each on its own connection and transaction.
+ * Seats of a batch of flights are created by a single {@code INSERT ... SELECT}, and reserved seats are marked
+ * unavailable by the reservation triggers, or by a single statement per batch in
+ * {@link lot.database.SeatMaintenance#STATEMENTS} mode, just like for reservations made in the application.
+ * Every chunk draws from its own random generator derived from the seed, and all IDs are assigned up front,
+ * so the same seed always produces the same rows with the same IDs, regardless of the number of threads.
+ * Generated rows are appended after the existing ones.
+ */
+public class DatasetGenerator {
+    private static final int PASSENGERS_PER_CHUNK = 10_000;
+    private static final int FLIGHTS_PER_CHUNK = 100;
+    private static final int FLIGHTS_PER_BATCH = 50;
+    private static final int MIN_SEAT_ROWS = 15;
+    private static final int MAX_SEAT_ROWS = 60;
+    private static final char[] SEAT_LETTERS = {'A', 'B', 'C', 'D', 'E', 'F'};
+    private static final LocalDateTime FIRST_DEPARTURE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int DEPARTURE_SPAN_DAYS = 730;
+
+    private static final String[] CITIES = {"Warszawa", "Kraków", "Gdańsk", "Wrocław", "Poznań", "Katowice",
+            "Berlin", "Paryż", "Londyn", "Rzym", "Madryt", "Wiedeń", "Praga", "Amsterdam", "Oslo", "Sztokholm",
+            "Lizbona", "Ateny", "Dublin", "Nowy Jork"};
+    private static final String[] NAMES = {"Anna", "Piotr", "Maria", "Krzysztof", "Katarzyna", "Andrzej",
+            "Małgorzata", "Tomasz", "Agnieszka", "Paweł", "Barbara", "Michał", "Ewa", "Marcin", "Magdalena",
+            "Jan", "Joanna", "Jakub", "Zofia", "Adam"};
+    private static final String[] COMMON_SURNAMES = {"Nowak", "Kowalski", "Wiśniewski", "Wójcik", "Kowalczyk",
+            "Kamiński", "Lewandowski", "Zieliński", "Szymański", "Woźniak", "Dąbrowski", "Kozłowski", "Jankowski",
+            "Mazur", "Kwiatkowski", "Wojciechowski", "Krawczyk", "Kaczmarek", "Piotrowski", "Grabowski"};
+    private static final int SURNAMES = 5_000;
+
+    private final long seed;
+    private final int threads;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed the seed all generated data is derived from
+     * @param threads the number of chunks written in parallel; should not exceed the connection pool size
+     */
+    public DatasetGenerator(long seed, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive, but was: " + threads);
+        }
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Generates data from the command line.
+     * Arguments are: flights, passengers, reservations, and optionally the seed and the number of threads.
+     * The database is configured as for the application, see {@link lot.database.DatabaseConfig}.
+     *
+     * @param args the command line arguments
+     * @throws Exception if the data cannot be generated
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: DatasetGenerator <flights> <passengers> <reservations> [seed] [threads]");
+            System.exit(1);
+        }
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        DatabaseInitializer.initialize();
+        Summary summary = new DatasetGenerator(seed, threads)
+                .generate(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Long.parseLong(args[2]));
+        System.out.println(summary);
+    }
+
+    /**
+     * Generates the data.
+     * The number of reservations is a target: flights are booked with a random occupancy whose mean reaches it,
+     * but a flight is never overbooked, so the actual number may be lower if the target exceeds the seats.
+     *
+     * @param flights the number of flights to generate
+     * @param passengers the number of passengers to generate; must be positive if reservations are requested
+     * @param reservations the target number of reservations
+     * @return the summary of generated rows
+     * @throws DatabaseActionException if a database error occurs
+     */
+    public Summary generate(int flights, int passengers, long reservations) throws DatabaseActionException {
+        if (flights < 0 || passengers < 0 || reservations < 0 || (reservations > 0 && passengers == 0)) {
+            throw new IllegalArgumentException("Invalid dataset size: flights=" + flights
+                    + " passengers=" + passengers + " reservations=" + reservations);
+        }
+        long start = System.nanoTime();
+        int firstPassengerId = nextId("passengers");
+        int firstFlightId = nextId("flights");
+        int firstReservationId = nextId("reservations");
+
+        double averageSeats = (MIN_SEAT_ROWS + MAX_SEAT_ROWS) / 2.0 * SEAT_LETTERS.length;
+        double meanOccupancy = flights == 0 ? 0 : Math.min(1.0, reservations / (flights * averageSeats));
+        FlightPlan plan = new FlightPlan(firstFlightId, flights, firstPassengerId, passengers, meanOccupancy);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<long[]>> passengerChunks = new ArrayList<>();
+            for (int from = 0; from < passengers; from += PASSENGERS_PER_CHUNK) {
+                int chunkFrom = from;
+                int chunkTo = Math.min(passengers, from + PASSENGERS_PER_CHUNK);
+                passengerChunks.add(() -> insertPassengers(firstPassengerId, chunkFrom, chunkTo));
+            }
+            invokeAll(executor, passengerChunks);
+
+            int chunks = (flights + FLIGHTS_PER_CHUNK - 1) / FLIGHTS_PER_CHUNK;
+            List<Callable<long[]>> countChunks = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int chunkIndex = chunk;
+                countChunks.add(() -> plan.countChunk(chunkIndex));
+            }
+            List<long[]> counts = invokeAll(executor, countChunks);
+
+            List<Callable<long[]>> flightChunks = new ArrayList<>();
+            long reservationId = firstReservationId;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int chunkIndex = chunk;
+                long chunkFirstReservationId = reservationId;
+                flightChunks.add(() -> plan.insertChunk(chunkIndex, chunkFirstReservationId));
+                reservationId += counts.get(chunk)[1];
+            }
+            long seats = 0;
+            long generatedReservations = 0;
+            for (long[] chunkCounts : invokeAll(executor, flightChunks)) {
+                seats += chunkCounts[0];
+                generatedReservations += chunkCounts[1];
+            }
+
+            restartIdentity("passengers", firstPassengerId + passengers);
+            restartIdentity("flights", firstFlightId + flights);
+            restartIdentity("reservations", reservationId);
+            SeatAvailabilityCache.getInstance().invalidateAll();
+
+            return new Summary(flights, passengers, seats, generatedReservations, Duration.ofNanos(System.nanoTime() - start));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the chunks on the executor and returns their results in the order of the chunks.
+     */
+    private static List<long[]> invokeAll(ExecutorService executor, List<Callable<long[]>> chunks) throws DatabaseActionException {
+        List<long[]> results = new ArrayList<>();
+        try {
+            for (Future<long[]> future : executor.invokeAll(chunks)) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof DatabaseActionException cause) {
+                throw cause;
+            }
+            throw new DatabaseActionException("Failed to generate dataset", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseActionException("Dataset generation was interrupted", e);
+        }
+    }
+
+    private long[] insertPassengers(int firstId, int from, int to) throws DatabaseActionException {
+        String query =
+                """
+                INSERT INTO passengers (id, name, surname, email, phoneNumber)
+                OVERRIDING SYSTEM VALUE
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        Random random = random(1, from);
+        Zipf surnames = new Zipf(SURNAMES, 1.0);
+        try (Connection conn = DatabaseInitializer.getConnection(); PreparedStatement ps = conn.prepareStatement(query)) {
+            conn.setAutoCommit(false);
+            for (int i = from; i < to; i++) {
+                int id = firstId + i;
+                int surnameRank = surnames.sample(random);
+                String surname = surnameRank < COMMON_SURNAMES.length ? COMMON_SURNAMES[surnameRank] : "Nazwisko" + surnameRank;
+                ps.setInt(1, id);
+                ps.setString(2, NAMES[random.nextInt(NAMES.length)]);
+                ps.setString(3, surname);
+                ps.setString(4, "passenger" + id + "@example.com");
+                ps.setString(5, String.valueOf(500_000_000 + random.nextInt(300_000_000)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+            return new long[] {to - from, 0};
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while generating passengers " + from + "-" + to, e);
+        }
+    }
+
+    private int nextId(String table) throws DatabaseActionException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while reading the last ID of " + table, e);
+        }
+    }
+
+    /**
+     * Moves the identity of the table past the generated IDs, so rows added later by the application do not collide.
+     */
+    private void restartIdentity(String table, long nextId) throws DatabaseActionException {
+        try (Connection conn = DatabaseInitializer.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+        }
+        catch (SQLException e) {
+            throw new DatabaseActionException("Database error while restarting the identity of " + table, e);
+        }
+    }
+
+    /**
+     * Creates the random generator of one chunk, independent of the order in which chunks are processed.
+     */
+    private Random random(int table, int chunk) {
+        return new Random(seed * 31 + table * 0x9E3779B97F4A7C15L + chunk * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    /**
+     * Receives rows generated for a chunk of flights.
+     */
+    private interface RowSink {
+        void flight(int id, String departure, String destination, LocalDateTime departureDate, int duration, int seatRows) throws SQLException;
+
+        void reservation(int flightId, int passengerId, String seatNumber) throws SQLException;
+
+        void flush(int fromFlightId, int toFlightId) throws SQLException;
+    }
+
+    /**
+     * Generates flights with their seats and reservations. A chunk is generated twice from the same random generator:
+     * first only to count its reservations, so reservation IDs of all chunks can be assigned up front,
+     * and then to insert it.
+     */
+    private class FlightPlan {
+        private final int firstFlightId;
+        private final int flights;
+        private final int firstPassengerId;
+        private final int passengers;
+        private final double meanOccupancy;
+        private final String[][] routes;
+
+        FlightPlan(int firstFlightId, int flights, int firstPassengerId, int passengers, double meanOccupancy) {
+            this.firstFlightId = firstFlightId;
+            this.flights = flights;
+            this.firstPassengerId = firstPassengerId;
+            this.passengers = passengers;
+            this.meanOccupancy = meanOccupancy;
+
+            List<String[]> pairs = new ArrayList<>();
+            for (String departure : CITIES) {
+                for (String destination : CITIES) {
+                    if (!departure.equals(destination)) {
+                        pairs.add(new String[] {departure, destination});
+                    }
+                }
+            }
+            Collections.shuffle(pairs, new Random(seed));
+            this.routes = pairs.toArray(String[][]::new);
+        }
+
+        long[] countChunk(int chunk) throws SQLException {
+            long[] counts = new long[2];
+            generateChunk(chunk, new RowSink() {
+                @Override
+                public void flight(int id, String departure, String destination, LocalDateTime departureDate, int duration, int seatRows) {
+                    counts[0] += (long) seatRows * SEAT_LETTERS.length;
+                }
+
+                @Override
+                public void reservation(int flightId, int passengerId, String seatNumber) {
+                    counts[1]++;
+                }
+
+                @Override
+                public void flush(int fromFlightId, int toFlightId) {}
+            });
+            return counts;
+        }
+
+        long[] insertChunk(int chunk, long firstReservationId) throws DatabaseActionException {
+            String flightQuery =
+                    """
+                    INSERT INTO flights (id, departure, destination, departureDate, duration, seatRowsAmount)
+                    OVERRIDING SYSTEM VALUE
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """;
+            String seatQuery =
+                    """
+                    INSERT INTO seats (flightId, seatNumber, available)
+                    SELECT f.id, CONCAT(r.X, l.letter), TRUE
+                    FROM flights f
+                    JOIN SYSTEM_RANGE(1, %d) r ON r.X <= f.seatRowsAmount
+                    CROSS JOIN (VALUES 'A', 'B', 'C', 'D', 'E', 'F') l(letter)
+                    WHERE f.id BETWEEN ? AND ?
+                    """.formatted(MAX_SEAT_ROWS);
+            String reservationQuery =
+                    """
+                    INSERT INTO reservations (id, flightId, passengerId, seatNumber)
+                    OVERRIDING SYSTEM VALUE
+                    VALUES (?, ?, ?, ?)
+                    """;
+            long[] counts = new long[2];
+            try (
+                    Connection conn = DatabaseInitializer.getConnection();
+                    PreparedStatement flightPs = conn.prepareStatement(flightQuery);
+                    PreparedStatement seatPs = conn.prepareStatement(seatQuery);
+                    PreparedStatement reservationPs = conn.prepareStatement(reservationQuery)
+            ) {
+                conn.setAutoCommit(false);
+                generateChunk(chunk, new RowSink() {
+                    @Override
+                    public void flight(int id, String departure, String destination, LocalDateTime departureDate, int duration, int seatRows) throws SQLException {
+                        flightPs.setInt(1, id);
+                        flightPs.setString(2, departure);
+                        flightPs.setString(3, destination);
+                        flightPs.setTimestamp(4, Timestamp.valueOf(departureDate));
+                        flightPs.setInt(5, duration);
+                        flightPs.setInt(6, seatRows);
+                        flightPs.addBatch();
+                        counts[0] += (long) seatRows * SEAT_LETTERS.length;
+                    }
+
+                    @Override
+                    public void reservation(int flightId, int passengerId, String seatNumber) throws SQLException {
+                        reservationPs.setLong(1, firstReservationId + counts[1]);
+                        reservationPs.setInt(2, flightId);
+                        reservationPs.setInt(3, passengerId);
+                        reservationPs.setString(4, seatNumber);
+                        reservationPs.addBatch();
+                        counts[1]++;
+                    }
+
+                    @Override
+                    public void flush(int fromFlightId, int toFlightId) throws SQLException {
+                        flightPs.executeBatch();
+                        seatPs.setInt(1, fromFlightId);
+                        seatPs.setInt(2, toFlightId);
+                        seatPs.executeUpdate();
+                        reservationPs.executeBatch();
+                        SeatStatements.claimFlights(conn, fromFlightId, toFlightId);
+                    }
+                });
+                conn.commit();
+                return counts;
+            }
+            catch (SQLException e) {
+                throw new DatabaseActionException("Database error while generating flights of chunk " + chunk, e);
+            }
+        }
+
+        private void generateChunk(int chunk, RowSink sink) throws SQLException {
+            Random random = random(2, chunk);
+            Zipf routeRanks = new Zipf(routes.length, 1.1);
+            int from = chunk * FLIGHTS_PER_CHUNK;
+            int to = Math.min(flights, from + FLIGHTS_PER_CHUNK);
+
+            for (int i = from; i < to; i++) {
+                int flightId = firstFlightId + i;
+                String[] route = routes[routeRanks.sample(random)];
+                LocalDateTime departureDate = FIRST_DEPARTURE.plusMinutes(5L * random.nextInt(DEPARTURE_SPAN_DAYS * 24 * 12));
+                int seatRows = MIN_SEAT_ROWS + random.nextInt(MAX_SEAT_ROWS - MIN_SEAT_ROWS + 1);
+                double occupancy = Math.min(1.0, meanOccupancy * (0.5 + random.nextDouble()));
+                sink.flight(flightId, route[0], route[1], departureDate, 60 + 5 * random.nextInt(60), seatRows);
+
+                for (int row = 1; row <= seatRows; row++) {
+                    for (char letter : SEAT_LETTERS) {
+                        if (random.nextDouble() < occupancy) {
+                            sink.reservation(flightId, firstPassengerId + random.nextInt(passengers), row + String.valueOf(letter));
+                        }
+                    }
+                }
+
+                if ((i - from + 1) % FLIGHTS_PER_BATCH == 0 || i == to - 1) {
+                    sink.flush(firstFlightId + i - (i - from) % FLIGHTS_PER_BATCH, flightId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Samples ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}.
+     */
+    private static class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+
+    /**
+     * Numbers of rows created by {@link #generate(int, int, long)}.
+     */
+    public static class Summary {
+        private final int flights;
+        private final int passengers;
+        private final long seats;
+        private final long reservations;
+        private final Duration elapsed;
+
+        Summary(int flights, int passengers, long seats, long reservations, Duration elapsed) {
+            this.flights = flights;
+            this.passengers = passengers;
+            this.seats = seats;
+            this.reservations = reservations;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Returns the number of generated flights.
+         *
+         * @return the flights count
+         */
+        public int getFlights() {
+            return flights;
+        }
+
+        /**
+         * Returns the number of generated passengers.
+         *
+         * @return the passengers count
+         */
+        public int getPassengers() {
+            return passengers;
+        }
+
+        /**
+         * Returns the number of generated seats.
+         *
+         * @return the seats count
+         */
+        public long getSeats() {
+            return seats;
+        }
+
+        /**
+         * Returns the number of generated reservations.
+         *
+         * @return the reservations count
+         */
+        public long getReservations() {
+            return reservations;
+        }
+
+        /**
+         * Returns how long the generation took.
+         *
+         * @return the elapsed time
+         */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /**
+         * Returns a one-line summary of generated rows.
+         *
+         * @return the summary
+         */
+        @Override
+        public String toString() {
+            return "flights=" + flights + " passengers=" + passengers + " seats=" + seats
+                    + " reservations=" + reservations + " elapsed=" + elapsed.toMillis() + "ms";
+        }
+    }
+}
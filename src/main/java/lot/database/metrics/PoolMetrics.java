@@ -0,0 +1,148 @@
+package lot.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects metrics of a HikariCP connection pool without any external metrics library.
+ * Registered in the pool configuration as its metrics tracker factory, it records how long callers wait
+ * for a connection, how long connections are held and how many requests timed out,
+ * and exposes the current numbers of active, idle and waiting connections.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final LatencyHistogram waitTimeMicros = new LatencyHistogram();
+    private final LatencyHistogram usageTimeMillis = new LatencyHistogram();
+    private final LatencyHistogram creationTimeMillis = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    /**
+     * Constructs metrics not yet attached to any pool.
+     */
+    public PoolMetrics() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creationTimeMillis.record(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                waitTimeMicros.record(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageTimeMillis.record(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of connections currently borrowed from the pool.
+     *
+     * @return the active connections count, or 0 if the pool is not started
+     */
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getActiveConnections();
+    }
+
+    /**
+     * Returns the number of connections waiting in the pool to be borrowed.
+     *
+     * @return the idle connections count, or 0 if the pool is not started
+     */
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getIdleConnections();
+    }
+
+    /**
+     * Returns the number of threads waiting for a connection.
+     *
+     * @return the pending threads count, or 0 if the pool is not started
+     */
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool.
+     *
+     * @return the maximum pool size, or 0 if the pool is not started
+     */
+    public int getMaxConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getMaxConnections();
+    }
+
+    /**
+     * Returns the histogram of times callers waited for a connection, in microseconds.
+     *
+     * @return the wait time histogram
+     */
+    public LatencyHistogram getWaitTimeMicros() {
+        return waitTimeMicros;
+    }
+
+    /**
+     * Returns the histogram of times connections were held by callers, in milliseconds.
+     *
+     * @return the usage time histogram
+     */
+    public LatencyHistogram getUsageTimeMillis() {
+        return usageTimeMillis;
+    }
+
+    /**
+     * Returns the histogram of times needed to open new physical connections, in milliseconds.
+     *
+     * @return the creation time histogram
+     */
+    public LatencyHistogram getCreationTimeMillis() {
+        return creationTimeMillis;
+    }
+
+    /**
+     * Returns the number of requests for a connection which timed out.
+     *
+     * @return the timeouts count
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Returns a one-line summary of the pool state and histograms, suitable for logging.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return "active=" + getActiveConnections()
+                + " idle=" + getIdleConnections()
+                + " pending=" + getPendingThreads()
+                + " max=" + getMaxConnections()
+                + " timeouts=" + getTimeouts()
+                + " | wait[us] " + waitTimeMicros
+                + " | usage[ms] " + usageTimeMillis;
+    }
+}
@@ -1,5 +1,6 @@
 package lot.database.triggers;
 
+import lot.dao.cache.SeatAvailabilityCache;
 import org.h2.api.Trigger;
 
 import java.sql.Connection;
@@ -46,6 +47,7 @@ public class MakeSeatAvailableTrigger implements Trigger {
 
             ps.executeUpdate();
         }
+        SeatAvailabilityCache.getInstance().invalidate((int) oldRow[1]);
     }
 
     /**
@@ -1,5 +1,6 @@
 package lot.database.triggers;
 
+import lot.dao.cache.SeatAvailabilityCache;
 import org.h2.api.Trigger;
 
 import java.sql.Connection;
@@ -8,7 +9,7 @@ import java.sql.SQLException;
 
 /**
  * Database trigger that manages seat availability when a reservation is updated.
- * Makes the old seat available and the new seat unavailable when a reservation's seat is changed.
+ * Makes the old seat available and the new seat unavailable when a reservation's seat or flight is changed.
  */
 public class ManageSeatAvailabilityAfterUpdateTrigger implements Trigger {
     /**
@@ -36,7 +37,7 @@ public class ManageSeatAvailabilityAfterUpdateTrigger implements Trigger {
     public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
         String oldSeatNumber = (String) oldRow[3];
         String newSeatNumber = (String) newRow[3];
-        if (oldSeatNumber.equals(newSeatNumber)) {
+        if (oldRow[1].equals(newRow[1]) && oldSeatNumber.equals(newSeatNumber)) {
             return;
         }
 
@@ -62,6 +63,8 @@ public class ManageSeatAvailabilityAfterUpdateTrigger implements Trigger {
 
             ps.executeUpdate();
         }
+        SeatAvailabilityCache.getInstance().invalidate((int) oldRow[1]);
+        SeatAvailabilityCache.getInstance().invalidate((int) newRow[1]);
     }
 
     /**
@@ -0,0 +1,17 @@
+package lot.exceptions.dao;
+
+/**
+ * Exception thrown when an error occurs while rows of a database stream are being read.
+ * Extends RuntimeException, because it is raised from inside stream operations which can not throw checked exceptions.
+ */
+public class DatabaseStreamException extends RuntimeException {
+    /**
+     * Constructs a new DatabaseStreamException with the specified detail message and cause.
+     *
+     * @param message the detail message describing the database error
+     * @param cause the underlying cause of the exception
+     */
+    public DatabaseStreamException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package lot.exceptions.dao;
+
+/**
+ * Exception thrown when a reservation can not be stored, because the data it refers to does not allow it.
+ * Extends DatabaseActionException, so it is handled as a checked DAO exception carrying the rejection reason.
+ */
+public class ReservationRejectedException extends DatabaseActionException {
+    /**
+     * Reasons for which a reservation can be rejected.
+     */
+    public enum Reason {
+        /** The flight assigned to the reservation does not exist. */
+        FLIGHT_NOT_FOUND,
+        /** The passenger assigned to the reservation does not exist. */
+        PASSENGER_NOT_FOUND,
+        /** The seat does not exist or it is already taken. */
+        SEAT_NOT_AVAILABLE,
+        /** The seat was available, but a concurrent reservation claimed it first. */
+        SEAT_TAKEN
+    }
+
+    private final Reason reason;
+
+    /**
+     * Constructs a new ReservationRejectedException with the specified reason.
+     *
+     * @param reason the reason of the rejection
+     */
+    public ReservationRejectedException(Reason reason) {
+        super("Reservation rejected: " + reason);
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the reason of the rejection.
+     *
+     * @return the rejection reason
+     */
+    public Reason getReason() {
+        return reason;
+    }
+}
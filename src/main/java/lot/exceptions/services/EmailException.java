@@ -5,6 +5,15 @@ package lot.exceptions.services;
  * Extends RuntimeException to indicate it's an unchecked exception.
  */
 public class EmailException extends RuntimeException {
+    /**
+     * Constructs a new EmailException with the specified detail message.
+     *
+     * @param message the detail message describing the email error
+     */
+    public EmailException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new EmailException with the specified detail message and cause.
      *
@@ -0,0 +1,17 @@
+package lot.exceptions.services;
+
+/**
+ * Exception thrown when a seat was claimed by a concurrent reservation while a booking was in progress.
+ * Extends ValidationException, so it is reported like any other invalid reservation data,
+ * while still letting callers tell a lost booking race apart from other validation errors.
+ */
+public class SeatTakenException extends ValidationException {
+    /**
+     * Constructs a new SeatTakenException with the specified detail message.
+     *
+     * @param message the detail message describing which seat was taken
+     */
+    public SeatTakenException(String message) {
+        super(message);
+    }
+}
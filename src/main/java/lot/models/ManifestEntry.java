@@ -0,0 +1,99 @@
+package lot.models;
+
+/**
+ * Represents a row of a flight manifest: a reservation on the flight together with the passenger's contact data.
+ */
+public class ManifestEntry {
+    private final int reservationId;
+    private final String seatNumber;
+    private final int passengerId;
+    private final String name;
+    private final String surname;
+    private final String email;
+    private final String phoneNumber;
+
+    /**
+     * Constructs a ManifestEntry object with data retrieved from a database.
+     *
+     * @param reservationId the ID of the reservation
+     * @param seatNumber the seat number of the reservation
+     * @param passengerId the ID of the passenger
+     * @param name the passenger's first name
+     * @param surname the passenger's last name
+     * @param email the passenger's email address
+     * @param phoneNumber the passenger's phone number
+     */
+    public ManifestEntry(int reservationId, String seatNumber, int passengerId, String name, String surname,
+                         String email, String phoneNumber) {
+        this.reservationId = reservationId;
+        this.seatNumber = seatNumber;
+        this.passengerId = passengerId;
+        this.name = name;
+        this.surname = surname;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+    }
+
+    /**
+     * Returns the ID of the reservation.
+     *
+     * @return the reservation ID
+     */
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * Returns the seat number of the reservation.
+     *
+     * @return the seat number
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Returns the ID of the passenger.
+     *
+     * @return the passenger ID
+     */
+    public int getPassengerId() {
+        return passengerId;
+    }
+
+    /**
+     * Returns the passenger's first name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the passenger's last name.
+     *
+     * @return the surname
+     */
+    public String getSurname() {
+        return surname;
+    }
+
+    /**
+     * Returns the passenger's email address.
+     *
+     * @return the email address
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Returns the passenger's phone number.
+     *
+     * @return the phone number
+     */
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+}
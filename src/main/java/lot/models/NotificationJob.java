@@ -0,0 +1,146 @@
+package lot.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a bulk notification of the passengers of a flight and the progress of sending its emails.
+ */
+public class NotificationJob {
+    private final int id;
+    private final int flightId;
+    private final String kind;
+    private final int total;
+    private final int sent;
+    private final int failed;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastSentAt;
+
+    /**
+     * Constructs a NotificationJob object with data retrieved from a database.
+     *
+     * @param id the job's unique identifier
+     * @param flightId the ID of the flight the passengers are notified about
+     * @param kind the kind of notification, e.g. "CANCELLATION"
+     * @param total the number of emails queued by the job
+     * @param sent the number of emails sent so far
+     * @param failed the number of emails given up so far
+     * @param createdAt the time the job was queued
+     * @param lastSentAt the time the last email was sent, or null if none was sent yet
+     */
+    public NotificationJob(int id, int flightId, String kind, int total, int sent, int failed, LocalDateTime createdAt, LocalDateTime lastSentAt) {
+        this.id = id;
+        this.flightId = flightId;
+        this.kind = kind;
+        this.total = total;
+        this.sent = sent;
+        this.failed = failed;
+        this.createdAt = createdAt;
+        this.lastSentAt = lastSentAt;
+    }
+
+    /**
+     * Returns the job's unique identifier.
+     *
+     * @return the job ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the ID of the flight the passengers are notified about. The flight may no longer exist.
+     *
+     * @return the flight ID
+     */
+    public int getFlightId() {
+        return flightId;
+    }
+
+    /**
+     * Returns the kind of notification.
+     *
+     * @return the kind, e.g. "CANCELLATION"
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the number of emails queued by the job.
+     *
+     * @return the number of notified passengers
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the number of emails sent so far.
+     *
+     * @return the number of sent emails
+     */
+    public int getSent() {
+        return sent;
+    }
+
+    /**
+     * Returns the number of emails which could not be sent and are not retried anymore.
+     *
+     * @return the number of failed emails
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Returns the number of emails still waiting to be sent.
+     *
+     * @return the number of pending emails
+     */
+    public int getPending() {
+        return total - sent - failed;
+    }
+
+    /**
+     * Checks if every email of the job has been sent or given up.
+     *
+     * @return true if no email is pending
+     */
+    public boolean isComplete() {
+        return getPending() == 0;
+    }
+
+    /**
+     * Returns the time the job was queued.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the time from queueing the job to sending its last email.
+     *
+     * @return the delivery time, or zero if no email has been sent yet
+     */
+    public Duration getElapsed() {
+        return lastSentAt == null ? Duration.ZERO : Duration.between(createdAt, lastSentAt);
+    }
+
+    /**
+     * Returns a report of the job's progress.
+     *
+     * @return a string containing the numbers of sent, failed and pending emails
+     */
+    @Override
+    public String toString() {
+        String report = kind.charAt(0) + kind.substring(1).toLowerCase() + " notice for flight " + flightId + ": "
+                + sent + "/" + total + " sent, " + failed + " failed";
+        if (!isComplete()) {
+            return report + ", " + getPending() + " pending";
+        }
+        return report + ", completed in " + getElapsed().toMillis() / 1000.0 + " s";
+    }
+}
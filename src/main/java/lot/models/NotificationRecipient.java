@@ -0,0 +1,74 @@
+package lot.models;
+
+/**
+ * Represents a passenger to be notified about a change of their flight, with the data used in the message.
+ */
+public class NotificationRecipient {
+    private final int reservationId;
+    private final String name;
+    private final String surname;
+    private final String email;
+    private final String seatNumber;
+
+    /**
+     * Constructs a NotificationRecipient object with data retrieved from a database.
+     *
+     * @param reservationId the ID of the passenger's reservation on the flight
+     * @param name the passenger's first name
+     * @param surname the passenger's last name
+     * @param email the passenger's email address
+     * @param seatNumber the seat number of the reservation
+     */
+    public NotificationRecipient(int reservationId, String name, String surname, String email, String seatNumber) {
+        this.reservationId = reservationId;
+        this.name = name;
+        this.surname = surname;
+        this.email = email;
+        this.seatNumber = seatNumber;
+    }
+
+    /**
+     * Returns the ID of the passenger's reservation on the flight.
+     *
+     * @return the reservation ID
+     */
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * Returns the passenger's first name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the passenger's last name.
+     *
+     * @return the surname
+     */
+    public String getSurname() {
+        return surname;
+    }
+
+    /**
+     * Returns the passenger's email address.
+     *
+     * @return the email address
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Returns the seat number of the reservation.
+     *
+     * @return the seat number
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+}
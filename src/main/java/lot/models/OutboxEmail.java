@@ -0,0 +1,107 @@
+package lot.models;
+
+/**
+ * Represents an email waiting in the outbox to be sent by the background sender.
+ */
+public class OutboxEmail {
+    /**
+     * Delivery status of an email in the outbox.
+     */
+    public enum Status {
+        /** The email waits for its first or next attempt. */
+        PENDING,
+        /** The email has been accepted by the SMTP server. */
+        SENT,
+        /** Sending the email failed permanently or too many times, it is not retried anymore. */
+        FAILED
+    }
+
+    private final int id;
+    private final String recipient;
+    private final String subject;
+    private final String body;
+    private final int attempts;
+
+    /**
+     * Constructs an OutboxEmail object with data retrieved from a database.
+     *
+     * @param id the email's unique identifier
+     * @param recipient the email address of the recipient
+     * @param subject the subject of the email
+     * @param body the text of the email
+     * @param attempts the number of failed attempts to send the email so far
+     */
+    public OutboxEmail(int id, String recipient, String subject, String body, int attempts) {
+        this.id = id;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Constructs an OutboxEmail object which has not been queued yet.
+     *
+     * @param recipient the email address of the recipient
+     * @param subject the subject of the email
+     * @param body the text of the email
+     */
+    public OutboxEmail(String recipient, String subject, String body) {
+        this(-1, recipient, subject, body, 0);
+    }
+
+    /**
+     * Returns the email's unique identifier.
+     *
+     * @return the email's ID, or -1 if it has not been queued yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the email address of the recipient.
+     *
+     * @return the recipient
+     */
+    public String getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Returns the subject of the email.
+     *
+     * @return the subject
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Returns the text of the email.
+     *
+     * @return the body
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the number of failed attempts to send the email so far.
+     *
+     * @return the number of attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns a string representation of the email.
+     *
+     * @return a string containing the email's ID, recipient and subject
+     */
+    @Override
+    public String toString() {
+        return "Email " + id + " to " + recipient + ": " + subject;
+    }
+}
@@ -1,71 +1,133 @@
 package lot.services;
 
-import io.github.cdimascio.dotenv.Dotenv;
+import lot.dao.EmailOutboxDao;
+import lot.exceptions.dao.DatabaseActionException;
 import lot.exceptions.services.EmailException;
-
-import java.util.Properties;
-import javax.mail.*;
-import javax.mail.internet.*;
+import lot.models.OutboxEmail;
+import lot.services.email.EmailConfig;
+import lot.services.email.EmailOutboxSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Service responsible for sending email notifications.
+ * Emails are queued in the persistent outbox and sent in the background by {@link EmailOutboxSender},
+ * so a slow or unavailable SMTP server does not delay the operation that triggered the email.
+ * When no SMTP server is configured and emails are not sent by another process, emails are disabled
+ * and not queued at all, see {@link #isEnabled()}.
  */
 public class EmailService {
-    private static final String SMTP_HOST;
-    private static final int SMTP_PORT;
-    private static final String USERNAME;
-    private static final String PASSWORD;
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailService.class);
+
+    private static EmailOutboxSender sharedSender;
+    private static boolean sharedEnabled;
+    private static boolean senderResolved;
+
+    private final EmailOutboxDao outboxDao;
+    private final EmailOutboxSender sender;
+    private final boolean enabled;
 
-    static {
-        Dotenv dotenv = Dotenv.load();
-        SMTP_HOST = dotenv.get("EMAIL_SMTP_HOST");
-        SMTP_PORT = Integer.parseInt(dotenv.get("EMAIL_SMTP_PORT"));
-        USERNAME = dotenv.get("EMAIL_USERNAME");
-        PASSWORD = dotenv.get("EMAIL_PASSWORD");
+    /**
+     * Constructs a service which queues emails for the application-wide sender,
+     * started on first use if an SMTP server is configured.
+     */
+    public EmailService() {
+        this(new EmailOutboxDao(), sharedSender(), sharedEnabled());
     }
 
     /**
-     * Constructs a new instance of the class with default values.
-     * Initializes all fields to their default initial values.
+     * Constructs a service with the provided outbox and sender.
+     *
+     * @param outboxDao the DAO of the outbox
+     * @param sender the sender woken up after an email is queued, or null if emails are sent by another process
      */
-    public EmailService() {}
+    public EmailService(EmailOutboxDao outboxDao, EmailOutboxSender sender) {
+        this(outboxDao, sender, true);
+    }
+
+    private EmailService(EmailOutboxDao outboxDao, EmailOutboxSender sender, boolean enabled) {
+        this.outboxDao = outboxDao;
+        this.sender = sender;
+        this.enabled = enabled;
+    }
 
     /**
-     * Sends a reservation confirmation email to the specified recipient.
+     * Checks if emails are sent, i.e. if an SMTP server is configured or emails are sent by another process.
+     *
+     * @return true if queued emails are going to be sent
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a reservation confirmation email to the specified recipient.
      *
      * @param recipientEmail the email address of the recipient
      * @param reservationDetails the details of the reservation to include in the email
-     * @throws EmailException if there is an error while sending the email
+     * @throws EmailException if emails are disabled or the email cannot be queued
      */
     public void sendConfirmationEmail(String recipientEmail, String reservationDetails) {
-        Properties props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", SMTP_HOST);
-        props.put("mail.smtp.port", SMTP_PORT);
-        props.put("mail.smtp.ssl.trust", SMTP_HOST);
-        props.put("mail.smtp.ssl.protocols", "TLSv1.2");
-
-        Session session = Session.getInstance(props, new Authenticator() {
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(USERNAME, PASSWORD);
-            }
-        });
-
+        if (!enabled) {
+            throw new EmailException("Email to " + recipientEmail + " cannot be sent, because no SMTP server is configured");
+        }
+        OutboxEmail email = new OutboxEmail(recipientEmail, "Flight's reservation confirmation",
+                "Thank you for reservation!\n\n" +
+                "Below you can find details of your reservation:\n\n" +
+                reservationDetails);
         try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(USERNAME));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipientEmail));
-            message.setSubject("Flight's reservation confirmation");
-            message.setText("Thank you for reservation!\n\n" +
-                    "Below you can find details of your reservation:\n\n" +
-                    reservationDetails);
+            outboxDao.enqueue(email);
+        }
+        catch (DatabaseActionException e) {
+            throw new EmailException("Failed to queue email to " + recipientEmail + " due to some database problem", e);
+        }
+        if (sender != null) {
+            sender.wakeUp();
+        }
+    }
 
-            Transport.send(message);
+    /**
+     * Stops the application-wide sender, if it has been started. Emails left in the outbox are sent on the next start.
+     */
+    public static synchronized void shutdown() {
+        if (sharedSender != null) {
+            sharedSender.close();
         }
-        catch (MessagingException e) {
-            throw new EmailException("Failed to send email to " + recipientEmail +
-                    " via " + SMTP_HOST + ":" + SMTP_PORT, e);
+    }
+
+    /**
+     * Returns the application-wide sender, starting it on first use.
+     * The email configuration is read only once, also when no SMTP server is configured,
+     * in which case a warning is logged unless emails are sent by another process.
+     *
+     * @return the sender, or null if no SMTP server is configured
+     */
+    static synchronized EmailOutboxSender sharedSender() {
+        if (!senderResolved) {
+            EmailConfig config = EmailConfig.load();
+            if (config.isConfigured()) {
+                sharedSender = new EmailOutboxSender(new EmailOutboxDao(), config);
+                sharedSender.start();
+            }
+            else if (config.isSentExternally()) {
+                LOGGER.info("No SMTP server configured, queued emails are sent by another process");
+            }
+            else {
+                LOGGER.warn("No SMTP server configured (EMAIL_SMTP_HOST is not set), emails will not be sent");
+            }
+            sharedEnabled = config.isConfigured() || config.isSentExternally();
+            senderResolved = true;
         }
+        return sharedSender;
+    }
+
+    /**
+     * Checks if the application-wide configuration allows sending emails.
+     *
+     * @return true if an SMTP server is configured or emails are sent by another process
+     */
+    private static synchronized boolean sharedEnabled() {
+        sharedSender();
+        return sharedEnabled;
     }
 }
@@ -0,0 +1,156 @@
+package lot.services;
+
+import lot.dao.EmailOutboxDao;
+import lot.dao.NotificationJobDao;
+import lot.database.UnitOfWork;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.services.ServiceException;
+import lot.exceptions.services.ValidationException;
+import lot.models.Flight;
+import lot.models.NotificationJob;
+import lot.models.NotificationRecipient;
+import lot.models.OutboxEmail;
+import lot.services.email.EmailOutboxSender;
+import lot.services.email.NotificationTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Service notifying all passengers of a flight about its cancellation or delay.
+ * The passengers are found with one query and their emails are queued in the outbox with one batched insert,
+ * in the caller's unit of work, so they are sent only if the change of the flight is committed.
+ * The emails are sent in parallel by the threads of {@link EmailOutboxSender}, within its rate limit;
+ * the progress of a notification is tracked as a {@link NotificationJob}.
+ */
+public class FlightNotificationService {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final NotificationJobDao jobDao;
+    private final EmailOutboxDao outboxDao;
+    private final EmailOutboxSender sender;
+
+    /**
+     * Constructs a service queueing emails for the application-wide sender.
+     */
+    public FlightNotificationService() {
+        this(new NotificationJobDao(), new EmailOutboxDao(), EmailService.sharedSender());
+    }
+
+    /**
+     * Constructs a service with the provided DAOs and sender.
+     *
+     * @param jobDao the DAO of notification jobs
+     * @param outboxDao the DAO of the outbox
+     * @param sender the sender woken up after emails are queued, or null if emails are sent by another process
+     */
+    public FlightNotificationService(NotificationJobDao jobDao, EmailOutboxDao outboxDao, EmailOutboxSender sender) {
+        this.jobDao = jobDao;
+        this.outboxDao = outboxDao;
+        this.sender = sender;
+    }
+
+    /**
+     * Queues a cancellation notice for every passenger of a flight. Must be called before the flight is deleted,
+     * because deleting it deletes its reservations.
+     *
+     * @param flight the cancelled flight
+     * @return the queued job, or empty if the flight has no passengers
+     * @throws ServiceException if there is a database error
+     */
+    public Optional<NotificationJob> notifyCancellation(Flight flight) {
+        return notifyPassengers(flight, NotificationTemplate.CANCELLATION, Map.of(
+                "flight", describe(flight),
+                "departureDate", flight.getDepartureDate().format(DATE_FORMAT)));
+    }
+
+    /**
+     * Queues a notice about the changed departure for every passenger of a flight.
+     *
+     * @param flight the flight with its previous departure date
+     * @param newDepartureDate the new departure date
+     * @return the queued job, or empty if the flight has no passengers
+     * @throws ServiceException if there is a database error
+     */
+    public Optional<NotificationJob> notifyDelay(Flight flight, LocalDateTime newDepartureDate) {
+        return notifyPassengers(flight, NotificationTemplate.DELAY, Map.of(
+                "flight", describe(flight),
+                "previousDepartureDate", flight.getDepartureDate().format(DATE_FORMAT),
+                "departureDate", newDepartureDate.format(DATE_FORMAT)));
+    }
+
+    /**
+     * Returns the current progress of a notification job.
+     *
+     * @param jobId the ID of the job
+     * @return the job with the numbers of sent, failed and pending emails
+     * @throws ValidationException if the job does not exist
+     * @throws ServiceException if there is a database error
+     */
+    public NotificationJob getReport(int jobId) {
+        try {
+            return jobDao.findById(jobId)
+                    .orElseThrow(() -> new ValidationException("Notification job with id: " + jobId + " does not exist"));
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch progress of notification job with id: " + jobId + " due to some database problem", e);
+        }
+    }
+
+    /**
+     * Waits until every email of a job has been sent or given up, reporting the progress periodically.
+     *
+     * @param jobId the ID of the job
+     * @param timeout the maximum time to wait
+     * @param onProgress the action called with every report, including the last one
+     * @return the last report, incomplete if the timeout elapsed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ValidationException if the job does not exist
+     * @throws ServiceException if there is a database error
+     */
+    public NotificationJob awaitCompletion(int jobId, Duration timeout, Consumer<NotificationJob> onProgress) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        NotificationJob report = getReport(jobId);
+        onProgress.accept(report);
+        while (!report.isComplete() && System.nanoTime() < deadline) {
+            Thread.sleep(POLL_INTERVAL.toMillis());
+            report = getReport(jobId);
+            onProgress.accept(report);
+        }
+        return report;
+    }
+
+    private Optional<NotificationJob> notifyPassengers(Flight flight, NotificationTemplate template, Map<String, String> values) {
+        try {
+            return UnitOfWork.call(() -> {
+                List<NotificationRecipient> recipients = jobDao.findRecipients(flight.getId());
+                if (recipients.isEmpty()) {
+                    return Optional.empty();
+                }
+                int jobId = jobDao.save(flight.getId(), template.name(), recipients.size());
+                List<OutboxEmail> emails = recipients.stream()
+                        .map(recipient -> template.render(recipient, values))
+                        .toList();
+                outboxDao.enqueueAll(emails, jobId);
+                if (sender != null) {
+                    UnitOfWork.afterCompletion(sender::wakeUp);
+                }
+                return Optional.of(new NotificationJob(jobId, flight.getId(), template.name(), recipients.size(),
+                        0, 0, LocalDateTime.now(), null));
+            });
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to notify passengers of flight with id: " + flight.getId() + " due to some database problem", e);
+        }
+    }
+
+    private static String describe(Flight flight) {
+        return "number " + flight.getId() + " from " + flight.getDeparture() + " to " + flight.getDestination();
+    }
+}
@@ -1,31 +1,47 @@
 package lot.services;
 
 import lot.dao.FlightDao;
+import lot.dao.PageQuery;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.DatabaseStreamException;
 import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Flight;
+import lot.models.NotificationJob;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service class for handling flight-related operations.
  */
 public class FlightService {
     private final FlightDao flightDao;
+    private final FlightNotificationService notifications;
 
     /**
-     * Constructs a FlightService with the specified FlightDao.
+     * Constructs a FlightService with the specified FlightDao, which does not notify passengers about changes.
      *
      * @param flightDao the data access object for flights
      */
     public FlightService(FlightDao flightDao) {
+        this(flightDao, null);
+    }
+
+    /**
+     * Constructs a FlightService which notifies passengers when their upcoming flight is cancelled or rescheduled.
+     *
+     * @param flightDao the data access object for flights
+     * @param notifications the service notifying passengers, or null to not notify them
+     */
+    public FlightService(FlightDao flightDao, FlightNotificationService notifications) {
         this.flightDao = flightDao;
+        this.notifications = notifications;
     }
 
     /**
@@ -42,9 +58,8 @@ public class FlightService {
      * @throws ServiceException if there is a database error
      */
     public int addNewFlight(String departure, String destination, LocalDate departureDate, String time, int duration, int seatRowsAmount) {
-        validateData(departureDate, time, duration, seatRowsAmount);
-        LocalTime t = LocalTime.parse(time, DateTimeFormatter.ofPattern("HH:mm"));
-        LocalDateTime dd = departureDate.atTime(t);
+        LocalDateTime dd = ValidationRules.departureDate(departureDate, time);
+        ValidationRules.validateFlight(dd, duration, seatRowsAmount);
         Flight flight = new Flight(departure, destination, dd, duration, seatRowsAmount);
 
         try {
@@ -70,6 +85,84 @@ public class FlightService {
         }
     }
 
+    /**
+     * Retrieves a page of flights ordered by ID.
+     *
+     * @param afterId the ID of the last flight of the previous page, 0 for the first page
+     * @param pageSize the maximum number of flights to return
+     * @return a list of flights with IDs greater than afterId
+     * @throws ValidationException if the page size is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Flight> getFlightsPage(int afterId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return flightDao.findPage(afterId, pageSize);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch page of flights due to some database problem", e);
+        }
+    }
+
+    /**
+     * Counts the flights matching the filters of a query.
+     *
+     * @param query the query, whose sort order is ignored
+     * @return the number of matching flights
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public long countFlights(PageQuery query) {
+        try {
+            return flightDao.count(query);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to count flights due to some database problem", e);
+        }
+    }
+
+    /**
+     * Retrieves a window of the flights matching a query, in the order of the query.
+     *
+     * @param query the filters and sort order
+     * @param offset the number of matching flights to skip
+     * @param limit the maximum number of flights to return
+     * @return a list of at most limit flights
+     * @throws ValidationException if the offset is negative or the limit is not greater than 0
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public List<Flight> getFlightsWindow(PageQuery query, long offset, int limit) {
+        if (offset < 0) {
+            throw new ValidationException("Offset can not be negative!");
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return flightDao.findWindow(query, offset, limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch window of flights due to some database problem", e);
+        }
+    }
+
+    /**
+     * Passes every flight, ordered by ID, to the provided action without loading all flights into memory.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param action the action to perform for each flight
+     * @throws ServiceException if there is a database error
+     */
+    public void forEachFlight(int fetchSize, Consumer<Flight> action) {
+        try {
+            flightDao.forEach(fetchSize, action);
+        }
+        catch (DatabaseActionException | DatabaseStreamException e) {
+            throw new ServiceException("Failed to stream all flights due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves a flight by its ID.
      *
@@ -80,10 +173,8 @@ public class FlightService {
      */
     public Flight getFlightById(int flightId) {
         try {
-            if (!flightDao.existsById(flightId)) {
-                throw new ValidationException("Flight with id: " + flightId + " does not exists in the database");
-            }
-            return flightDao.findById(flightId);
+            return flightDao.findById(flightId).orElseThrow(() ->
+                    new ValidationException("Flight with id: " + flightId + " does not exists in the database"));
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to fetch flight with id: " + flightId + " due to some database problem", e);
@@ -138,6 +229,27 @@ public class FlightService {
         }
     }
 
+    /**
+     * Retrieves flights departing between two dates, both inclusive.
+     *
+     * @param from the first departure date of the range
+     * @param to the last departure date of the range
+     * @return a list of flights departing within the range, ordered by departure date and time
+     * @throws ValidationException if the range start is after its end
+     * @throws ServiceException if there is a database error
+     */
+    public List<Flight> getFlightsByDateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("Date range start must not be after its end!");
+        }
+        try {
+            return flightDao.findByDateRange(from, to);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch flights between dates: " + from + " and " + to + " due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves all flight IDs from the system.
      *
@@ -153,6 +265,27 @@ public class FlightService {
         }
     }
 
+    /**
+     * Retrieves a limited number of flight IDs starting with the typed digits, e.g. for a type-ahead picker.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching flight IDs, shorter ones first
+     * @throws ValidationException if the limit is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Integer> getIdsByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0!");
+        }
+        try {
+            return flightDao.findIdsByPrefix(prefix.trim(), limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to search flights ids due to some database problem", e);
+        }
+    }
+
     /**
      * Updates an existing flight in the system.
      *
@@ -163,28 +296,35 @@ public class FlightService {
      * @param time the new departure time (format: HH:mm)
      * @param duration the new flight duration
      * @param seatRowsAmount the new number of seat rows
+     * @return the notification of the passengers, if the departure of an upcoming flight has changed
      * @throws ValidationException if the input data is invalid
      * @throws ServiceException if there is a database error
      */
-    public void updateExistingFlight(int flightId, String departure, String destination, LocalDate departureDate, String time, int duration, int seatRowsAmount) {
-        Flight flight = getFlightById(flightId);
-
-        validateData(departureDate, time, duration, seatRowsAmount);
-        LocalTime t = LocalTime.parse(time, DateTimeFormatter.ofPattern("HH:mm"));
-        LocalDateTime dd = departureDate.atTime(t);
-
-        if (seatRowsAmount < flight.getSeatRowsAmount()) {
-            throw new ValidationException("New seat rows amount must be greater or equal to previous seat rows amount");
-        }
+    public Optional<NotificationJob> updateExistingFlight(int flightId, String departure, String destination, LocalDate departureDate, String time, int duration, int seatRowsAmount) {
+        LocalDateTime dd = ValidationRules.departureDate(departureDate, time);
+        ValidationRules.validateFlight(dd, duration, seatRowsAmount);
 
         try {
-            Flight newFlight = new Flight(flightId, departure, destination, dd, duration, seatRowsAmount);
-            if (seatRowsAmount == flight.getSeatRowsAmount()) {
-                flightDao.update(newFlight);
-            }
-            else {
-                flightDao.update(newFlight, flight.getSeatRowsAmount());
-            }
+            return UnitOfWork.call(() -> {
+                // the current seat rows decide which rows are added, so they are never read from the cache
+                Flight flight = flightDao.findByIdUncached(flightId).orElseThrow(() ->
+                        new ValidationException("Flight with id: " + flightId + " does not exists in the database"));
+                if (seatRowsAmount < flight.getSeatRowsAmount()) {
+                    throw new ValidationException("New seat rows amount must be greater or equal to previous seat rows amount");
+                }
+
+                Flight newFlight = new Flight(flightId, departure, destination, dd, duration, seatRowsAmount);
+                int updated = seatRowsAmount == flight.getSeatRowsAmount()
+                        ? flightDao.update(newFlight)
+                        : flightDao.update(newFlight, flight.getSeatRowsAmount());
+                if (updated == 0) {
+                    throw new ValidationException("Flight with id: " + flightId + " does not exists in the database");
+                }
+                if (notifications != null && !dd.equals(flight.getDepartureDate()) && isUpcoming(flight)) {
+                    return notifications.notifyDelay(flight, dd);
+                }
+                return Optional.<NotificationJob>empty();
+            });
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to update flight with id: " + flightId + " due to some database problem", e);
@@ -195,15 +335,29 @@ public class FlightService {
      * Deletes a flight from the system.
      *
      * @param flightId the ID of the flight to delete
+     * @return the notification of the passengers about the cancellation, if the flight is upcoming
      * @throws ServiceException if there is a database error
      * @throws ValidationException if there is a validation error
      */
-    public void deleteFlight(int flightId) {
+    public Optional<NotificationJob> deleteFlight(int flightId) {
+        String notFoundMessage = "Flight with id: " + flightId  + " can not be deleted, because it does not exists in the database";
         try {
-            if (!flightDao.existsById(flightId)) {
-                throw new ValidationException("Flight with id: " + flightId  + " can not be deleted, because it does not exists in the database");
+            if (notifications == null) {
+                if (flightDao.delete(flightId) == 0) {
+                    throw new ValidationException(notFoundMessage);
+                }
+                return Optional.empty();
             }
-            flightDao.delete(flightId);
+            return UnitOfWork.call(() -> {
+                Flight flight = flightDao.findByIdUncached(flightId).orElseThrow(() -> new ValidationException(notFoundMessage));
+                Optional<NotificationJob> notification = isUpcoming(flight)
+                        ? notifications.notifyCancellation(flight)
+                        : Optional.empty();
+                if (flightDao.delete(flightId) == 0) {
+                    throw new ValidationException(notFoundMessage);
+                }
+                return notification;
+            });
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to delete flight with id: " + flightId + " due to some database problem", e);
@@ -211,33 +365,25 @@ public class FlightService {
     }
 
     /**
-     * Validates flight data before processing.
+     * Waits until passengers notified about a change of their flight have been sent their emails,
+     * reporting the progress periodically.
      *
-     * @param date the departure date
-     * @param time the departure time
-     * @param duration the flight duration
-     * @param seatRowsAmount the number of seat rows
-     * @throws ValidationException if any of the data is invalid
+     * @param jobId the ID of the notification job
+     * @param timeout the maximum time to wait
+     * @param onProgress the action called with every progress report
+     * @return the last report, incomplete if the timeout elapsed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ServiceException if there is a database error
+     * @throws IllegalStateException if this service does not notify passengers
      */
-    private void validateData(LocalDate date, String time, int duration, int seatRowsAmount) {
-        LocalTime t;
-        try {
-            t = LocalTime.parse(time, DateTimeFormatter.ofPattern("HH:mm"));
-        }
-        catch (DateTimeParseException e) {
-            throw new ValidationException("Provided time is in wrong format! Required time in format: HH:mm");
+    public NotificationJob awaitNotification(int jobId, Duration timeout, Consumer<NotificationJob> onProgress) throws InterruptedException {
+        if (notifications == null) {
+            throw new IllegalStateException("Passenger notifications are not enabled");
         }
+        return notifications.awaitCompletion(jobId, timeout, onProgress);
+    }
 
-        LocalDateTime dt = date.atTime(t);
-
-        if (dt.isBefore(LocalDateTime.now())) {
-            throw new ValidationException("Flight's date must be in the future!");
-        }
-        if (duration <= 0) {
-            throw new ValidationException("Flight's duration must be greater than 0!");
-        }
-        if (seatRowsAmount <= 0) {
-            throw new ValidationException("Flight's seat rows amount must be greater than 0!");
-        }
+    private static boolean isUpcoming(Flight flight) {
+        return flight.getDepartureDate().isAfter(LocalDateTime.now());
     }
 }
@@ -1,14 +1,15 @@
 package lot.services;
 
+import lot.dao.PageQuery;
 import lot.dao.PassengerDao;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.DatabaseStreamException;
 import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Passenger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class for handling passenger-related operations.
@@ -37,7 +38,7 @@ public class PassengerService {
      * @throws ServiceException if there is a database error
      */
     public int addNewPassenger(String name, String surname, String email, String phoneNumber) {
-        validateData(email, phoneNumber);
+        ValidationRules.validatePassenger(email, phoneNumber);
         Passenger newPassenger = new Passenger(name, surname, email, phoneNumber);
         try {
             return passengerDao.save(newPassenger);
@@ -62,6 +63,84 @@ public class PassengerService {
         }
     }
 
+    /**
+     * Retrieves a page of passengers ordered by ID.
+     *
+     * @param afterId the ID of the last passenger of the previous page, 0 for the first page
+     * @param pageSize the maximum number of passengers to return
+     * @return a list of passengers with IDs greater than afterId
+     * @throws ValidationException if the page size is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Passenger> getPassengersPage(int afterId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return passengerDao.findPage(afterId, pageSize);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch page of passengers due to some database problem", e);
+        }
+    }
+
+    /**
+     * Counts the passengers matching the filters of a query.
+     *
+     * @param query the query, whose sort order is ignored
+     * @return the number of matching passengers
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public long countPassengers(PageQuery query) {
+        try {
+            return passengerDao.count(query);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to count passengers due to some database problem", e);
+        }
+    }
+
+    /**
+     * Retrieves a window of the passengers matching a query, in the order of the query.
+     *
+     * @param query the filters and sort order
+     * @param offset the number of matching passengers to skip
+     * @param limit the maximum number of passengers to return
+     * @return a list of at most limit passengers
+     * @throws ValidationException if the offset is negative or the limit is not greater than 0
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public List<Passenger> getPassengersWindow(PageQuery query, long offset, int limit) {
+        if (offset < 0) {
+            throw new ValidationException("Offset can not be negative!");
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return passengerDao.findWindow(query, offset, limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch window of passengers due to some database problem", e);
+        }
+    }
+
+    /**
+     * Passes every passenger, ordered by ID, to the provided action without loading all passengers into memory.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param action the action to perform for each passenger
+     * @throws ServiceException if there is a database error
+     */
+    public void forEachPassenger(int fetchSize, Consumer<Passenger> action) {
+        try {
+            passengerDao.forEach(fetchSize, action);
+        }
+        catch (DatabaseActionException | DatabaseStreamException e) {
+            throw new ServiceException("Failed to stream all passengers due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves all passenger IDs from the system.
      *
@@ -77,16 +156,39 @@ public class PassengerService {
         }
     }
 
+    /**
+     * Retrieves a limited number of passenger IDs starting with the typed digits, e.g. for a type-ahead picker.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching passenger IDs, shorter ones first
+     * @throws ValidationException if the limit is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Integer> getIdsByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0!");
+        }
+        try {
+            return passengerDao.findIdsByPrefix(prefix.trim(), limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to search passengers ids due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves a passenger by their ID.
      *
      * @param id the ID of the passenger to retrieve
      * @return the passenger with the specified ID
      * @throws ServiceException if there is a database error
+     * @throws ValidationException if there is no passenger with the specified ID
      */
     public Passenger getPassengerById(int id) {
         try {
-            return passengerDao.findById(id);
+            return passengerDao.findById(id).orElseThrow(() ->
+                    new ValidationException("Passenger with id: " + id + " does not exist in the database"));
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to fetch passenger with id: " + id + " due to some database problem", e);
@@ -121,13 +223,12 @@ public class PassengerService {
      * @throws ServiceException if there is a database error
      */
     public void updateExistingPassenger(int passengerId, String name, String surname, String email, String phoneNumber) {
-        validateData(email, phoneNumber);
+        ValidationRules.validatePassenger(email, phoneNumber);
         Passenger passenger = new Passenger(passengerId, name, surname, email, phoneNumber);
         try {
-            if (!passengerDao.existsById(passengerId)) {
+            if (passengerDao.update(passenger) == 0) {
                 throw new ValidationException("Passenger with id: " + passengerId + " can not be updated, because it does not exist in the database");
             }
-            passengerDao.update(passenger);
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to update passenger with id:" + passengerId + " due to some database problem", e);
@@ -143,34 +244,12 @@ public class PassengerService {
      */
     public void deletePassenger(int passengerId) {
         try {
-            if (!passengerDao.existsById(passengerId)) {
-                throw new ValidationException("Passenger with id: " + passengerId + " can not be updated, because it does not exist in the database");
+            if (passengerDao.delete(passengerId) == 0) {
+                throw new ValidationException("Passenger with id: " + passengerId + " can not be deleted, because it does not exist in the database");
             }
-            passengerDao.delete(passengerId);
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to delete passenger with id: " + passengerId + " due to some database problem", e);
         }
     }
-
-    /**
-     * Validates passenger email and phone number.
-     *
-     * @param email the email to validate
-     * @param phoneNumber the phone number to validate
-     * @throws ValidationException if either the email or phone number is invalid
-     */
-    private void validateData(String email, String phoneNumber) {
-        Pattern emailPattern = Pattern.compile("^([a-zA-Z0-9._-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})$");
-        Pattern phoneNumberPattern = Pattern.compile("^[1-9][0-9]{8}$");
-        Matcher emailMatcher = emailPattern.matcher(email);
-        Matcher phoneNumberMatcher = phoneNumberPattern.matcher(phoneNumber);
-
-        if (!emailMatcher.matches()) {
-            throw new ValidationException("Invalid email format!");
-        }
-        if (!phoneNumberMatcher.matches()) {
-            throw new ValidationException("Invalid phone number format! Accepted format is: XXXXXXXXX");
-        }
-    }
 }
@@ -1,21 +1,33 @@
 package lot.services;
 
 import lot.dao.FlightDao;
+import lot.dao.PageQuery;
 import lot.dao.PassengerDao;
 import lot.dao.ReservationDao;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.DatabaseStreamException;
+import lot.exceptions.dao.ReservationRejectedException;
 import lot.exceptions.services.EmailException;
+import lot.exceptions.services.SeatTakenException;
 import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Flight;
+import lot.models.Passenger;
 import lot.models.Reservation;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service class for handling reservation-related operations.
  */
 public class ReservationService {
+    private static final String FLIGHT_NOT_FOUND_MESSAGE = "Flight assigned to the reservation must exists!";
+    private static final String PASSENGER_NOT_FOUND_MESSAGE = "Passenger assigned to the reservation must exists!";
+    private static final String SEAT_NOT_AVAILABLE_MESSAGE = "Provided seat number is not available or it does not exist";
+
     private final ReservationDao reservationDao;
     private final FlightDao flightDao;
     private final PassengerDao passengerDao;
@@ -44,13 +56,21 @@ public class ReservationService {
      * @param seatNumber the seat number to reserve
      * @return the ID of the newly created reservation
      * @throws ServiceException if there is a database error
+     * @throws SeatTakenException if the seat was taken by a concurrent reservation
      * @throws ValidationException if there is a validation error
      */
     public int makeNewReservation(int flightId, int passengerId, String seatNumber) {
-        validateData(flightId, passengerId, seatNumber, null);
         try {
             Reservation reservation = new Reservation(flightId, passengerId, seatNumber);
-            return reservationDao.save(reservation);
+            return reservationDao.saveValidated(reservation);
+        }
+        catch (ReservationRejectedException e) {
+            throw switch (e.getReason()) {
+                case FLIGHT_NOT_FOUND -> new ValidationException(FLIGHT_NOT_FOUND_MESSAGE);
+                case PASSENGER_NOT_FOUND -> new ValidationException(PASSENGER_NOT_FOUND_MESSAGE);
+                case SEAT_NOT_AVAILABLE -> new ValidationException(SEAT_NOT_AVAILABLE_MESSAGE);
+                case SEAT_TAKEN -> new SeatTakenException("Seat " + seatNumber + " has just been taken by another reservation");
+            };
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to create new reservation due to some database problem", e);
@@ -72,6 +92,84 @@ public class ReservationService {
         }
     }
 
+    /**
+     * Retrieves a page of reservations ordered by ID.
+     *
+     * @param afterId the ID of the last reservation of the previous page, 0 for the first page
+     * @param pageSize the maximum number of reservations to return
+     * @return a list of reservations with IDs greater than afterId
+     * @throws ValidationException if the page size is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Reservation> getReservationsPage(int afterId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return reservationDao.findPage(afterId, pageSize);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch page of reservations due to some database problem", e);
+        }
+    }
+
+    /**
+     * Counts the reservations matching the filters of a query.
+     *
+     * @param query the query, whose sort order is ignored
+     * @return the number of matching reservations
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public long countReservations(PageQuery query) {
+        try {
+            return reservationDao.count(query);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to count reservations due to some database problem", e);
+        }
+    }
+
+    /**
+     * Retrieves a window of the reservations matching a query, in the order of the query.
+     *
+     * @param query the filters and sort order
+     * @param offset the number of matching reservations to skip
+     * @param limit the maximum number of reservations to return
+     * @return a list of at most limit reservations
+     * @throws ValidationException if the offset is negative or the limit is not greater than 0
+     * @throws ServiceException if there is a database error or the query uses an unsupported property
+     */
+    public List<Reservation> getReservationsWindow(PageQuery query, long offset, int limit) {
+        if (offset < 0) {
+            throw new ValidationException("Offset can not be negative!");
+        }
+        if (limit <= 0) {
+            throw new ValidationException("Page size must be greater than 0!");
+        }
+        try {
+            return reservationDao.findWindow(query, offset, limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to fetch window of reservations due to some database problem", e);
+        }
+    }
+
+    /**
+     * Passes every reservation, ordered by ID, to the provided action without loading all reservations into memory.
+     *
+     * @param fetchSize the number of rows fetched from the database at once
+     * @param action the action to perform for each reservation
+     * @throws ServiceException if there is a database error
+     */
+    public void forEachReservation(int fetchSize, Consumer<Reservation> action) {
+        try {
+            reservationDao.forEach(fetchSize, action);
+        }
+        catch (DatabaseActionException | DatabaseStreamException e) {
+            throw new ServiceException("Failed to stream all reservations due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves all reservation IDs from the system.
      *
@@ -87,6 +185,27 @@ public class ReservationService {
         }
     }
 
+    /**
+     * Retrieves a limited number of reservation IDs starting with the typed digits, e.g. for a type-ahead picker.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching reservation IDs, shorter ones first
+     * @throws ValidationException if the limit is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Integer> getIdsByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0!");
+        }
+        try {
+            return reservationDao.findIdsByPrefix(prefix.trim(), limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to search reservations ids due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves all flight IDs from the system.
      *
@@ -102,6 +221,27 @@ public class ReservationService {
         }
     }
 
+    /**
+     * Retrieves a limited number of flight IDs starting with the typed digits, e.g. for a type-ahead picker.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching flight IDs, shorter ones first
+     * @throws ValidationException if the limit is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Integer> getFlightIdsByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0!");
+        }
+        try {
+            return flightDao.findIdsByPrefix(prefix.trim(), limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to search flights ids due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves all passenger IDs from the system.
      *
@@ -117,6 +257,27 @@ public class ReservationService {
         }
     }
 
+    /**
+     * Retrieves a limited number of passenger IDs starting with the typed digits, e.g. for a type-ahead picker.
+     *
+     * @param prefix the typed digits; an empty prefix matches the lowest IDs
+     * @param limit the maximum number of IDs to return
+     * @return the matching passenger IDs, shorter ones first
+     * @throws ValidationException if the limit is not greater than 0
+     * @throws ServiceException if there is a database error
+     */
+    public List<Integer> getPassengerIdsByPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Limit must be greater than 0!");
+        }
+        try {
+            return passengerDao.findIdsByPrefix(prefix.trim(), limit);
+        }
+        catch (DatabaseActionException e) {
+            throw new ServiceException("Failed to search passengers ids due to some database problem", e);
+        }
+    }
+
     /**
      * Retrieves a reservation by its ID.
      *
@@ -127,10 +288,8 @@ public class ReservationService {
      */
     public Reservation getReservationById(int reservationId) {
         try {
-            if (!reservationDao.existsById(reservationId)) {
-                throw new ValidationException("Reservation with id: " + reservationId + " can not be fetched, because it does not exists in the database");
-            }
-            return reservationDao.findById(reservationId);
+            return reservationDao.findById(reservationId).orElseThrow(() ->
+                    new ValidationException("Reservation with id: " + reservationId + " can not be fetched, because it does not exists in the database"));
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to fetch reservation by its id due to some database problem", e);
@@ -205,12 +364,16 @@ public class ReservationService {
      */
     public void updateExistingReservation(int reservationId, int flightId, int passengerId, String seatNumber) {
         try {
-            if (!reservationDao.existsById(reservationId)) {
-                throw new ValidationException("Reservation with id: " + reservationId + " can not be updated, because it does not exists in the database");
-            }
-            validateData(flightId, passengerId, seatNumber, reservationId);
-            Reservation reservation = new Reservation(reservationId, flightId, passengerId, seatNumber);
-            reservationDao.update(reservation);
+            UnitOfWork.run(() -> {
+                String notFoundMessage = "Reservation with id: " + reservationId + " can not be updated, because it does not exists in the database";
+                Reservation current = reservationDao.findById(reservationId)
+                        .orElseThrow(() -> new ValidationException(notFoundMessage));
+                validateData(flightId, passengerId, seatNumber, current.getSeatNumber());
+                Reservation reservation = new Reservation(reservationId, flightId, passengerId, seatNumber);
+                if (reservationDao.update(reservation) == 0) {
+                    throw new ValidationException(notFoundMessage);
+                }
+            });
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to update reservation due to some database problem", e);
@@ -226,10 +389,9 @@ public class ReservationService {
      */
     public void deleteReservation(int reservationId) {
         try {
-            if (!reservationDao.existsById(reservationId)) {
+            if (reservationDao.delete(reservationId) == 0) {
                 throw new ValidationException("Reservation with id: " + reservationId + " can not be deleted, because it does not exists in the database");
             }
-            reservationDao.delete(reservationId);
         }
         catch (DatabaseActionException e) {
             throw new ServiceException("Failed to delete reservation by its id due to some database problem", e);
@@ -253,16 +415,28 @@ public class ReservationService {
     }
 
     /**
-     * Sends a confirmation email for a reservation.
+     * Sends a confirmation email for a reservation, unless emails are disabled.
      *
      * @param reservationId the ID of the reservation to send confirmation for
+     * @return true if the email has been queued, false if emails are disabled
      * @throws EmailException if there is an error sending the email
      */
-    public void sendEmail(int reservationId) {
+    public boolean sendEmail(int reservationId) {
+        if (!emailService.isEnabled()) {
+            return false;
+        }
         try {
-            Reservation reservation = reservationDao.findById(reservationId);
-            Flight flight = flightDao.findById(reservation.getFlightId());
-            emailService.sendConfirmationEmail(passengerDao.findById(reservation.getPassengerId()).getEmail(), reservation.toString() + flight.toString());
+            Map.Entry<String, String> message = UnitOfWork.call(() -> {
+                Reservation reservation = reservationDao.findById(reservationId)
+                        .orElseThrow(() -> new ValidationException("Reservation with id: " + reservationId + " does not exist"));
+                Flight flight = flightDao.findById(reservation.getFlightId())
+                        .orElseThrow(() -> new ValidationException("Flight with id: " + reservation.getFlightId() + " does not exist"));
+                Passenger passenger = passengerDao.findById(reservation.getPassengerId())
+                        .orElseThrow(() -> new ValidationException("Passenger with id: " + reservation.getPassengerId() + " does not exist"));
+                return Map.entry(passenger.getEmail(), reservation.toString() + flight.toString());
+            });
+            emailService.sendConfirmationEmail(message.getKey(), message.getValue());
+            return true;
         }
         catch (DatabaseActionException e) {
             throw new EmailException("Failed to collect data required to send email due to some database problem", e);
@@ -272,27 +446,20 @@ public class ReservationService {
         }
     }
 
-    private void validateData(int flightId, int passengerId, String seatNumber, Integer reservationId) {
+    private void validateData(int flightId, int passengerId, String seatNumber, String currentSeatNumber) {
         try {
             if (!flightDao.existsById(flightId)) {
-                throw new ValidationException("Flight assigned to the reservation must exists!");
+                throw new ValidationException(FLIGHT_NOT_FOUND_MESSAGE);
             }
             if (!passengerDao.existsById(passengerId)) {
-                throw new ValidationException("Passenger assigned to the reservation must exists!");
+                throw new ValidationException(PASSENGER_NOT_FOUND_MESSAGE);
             }
-            if (reservationId != null) {
-                if (!reservationDao.findById(reservationId).getSeatNumber().equals(seatNumber) && !flightDao.getAvailableSeatsNumbers(flightId).contains(seatNumber)) {
-                    throw new ValidationException("Provided seat number is not available or it does not exist");
-                }
-            }
-            else {
-                if (!flightDao.getAvailableSeatsNumbers(flightId).contains(seatNumber)) {
-                    throw new ValidationException("Provided seat number is not available or it does not exist");
-                }
+            if (!currentSeatNumber.equals(seatNumber) && !flightDao.isSeatAvailable(flightId, seatNumber)) {
+                throw new ValidationException(SEAT_NOT_AVAILABLE_MESSAGE);
             }
         }
         catch (DatabaseActionException e) {
-            throw new ServiceException("Failed to validate data while creating or updating reservation due to some database problem", e);
+            throw new ServiceException("Failed to validate data while updating reservation due to some database problem", e);
         }
     }
 }
@@ -0,0 +1,74 @@
+package lot.services;
+
+import lot.exceptions.services.ValidationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+/**
+ * Validation rules of flights and passengers, shared by the services and the bulk import.
+ */
+public final class ValidationRules {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^([a-zA-Z0-9._-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})$");
+    private static final Pattern PHONE_NUMBER_PATTERN = Pattern.compile("^[1-9][0-9]{8}$");
+
+    private ValidationRules() {}
+
+    /**
+     * Combines the date and time of a departure.
+     *
+     * @param date the date of departure
+     * @param time the time of departure (format: HH:mm)
+     * @return the departure date and time
+     * @throws ValidationException if the time is in wrong format
+     */
+    public static LocalDateTime departureDate(LocalDate date, String time) {
+        try {
+            return date.atTime(LocalTime.parse(time, TIME_FORMAT));
+        }
+        catch (DateTimeParseException e) {
+            throw new ValidationException("Provided time is in wrong format! Required time in format: HH:mm");
+        }
+    }
+
+    /**
+     * Validates flight data.
+     *
+     * @param departureDate the departure date and time
+     * @param duration the flight duration in minutes
+     * @param seatRowsAmount the number of seat rows
+     * @throws ValidationException if any of the data is invalid
+     */
+    public static void validateFlight(LocalDateTime departureDate, int duration, int seatRowsAmount) {
+        if (departureDate.isBefore(LocalDateTime.now())) {
+            throw new ValidationException("Flight's date must be in the future!");
+        }
+        if (duration <= 0) {
+            throw new ValidationException("Flight's duration must be greater than 0!");
+        }
+        if (seatRowsAmount <= 0) {
+            throw new ValidationException("Flight's seat rows amount must be greater than 0!");
+        }
+    }
+
+    /**
+     * Validates passenger contact data.
+     *
+     * @param email the email address
+     * @param phoneNumber the phone number
+     * @throws ValidationException if any of the data is invalid
+     */
+    public static void validatePassenger(String email, String phoneNumber) {
+        if (!EMAIL_PATTERN.matcher(email).matches()) {
+            throw new ValidationException("Invalid email format!");
+        }
+        if (!PHONE_NUMBER_PATTERN.matcher(phoneNumber).matches()) {
+            throw new ValidationException("Invalid phone number format! Accepted format is: XXXXXXXXX");
+        }
+    }
+}
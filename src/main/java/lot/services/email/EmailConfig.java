@@ -0,0 +1,251 @@
+package lot.services.email;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.time.Duration;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * SMTP and background sender settings loaded from external configuration.
+ * Values are read from the {@code .env} file or environment variables; only the SMTP host is required to send emails.
+ */
+public class EmailConfig {
+    private final String smtpHost;
+    private final int smtpPort;
+    private final String username;
+    private final String password;
+    private final boolean startTls;
+    private final String sender;
+    private final boolean sentExternally;
+    private final int senderThreads;
+    private final int batchSize;
+    private final int rateLimit;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration idleDisconnect;
+
+    private EmailConfig(Function<String, String> source) {
+        this.smtpHost = text(source, "EMAIL_SMTP_HOST", null);
+        this.smtpPort = (int) number(source, "EMAIL_SMTP_PORT", 587, 1);
+        this.username = text(source, "EMAIL_USERNAME", null);
+        this.password = text(source, "EMAIL_PASSWORD", "");
+        this.startTls = Boolean.parseBoolean(text(source, "EMAIL_SMTP_STARTTLS", "true"));
+        this.sender = text(source, "EMAIL_SENDER", username);
+        this.sentExternally = Boolean.parseBoolean(text(source, "EMAIL_SENT_EXTERNALLY", "false"));
+        this.senderThreads = (int) number(source, "EMAIL_SENDER_THREADS", 2, 1);
+        this.batchSize = (int) number(source, "EMAIL_BATCH_SIZE", 20, 1);
+        this.rateLimit = (int) number(source, "EMAIL_RATE_LIMIT_PER_SECOND", 0, 0);
+        this.maxAttempts = (int) number(source, "EMAIL_MAX_ATTEMPTS", 6, 1);
+        this.retryDelay = Duration.ofMillis(number(source, "EMAIL_RETRY_DELAY_MS", 30_000, 0));
+        this.maxRetryDelay = Duration.ofMillis(number(source, "EMAIL_MAX_RETRY_DELAY_MS", 3_600_000, 0));
+        this.pollInterval = Duration.ofMillis(number(source, "EMAIL_POLL_INTERVAL_MS", 5_000, 10));
+        this.lease = Duration.ofMillis(number(source, "EMAIL_LEASE_MS", 300_000, 1_000));
+        this.idleDisconnect = Duration.ofMillis(number(source, "EMAIL_IDLE_DISCONNECT_MS", 60_000, 0));
+    }
+
+    /**
+     * Loads the configuration from the {@code .env} file, if it exists, and environment variables.
+     *
+     * @return the loaded configuration
+     * @throws IllegalStateException if any of the settings has an invalid value
+     */
+    public static EmailConfig load() {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        return from(dotenv::get);
+    }
+
+    /**
+     * Creates the configuration from the provided source of settings.
+     *
+     * @param source function returning the value of a setting by its name, or null if it is not set
+     * @return the configuration
+     * @throws IllegalStateException if any of the settings has an invalid value
+     */
+    public static EmailConfig from(Function<String, String> source) {
+        return new EmailConfig(source);
+    }
+
+    /**
+     * Creates the JavaMail session properties described by these settings.
+     * Authentication is enabled when a username is configured.
+     *
+     * @return the session properties
+     */
+    public Properties toSessionProperties() {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", smtpHost);
+        props.put("mail.smtp.port", String.valueOf(smtpPort));
+        props.put("mail.smtp.auth", String.valueOf(username != null));
+        props.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "30000");
+        if (startTls) {
+            props.put("mail.smtp.ssl.trust", smtpHost);
+            props.put("mail.smtp.ssl.protocols", "TLSv1.2");
+        }
+        return props;
+    }
+
+    /**
+     * Checks if an SMTP server is configured.
+     *
+     * @return true if the SMTP host is set
+     */
+    public boolean isConfigured() {
+        return smtpHost != null;
+    }
+
+    /**
+     * Checks if queued emails are sent by another process, e.g. another instance of the application
+     * using the same database, so the outbox is filled even though no SMTP server is configured here.
+     *
+     * @return true if {@code EMAIL_SENT_EXTERNALLY} is set to true
+     */
+    public boolean isSentExternally() {
+        return sentExternally;
+    }
+
+    /**
+     * Returns the address of the SMTP server, e.g. for error messages.
+     *
+     * @return the host and port of the SMTP server
+     */
+    public String getServerAddress() {
+        return smtpHost + ":" + smtpPort;
+    }
+
+    /**
+     * Returns the username used to authenticate to the SMTP server.
+     *
+     * @return the username, or null if authentication is disabled
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Returns the password used to authenticate to the SMTP server.
+     *
+     * @return the password
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Returns the address emails are sent from, {@code EMAIL_SENDER} or the username by default.
+     *
+     * @return the sender address
+     */
+    public String getSender() {
+        return sender;
+    }
+
+    /**
+     * Returns the number of threads sending emails, each with its own SMTP connection.
+     *
+     * @return the number of sender threads
+     */
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    /**
+     * Returns the maximum number of emails a sender thread claims at once.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the maximum number of emails sent per second by all sender threads together,
+     * e.g. to stay within the limits of the SMTP provider.
+     *
+     * @return the rate limit, or 0 if the rate is not limited
+     */
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Returns the number of attempts after which an email is given up.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns the delay before the first retry; every next retry waits twice as long.
+     *
+     * @return the base retry delay
+     */
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    /**
+     * Returns the upper bound of the delay between retries.
+     *
+     * @return the maximum retry delay
+     */
+    public Duration getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    /**
+     * Returns how often an idle sender checks the outbox for due emails.
+     *
+     * @return the poll interval
+     */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /**
+     * Returns how long a claimed email is hidden from other senders, e.g. if its sender crashes.
+     *
+     * @return the claim lease
+     */
+    public Duration getLease() {
+        return lease;
+    }
+
+    /**
+     * Returns how long an idle sender keeps its SMTP connection open.
+     *
+     * @return the idle time after which the connection is closed
+     */
+    public Duration getIdleDisconnect() {
+        return idleDisconnect;
+    }
+
+    private static String text(Function<String, String> source, String key, String defaultValue) {
+        String value = source.apply(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static long number(Function<String, String> source, String key, long defaultValue, long minValue) {
+        String value = source.apply(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < minValue) {
+                throw new IllegalStateException(key + " must be at least " + minValue + ", but was: " + number);
+            }
+            return number;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalStateException(key + " must be a number, but was: " + value);
+        }
+    }
+}
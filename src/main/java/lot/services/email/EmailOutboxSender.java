@@ -0,0 +1,232 @@
+package lot.services.email;
+
+import lot.dao.EmailOutboxDao;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.OutboxEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.mail.MessagingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends emails from the outbox in the background.
+ * <p>
+ * A fixed pool of sender threads claims due emails in batches, sends them over an SMTP connection
+ * kept open between emails, and marks them as sent. A failed email is retried with exponential backoff:
+ * the first retry waits {@link EmailConfig#getRetryDelay()}, every next one twice as long, up to
+ * {@link EmailConfig#getMaxRetryDelay()}. After {@link EmailConfig#getMaxAttempts()} failed attempts, or after
+ * a permanent failure such as an invalid address, the email is marked as failed and not retried anymore.
+ * All threads together send at most {@link EmailConfig#getRateLimit()} emails per second, if a limit is set.
+ * Idle threads check the outbox every {@link EmailConfig#getPollInterval()}, or immediately after {@link #wakeUp()},
+ * and close their connection after {@link EmailConfig#getIdleDisconnect()} without work.
+ */
+public class EmailOutboxSender implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxSender.class);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final EmailOutboxDao outboxDao;
+    private final EmailConfig config;
+    private final RateLimiter rateLimiter;
+    private final Object signal = new Object();
+    private final AtomicInteger connectionsOpened = new AtomicInteger();
+    private ExecutorService workers;
+    private volatile boolean running;
+    private long wakeUps;
+
+    /**
+     * Constructs a sender without starting it.
+     *
+     * @param outboxDao the DAO of the outbox
+     * @param config the SMTP and sender settings
+     */
+    public EmailOutboxSender(EmailOutboxDao outboxDao, EmailConfig config) {
+        this.outboxDao = outboxDao;
+        this.config = config;
+        this.rateLimiter = new RateLimiter(config.getRateLimit());
+    }
+
+    /**
+     * Starts the sender threads. Does nothing if the sender is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < config.getSenderThreads(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Makes idle sender threads check the outbox now, e.g. right after an email was queued.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeUps++;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Checks if the sender threads are running.
+     *
+     * @return true if the sender was started and not closed
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns how many SMTP connections the sender threads have opened so far.
+     *
+     * @return the number of opened connections
+     */
+    public int getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * Stops the sender threads, letting the email being sent finish, and closes their connections.
+     * Emails claimed but not sent yet are sent after their lease expires, by this or another sender.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+        catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the delay before the next attempt to send an email.
+     *
+     * @param attempts the number of failed attempts so far, at least 1
+     * @param retryDelay the delay before the first retry
+     * @param maxRetryDelay the maximum delay
+     * @return the delay, doubled with every failed attempt and capped at the maximum
+     */
+    static Duration backoff(int attempts, Duration retryDelay, Duration maxRetryDelay) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = retryDelay.multipliedBy(1L << doublings);
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private void work() {
+        try (SmtpMailer mailer = new SmtpMailer(config)) {
+            long idleSince = System.nanoTime();
+            while (running) {
+                int opened = mailer.getConnectionsOpened();
+                int claimed = sendDue(mailer);
+                connectionsOpened.addAndGet(mailer.getConnectionsOpened() - opened);
+                if (claimed > 0) {
+                    idleSince = System.nanoTime();
+                    continue;
+                }
+                if (mailer.isConnected() && System.nanoTime() - idleSince >= config.getIdleDisconnect().toNanos()) {
+                    mailer.disconnect();
+                }
+                awaitWork();
+            }
+        }
+    }
+
+    private int sendDue(SmtpMailer mailer) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> emails;
+        try {
+            emails = outboxDao.claimDue(now, config.getBatchSize(), now.plus(config.getLease()));
+        }
+        catch (DatabaseActionException e) {
+            LOGGER.error("Failed to claim emails from the outbox", e);
+            return 0;
+        }
+
+        for (OutboxEmail email : emails) {
+            if (!running) {
+                break;
+            }
+            try {
+                rateLimiter.acquire();
+                mailer.send(email);
+                outboxDao.markSent(email.getId());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            catch (MessagingException e) {
+                recordFailure(email, e);
+            }
+            catch (DatabaseActionException e) {
+                LOGGER.error("Failed to mark {} as sent", email, e);
+            }
+        }
+        return emails.size();
+    }
+
+    private void recordFailure(OutboxEmail email, MessagingException e) {
+        int attempts = email.getAttempts() + 1;
+        boolean retry = attempts < config.getMaxAttempts() && !SmtpMailer.isPermanent(e);
+        LocalDateTime nextAttemptAt = retry
+                ? LocalDateTime.now().plus(backoff(attempts, config.getRetryDelay(), config.getMaxRetryDelay()))
+                : null;
+        if (retry) {
+            LOGGER.warn("Attempt {} to send {} via {} failed, retrying at {}", attempts, email, config.getServerAddress(), nextAttemptAt, e);
+        }
+        else {
+            LOGGER.error("Giving up sending {} via {} after {} attempts", email, config.getServerAddress(), attempts, e);
+        }
+
+        try {
+            outboxDao.markFailed(email.getId(), nextAttemptAt, e.getMessage());
+        }
+        catch (DatabaseActionException dbException) {
+            LOGGER.error("Failed to record failure of {}", email, dbException);
+        }
+    }
+
+    private void awaitWork() {
+        synchronized (signal) {
+            long seen = wakeUps;
+            long deadline = System.nanoTime() + config.getPollInterval().toNanos();
+            try {
+                while (running && wakeUps == seen) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package lot.services.email;
+
+import lot.models.NotificationRecipient;
+import lot.models.OutboxEmail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Templates of emails notifying passengers about a change of their flight.
+ * Placeholders in braces, e.g. {@code {name}}, are replaced with the recipient's data and the values of the notification.
+ * Every recipient gets {@code name}, {@code surname}, {@code seat} and {@code reservation};
+ * the values common to all recipients, such as {@code flight}, are provided by the caller.
+ */
+public enum NotificationTemplate {
+    /**
+     * The flight has been cancelled. Requires {@code flight} and {@code departureDate}.
+     */
+    CANCELLATION(
+            "Your flight {flight} has been cancelled",
+            """
+            Dear {name} {surname},
+
+            We regret to inform you that your flight {flight}, departing on {departureDate}, has been cancelled.
+            Your reservation number {reservation} for seat {seat} is no longer valid.
+
+            We apologize for the inconvenience.
+            """),
+    /**
+     * The departure of the flight has changed. Requires {@code flight}, {@code previousDepartureDate}
+     * and {@code departureDate}.
+     */
+    DELAY(
+            "Your flight {flight} has been rescheduled",
+            """
+            Dear {name} {surname},
+
+            The departure of your flight {flight} has been changed from {previousDepartureDate} to {departureDate}.
+            Your reservation number {reservation} for seat {seat} remains valid.
+
+            We apologize for the inconvenience.
+            """);
+
+    private final String subject;
+    private final String body;
+
+    NotificationTemplate(String subject, String body) {
+        this.subject = subject;
+        this.body = body;
+    }
+
+    /**
+     * Creates the email for one recipient.
+     *
+     * @param recipient the passenger to notify
+     * @param values the values common to all recipients
+     * @return the email to queue
+     */
+    public OutboxEmail render(NotificationRecipient recipient, Map<String, String> values) {
+        Map<String, String> all = new HashMap<>(values);
+        all.put("name", recipient.getName());
+        all.put("surname", recipient.getSurname());
+        all.put("seat", recipient.getSeatNumber());
+        all.put("reservation", String.valueOf(recipient.getReservationId()));
+        return new OutboxEmail(recipient.getEmail(), fill(subject, all), fill(body, all));
+    }
+
+    private static String fill(String template, Map<String, String> values) {
+        StringBuilder text = new StringBuilder(template.length() + 64);
+        int from = 0;
+        int open;
+        while ((open = template.indexOf('{', from)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            String value = values.get(template.substring(open + 1, close));
+            text.append(template, from, open).append(value != null ? value : template.substring(open, close + 1));
+            from = close + 1;
+        }
+        return text.append(template, from, template.length()).toString();
+    }
+}
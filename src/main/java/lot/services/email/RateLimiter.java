@@ -0,0 +1,39 @@
+package lot.services.email;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out actions of several threads evenly, so that together they do at most the given number per second.
+ * Every thread reserves the next free slot and waits for it outside the lock, so waiting threads do not block others.
+ */
+public class RateLimiter {
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    /**
+     * Constructs a limiter allowing the given number of actions per second.
+     *
+     * @param permitsPerSecond the number of actions per second, 0 for no limit
+     */
+    public RateLimiter(int permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    /**
+     * Waits until the next action is allowed.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot;
+        synchronized (this) {
+            slot = Math.max(nextSlot, now);
+            nextSlot = slot + intervalNanos;
+        }
+        TimeUnit.NANOSECONDS.sleep(slot - now);
+    }
+}
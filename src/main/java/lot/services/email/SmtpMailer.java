@@ -0,0 +1,143 @@
+package lot.services.email;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import lot.models.OutboxEmail;
+
+import javax.mail.*;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Sends emails over one SMTP connection, which is opened on first use and kept open for the following emails,
+ * so the handshake, TLS negotiation and authentication are done once per connection instead of once per email.
+ * A mailer is not thread-safe; every sender thread uses its own.
+ */
+public class SmtpMailer implements AutoCloseable {
+    private final EmailConfig config;
+    private final Session session;
+    private Transport transport;
+    private int connectionsOpened;
+
+    /**
+     * Constructs a mailer without opening the connection.
+     *
+     * @param config the SMTP settings
+     */
+    public SmtpMailer(EmailConfig config) {
+        this.config = config;
+        this.session = Session.getInstance(config.toSessionProperties());
+    }
+
+    /**
+     * Sends an email, connecting to the server if there is no open connection.
+     * If sending over a reused connection fails with an I/O error, e.g. because the server closed it while idle,
+     * the email is sent once more over a new connection.
+     *
+     * @param email the email to send
+     * @throws MessagingException if the email cannot be built or the server does not accept it
+     */
+    public void send(OutboxEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(config.getSender()));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.getRecipient()));
+        message.setSubject(email.getSubject(), "UTF-8");
+        message.setText(email.getBody(), "UTF-8");
+        message.saveChanges();
+
+        boolean reused = transport != null;
+        try {
+            connection().sendMessage(message, message.getAllRecipients());
+        }
+        catch (SendFailedException e) {
+            throw e;
+        }
+        catch (MessagingException e) {
+            disconnect();
+            if (!reused) {
+                throw e;
+            }
+            connection().sendMessage(message, message.getAllRecipients());
+        }
+    }
+
+    /**
+     * Checks if the mailer holds an open connection. Does not contact the server.
+     *
+     * @return true if a connection is open
+     */
+    public boolean isConnected() {
+        return transport != null;
+    }
+
+    /**
+     * Returns how many connections the mailer has opened so far.
+     *
+     * @return the number of opened connections
+     */
+    public int getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    /**
+     * Closes the connection, if it is open. The next email opens a new one.
+     */
+    public void disconnect() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        }
+        catch (MessagingException ignored) {
+            // the connection is dropped anyway
+        }
+        transport = null;
+    }
+
+    /**
+     * Closes the connection, if it is open.
+     */
+    @Override
+    public void close() {
+        disconnect();
+    }
+
+    /**
+     * Checks if a failure is permanent, so sending the email again cannot succeed:
+     * an invalid address or a 5xx reply of the server.
+     *
+     * @param e the failure
+     * @return true if the email should not be retried
+     */
+    public static boolean isPermanent(MessagingException e) {
+        for (Exception cause = e; cause != null; cause = cause instanceof MessagingException me ? me.getNextException() : null) {
+            if (cause instanceof AddressException) {
+                return true;
+            }
+            if (cause instanceof SMTPAddressFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+            if (cause instanceof SMTPSendFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Transport connection() throws MessagingException {
+        if (transport == null) {
+            Transport newTransport = session.getTransport("smtp");
+            if (config.getUsername() != null) {
+                newTransport.connect(config.getUsername(), config.getPassword());
+            }
+            else {
+                newTransport.connect();
+            }
+            transport = newTransport;
+            connectionsOpened++;
+        }
+        return transport;
+    }
+}
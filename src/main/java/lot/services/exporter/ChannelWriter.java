@@ -0,0 +1,106 @@
+package lot.services.exporter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes text to a channel as UTF-8 through fixed-size buffers, so memory usage does not depend on
+ * the amount of written text. The channel is closed together with the writer.
+ */
+final class ChannelWriter implements AutoCloseable {
+    static final int BUFFER_BYTES = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_BYTES / 4);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    /**
+     * Constructs a writer.
+     *
+     * @param channel the channel the text is written to
+     */
+    ChannelWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Appends text.
+     *
+     * @param text the text to append
+     * @return this writer
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelWriter append(String text) throws IOException {
+        int from = 0;
+        while (from < text.length()) {
+            int to = Math.min(text.length(), from + chars.remaining());
+            chars.put(text, from, to);
+            from = to;
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param c the character to append
+     * @return this writer
+     * @throws IOException if the channel cannot be written
+     */
+    ChannelWriter append(char c) throws IOException {
+        chars.put(c);
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the buffered text and closes the channel.
+     *
+     * @throws IOException if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            encode(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        while ((result = encoder.encode(chars, bytes, endOfInput)).isOverflow()) {
+            writeBytes();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        // the first half of a surrogate pair split between appends waits for the second one
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
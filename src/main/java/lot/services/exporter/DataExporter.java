@@ -0,0 +1,229 @@
+package lot.services.exporter;
+
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.DatabaseStreamException;
+import lot.exceptions.services.ServiceException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports whole tables and flight manifests to CSV or JSON files, optionally compressed with gzip.
+ * <p>
+ * Rows are read through a forward-only cursor with a fixed fetch size, see {@link lot.dao.utils.ResultSetStream},
+ * and written one by one through a buffered {@link FileChannel}, so memory usage does not depend on
+ * the number of exported rows. If the export fails, the partially written file is deleted.
+ */
+public class DataExporter {
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final List<String> FLIGHT_COLUMNS =
+            List.of("id", "departure", "destination", "departureDate", "duration", "seatRowsAmount");
+    private static final List<String> PASSENGER_COLUMNS =
+            List.of("id", "name", "surname", "email", "phoneNumber");
+    private static final List<String> RESERVATION_COLUMNS =
+            List.of("id", "flightId", "passengerId", "name", "surname", "seatNumber", "departureDate", "tookPlace");
+    private static final List<String> MANIFEST_COLUMNS =
+            List.of("reservationId", "seatNumber", "passengerId", "name", "surname", "email", "phoneNumber");
+
+    private final FlightDao flightDao;
+    private final PassengerDao passengerDao;
+    private final ReservationDao reservationDao;
+    private final int fetchSize;
+
+    /**
+     * Constructs an exporter using the default DAOs and fetch size.
+     */
+    public DataExporter() {
+        this(new FlightDao(), new PassengerDao(), new ReservationDao(), DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Constructs an exporter.
+     *
+     * @param flightDao the DAO flights are read with
+     * @param passengerDao the DAO passengers are read with
+     * @param reservationDao the DAO reservations and manifests are read with
+     * @param fetchSize the number of rows fetched from the database at once
+     */
+    public DataExporter(FlightDao flightDao, PassengerDao passengerDao, ReservationDao reservationDao, int fetchSize) {
+        this.flightDao = flightDao;
+        this.passengerDao = passengerDao;
+        this.reservationDao = reservationDao;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Exports from the command line.
+     * Arguments are: what to export ({@code flights}, {@code passengers}, {@code reservations} or {@code manifest}),
+     * the file, and the flight ID for a manifest. The format is detected from the file extension
+     * ({@code .csv} or {@code .json}), and the file is compressed if its name ends with {@code .gz}.
+     * The database is configured as for the application, see {@link lot.database.DatabaseConfig}.
+     *
+     * @param args the command line arguments
+     * @throws Exception if the data cannot be exported
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || (args[0].equals("manifest") && args.length < 3)) {
+            System.err.println("Usage: DataExporter <flights|passengers|reservations|manifest> <file> [flightId]");
+            System.exit(1);
+        }
+        Path file = Path.of(args[1]);
+        ExportFormat format = ExportFormat.of(file);
+        boolean gzip = file.getFileName().toString().toLowerCase().endsWith(".gz");
+
+        DatabaseInitializer.initialize();
+        DataExporter exporter = new DataExporter();
+        ExportReport report = switch (args[0]) {
+            case "flights" -> exporter.exportFlights(file, format, gzip);
+            case "passengers" -> exporter.exportPassengers(file, format, gzip);
+            case "reservations" -> exporter.exportReservations(file, format, gzip);
+            case "manifest" -> exporter.exportManifest(Integer.parseInt(args[2]), file, format, gzip);
+            default -> throw new IllegalArgumentException("Unknown table: " + args[0]);
+        };
+        System.out.println(report);
+    }
+
+    /**
+     * Exports all flights, ordered by ID.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the format of the file
+     * @param gzip true to compress the file with gzip
+     * @return the report of the export
+     * @throws ServiceException if a database error occurs or the file cannot be written
+     */
+    public ExportReport exportFlights(Path file, ExportFormat format, boolean gzip) {
+        return export("flights", FLIGHT_COLUMNS, () -> flightDao.streamAll(fetchSize),
+                flight -> new Object[] {flight.getId(), flight.getDeparture(), flight.getDestination(),
+                        flight.getDepartureDate(), flight.getDuration(), flight.getSeatRowsAmount()},
+                file, format, gzip);
+    }
+
+    /**
+     * Exports all passengers, ordered by ID.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the format of the file
+     * @param gzip true to compress the file with gzip
+     * @return the report of the export
+     * @throws ServiceException if a database error occurs or the file cannot be written
+     */
+    public ExportReport exportPassengers(Path file, ExportFormat format, boolean gzip) {
+        return export("passengers", PASSENGER_COLUMNS, () -> passengerDao.streamAll(fetchSize),
+                passenger -> new Object[] {passenger.getId(), passenger.getName(), passenger.getSurname(),
+                        passenger.getEmail(), passenger.getPhoneNumber()},
+                file, format, gzip);
+    }
+
+    /**
+     * Exports all reservations, ordered by ID, with the passengers' names and the departure dates of the flights.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param format the format of the file
+     * @param gzip true to compress the file with gzip
+     * @return the report of the export
+     * @throws ServiceException if a database error occurs or the file cannot be written
+     */
+    public ExportReport exportReservations(Path file, ExportFormat format, boolean gzip) {
+        return export("reservations", RESERVATION_COLUMNS, () -> reservationDao.streamAll(fetchSize),
+                reservation -> new Object[] {reservation.getId(), reservation.getFlightId(),
+                        reservation.getPassengerId(), reservation.getPassengerName(), reservation.getPassengerSurname(),
+                        reservation.getSeatNumber(), reservation.getDepartureDate(), reservation.getTookPlace()},
+                file, format, gzip);
+    }
+
+    /**
+     * Exports the manifest of a flight: its reservations with the passengers' contact data.
+     *
+     * @param flightId the flight ID
+     * @param file the file to write, replaced if it exists
+     * @param format the format of the file
+     * @param gzip true to compress the file with gzip
+     * @return the report of the export
+     * @throws ServiceException if a database error occurs or the file cannot be written
+     */
+    public ExportReport exportManifest(int flightId, Path file, ExportFormat format, boolean gzip) {
+        return export("manifest of flight " + flightId, MANIFEST_COLUMNS,
+                () -> reservationDao.streamManifest(flightId, fetchSize),
+                entry -> new Object[] {entry.getReservationId(), entry.getSeatNumber(), entry.getPassengerId(),
+                        entry.getName(), entry.getSurname(), entry.getEmail(), entry.getPhoneNumber()},
+                file, format, gzip);
+    }
+
+    /**
+     * Opens a stream of rows to export.
+     *
+     * @param <T> the type of rows
+     */
+    @FunctionalInterface
+    private interface RowSource<T> {
+        Stream<T> open() throws DatabaseActionException;
+    }
+
+    private static <T> ExportReport export(String name, List<String> columns, RowSource<T> source,
+                                           Function<T, Object[]> values, Path file, ExportFormat format, boolean gzip) {
+        long start = System.nanoTime();
+        long rows = 0;
+        try {
+            try (Stream<T> stream = source.open(); ChannelWriter out = open(file, gzip)) {
+                format.begin(out, columns);
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    format.row(out, columns, values.apply(iterator.next()), rows == 0);
+                    rows++;
+                }
+                format.end(out);
+            }
+            return new ExportReport(name, rows, file, Files.size(file), Duration.ofNanos(System.nanoTime() - start));
+        }
+        catch (DatabaseActionException | DatabaseStreamException e) {
+            deletePartialFile(file);
+            throw new ServiceException("Database error while exporting " + name, e);
+        }
+        catch (IOException e) {
+            deletePartialFile(file);
+            throw new ServiceException("Failed to write " + name + " to " + file, e);
+        }
+    }
+
+    private static ChannelWriter open(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (!gzip) {
+            return new ChannelWriter(channel);
+        }
+        try {
+            OutputStream compressed = new GZIPOutputStream(Channels.newOutputStream(channel), ChannelWriter.BUFFER_BYTES);
+            return new ChannelWriter(Channels.newChannel(compressed));
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void deletePartialFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException ignored) {
+            // the original failure is more relevant than the leftover file
+        }
+    }
+}
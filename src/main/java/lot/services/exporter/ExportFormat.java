@@ -0,0 +1,168 @@
+package lot.services.exporter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Format of exported files.
+ */
+public enum ExportFormat {
+    /**
+     * Comma-separated values with a header line. Fields containing commas, quotes or line breaks are quoted.
+     */
+    CSV("csv") {
+        @Override
+        void begin(ChannelWriter out, List<String> columns) throws IOException {
+            out.append(String.join(",", columns)).append('\n');
+        }
+
+        @Override
+        void row(ChannelWriter out, List<String> columns, Object[] values, boolean first) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                if (values[i] != null) {
+                    out.append(quote(values[i].toString()));
+                }
+            }
+            out.append('\n');
+        }
+
+        @Override
+        void end(ChannelWriter out) {}
+    },
+
+    /**
+     * A JSON array with an object per row, written one object per line.
+     */
+    JSON("json") {
+        @Override
+        void begin(ChannelWriter out, List<String> columns) throws IOException {
+            out.append('[');
+        }
+
+        @Override
+        void row(ChannelWriter out, List<String> columns, Object[] values, boolean first) throws IOException {
+            out.append(first ? "\n{" : ",\n{");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(string(columns.get(i))).append(':');
+                if (values[i] == null) {
+                    out.append("null");
+                }
+                else if (values[i] instanceof Number || values[i] instanceof Boolean) {
+                    out.append(values[i].toString());
+                }
+                else {
+                    out.append(string(values[i].toString()));
+                }
+            }
+            out.append('}');
+        }
+
+        @Override
+        void end(ChannelWriter out) throws IOException {
+            out.append("\n]\n");
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the file extension of the format, without the dot.
+     *
+     * @return the extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Detects the format from the extension of a file name, ignoring a trailing {@code .gz}.
+     *
+     * @param file the file
+     * @return the format of the file
+     * @throws IllegalArgumentException if the extension is not of a known format
+     */
+    public static ExportFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        for (ExportFormat format : values()) {
+            if (name.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format of file: " + file);
+    }
+
+    /**
+     * Writes what precedes the rows.
+     *
+     * @param out the writer
+     * @param columns the column names
+     * @throws IOException if the file cannot be written
+     */
+    abstract void begin(ChannelWriter out, List<String> columns) throws IOException;
+
+    /**
+     * Writes a row.
+     *
+     * @param out the writer
+     * @param columns the column names
+     * @param values the values of the row, in the order of the columns; numbers and booleans are written unquoted
+     * @param first true for the first row of the file
+     * @throws IOException if the file cannot be written
+     */
+    abstract void row(ChannelWriter out, List<String> columns, Object[] values, boolean first) throws IOException;
+
+    /**
+     * Writes what follows the rows.
+     *
+     * @param out the writer
+     * @throws IOException if the file cannot be written
+     */
+    abstract void end(ChannelWriter out) throws IOException;
+
+    private static String quote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+        }
+        return value;
+    }
+
+    private static String string(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
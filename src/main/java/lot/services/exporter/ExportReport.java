@@ -0,0 +1,80 @@
+package lot.services.exporter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Result of an export: what was exported, how many rows and how long it took.
+ */
+public class ExportReport {
+    private final String name;
+    private final long rows;
+    private final Path file;
+    private final long bytes;
+    private final Duration elapsed;
+
+    ExportReport(String name, long rows, Path file, long bytes, Duration elapsed) {
+        this.name = name;
+        this.rows = rows;
+        this.file = file;
+        this.bytes = bytes;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the name of the exported data, e.g. the table name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of exported rows.
+     *
+     * @return the number of rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the file the rows were written to.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the size of the written file, after compression if it was requested.
+     *
+     * @return the size in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns how long the export took.
+     *
+     * @return the elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns a one-line summary of the export.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        long rowsPerSecond = elapsed.toMillis() == 0 ? rows : rows * 1000 / elapsed.toMillis();
+        return name + ": exported=" + rows + " file=" + file + " (" + bytes + " bytes)"
+                + " elapsed=" + elapsed.toMillis() + "ms (" + rowsPerSecond + " rows/s)";
+    }
+}
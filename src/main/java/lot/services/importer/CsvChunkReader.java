@@ -0,0 +1,131 @@
+package lot.services.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a CSV file through a {@link FileChannel} in chunks of whole lines, without decoding them.
+ * Decoding and parsing are left to the workers processing the chunks, so the reading thread only does I/O.
+ * Lines are split on {@code '\n'}, which never occurs inside a multi-byte UTF-8 character.
+ */
+final class CsvChunkReader implements AutoCloseable {
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * Whole lines of the file and the number of the first one, counting from 1 for the header.
+     */
+    record Chunk(long firstLine, byte[] data) {}
+
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private long nextLine = 1;
+    private boolean endOfFile;
+
+    /**
+     * Opens the file.
+     *
+     * @param file the file to read
+     * @param chunkSize the number of bytes read at once; a chunk holds all whole lines of one read
+     * @throws IOException if the file cannot be opened
+     */
+    CsvChunkReader(Path file, int chunkSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(chunkSize);
+    }
+
+    /**
+     * Reads the first line of the file. Must be called before the first chunk.
+     *
+     * @return the header, or null if the file is empty
+     * @throws IOException if the file cannot be read
+     */
+    String header() throws IOException {
+        Chunk first = nextLines(1);
+        if (first == null) {
+            return null;
+        }
+        byte[] data = first.data();
+        int from = startsWith(data, UTF8_BOM) ? UTF8_BOM.length : 0;
+        return CsvLine.decode(data, from, data.length);
+    }
+
+    /**
+     * Reads the next chunk of whole lines.
+     *
+     * @return the chunk, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    Chunk next() throws IOException {
+        return nextLines(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Chunk nextLines(int maxLines) throws IOException {
+        while (true) {
+            byte[] bytes = buffer.array();
+            int end = lastLineEnd(bytes, buffer.position(), maxLines);
+            if (end < 0 && endOfFile && buffer.position() > 0) {
+                end = buffer.position();
+            }
+            if (end >= 0) {
+                byte[] data = Arrays.copyOf(bytes, end);
+                long firstLine = nextLine;
+                nextLine += countLines(data);
+                buffer.flip();
+                buffer.position(Math.min(end + 1, buffer.limit()));
+                buffer.compact();
+                return new Chunk(firstLine, data);
+            }
+            if (endOfFile) {
+                return null;
+            }
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+            endOfFile = channel.read(buffer) < 0;
+        }
+    }
+
+    /**
+     * Returns the index of the {@code '\n'} ending the last whole line, or of the {@code maxLines}-th line, or -1.
+     */
+    private static int lastLineEnd(byte[] bytes, int length, int maxLines) {
+        if (maxLines == 1) {
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long countLines(byte[] data) {
+        long lines = 1;
+        for (byte b : data) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        return data.length >= prefix.length && Arrays.equals(data, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
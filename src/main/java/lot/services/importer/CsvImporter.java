@@ -0,0 +1,316 @@
+package lot.services.importer;
+
+import lot.database.DatabaseInitializer;
+import lot.exceptions.services.ServiceException;
+import lot.exceptions.services.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports flights, passengers and reservations from CSV files with a header line.
+ * <p>
+ * The file is read in chunks of whole lines through a {@link java.nio.channels.FileChannel}. Chunks are decoded,
+ * parsed and validated in parallel, with the same rules as {@link lot.services.FlightService} and
+ * {@link lot.services.PassengerService}, and each chunk is inserted with JDBC batches in its own transaction.
+ * The number of chunks in memory is bounded, so reading waits when the database falls behind.
+ * <p>
+ * Invalid rows do not stop the import: they are collected with their line numbers and reasons in the
+ * {@link ImportReport} and optionally written to a reject file, which has the columns {@code line,reason,row}.
+ * If the database refuses a chunk, it is retried row by row so only the offending rows are rejected.
+ */
+public class CsvImporter {
+    private static final Logger log = LoggerFactory.getLogger(CsvImporter.class);
+
+    static final int CHUNK_BYTES = 1 << 20;
+
+    private final int threads;
+    private final int chunkBytes;
+
+    /**
+     * Constructs an importer.
+     *
+     * @param threads the number of chunks parsed and written in parallel; should not exceed the connection pool size
+     */
+    public CsvImporter(int threads) {
+        this(threads, CHUNK_BYTES);
+    }
+
+    CsvImporter(int threads, int chunkBytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive, but was: " + threads);
+        }
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Imports a file from the command line.
+     * Arguments are: the table ({@code passengers}, {@code flights} or {@code reservations}), the file,
+     * and optionally the number of threads. Rejected rows are written next to the file, with suffix {@code .rejects.csv}.
+     * The database is configured as for the application, see {@link lot.database.DatabaseConfig}.
+     *
+     * @param args the command line arguments
+     * @throws Exception if the file cannot be imported
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: CsvImporter <passengers|flights|reservations> <file> [threads]");
+            System.exit(1);
+        }
+        Path file = Path.of(args[1]);
+        Path rejectFile = file.resolveSibling(file.getFileName() + ".rejects.csv");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        DatabaseInitializer.initialize();
+        CsvImporter importer = new CsvImporter(threads);
+        ImportReport report = switch (args[0]) {
+            case "passengers" -> importer.importPassengers(file, rejectFile);
+            case "flights" -> importer.importFlights(file, rejectFile);
+            case "reservations" -> importer.importReservations(file, rejectFile);
+            default -> throw new IllegalArgumentException("Unknown table: " + args[0]);
+        };
+        System.out.println(report);
+    }
+
+    /**
+     * Imports passengers from lines {@code name,surname,email,phoneNumber}.
+     *
+     * @param file the CSV file
+     * @param rejectFile the file rejected rows are written to, or null
+     * @return the report of the import
+     * @throws ValidationException if the header of the file is not as expected
+     * @throws ServiceException if the file cannot be read or a database error occurs
+     */
+    public ImportReport importPassengers(Path file, Path rejectFile) {
+        return run(new PassengerImport(), file, rejectFile);
+    }
+
+    /**
+     * Imports flights from lines {@code departure,destination,departureDate,time,duration,seatRowsAmount},
+     * with the date in format {@code yyyy-MM-dd} and the time in format {@code HH:mm}. Seats are created for each flight.
+     *
+     * @param file the CSV file
+     * @param rejectFile the file rejected rows are written to, or null
+     * @return the report of the import
+     * @throws ValidationException if the header of the file is not as expected
+     * @throws ServiceException if the file cannot be read or a database error occurs
+     */
+    public ImportReport importFlights(Path file, Path rejectFile) {
+        return run(new FlightImport(), file, rejectFile);
+    }
+
+    /**
+     * Imports reservations from lines {@code flightId,passengerId,seatNumber}.
+     * Reservations of missing flights or passengers and of taken seats are rejected.
+     *
+     * @param file the CSV file
+     * @param rejectFile the file rejected rows are written to, or null
+     * @return the report of the import
+     * @throws ValidationException if the header of the file is not as expected
+     * @throws ServiceException if the file cannot be read or a database error occurs
+     */
+    public ImportReport importReservations(Path file, Path rejectFile) {
+        return run(new ReservationImport(), file, rejectFile);
+    }
+
+    /**
+     * Parsed lines of a chunk.
+     */
+    private record ParsedChunk<T>(long rows, List<TableImport.Row<T>> valid, List<ImportReport.Rejection> rejections) {}
+
+    /**
+     * Outcome of inserting a chunk.
+     */
+    private record ChunkResult(long rows, long imported, List<ImportReport.Rejection> rejections) {}
+
+    private <T> ImportReport run(TableImport<T> format, Path file, Path rejectFile) {
+        long start = System.nanoTime();
+        ExecutorService parsers = Executors.newFixedThreadPool(threads);
+        ExecutorService writers = Executors.newFixedThreadPool(format.parallelWrites() ? threads : 1);
+        Semaphore inFlight = new Semaphore(2 * threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        try {
+            try (CsvChunkReader reader = new CsvChunkReader(file, chunkBytes)) {
+                checkHeader(format, reader.header());
+                CsvChunkReader.Chunk chunk;
+                while ((chunk = reader.next()) != null) {
+                    inFlight.acquire();
+                    if (failure.get() != null) {
+                        break;
+                    }
+                    CsvChunkReader.Chunk read = chunk;
+                    chunks.add(CompletableFuture
+                            .supplyAsync(() -> parse(format, read), parsers)
+                            .thenApplyAsync(parsed -> write(format, read.firstLine(), parsed), writers)
+                            .whenComplete((result, e) -> {
+                                if (e != null) {
+                                    failure.compareAndSet(null, e);
+                                }
+                                inFlight.release();
+                            }));
+                }
+            }
+
+            long rows = 0;
+            long imported = 0;
+            List<ImportReport.Rejection> rejections = new ArrayList<>();
+            for (CompletableFuture<ChunkResult> chunk : chunks) {
+                ChunkResult result = chunk.join();
+                rows += result.rows();
+                imported += result.imported();
+                rejections.addAll(result.rejections());
+            }
+            rejections.sort(Comparator.comparingLong(ImportReport.Rejection::getLine));
+            if (rejectFile != null && !rejections.isEmpty()) {
+                writeRejections(rejectFile, rejections);
+            }
+            return new ImportReport(format.table(), rows, imported, rejections, rejectFile,
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceException serviceException) {
+                throw serviceException;
+            }
+            throw new ServiceException("Failed to import " + format.table() + " from " + file, e.getCause());
+        }
+        catch (IOException e) {
+            throw new ServiceException("Failed to read " + file, e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Import of " + format.table() + " was interrupted", e);
+        }
+        finally {
+            format.afterImport();
+            parsers.shutdownNow();
+            writers.shutdownNow();
+        }
+    }
+
+    private static void checkHeader(TableImport<?> format, String header) {
+        String expected = String.join(",", format.header());
+        if (header == null) {
+            throw new ValidationException("File is empty! Required header: " + expected);
+        }
+        List<String> columns = CsvLine.split(header);
+        boolean matches = columns.size() == format.header().size();
+        for (int i = 0; matches && i < columns.size(); i++) {
+            matches = columns.get(i).equalsIgnoreCase(format.header().get(i));
+        }
+        if (!matches) {
+            throw new ValidationException("File has wrong header! Required header: " + expected);
+        }
+    }
+
+    private static <T> ParsedChunk<T> parse(TableImport<T> format, CsvChunkReader.Chunk chunk) {
+        byte[] data = chunk.data();
+        int columns = format.header().size();
+        List<TableImport.Row<T>> valid = new ArrayList<>();
+        List<ImportReport.Rejection> rejections = new ArrayList<>();
+        long rows = 0;
+        long line = chunk.firstLine();
+        int from = 0;
+        for (int i = 0; i <= data.length; i++) {
+            if (i < data.length && data[i] != '\n') {
+                continue;
+            }
+            String text = CsvLine.decode(data, from, i);
+            if (!text.isBlank()) {
+                rows++;
+                try {
+                    List<String> fields = CsvLine.split(text);
+                    if (fields.size() != columns) {
+                        throw new ValidationException("Expected " + columns + " fields, but found " + fields.size());
+                    }
+                    valid.add(new TableImport.Row<>(line, text, format.parse(fields)));
+                }
+                catch (ValidationException e) {
+                    rejections.add(new ImportReport.Rejection(line, text, e.getMessage()));
+                }
+            }
+            line++;
+            from = i + 1;
+        }
+        return new ParsedChunk<>(rows, valid, rejections);
+    }
+
+    private static <T> ChunkResult write(TableImport<T> format, long firstLine, ParsedChunk<T> parsed) {
+        List<ImportReport.Rejection> rejections = new ArrayList<>(parsed.rejections());
+        if (parsed.valid().isEmpty()) {
+            return new ChunkResult(parsed.rows(), 0, rejections);
+        }
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                List<ImportReport.Rejection> chunkRejections = new ArrayList<>();
+                int imported = format.insert(conn, parsed.valid(), chunkRejections);
+                conn.commit();
+                rejections.addAll(chunkRejections);
+                return new ChunkResult(parsed.rows(), imported, rejections);
+            }
+            catch (SQLException e) {
+                conn.rollback();
+                log.warn("Chunk of {} starting at line {} refused by the database, retrying row by row: {}",
+                        format.table(), firstLine, e.getMessage());
+            }
+
+            int imported = 0;
+            for (TableImport.Row<T> row : parsed.valid()) {
+                List<ImportReport.Rejection> rowRejections = new ArrayList<>();
+                try {
+                    imported += format.insert(conn, List.of(row), rowRejections);
+                    conn.commit();
+                    rejections.addAll(rowRejections);
+                }
+                catch (SQLException e) {
+                    conn.rollback();
+                    rejections.add(new ImportReport.Rejection(row.line(), row.text(), firstLine(e.getMessage())));
+                }
+            }
+            return new ChunkResult(parsed.rows(), imported, rejections);
+        }
+        catch (SQLException e) {
+            throw new ServiceException("Database error while importing " + format.table()
+                    + " from line " + firstLine, e);
+        }
+    }
+
+    private static void writeRejections(Path rejectFile, List<ImportReport.Rejection> rejections) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            writer.write("line,reason,row");
+            writer.newLine();
+            for (ImportReport.Rejection rejection : rejections) {
+                writer.write(rejection.getLine() + "," + quote(rejection.getReason()) + "," + quote(rejection.getRow()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String firstLine(String message) {
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end).trim();
+    }
+}
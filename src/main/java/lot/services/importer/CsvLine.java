@@ -0,0 +1,73 @@
+package lot.services.importer;
+
+import lot.exceptions.services.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits CSV lines into fields. Fields are separated by commas and may be quoted with {@code "},
+ * with {@code ""} standing for a quote inside a quoted field. Quoted fields cannot span several lines.
+ */
+final class CsvLine {
+    private CsvLine() {}
+
+    /**
+     * Decodes a line from UTF-8, dropping the {@code '\r'} of a Windows line ending.
+     *
+     * @param data the bytes holding the line
+     * @param from the index of the first byte of the line
+     * @param to the index after the last byte of the line
+     * @return the line
+     */
+    static String decode(byte[] data, int from, int to) {
+        if (to > from && data[to - 1] == '\r') {
+            to--;
+        }
+        return new String(data, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits a line into trimmed fields.
+     *
+     * @param line the line to split
+     * @return the fields of the line
+     * @throws ValidationException if a quoted field is not closed
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                }
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else {
+                    quoted = false;
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ValidationException("Quoted field is not closed");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
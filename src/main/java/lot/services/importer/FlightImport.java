@@ -0,0 +1,103 @@
+package lot.services.importer;
+
+import lot.exceptions.services.ValidationException;
+import lot.models.Flight;
+import lot.services.ValidationRules;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Imports flights from lines {@code departure,destination,departureDate,time,duration,seatRowsAmount},
+ * with the date in format {@code yyyy-MM-dd} and the time in format {@code HH:mm}.
+ * Seats of the flights of a chunk are created by a single {@code INSERT ... SELECT}.
+ */
+class FlightImport extends TableImport<Flight> {
+    /** Seat numbers, e.g. "999F", must fit in the seats table. */
+    private static final int MAX_SEAT_ROWS = 999;
+
+    @Override
+    String table() {
+        return "flights";
+    }
+
+    @Override
+    List<String> header() {
+        return List.of("departure", "destination", "departureDate", "time", "duration", "seatRowsAmount");
+    }
+
+    @Override
+    Flight parse(List<String> fields) {
+        String departure = text(fields.get(0), "Departure", 50);
+        String destination = text(fields.get(1), "Destination", 50);
+        LocalDate date;
+        try {
+            date = LocalDate.parse(fields.get(2));
+        }
+        catch (DateTimeParseException e) {
+            throw new ValidationException("Provided date is in wrong format! Required date in format: yyyy-MM-dd");
+        }
+        LocalDateTime departureDate = ValidationRules.departureDate(date, fields.get(3));
+        int duration = number(fields.get(4), "Duration");
+        int seatRowsAmount = number(fields.get(5), "Seat rows amount");
+        ValidationRules.validateFlight(departureDate, duration, seatRowsAmount);
+        if (seatRowsAmount > MAX_SEAT_ROWS) {
+            throw new ValidationException("Flight's seat rows amount must be at most " + MAX_SEAT_ROWS + "!");
+        }
+        return new Flight(departure, destination, departureDate, duration, seatRowsAmount);
+    }
+
+    @Override
+    int insert(Connection conn, List<Row<Flight>> rows, List<ImportReport.Rejection> rejections) throws SQLException {
+        String flightQuery =
+                """
+                INSERT INTO flights (departure, destination, departureDate, duration, seatRowsAmount) VALUES
+                (?, ?, ?, ?, ?)
+                """;
+        String seatQuery =
+                """
+                INSERT INTO seats (flightId, seatNumber, available)
+                SELECT f.id, CONCAT(r.X, l.letter), TRUE
+                FROM flights f
+                JOIN SYSTEM_RANGE(1, %d) r ON r.X <= f.seatRowsAmount
+                CROSS JOIN (VALUES 'A', 'B', 'C', 'D', 'E', 'F') l(letter)
+                WHERE f.id BETWEEN ? AND ?
+                AND NOT EXISTS (SELECT 1 FROM seats s WHERE s.flightId = f.id)
+                """.formatted(MAX_SEAT_ROWS);
+        try (
+                PreparedStatement flightPs = conn.prepareStatement(flightQuery, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement seatPs = conn.prepareStatement(seatQuery)
+        ) {
+            for (Row<Flight> row : rows) {
+                Flight flight = row.value();
+                flightPs.setString(1, flight.getDeparture());
+                flightPs.setString(2, flight.getDestination());
+                flightPs.setTimestamp(3, Timestamp.valueOf(flight.getDepartureDate()));
+                flightPs.setInt(4, flight.getDuration());
+                flightPs.setInt(5, flight.getSeatRowsAmount());
+                flightPs.addBatch();
+            }
+            flightPs.executeBatch();
+
+            int fromId = Integer.MAX_VALUE;
+            int toId = Integer.MIN_VALUE;
+            try (ResultSet generatedKeys = flightPs.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    fromId = Math.min(fromId, generatedKeys.getInt(1));
+                    toId = Math.max(toId, generatedKeys.getInt(1));
+                }
+            }
+            if (fromId > toId) {
+                throw new SQLException("No generated IDs received after importing flights");
+            }
+            // flights of concurrent chunks in this range are either committed with their seats or not visible yet
+            seatPs.setInt(1, fromId);
+            seatPs.setInt(2, toId);
+            seatPs.executeUpdate();
+            return rows.size();
+        }
+    }
+}
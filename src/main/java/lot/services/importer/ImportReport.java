@@ -0,0 +1,161 @@
+package lot.services.importer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of importing a CSV file: the numbers of imported and rejected rows and the reasons of rejections.
+ */
+public class ImportReport {
+    /**
+     * A row of the file which has not been imported.
+     */
+    public static class Rejection {
+        private final long line;
+        private final String row;
+        private final String reason;
+
+        /**
+         * Constructs a rejection.
+         *
+         * @param line the number of the line in the file, counting from 1 for the header
+         * @param row the rejected line
+         * @param reason the reason of the rejection
+         */
+        public Rejection(long line, String row, String reason) {
+            this.line = line;
+            this.row = row;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the number of the line in the file, counting from 1 for the header.
+         *
+         * @return the line number
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Returns the rejected line.
+         *
+         * @return the line as read from the file
+         */
+        public String getRow() {
+            return row;
+        }
+
+        /**
+         * Returns the reason of the rejection.
+         *
+         * @return the reason, e.g. a validation message
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Returns a string representation of the rejection.
+         *
+         * @return a string containing the line number and the reason
+         */
+        @Override
+        public String toString() {
+            return "line " + line + ": " + reason;
+        }
+    }
+
+    private final String table;
+    private final long rows;
+    private final long imported;
+    private final List<Rejection> rejections;
+    private final Path rejectFile;
+    private final Duration elapsed;
+
+    ImportReport(String table, long rows, long imported, List<Rejection> rejections, Path rejectFile, Duration elapsed) {
+        this.table = table;
+        this.rows = rows;
+        this.imported = imported;
+        this.rejections = rejections;
+        this.rejectFile = rejectFile;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the name of the table the rows were imported into.
+     *
+     * @return the table name
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the number of rows read from the file, without the header and blank lines.
+     *
+     * @return the number of rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of rows inserted into the database.
+     *
+     * @return the number of imported rows
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Returns the number of rows which have not been imported.
+     *
+     * @return the number of rejected rows
+     */
+    public long getRejected() {
+        return rejections.size();
+    }
+
+    /**
+     * Returns the rejected rows, ordered by line number.
+     *
+     * @return the rejections
+     */
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Returns the file the rejected rows were written to.
+     *
+     * @return the reject file, or null if it was not requested
+     */
+    public Path getRejectFile() {
+        return rejectFile;
+    }
+
+    /**
+     * Returns how long the import took.
+     *
+     * @return the elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns a one-line summary of the import.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        long rowsPerSecond = elapsed.toMillis() == 0 ? imported : imported * 1000 / elapsed.toMillis();
+        return table + ": imported=" + imported + " rejected=" + getRejected() + " rows=" + rows
+                + " elapsed=" + elapsed.toMillis() + "ms (" + rowsPerSecond + " rows/s)"
+                + (rejectFile != null && !rejections.isEmpty() ? " rejects=" + rejectFile : "");
+    }
+}
@@ -0,0 +1,55 @@
+package lot.services.importer;
+
+import lot.models.Passenger;
+import lot.services.ValidationRules;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Imports passengers from lines {@code name,surname,email,phoneNumber}.
+ */
+class PassengerImport extends TableImport<Passenger> {
+    @Override
+    String table() {
+        return "passengers";
+    }
+
+    @Override
+    List<String> header() {
+        return List.of("name", "surname", "email", "phoneNumber");
+    }
+
+    @Override
+    Passenger parse(List<String> fields) {
+        String name = text(fields.get(0), "Name", 20);
+        String surname = text(fields.get(1), "Surname", 30);
+        String email = text(fields.get(2), "Email", 40);
+        String phoneNumber = fields.get(3);
+        ValidationRules.validatePassenger(email, phoneNumber);
+        return new Passenger(name, surname, email, phoneNumber);
+    }
+
+    @Override
+    int insert(Connection conn, List<Row<Passenger>> rows, List<ImportReport.Rejection> rejections) throws SQLException {
+        String query =
+                """
+                INSERT INTO passengers (name, surname, email, phoneNumber) VALUES
+                (?, ?, ?, ?)
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            for (Row<Passenger> row : rows) {
+                Passenger passenger = row.value();
+                ps.setString(1, passenger.getName());
+                ps.setString(2, passenger.getSurname());
+                ps.setString(3, passenger.getEmail());
+                ps.setString(4, passenger.getPhoneNumber());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package lot.services.importer;
+
+import lot.dao.cache.SeatAvailabilityCache;
+import lot.models.Reservation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports reservations from lines {@code flightId,passengerId,seatNumber} referring to existing flights and passengers.
+ * Seats are claimed with one batch of conditional updates, like in {@link lot.dao.ReservationDao#saveValidated},
+ * so a seat taken before or earlier in the file is rejected instead of failing the whole chunk.
+ */
+class ReservationImport extends TableImport<Reservation> {
+    @Override
+    String table() {
+        return "reservations";
+    }
+
+    @Override
+    List<String> header() {
+        return List.of("flightId", "passengerId", "seatNumber");
+    }
+
+    @Override
+    Reservation parse(List<String> fields) {
+        int flightId = number(fields.get(0), "Flight ID");
+        int passengerId = number(fields.get(1), "Passenger ID");
+        String seatNumber = text(fields.get(2), "Seat number", 4).toUpperCase();
+        return new Reservation(flightId, passengerId, seatNumber);
+    }
+
+    /**
+     * Reservations of one seat in different chunks would block each other, so chunks are inserted one at a time.
+     */
+    @Override
+    boolean parallelWrites() {
+        return false;
+    }
+
+    @Override
+    int insert(Connection conn, List<Row<Reservation>> rows, List<ImportReport.Rejection> rejections) throws SQLException {
+        String claimQuery =
+                """
+                UPDATE seats
+                SET available = false
+                WHERE flightId = ? AND seatNumber = ? AND available = true
+                AND EXISTS (SELECT 1 FROM passengers p WHERE p.id = ?)
+                """;
+        String insertQuery =
+                """
+                INSERT INTO reservations (flightId, passengerId, seatNumber) VALUES
+                (?, ?, ?)
+                """;
+        try (
+                PreparedStatement claim = conn.prepareStatement(claimQuery);
+                PreparedStatement insert = conn.prepareStatement(insertQuery)
+        ) {
+            for (Row<Reservation> row : rows) {
+                claim.setInt(1, row.value().getFlightId());
+                claim.setString(2, row.value().getSeatNumber());
+                claim.setInt(3, row.value().getPassengerId());
+                claim.addBatch();
+            }
+            int[] claimed = claim.executeBatch();
+
+            List<Row<Reservation>> unclaimed = new ArrayList<>();
+            int inserted = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                Row<Reservation> row = rows.get(i);
+                if (claimed[i] == 0) {
+                    unclaimed.add(row);
+                    continue;
+                }
+                insert.setInt(1, row.value().getFlightId());
+                insert.setInt(2, row.value().getPassengerId());
+                insert.setString(3, row.value().getSeatNumber());
+                insert.addBatch();
+                inserted++;
+            }
+            if (inserted > 0) {
+                insert.executeBatch();
+            }
+            for (Row<Reservation> row : unclaimed) {
+                rejections.add(new ImportReport.Rejection(row.line(), row.text(), reason(conn, row.value())));
+            }
+            return inserted;
+        }
+    }
+
+    @Override
+    void afterImport() {
+        SeatAvailabilityCache.getInstance().invalidateAll();
+    }
+
+    private static String reason(Connection conn, Reservation reservation) throws SQLException {
+        String query =
+                """
+                SELECT EXISTS(SELECT 1 FROM flights f WHERE f.id = ?) AS flightExists,
+                       EXISTS(SELECT 1 FROM passengers p WHERE p.id = ?) AS passengerExists
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, reservation.getFlightId());
+            ps.setInt(2, reservation.getPassengerId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (!rs.getBoolean("flightExists")) {
+                    return "Flight assigned to the reservation must exists!";
+                }
+                if (!rs.getBoolean("passengerExists")) {
+                    return "Passenger assigned to the reservation must exists!";
+                }
+                return "Provided seat number is not available or it does not exist";
+            }
+        }
+    }
+}
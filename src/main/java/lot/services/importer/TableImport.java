@@ -0,0 +1,110 @@
+package lot.services.importer;
+
+import lot.exceptions.services.ValidationException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Format of a CSV file imported into one table: its header, how a line is parsed and validated,
+ * and how a chunk of valid rows is inserted.
+ *
+ * @param <T> the type of parsed rows
+ */
+abstract class TableImport<T> {
+    /**
+     * A parsed and validated line.
+     *
+     * @param line the number of the line in the file
+     * @param text the line as read from the file
+     * @param value the parsed row
+     * @param <T> the type of the parsed row
+     */
+    record Row<T>(long line, String text, T value) {}
+
+    /**
+     * Returns the name of the table the rows are imported into.
+     *
+     * @return the table name
+     */
+    abstract String table();
+
+    /**
+     * Returns the expected header of the file.
+     *
+     * @return the column names, in order
+     */
+    abstract List<String> header();
+
+    /**
+     * Parses and validates the fields of a line.
+     *
+     * @param fields the fields of the line, as many as in the header
+     * @return the parsed row
+     * @throws ValidationException if the row is invalid
+     */
+    abstract T parse(List<String> fields);
+
+    /**
+     * Inserts rows in the transaction of the connection. Rows which turn out to be invalid only against
+     * the data in the database are skipped and added to the rejections.
+     *
+     * @param conn the connection, with auto-commit disabled
+     * @param rows the rows to insert
+     * @param rejections the list the rejected rows are added to
+     * @return the number of inserted rows
+     * @throws SQLException if a database access error occurs; the transaction is then rolled back
+     */
+    abstract int insert(Connection conn, List<Row<T>> rows, List<ImportReport.Rejection> rejections) throws SQLException;
+
+    /**
+     * Checks if chunks can be inserted by several threads at once.
+     *
+     * @return true unless concurrent chunks could conflict with each other
+     */
+    boolean parallelWrites() {
+        return true;
+    }
+
+    /**
+     * Called once all rows have been inserted, e.g. to invalidate caches.
+     */
+    void afterImport() {}
+
+    /**
+     * Parses a required text field.
+     *
+     * @param value the field
+     * @param name the name of the field used in the error message
+     * @param maxLength the maximum length allowed by the database
+     * @return the field
+     * @throws ValidationException if the field is blank or too long
+     */
+    static String text(String value, String name, int maxLength) {
+        if (value.isEmpty()) {
+            throw new ValidationException(name + " must not be empty!");
+        }
+        if (value.length() > maxLength) {
+            throw new ValidationException(name + " must be at most " + maxLength + " characters long!");
+        }
+        return value;
+    }
+
+    /**
+     * Parses an integer field.
+     *
+     * @param value the field
+     * @param name the name of the field used in the error message
+     * @return the number
+     * @throws ValidationException if the field is not a number
+     */
+    static int number(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e) {
+            throw new ValidationException(name + " must be a number!");
+        }
+    }
+}
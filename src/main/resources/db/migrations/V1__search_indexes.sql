@@ -0,0 +1,9 @@
+create index if not exists flights_departure_idx on flights(departure);
+
+create index if not exists flights_destination_idx on flights(destination);
+
+create index if not exists flights_departure_date_idx on flights(departureDate);
+
+create index if not exists passengers_surname_idx on passengers(surname);
+
+create index if not exists seats_flight_available_idx on seats(flightId, available);
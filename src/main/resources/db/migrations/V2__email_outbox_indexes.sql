@@ -0,0 +1,3 @@
+create index if not exists email_outbox_due_idx on email_outbox(status, nextAttemptAt);
+
+create index if not exists email_outbox_job_idx on email_outbox(jobId, status);
@@ -38,17 +38,32 @@ create table if not exists reservations (
 );
 
 
-CREATE TRIGGER if not exists reservation_deleted
-AFTER DELETE ON reservations
-FOR EACH ROW
-CALL "lot.database.triggers.MakeSeatAvailableTrigger";
-
-create trigger if not exists reservation_added
-after insert on reservations
-for each row
-call "lot.database.triggers.MakeSeatUnavailableTrigger";
-
-create trigger if not exists reservation_updated
-after update on reservations
-for each row
-call "lot.database.triggers.ManageSeatAvailabilityAfterUpdateTrigger";
+create table if not exists notification_jobs (
+    id int GENERATED ALWAYS AS IDENTITY primary key,
+    flightId int not null,
+    kind varchar(20) not null,
+    total int not null,
+    createdAt timestamp default CURRENT_TIMESTAMP not null
+);
+
+
+create table if not exists email_outbox (
+    id int GENERATED ALWAYS AS IDENTITY primary key,
+    jobId int,
+    recipient varchar(40) not null,
+    subject varchar(200) not null,
+    body varchar(4000) not null,
+    status varchar(10) default 'PENDING' not null,
+    attempts int default 0 not null,
+    nextAttemptAt timestamp not null,
+    lastError varchar(500),
+    createdAt timestamp default CURRENT_TIMESTAMP not null,
+    sentAt timestamp,
+    constraint email_outbox_job_fk foreign key (jobId) references notification_jobs(id) on delete cascade
+);
+
+create table if not exists schema_version (
+    version int primary key,
+    description varchar(100) not null,
+    appliedAt timestamp default CURRENT_TIMESTAMP not null
+);
@@ -0,0 +1,14 @@
+CREATE TRIGGER if not exists reservation_deleted
+AFTER DELETE ON reservations
+FOR EACH ROW
+CALL "lot.database.triggers.MakeSeatAvailableTrigger";
+
+create trigger if not exists reservation_added
+after insert on reservations
+for each row
+call "lot.database.triggers.MakeSeatUnavailableTrigger";
+
+create trigger if not exists reservation_updated
+after update on reservations
+for each row
+call "lot.database.triggers.ManageSeatAvailabilityAfterUpdateTrigger";
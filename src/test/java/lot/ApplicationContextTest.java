@@ -0,0 +1,55 @@
+package lot;
+
+import lot.controllers.operations.FlightOperationsController;
+import lot.controllers.operations.PassengerOperationsController;
+import lot.controllers.operations.ReservationOperationsController;
+import lot.services.ReservationService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicationContextTest {
+    @Test
+    void testServicesAreCreatedOnce() {
+        ApplicationContext context = new ApplicationContext();
+        context.warmUp();
+
+        assertSame(context.getFlightService(), context.getFlightService());
+        assertSame(context.getPassengerService(), context.getPassengerService());
+        assertSame(context.getReservationService(), context.getReservationService());
+    }
+
+    @Test
+    void testConcurrentFirstUseCreatesOneService() throws Exception {
+        ApplicationContext context = new ApplicationContext();
+        List<Callable<ReservationService>> calls = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            calls.add(context::getReservationService);
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ReservationService>> results = executor.invokeAll(calls);
+            ReservationService first = results.get(0).get();
+            for (Future<ReservationService> result : results) {
+                assertSame(first, result.get());
+            }
+        }
+    }
+
+    @Test
+    void testCreateController() {
+        ApplicationContext context = new ApplicationContext();
+
+        assertInstanceOf(FlightOperationsController.class, context.createController(FlightOperationsController.class));
+        assertInstanceOf(PassengerOperationsController.class, context.createController(PassengerOperationsController.class));
+        assertInstanceOf(ReservationOperationsController.class, context.createController(ReservationOperationsController.class));
+        assertInstanceOf(ArrayList.class, context.createController(ArrayList.class));
+    }
+}
@@ -0,0 +1,127 @@
+package lot.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.database.SeatMaintenance;
+import lot.database.generator.DatasetGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared benchmark state: an in-memory database loaded with synthetic flights, passengers and reservations
+ * by {@link DatasetGenerator}. The size of the data set is configured with JMH parameters,
+ * e.g. {@code -p flights=5000 -p reservations=1000000}, and the data is generated from a fixed seed,
+ * so runs with the same parameters are comparable.
+ * Seats are maintained by the reservation triggers unless {@code -p seatMaintenance=STATEMENTS} is given.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+    @Param({"200"})
+    public int flights;
+
+    @Param({"2000"})
+    public int passengers;
+
+    @Param({"22500"})
+    public long reservations;
+
+    @Param({"42"})
+    public long seed;
+
+    @Param({"TRIGGERS"})
+    public SeatMaintenance seatMaintenance;
+
+    private HikariDataSource dataSource;
+    private int[] flightIds;
+    private int[] passengerIds;
+    private String[] surnames;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(dataSource);
+        DatabaseInitializer.overrideSeatMaintenance(seatMaintenance);
+        DatabaseInitializer.initialize();
+
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), config.getMaximumPoolSize());
+        new DatasetGenerator(seed, threads).generate(flights, passengers, reservations);
+        flightIds = selectInts("SELECT id FROM flights ORDER BY id");
+        passengerIds = selectInts("SELECT id FROM passengers ORDER BY id");
+        surnames = selectStrings("SELECT DISTINCT surname FROM passengers ORDER BY surname");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+    }
+
+    /**
+     * Returns the ID of a flight in the database.
+     *
+     * @param index any non-negative number, wrapped around the number of flights
+     * @return the flight ID
+     */
+    public int flightId(int index) {
+        return flightIds[index % flightIds.length];
+    }
+
+    /**
+     * Returns the ID of a passenger in the database.
+     *
+     * @param index any non-negative number, wrapped around the number of passengers
+     * @return the passenger ID
+     */
+    public int passengerId(int index) {
+        return passengerIds[index % passengerIds.length];
+    }
+
+    /**
+     * Returns one of the distinct passenger surnames in the database.
+     * Generated surnames are skewed, so a few of them return many more reservations than the others.
+     *
+     * @param index any non-negative number, wrapped around the number of surnames
+     * @return the surname
+     */
+    public String surname(int index) {
+        return surnames[index % surnames.length];
+    }
+
+    private static int[] selectInts(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            List<Integer> values = new ArrayList<>();
+            while (rs.next()) {
+                values.add(rs.getInt(1));
+            }
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static String[] selectStrings(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            List<String> values = new ArrayList<>();
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+            return values.toArray(String[]::new);
+        }
+    }
+}
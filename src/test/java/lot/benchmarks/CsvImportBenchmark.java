@@ -0,0 +1,82 @@
+package lot.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.services.importer.CsvImporter;
+import lot.services.importer.ImportReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link CsvImporter} takes to import a file of passengers into an in-memory database.
+ * The target is one million passengers in less than a minute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CsvImportBenchmark {
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private HikariDataSource dataSource;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:importbenchmarkdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(Math.max(10, threads));
+        dataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(dataSource);
+        DatabaseInitializer.initialize();
+
+        file = Files.createTempFile("passengers", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,surname,email,phoneNumber");
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                writer.write("Name" + i % 1000 + ",Surname" + i + ",passenger" + i + "@example.com," + (100_000_000 + i));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearPassengers() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE email LIKE 'passenger%@example.com'");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportReport importPassengers() {
+        return new CsvImporter(threads).importPassengers(file, null);
+    }
+}
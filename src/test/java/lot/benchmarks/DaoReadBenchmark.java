@@ -0,0 +1,69 @@
+package lot.benchmarks;
+
+import lot.dao.FlightDao;
+import lot.dao.ReservationDao;
+import lot.dao.cache.EntityCaches;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import lot.models.Reservation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the read paths used by every view of the application against the synthetic data set
+ * of {@link BenchmarkDatabase}: listing all flights, loading a flight by its ID, listing available seats
+ * of a flight and searching reservations by passenger surname.
+ * Each invocation targets the next flight or surname, so the results are not skewed by a single hot row.
+ * With {@code -p entityCache=false} the ID caches of {@link EntityCaches} are disabled, so loading a flight
+ * by its ID measures the query instead of a cache lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoReadBenchmark {
+    @Param({"true", "false"})
+    public boolean entityCache;
+
+    private FlightDao flightDao;
+    private ReservationDao reservationDao;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkDatabase database) {
+        // the database is passed so it is set up first, as setting it up enables the caches
+        EntityCaches.setEnabled(entityCache);
+        flightDao = new FlightDao();
+        reservationDao = new ReservationDao();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EntityCaches.setEnabled(true);
+    }
+
+    @Benchmark
+    public List<Flight> findAllFlights(BenchmarkDatabase database) throws DatabaseActionException {
+        return flightDao.findAll();
+    }
+
+    @Benchmark
+    public Optional<Flight> findFlightById(BenchmarkDatabase database) throws DatabaseActionException {
+        return flightDao.findById(database.flightId(cursor++));
+    }
+
+    @Benchmark
+    public List<String> getAvailableSeatsNumbers(BenchmarkDatabase database) throws DatabaseActionException {
+        return flightDao.getAvailableSeatsNumbers(database.flightId(cursor++));
+    }
+
+    @Benchmark
+    public List<Reservation> findReservationsBySurname(BenchmarkDatabase database) throws DatabaseActionException {
+        return reservationDao.findAllBySurname(database.surname(cursor++));
+    }
+}
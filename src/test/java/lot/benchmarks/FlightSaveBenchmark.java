@@ -0,0 +1,84 @@
+package lot.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many flights per second {@link FlightDao#save(Flight)} can store,
+ * including generation of the whole seat map.
+ * Runs against an embedded in-memory database and against the same database served over TCP,
+ * where every statement sent by the DAO costs a network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSaveBenchmark {
+    @Param({"10", "60"})
+    public int seatRowsAmount;
+
+    @Param({"embedded", "tcp"})
+    public String connectionMode;
+
+    private Server tcpServer;
+    private HikariDataSource dataSource;
+    private FlightDao flightDao;
+    private Flight flight;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        String jdbcUrl = "jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1";
+        if (connectionMode.equals("tcp")) {
+            tcpServer = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+            jdbcUrl = "jdbc:h2:" + tcpServer.getURL() + "/mem:benchmarkdb;DB_CLOSE_DELAY=-1";
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(dataSource);
+        DatabaseInitializer.initialize();
+
+        flightDao = new FlightDao();
+        flight = new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(30), 90, seatRowsAmount);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearFlights() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+        if (tcpServer != null) {
+            tcpServer.stop();
+        }
+    }
+
+    @Benchmark
+    public int saveFlightWithSeats() throws DatabaseActionException {
+        return flightDao.save(flight);
+    }
+}
@@ -0,0 +1,58 @@
+package lot.benchmarks;
+
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import lot.services.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ReservationService#makeNewReservation(int, int, String)} end to end:
+ * validation, seat claim, insert and the seat availability trigger, against the synthetic data set
+ * of {@link BenchmarkDatabase}.
+ * Reservations are made on separate flights with all seats free, booked seat by seat;
+ * when a flight is full a new one is saved, which adds one flight save per {@code 6 * seatRows} reservations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationServiceBenchmark {
+    @Param({"30"})
+    public int seatRows;
+
+    private ReservationService reservationService;
+    private FlightDao flightDao;
+    private int flightId;
+    private int nextSeat;
+    private int passengerIndex;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkDatabase database) throws DatabaseActionException {
+        flightDao = new FlightDao();
+        reservationService = new ReservationService(new ReservationDao(), flightDao, new PassengerDao(), null);
+        newFlight();
+    }
+
+    @Benchmark
+    public int makeNewReservation(BenchmarkDatabase database) throws DatabaseActionException {
+        if (nextSeat == seatRows * 6) {
+            newFlight();
+        }
+        String seatNumber = (nextSeat / 6 + 1) + String.valueOf((char) ('A' + nextSeat % 6));
+        nextSeat++;
+        return reservationService.makeNewReservation(flightId, database.passengerId(passengerIndex++), seatNumber);
+    }
+
+    private void newFlight() throws DatabaseActionException {
+        flightId = flightDao.save(new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(30), 90, seatRows));
+        nextSeat = 0;
+    }
+}
@@ -0,0 +1,69 @@
+package lot.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the seat availability check done while validating reservations:
+ * loading all available seats of a flight and searching the list, against the cached bitset lookup
+ * of {@link FlightDao#isSeatAvailable(int, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatAvailabilityBenchmark {
+    @Param({"10", "60"})
+    public int seatRowsAmount;
+
+    private HikariDataSource dataSource;
+    private FlightDao flightDao;
+    private int flightId;
+    private String lastSeat;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(dataSource);
+        DatabaseInitializer.initialize();
+
+        flightDao = new FlightDao();
+        flightId = flightDao.save(new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(30), 90, seatRowsAmount));
+        lastSeat = seatRowsAmount + "F";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+    }
+
+    @Benchmark
+    public boolean availableSeatsListContains() throws DatabaseActionException {
+        return flightDao.getAvailableSeatsNumbers(flightId).contains(lastSeat);
+    }
+
+    @Benchmark
+    public boolean cachedBitsetLookup() throws DatabaseActionException {
+        return flightDao.isSeatAvailable(flightId, lastSeat);
+    }
+}
@@ -0,0 +1,165 @@
+package lot.benchmarks;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.dao.utils.SeatStatements;
+import lot.database.DatabaseInitializer;
+import lot.database.SeatMaintenance;
+import lot.database.UnitOfWork;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import lot.models.Passenger;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the seat maintenance strategies on bulk changes of reservations:
+ * booking a whole flight with one batched insert, deleting a flight together with its reservations,
+ * and deleting every reservation of a flight one by one through {@link ReservationDao#delete(int)}.
+ * Every invocation works on a fresh flight with {@code reservations} booked or free seats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatMaintenanceBenchmark {
+    @Param({"TRIGGERS", "STATEMENTS"})
+    public SeatMaintenance seatMaintenance;
+
+    @Param({"300"})
+    public int reservations;
+
+    private HikariDataSource dataSource;
+    private FlightDao flightDao;
+    private ReservationDao reservationDao;
+    private int passengerId;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:seatmaintenancebenchmarkdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(dataSource);
+        DatabaseInitializer.overrideSeatMaintenance(seatMaintenance);
+        DatabaseInitializer.initialize();
+
+        flightDao = new FlightDao();
+        reservationDao = new ReservationDao();
+        passengerId = new PassengerDao().save(new Passenger("Jan", "Kowalski", "jan@example.com", "123456789"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+        dataSource.close();
+    }
+
+    /**
+     * A flight with all seats free, deleted after the invocation.
+     */
+    @State(Scope.Thread)
+    public static class EmptyFlight {
+        int id;
+
+        @Setup(Level.Invocation)
+        public void setup(SeatMaintenanceBenchmark benchmark) throws DatabaseActionException {
+            id = benchmark.saveFlight();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown(SeatMaintenanceBenchmark benchmark) throws DatabaseActionException {
+            benchmark.flightDao.delete(id);
+        }
+    }
+
+    /**
+     * A flight with {@code reservations} booked seats.
+     */
+    @State(Scope.Thread)
+    public static class BookedFlight {
+        int id;
+        int[] reservationIds;
+
+        @Setup(Level.Invocation)
+        public void setup(SeatMaintenanceBenchmark benchmark) throws DatabaseActionException, SQLException {
+            id = benchmark.saveFlight();
+            reservationIds = benchmark.book(id);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown(SeatMaintenanceBenchmark benchmark) throws DatabaseActionException {
+            benchmark.flightDao.delete(id);
+        }
+    }
+
+    @Benchmark
+    public int[] bookFlight(EmptyFlight flight) throws SQLException {
+        return book(flight.id);
+    }
+
+    @Benchmark
+    public int deleteFlight(BookedFlight flight) throws DatabaseActionException {
+        return flightDao.delete(flight.id);
+    }
+
+    @Benchmark
+    public int deleteReservations(BookedFlight flight) throws DatabaseActionException {
+        return UnitOfWork.call(() -> {
+            int deleted = 0;
+            for (int id : flight.reservationIds) {
+                deleted += reservationDao.delete(id);
+            }
+            return deleted;
+        });
+    }
+
+    private int saveFlight() throws DatabaseActionException {
+        int seatRows = (reservations + 5) / 6;
+        return flightDao.save(new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(30), 90, seatRows));
+    }
+
+    /**
+     * Books the first {@code reservations} seats of the flight with one batched insert in one transaction.
+     */
+    private int[] book(int flightId) throws SQLException {
+        String query = "INSERT INTO reservations (flightId, passengerId, seatNumber) VALUES (?, ?, ?)";
+        int[] ids = new int[reservations];
+        try (Connection conn = DatabaseInitializer.getConnection();
+             PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < reservations; i++) {
+                ps.setInt(1, flightId);
+                ps.setInt(2, passengerId);
+                ps.setString(3, (i / 6 + 1) + String.valueOf((char) ('A' + i % 6)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; keys.next(); i++) {
+                    ids[i] = keys.getInt(1);
+                }
+            }
+            SeatStatements.claimFlights(conn, flightId, flightId);
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,91 @@
+package lot.benchmarks;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import lot.controllers.utils.CellValues;
+import lot.models.Reservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the time spent in cell value factories per frame while scrolling a reservation table of 100k rows,
+ * comparing {@link PropertyValueFactory} with the getter-based factories of {@link CellValues}.
+ * <p>
+ * Every frame moves the viewport of 40 rows by 3 rows, and as a scrolled table reassigns rows to all
+ * of its visible cells, the value of every visible cell of all eight columns is read again, the same way
+ * a {@code TableCell} reads it. Rendering itself needs a display and is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableScrollBenchmark {
+    private static final int VISIBLE_ROWS = 40;
+    private static final int ROWS_PER_FRAME = 3;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"reflection", "getters"})
+    public String factory;
+
+    private final List<TableColumn<Reservation, ?>> columns = new ArrayList<>();
+    private List<Reservation> reservations;
+    private int firstRow;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        reservations = new ArrayList<>(rows);
+        LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < rows; i++) {
+            reservations.add(new Reservation(i + 1, i % 2000 + 1, i + 1, "Name" + i % 500, "Surname" + i,
+                    (i % 60 + 1) + String.valueOf((char) ('A' + i % 6)), departure.plusHours(i % 2000)));
+        }
+
+        boolean reflection = factory.equals("reflection");
+        columns.add(column(reflection, "id", Reservation::getId));
+        columns.add(column(reflection, "flightId", Reservation::getFlightId));
+        columns.add(column(reflection, "passengerId", Reservation::getPassengerId));
+        columns.add(column(reflection, "passengerName", Reservation::getPassengerName));
+        columns.add(column(reflection, "passengerSurname", Reservation::getPassengerSurname));
+        columns.add(column(reflection, "seatNumber", Reservation::getSeatNumber));
+        columns.add(column(reflection, "departureDate", Reservation::getDepartureDate));
+        columns.add(column(reflection, "tookPlace", Reservation::getTookPlace));
+    }
+
+    @Benchmark
+    public void scrollOneFrame(Blackhole blackhole) {
+        firstRow += ROWS_PER_FRAME;
+        if (firstRow + VISIBLE_ROWS > rows) {
+            firstRow = 0;
+        }
+        for (int row = firstRow; row < firstRow + VISIBLE_ROWS; row++) {
+            Reservation reservation = reservations.get(row);
+            for (TableColumn<Reservation, ?> column : columns) {
+                blackhole.consume(cellValue(column, reservation));
+            }
+        }
+    }
+
+    private static <T> T cellValue(TableColumn<Reservation, T> column, Reservation reservation) {
+        ObservableValue<T> value = column.getCellValueFactory()
+                .call(new TableColumn.CellDataFeatures<>(null, column, reservation));
+        return value == null ? null : value.getValue();
+    }
+
+    private static <T> TableColumn<Reservation, T> column(boolean reflection, String property,
+                                                         Function<Reservation, T> getter) {
+        TableColumn<Reservation, T> column = new TableColumn<>(property);
+        column.setCellValueFactory(reflection ? new PropertyValueFactory<>(property) : CellValues.of(getter));
+        return column;
+    }
+}
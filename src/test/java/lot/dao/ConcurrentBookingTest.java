@@ -0,0 +1,120 @@
+package lot.dao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.ReservationRejectedException;
+import lot.models.Flight;
+import lot.models.Passenger;
+import lot.models.Reservation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBookingTest {
+    private static final int THREADS = 64;
+    private static final int SEAT_ROWS = 10;
+
+    private static HikariDataSource inMemoryDataSource;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(16);
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @Test
+    void testConcurrentBookingsNeverDoubleBookOrLoseSeats() throws Exception {
+        FlightDao flightDao = new FlightDao();
+        PassengerDao passengerDao = new PassengerDao();
+        ReservationDao reservationDao = new ReservationDao();
+
+        int flightId = flightDao.save(new Flight("Stress", "Test", LocalDateTime.now().plusDays(1), 60, SEAT_ROWS));
+        List<String> seats = flightDao.getAvailableSeatsNumbers(flightId);
+        List<Integer> passengerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            passengerIds.add(passengerDao.save(new Passenger("Stress", "Passenger", "stress@example.com", "123123123")));
+        }
+
+        Map<String, AtomicInteger> bookingsPerSeat = new ConcurrentHashMap<>();
+        Map<ReservationRejectedException.Reason, AtomicInteger> rejections = new ConcurrentHashMap<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            int passengerId = passengerIds.get(i);
+            List<String> order = new ArrayList<>(seats);
+            Collections.shuffle(order, new Random(i));
+            executor.submit(() -> {
+                start.await();
+                for (String seat : order) {
+                    try {
+                        reservationDao.saveValidated(new Reservation(flightId, passengerId, seat));
+                        bookingsPerSeat.computeIfAbsent(seat, s -> new AtomicInteger()).incrementAndGet();
+                    }
+                    catch (ReservationRejectedException e) {
+                        rejections.computeIfAbsent(e.getReason(), r -> new AtomicInteger()).incrementAndGet();
+                    }
+                    catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(List.of(), errors);
+        assertEquals(seats.size(), bookingsPerSeat.size());
+        assertTrue(bookingsPerSeat.values().stream().allMatch(count -> count.get() == 1));
+        assertTrue(rejections.keySet().stream().allMatch(reason ->
+                reason == ReservationRejectedException.Reason.SEAT_TAKEN
+                        || reason == ReservationRejectedException.Reason.SEAT_NOT_AVAILABLE));
+        assertEquals(seats.size() * (THREADS - 1), rejections.values().stream().mapToInt(AtomicInteger::get).sum());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            ResultSet rs = conn.createStatement().executeQuery(
+                    "SELECT COUNT(*), COUNT(DISTINCT seatNumber) FROM reservations WHERE flightId = " + flightId);
+            rs.next();
+            assertEquals(seats.size(), rs.getInt(1));
+            assertEquals(seats.size(), rs.getInt(2));
+
+            rs = conn.createStatement().executeQuery(
+                    "SELECT COUNT(*) FROM seats WHERE available = true AND flightId = " + flightId);
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+        assertTrue(flightDao.getAvailableSeatsNumbers(flightId).isEmpty());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE surname = 'Passenger' AND name = 'Stress'");
+        }
+    }
+
+    @AfterAll
+    static void reset() throws SQLException {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+}
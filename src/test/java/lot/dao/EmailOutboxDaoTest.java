@@ -0,0 +1,127 @@
+package lot.dao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.OutboxEmail;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxDaoTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final EmailOutboxDao outboxDao = new EmailOutboxDao();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:emailoutboxdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @BeforeEach
+    void clearOutbox() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM email_outbox");
+        }
+    }
+
+    @Test
+    void testEnqueueAndClaim() throws DatabaseActionException {
+        int id = outboxDao.enqueue(new OutboxEmail("john.doe@example.com", "Subject", "Body"));
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+
+        List<OutboxEmail> claimed = outboxDao.claimDue(now, 10, now.plusMinutes(5));
+
+        assertEquals(1, claimed.size());
+        OutboxEmail email = claimed.get(0);
+        assertEquals(id, email.getId());
+        assertEquals("john.doe@example.com", email.getRecipient());
+        assertEquals("Subject", email.getSubject());
+        assertEquals("Body", email.getBody());
+        assertEquals(0, email.getAttempts());
+        assertEquals(1, outboxDao.countByStatus(OutboxEmail.Status.PENDING));
+    }
+
+    @Test
+    void testClaimedEmailsAreHiddenUntilLeaseExpires() throws DatabaseActionException {
+        outboxDao.enqueue(new OutboxEmail("john.doe@example.com", "Subject", "Body"));
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+
+        assertEquals(1, outboxDao.claimDue(now, 10, now.plusMinutes(5)).size());
+        assertTrue(outboxDao.claimDue(now, 10, now.plusMinutes(5)).isEmpty());
+        assertEquals(1, outboxDao.claimDue(now.plusMinutes(6), 10, now.plusMinutes(11)).size());
+    }
+
+    @Test
+    void testClaimRespectsLimit() throws DatabaseActionException {
+        for (int i = 0; i < 5; i++) {
+            outboxDao.enqueue(new OutboxEmail("passenger" + i + "@example.com", "Subject", "Body"));
+        }
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+
+        assertEquals(3, outboxDao.claimDue(now, 3, now.plusMinutes(5)).size());
+        assertEquals(2, outboxDao.claimDue(now, 3, now.plusMinutes(5)).size());
+        assertTrue(outboxDao.claimDue(now, 3, now.plusMinutes(5)).isEmpty());
+    }
+
+    @Test
+    void testMarkSent() throws DatabaseActionException {
+        int id = outboxDao.enqueue(new OutboxEmail("john.doe@example.com", "Subject", "Body"));
+
+        outboxDao.markSent(id);
+
+        assertEquals(1, outboxDao.countByStatus(OutboxEmail.Status.SENT));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        assertTrue(outboxDao.claimDue(later, 10, later).isEmpty());
+    }
+
+    @Test
+    void testMarkFailedWithRetry() throws DatabaseActionException {
+        int id = outboxDao.enqueue(new OutboxEmail("john.doe@example.com", "Subject", "Body"));
+        LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+
+        outboxDao.markFailed(id, retryAt, "451 Try again later");
+
+        assertEquals(1, outboxDao.countByStatus(OutboxEmail.Status.PENDING));
+        assertTrue(outboxDao.claimDue(retryAt.minusSeconds(1), 10, retryAt.plusMinutes(5)).isEmpty());
+        List<OutboxEmail> claimed = outboxDao.claimDue(retryAt, 10, retryAt.plusMinutes(5));
+        assertEquals(1, claimed.size());
+        assertEquals(1, claimed.get(0).getAttempts());
+    }
+
+    @Test
+    void testMarkFailedWithoutRetry() throws DatabaseActionException {
+        int id = outboxDao.enqueue(new OutboxEmail("john.doe@example.com", "Subject", "Body"));
+
+        outboxDao.markFailed(id, null, "550 No such user".repeat(100));
+
+        assertEquals(1, outboxDao.countByStatus(OutboxEmail.Status.FAILED));
+        assertEquals(0, outboxDao.countByStatus(OutboxEmail.Status.PENDING));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        assertTrue(outboxDao.claimDue(later, 10, later).isEmpty());
+    }
+}
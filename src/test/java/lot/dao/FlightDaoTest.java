@@ -2,7 +2,9 @@ package lot.dao;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.cache.EntityCaches;
 import lot.database.DatabaseInitializer;
+import lot.database.UnitOfWork;
 import lot.exceptions.dao.DatabaseActionException;
 import lot.models.Flight;
 import org.junit.jupiter.api.AfterAll;
@@ -15,6 +17,7 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,7 +47,7 @@ class FlightDaoTest {
         Flight flight = new Flight("Warsaw", "London", LocalDateTime.now().plusDays(1), 120, 10);
 
         int id = flightDao.save(flight);
-        Flight foundFlight = flightDao.findById(id);
+        Flight foundFlight = flightDao.findById(id).orElseThrow();
 
         assertNotNull(foundFlight);
         assertEquals("Warsaw", foundFlight.getDeparture());
@@ -64,9 +67,9 @@ class FlightDaoTest {
 
         flight.setId(id);
         flight.setDestination("Rome");
-        flightDao.update(flight);
+        assertEquals(1, flightDao.update(flight));
 
-        Flight updatedFlight = flightDao.findById(id);
+        Flight updatedFlight = flightDao.findById(id).orElseThrow();
         assertEquals("Rome", updatedFlight.getDestination());
 
         try (Connection conn = DatabaseInitializer.getConnection()) {
@@ -74,6 +77,28 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testFindByIdIsCachedUntilUpdated() throws DatabaseActionException, SQLException {
+        int id = flightDao.save(new Flight("Oslo", "Dublin", LocalDateTime.now().plusDays(3), 150, 4));
+        flightDao.findById(id);
+        long hits = EntityCaches.flights().getStats().getHits();
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("UPDATE flights SET destination = 'Ateny' WHERE id = " + id);
+        }
+        assertEquals("Dublin", flightDao.findById(id).orElseThrow().getDestination());
+        assertEquals(hits + 1, EntityCaches.flights().getStats().getHits());
+        assertEquals("Ateny", flightDao.findByIdUncached(id).orElseThrow().getDestination());
+
+        Flight flight = flightDao.findById(id).orElseThrow();
+        flight.setDestination("Lizbona");
+        flightDao.update(flight);
+        assertEquals("Lizbona", flightDao.findById(id).orElseThrow().getDestination());
+
+        flightDao.delete(id);
+        assertTrue(flightDao.findById(id).isEmpty());
+    }
+
     @Test
     void testUpdateWithSeatAdjustment() throws DatabaseActionException, SQLException {
         Flight flight = new Flight("Berlin", "Paris", LocalDateTime.now().plusDays(2), 90, 8);
@@ -83,7 +108,7 @@ class FlightDaoTest {
         flight.setSeatRowsAmount(10);
         flightDao.update(flight, 8);
 
-        Flight updatedFlight = flightDao.findById(id);
+        Flight updatedFlight = flightDao.findById(id).orElseThrow();
         assertEquals(10, updatedFlight.getSeatRowsAmount());
 
         List<String> availableSeats = flightDao.getAvailableSeatsNumbers(updatedFlight.getId());
@@ -96,6 +121,26 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testUpdateWithSeatAdjustmentRollsBackOnFailure() throws DatabaseActionException, SQLException {
+        Flight flight = new Flight("Berlin", "Paris", LocalDateTime.now().plusDays(2), 90, 8);
+        int id = flightDao.save(flight);
+
+        flight.setId(id);
+        flight.setDestination("Rome");
+        flight.setSeatRowsAmount(10);
+        assertThrows(DatabaseActionException.class, () -> flightDao.update(flight, 7));
+
+        Flight notUpdatedFlight = flightDao.findById(id).orElseThrow();
+        assertEquals("Paris", notUpdatedFlight.getDestination());
+        assertEquals(8, notUpdatedFlight.getSeatRowsAmount());
+        assertEquals(48, flightDao.getAvailableSeatsNumbers(id).size());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + id);
+        }
+    }
+
     @Test
     void testFindByDeparture() throws DatabaseActionException, SQLException {
         Flight flight1 = new Flight("Madrid", "Barcelona", LocalDateTime.now().plusDays(3), 60, 5);
@@ -152,6 +197,26 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testFindByDateRange() throws DatabaseActionException, SQLException {
+        LocalDate firstDate = LocalDate.now().plusYears(5);
+        Flight lateFlight = new Flight("Range", "Late", firstDate.plusDays(2).atTime(23, 59), 60, 1);
+        Flight earlyFlight = new Flight("Range", "Early", firstDate.atTime(0, 0), 60, 1);
+        Flight outsideFlight = new Flight("Range", "Outside", firstDate.plusDays(3).atTime(0, 0), 60, 1);
+
+        int lateId = flightDao.save(lateFlight);
+        int earlyId = flightDao.save(earlyFlight);
+        int outsideId = flightDao.save(outsideFlight);
+
+        List<Flight> flights = flightDao.findByDateRange(firstDate, firstDate.plusDays(2));
+
+        assertEquals(List.of(earlyId, lateId), flights.stream().map(Flight::getId).toList());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + lateId + "," + earlyId + "," + outsideId + ")");
+        }
+    }
+
     @Test
     void testFindAll() throws DatabaseActionException, SQLException {
         Flight flight = new Flight("Test", "FindAll", LocalDateTime.now().plusDays(1), 60, 5);
@@ -167,14 +232,113 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testFindPage() throws DatabaseActionException, SQLException {
+        int id1 = flightDao.save(new Flight("Page", "One", LocalDateTime.now().plusDays(1), 60, 1));
+        int id2 = flightDao.save(new Flight("Page", "Two", LocalDateTime.now().plusDays(1), 60, 1));
+        int id3 = flightDao.save(new Flight("Page", "Three", LocalDateTime.now().plusDays(1), 60, 1));
+
+        List<Flight> firstPage = flightDao.findPage(id1 - 1, 2);
+        List<Flight> secondPage = flightDao.findPage(firstPage.get(firstPage.size() - 1).getId(), 2);
+
+        assertEquals(List.of(id1, id2), firstPage.stream().map(Flight::getId).toList());
+        assertEquals(id3, secondPage.get(0).getId());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + id1 + "," + id2 + "," + id3 + ")");
+        }
+    }
+
+    @Test
+    void testCountAndFindWindow() throws DatabaseActionException, SQLException {
+        LocalDateTime departure = LocalDateTime.of(2032, 3, 14, 8, 0);
+        int id1 = flightDao.save(new Flight("Window", "Berlin", departure, 90, 1));
+        int id2 = flightDao.save(new Flight("Window", "Amsterdam", departure.plusHours(2), 120, 1));
+        int id3 = flightDao.save(new Flight("Window", "Chicago", departure.plusDays(1), 600, 1));
+
+        PageQuery query = PageQuery.all().where("departure", "Window")
+                .sortedBy(List.of(new PageQuery.Sort("destination", true)));
+
+        assertEquals(3, flightDao.count(query));
+        assertEquals(List.of(id2, id1), flightDao.findWindow(query, 0, 2).stream().map(Flight::getId).toList());
+        assertEquals(List.of(id3), flightDao.findWindow(query, 2, 2).stream().map(Flight::getId).toList());
+
+        PageQuery sameDay = query.where("date", departure.toLocalDate())
+                .sortedBy(List.of(new PageQuery.Sort("duration", false)));
+        assertEquals(2, flightDao.count(sameDay));
+        assertEquals(List.of(id2, id1), flightDao.findWindow(sameDay, 0, 10).stream().map(Flight::getId).toList());
+
+        assertThrows(DatabaseActionException.class, () -> flightDao.count(PageQuery.all().where("seats", 1)));
+        assertThrows(DatabaseActionException.class, () -> flightDao.findWindow(
+                PageQuery.all().sortedBy(List.of(new PageQuery.Sort("id; DROP TABLE flights", true))), 0, 1));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + id1 + "," + id2 + "," + id3 + ")");
+        }
+    }
+
+    @Test
+    void testFindWindowAfterId() throws DatabaseActionException, SQLException {
+        LocalDateTime departure = LocalDateTime.of(2032, 4, 1, 8, 0);
+        int id1 = flightDao.save(new Flight("Seek", "Berlin", departure, 90, 1));
+        int id2 = flightDao.save(new Flight("Seek", "Amsterdam", departure, 90, 1));
+        int id3 = flightDao.save(new Flight("Seek", "Chicago", departure, 90, 1));
+
+        PageQuery query = PageQuery.all().where("departure", "Seek");
+
+        assertEquals(List.of(id2, id3), flightDao.findWindow(query.after(id1), 0, 10).stream().map(Flight::getId).toList());
+        assertEquals(List.of(id3), flightDao.findWindow(query.after(id1), 1, 10).stream().map(Flight::getId).toList());
+        PageQuery byId = query.sortedBy(List.of(new PageQuery.Sort("id", true))).after(id2);
+        assertEquals(List.of(id3), flightDao.findWindow(byId, 0, 10).stream().map(Flight::getId).toList());
+        assertThrows(DatabaseActionException.class, () -> flightDao.findWindow(
+                query.sortedBy(List.of(new PageQuery.Sort("destination", true))).after(id1), 0, 10));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + id1 + "," + id2 + "," + id3 + ")");
+        }
+    }
+
+    @Test
+    void testStreamAll() throws DatabaseActionException, SQLException {
+        int id = flightDao.save(new Flight("Stream", "All", LocalDateTime.now().plusDays(1), 60, 1));
+
+        List<Integer> streamedIds;
+        try (Stream<Flight> flights = flightDao.streamAll(2)) {
+            streamedIds = flights.map(Flight::getId).toList();
+        }
+
+        assertEquals(flightDao.findAll().size(), streamedIds.size());
+        assertTrue(streamedIds.contains(id));
+        assertEquals(streamedIds.stream().sorted().toList(), streamedIds);
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + id);
+        }
+    }
+
+    @Test
+    void testStreamAllIsRefusedInsideUnitOfWork() {
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.run(() -> flightDao.forEach(2, flight -> {})));
+    }
+
     @Test
     void testDelete() throws DatabaseActionException, SQLException {
         Flight flight = new Flight("Prague", "Vienna", LocalDateTime.now().plusDays(5), 75, 6);
 
         int id = flightDao.save(flight);
 
-        flightDao.delete(id);
-        assertThrows(DatabaseActionException.class, () -> flightDao.findById(id));
+        assertEquals(1, flightDao.delete(id));
+        assertTrue(flightDao.findById(id).isEmpty());
+        assertEquals(0, flightDao.delete(id));
+    }
+
+    @Test
+    void testUpdateMissingFlight() throws DatabaseActionException {
+        Flight flight = new Flight(9999, "Prague", "Vienna", LocalDateTime.now().plusDays(5), 75, 6);
+
+        assertEquals(0, flightDao.update(flight));
+        assertEquals(0, flightDao.update(flight, 4));
+        assertTrue(flightDao.findById(9999).isEmpty());
     }
 
     @Test
@@ -193,6 +357,29 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testIsSeatAvailable() throws DatabaseActionException, SQLException {
+        Flight flight = new Flight("SeatTest", "Available", LocalDateTime.now().plusDays(1), 60, 2);
+        int id = flightDao.save(flight);
+
+        assertTrue(flightDao.isSeatAvailable(id, "1A"));
+        assertTrue(flightDao.isSeatAvailable(id, "2F"));
+        assertFalse(flightDao.isSeatAvailable(id, "3A"));
+        assertFalse(flightDao.isSeatAvailable(id, "1G"));
+        assertFalse(flightDao.isSeatAvailable(id, "01A"));
+        assertFalse(flightDao.isSeatAvailable(id, "A"));
+        assertFalse(flightDao.isSeatAvailable(id, null));
+        assertFalse(flightDao.isSeatAvailable(9999, "1A"));
+
+        flight.setId(id);
+        flight.setSeatRowsAmount(3);
+        flightDao.update(flight, 2);
+        assertTrue(flightDao.isSeatAvailable(id, "3A"));
+
+        flightDao.delete(id);
+        assertFalse(flightDao.isSeatAvailable(id, "1A"));
+    }
+
     @Test
     void testFindAllId() throws DatabaseActionException, SQLException {
         Flight flight = new Flight("Test", "FindAllId", LocalDateTime.now().plusDays(1), 60, 5);
@@ -208,6 +395,23 @@ class FlightDaoTest {
         }
     }
 
+    @Test
+    void testFindIdsByPrefix() throws DatabaseActionException, SQLException {
+        int id = flightDao.save(new Flight("Prefix", "Search", LocalDateTime.now().plusDays(1), 60, 1));
+
+        List<Integer> ids = flightDao.findIdsByPrefix(String.valueOf(id), 5);
+
+        assertEquals(id, ids.get(0));
+        assertTrue(ids.stream().allMatch(found -> String.valueOf(found).startsWith(String.valueOf(id))));
+        assertTrue(flightDao.findIdsByPrefix("0", 5).isEmpty());
+        assertTrue(flightDao.findIdsByPrefix("1a", 5).isEmpty());
+        assertTrue(flightDao.findIdsByPrefix("99999999999", 5).isEmpty());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + id);
+        }
+    }
+
     @Test
     void testExistsById() throws DatabaseActionException, SQLException {
         Flight flight = new Flight("Exists", "Test", LocalDateTime.now().plusDays(1), 60, 5);
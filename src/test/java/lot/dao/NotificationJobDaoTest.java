@@ -0,0 +1,106 @@
+package lot.dao;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationJobDaoTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final NotificationJobDao jobDao = new NotificationJobDao();
+    private final EmailOutboxDao outboxDao = new EmailOutboxDao();
+    private final FlightDao flightDao = new FlightDao();
+    private final PassengerDao passengerDao = new PassengerDao();
+    private final ReservationDao reservationDao = new ReservationDao();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:notificationjobdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testFindRecipients() throws DatabaseActionException {
+        int flightId = flightDao.save(new Flight("Warsaw", "London", LocalDateTime.now().plusDays(3), 120, 2));
+        int otherFlightId = flightDao.save(new Flight("Warsaw", "Paris", LocalDateTime.now().plusDays(3), 120, 2));
+        int johnId = passengerDao.save(new Passenger("John", "Doe", "john.doe@example.com", "123456789"));
+        int janeId = passengerDao.save(new Passenger("Jane", "Roe", "jane.roe@example.com", "987654321"));
+        int johnReservation = reservationDao.save(new Reservation(flightId, johnId, "1A"));
+        int janeReservation = reservationDao.save(new Reservation(flightId, janeId, "2C"));
+        reservationDao.save(new Reservation(otherFlightId, johnId, "1A"));
+
+        List<NotificationRecipient> recipients = jobDao.findRecipients(flightId);
+
+        assertEquals(2, recipients.size());
+        assertEquals(johnReservation, recipients.get(0).getReservationId());
+        assertEquals("John", recipients.get(0).getName());
+        assertEquals("Doe", recipients.get(0).getSurname());
+        assertEquals("john.doe@example.com", recipients.get(0).getEmail());
+        assertEquals("1A", recipients.get(0).getSeatNumber());
+        assertEquals(janeReservation, recipients.get(1).getReservationId());
+        assertEquals("2C", recipients.get(1).getSeatNumber());
+    }
+
+    @Test
+    void testFindRecipientsOfFlightWithoutReservations() throws DatabaseActionException {
+        int flightId = flightDao.save(new Flight("Warsaw", "Rome", LocalDateTime.now().plusDays(3), 120, 2));
+
+        assertTrue(jobDao.findRecipients(flightId).isEmpty());
+    }
+
+    @Test
+    void testJobProgressIsCountedFromOutbox() throws DatabaseActionException {
+        int jobId = jobDao.save(42, "CANCELLATION", 3);
+        outboxDao.enqueueAll(List.of(
+                new OutboxEmail("a@example.com", "Subject", "Body"),
+                new OutboxEmail("b@example.com", "Subject", "Body"),
+                new OutboxEmail("c@example.com", "Subject", "Body")), jobId);
+
+        NotificationJob queued = jobDao.findById(jobId).orElseThrow();
+        assertEquals(42, queued.getFlightId());
+        assertEquals("CANCELLATION", queued.getKind());
+        assertEquals(3, queued.getTotal());
+        assertEquals(3, queued.getPending());
+        assertFalse(queued.isComplete());
+
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        List<OutboxEmail> claimed = outboxDao.claimDue(now, 10, now.plusMinutes(5));
+        assertEquals(3, claimed.size());
+        outboxDao.markSent(claimed.get(0).getId());
+        outboxDao.markSent(claimed.get(1).getId());
+        outboxDao.markFailed(claimed.get(2).getId(), null, "550 No such user");
+
+        NotificationJob done = jobDao.findById(jobId).orElseThrow();
+        assertEquals(2, done.getSent());
+        assertEquals(1, done.getFailed());
+        assertEquals(0, done.getPending());
+        assertTrue(done.isComplete());
+    }
+
+    @Test
+    void testFindMissingJob() throws DatabaseActionException {
+        assertTrue(jobDao.findById(-1).isEmpty());
+    }
+}
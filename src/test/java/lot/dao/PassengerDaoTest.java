@@ -12,6 +12,8 @@ import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,7 +44,7 @@ class PassengerDaoTest {
         Passenger passenger = new Passenger("John", "Doe", "john.doe@example.com", "123456789");
 
         int id = passengerDao.save(passenger);
-        Passenger foundPassenger = passengerDao.findById(id);
+        Passenger foundPassenger = passengerDao.findById(id).orElseThrow();
 
         assertNotNull(foundPassenger);
         assertEquals("John", foundPassenger.getName());
@@ -72,6 +74,92 @@ class PassengerDaoTest {
         }
     }
 
+    @Test
+    void testFindPage() throws DatabaseActionException, SQLException {
+        int id1 = passengerDao.save(new Passenger("Page", "One", "page.one@example.com", "111111111"));
+        int id2 = passengerDao.save(new Passenger("Page", "Two", "page.two@example.com", "222222222"));
+
+        List<Passenger> page = passengerDao.findPage(id1 - 1, 1);
+        List<Passenger> nextPage = passengerDao.findPage(page.get(0).getId(), 1);
+
+        assertEquals(1, page.size());
+        assertEquals(id1, page.get(0).getId());
+        assertEquals(id2, nextPage.get(0).getId());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE id IN (" + id1 + "," + id2 + ")");
+        }
+    }
+
+    @Test
+    void testCountAndFindWindow() throws DatabaseActionException, SQLException {
+        int id1 = passengerDao.save(new Passenger("Zofia", "Window", "zofia.window@example.com", "111111111"));
+        int id2 = passengerDao.save(new Passenger("Adam", "Window", "adam.window@example.com", "222222222"));
+
+        PageQuery query = PageQuery.all().where("surname", "Window")
+                .sortedBy(List.of(new PageQuery.Sort("name", true)));
+
+        assertEquals(2, passengerDao.count(query));
+        assertEquals(List.of(id2, id1), passengerDao.findWindow(query, 0, 10).stream().map(Passenger::getId).toList());
+        assertEquals(List.of(id1), passengerDao.findWindow(query, 1, 1).stream().map(Passenger::getId).toList());
+        assertEquals(1, passengerDao.count(PageQuery.all().where("id", id1)));
+        assertThrows(DatabaseActionException.class, () -> passengerDao.count(PageQuery.all().where("email", "x")));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE id IN (" + id1 + "," + id2 + ")");
+        }
+    }
+
+    @Test
+    void testFindWindowSortedDescendingWithTies() throws DatabaseActionException, SQLException {
+        int id1 = passengerDao.save(new Passenger("Anna", "Sorted", "anna.sorted1@example.com", "111111111"));
+        int id2 = passengerDao.save(new Passenger("Ewa", "Sorted", "ewa.sorted@example.com", "222222222"));
+        int id3 = passengerDao.save(new Passenger("Anna", "Sorted", "anna.sorted2@example.com", "333333333"));
+
+        PageQuery query = PageQuery.all().where("surname", "Sorted")
+                .sortedBy(List.of(new PageQuery.Sort("name", false)));
+
+        // passengers with the same name keep the order of their IDs
+        assertEquals(List.of(id2, id1, id3), passengerDao.findWindow(query, 0, 10).stream().map(Passenger::getId).toList());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE id IN (" + id1 + "," + id2 + "," + id3 + ")");
+        }
+    }
+
+    @Test
+    void testFindWindowAtWindowBoundary() throws DatabaseActionException, SQLException {
+        int id1 = passengerDao.save(new Passenger("Adam", "Boundary", "adam.boundary@example.com", "111111111"));
+        int id2 = passengerDao.save(new Passenger("Beata", "Boundary", "beata.boundary@example.com", "222222222"));
+        int id3 = passengerDao.save(new Passenger("Cezary", "Boundary", "cezary.boundary@example.com", "333333333"));
+
+        PageQuery query = PageQuery.all().where("surname", "Boundary");
+
+        assertEquals(List.of(id1, id2), passengerDao.findWindow(query, 0, 2).stream().map(Passenger::getId).toList());
+        assertEquals(List.of(id3), passengerDao.findWindow(query, 2, 2).stream().map(Passenger::getId).toList());
+        assertEquals(List.of(), passengerDao.findWindow(query, 3, 2));
+        assertEquals(List.of(id3), passengerDao.findWindow(query.after(id2), 0, 2).stream().map(Passenger::getId).toList());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE id IN (" + id1 + "," + id2 + "," + id3 + ")");
+        }
+    }
+
+    @Test
+    void testForEach() throws DatabaseActionException, SQLException {
+        int id = passengerDao.save(new Passenger("For", "Each", "for.each@example.com", "333333333"));
+
+        List<Integer> visitedIds = new ArrayList<>();
+        passengerDao.forEach(10, p -> visitedIds.add(p.getId()));
+
+        assertEquals(passengerDao.findAll().size(), visitedIds.size());
+        assertTrue(visitedIds.contains(id));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + id);
+        }
+    }
+
     @Test
     void testUpdate() throws DatabaseActionException, SQLException {
         Passenger passenger = new Passenger("Eve", "Johnson", "eve@example.com", "987654321");
@@ -80,9 +168,9 @@ class PassengerDaoTest {
 
         passenger.setId(id);
         passenger.setEmail("new.email@example.com");
-        passengerDao.update(passenger);
+        assertEquals(1, passengerDao.update(passenger));
 
-        Passenger updatedPassenger = passengerDao.findById(id);
+        Passenger updatedPassenger = passengerDao.findById(id).orElseThrow();
         assertEquals("new.email@example.com", updatedPassenger.getEmail());
 
         try (Connection conn = DatabaseInitializer.getConnection()) {
@@ -96,9 +184,12 @@ class PassengerDaoTest {
 
         int id = passengerDao.save(passenger);
 
-        passengerDao.delete(id);
+        assertEquals(1, passengerDao.delete(id));
 
-        assertThrows(DatabaseActionException.class, () -> passengerDao.findById(id));
+        assertTrue(passengerDao.findById(id).isEmpty());
+        assertEquals(0, passengerDao.delete(id));
+        passenger.setId(id);
+        assertEquals(0, passengerDao.update(passenger));
     }
 
     @Test
@@ -131,6 +222,30 @@ class PassengerDaoTest {
         }
     }
 
+    @Test
+    void testFindIdsByPrefix() throws DatabaseActionException, SQLException {
+        List<Integer> saved = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            saved.add(passengerDao.save(new Passenger("Prefix", "Test" + i, "prefix" + i + "@example.com", "123123123")));
+        }
+        String prefix = String.valueOf(saved.get(0)).substring(0, 1);
+        List<Integer> expected = passengerDao.findAllId().stream()
+                .filter(id -> String.valueOf(id).startsWith(prefix))
+                .sorted(Comparator.comparing((Integer id) -> String.valueOf(id).length()).thenComparing(id -> id))
+                .limit(10)
+                .toList();
+
+        assertEquals(expected, passengerDao.findIdsByPrefix(prefix, 10));
+        assertEquals(saved.get(0), passengerDao.findIdsByPrefix(String.valueOf(saved.get(0)), 10).get(0));
+        assertEquals(passengerDao.findAllId().stream().sorted().limit(3).toList(), passengerDao.findIdsByPrefix("", 3));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            for (int id : saved) {
+                conn.createStatement().execute("DELETE FROM passengers WHERE id = " + id);
+            }
+        }
+    }
+
     @Test
     void testExistsById() throws DatabaseActionException, SQLException {
         Passenger passenger = new Passenger("Exists", "Test", "exists@example.com", "999888777");
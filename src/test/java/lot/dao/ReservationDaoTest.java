@@ -2,9 +2,12 @@ package lot.dao;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import lot.database.CountingDataSource;
 import lot.database.DatabaseInitializer;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.ReservationRejectedException;
 import lot.models.Flight;
+import lot.models.ManifestEntry;
 import lot.models.Passenger;
 import lot.models.Reservation;
 import org.junit.jupiter.api.AfterAll;
@@ -16,6 +19,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +28,7 @@ class ReservationDaoTest {
     private FlightDao flightDao;
     private PassengerDao passengerDao;
     private static HikariDataSource inMemoryDataSource;
+    private static CountingDataSource countingDataSource;
 
     @BeforeAll
     static void setup() throws Exception {
@@ -32,8 +37,9 @@ class ReservationDaoTest {
         config.setUsername("sa");
         config.setPassword("");
         inMemoryDataSource = new HikariDataSource(config);
+        countingDataSource = new CountingDataSource(inMemoryDataSource);
 
-        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.overrideDataSource(countingDataSource);
         DatabaseInitializer.initialize();
     }
 
@@ -55,7 +61,7 @@ class ReservationDaoTest {
         Reservation reservation = new Reservation(flightId, passengerId, "1A");
 
         int id = reservationDao.save(reservation);
-        Reservation foundReservation = reservationDao.findById(id);
+        Reservation foundReservation = reservationDao.findById(id).orElseThrow();
 
         assertNotNull(foundReservation);
         assertEquals(flightId, foundReservation.getFlightId());
@@ -70,6 +76,45 @@ class ReservationDaoTest {
         }
     }
 
+    @Test
+    void testSaveValidatedUsesSingleConnection() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        countingDataSource.reset();
+        int id = reservationDao.saveValidated(new Reservation(flightId, passengerId, "1B"));
+
+        assertEquals(1, countingDataSource.getConnectionsCount());
+        assertEquals(3, countingDataSource.getStatementsCount());
+        assertEquals("1B", reservationDao.findById(id).orElseThrow().getSeatNumber());
+        assertFalse(flightDao.isSeatAvailable(flightId, "1B"));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM reservations WHERE id = " + id);
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testSaveValidatedRejectsInvalidReservations() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+        int id = reservationDao.saveValidated(new Reservation(flightId, passengerId, "1C"));
+
+        assertRejected(ReservationRejectedException.Reason.FLIGHT_NOT_FOUND, new Reservation(9999, passengerId, "1A"));
+        assertRejected(ReservationRejectedException.Reason.PASSENGER_NOT_FOUND, new Reservation(flightId, 9999, "1A"));
+        assertRejected(ReservationRejectedException.Reason.SEAT_NOT_AVAILABLE, new Reservation(flightId, passengerId, "1C"));
+        assertRejected(ReservationRejectedException.Reason.SEAT_NOT_AVAILABLE, new Reservation(flightId, passengerId, "9A"));
+        assertEquals(1, reservationDao.findAllByForeignKey("flights", flightId).size());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM reservations WHERE id = " + id);
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
     @Test
     void testFindAllByForeignKey() throws DatabaseActionException, SQLException {
         Flight flight = createTestFlight();
@@ -147,6 +192,181 @@ class ReservationDaoTest {
         }
     }
 
+    @Test
+    void testTookPlaceComputedByListQueries() throws DatabaseActionException, SQLException {
+        Flight pastFlight = new Flight("Past", "Flight", LocalDateTime.now().minusDays(1), 60, 5);
+        int pastFlightId = flightDao.save(pastFlight);
+        int futureFlightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        int pastId = reservationDao.save(new Reservation(pastFlightId, passengerId, "1A"));
+        int futureId = reservationDao.save(new Reservation(futureFlightId, passengerId, "1A"));
+
+        List<Reservation> passengerReservations = reservationDao.findAllByForeignKey("passengers", passengerId);
+
+        assertTrue(passengerReservations.stream().filter(r -> r.getId() == pastId).allMatch(Reservation::getTookPlace));
+        assertTrue(passengerReservations.stream().filter(r -> r.getId() == futureId).noneMatch(Reservation::getTookPlace));
+        assertTrue(reservationDao.findById(pastId).orElseThrow().getTookPlace());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + pastFlightId + "," + futureFlightId + ")");
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testListQueriesExecuteSingleStatement() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        Passenger passenger = new Passenger("Count", "Statements", "count@example.com", "123123123");
+        int passengerId = passengerDao.save(passenger);
+        for (String seat : List.of("1A", "1B", "1C", "1D", "1E")) {
+            reservationDao.save(new Reservation(flightId, passengerId, seat));
+        }
+
+        countingDataSource.reset();
+        assertTrue(reservationDao.findAll().size() >= 5);
+        assertEquals(1, countingDataSource.getStatementsCount());
+        assertEquals(1, countingDataSource.getConnectionsCount());
+
+        countingDataSource.reset();
+        assertEquals(5, reservationDao.findAllByForeignKey("flights", flightId).size());
+        assertEquals(1, countingDataSource.getStatementsCount());
+        assertEquals(1, countingDataSource.getConnectionsCount());
+
+        countingDataSource.reset();
+        assertEquals(5, reservationDao.findAllBySurname("Statements").size());
+        assertEquals(1, countingDataSource.getStatementsCount());
+        assertEquals(1, countingDataSource.getConnectionsCount());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testFindPageAndStreamAll() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        int id1 = reservationDao.save(new Reservation(flightId, passengerId, "2C"));
+        int id2 = reservationDao.save(new Reservation(flightId, passengerId, "2D"));
+
+        List<Reservation> page = reservationDao.findPage(id1 - 1, 2);
+        assertEquals(List.of(id1, id2), page.stream().map(Reservation::getId).toList());
+        assertEquals("Passenger", page.get(0).getPassengerSurname());
+
+        List<Integer> streamedIds;
+        try (Stream<Reservation> reservations = reservationDao.streamAll(1)) {
+            streamedIds = reservations.map(Reservation::getId).toList();
+        }
+        assertTrue(streamedIds.containsAll(List.of(id1, id2)));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testCountAndFindWindow() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        int id1 = reservationDao.save(new Reservation(flightId, passengerId, "3A"));
+        int id2 = reservationDao.save(new Reservation(flightId, passengerId, "1A"));
+        int id3 = reservationDao.save(new Reservation(flightId, passengerId, "2A"));
+
+        PageQuery query = PageQuery.all().where("flightId", flightId)
+                .sortedBy(List.of(new PageQuery.Sort("seatNumber", false)));
+
+        assertEquals(3, reservationDao.count(query));
+        List<Reservation> window = reservationDao.findWindow(query, 1, 5);
+        assertEquals(List.of(id3, id2), window.stream().map(Reservation::getId).toList());
+        assertEquals("Passenger", window.get(0).getPassengerSurname());
+        assertEquals(3, reservationDao.count(PageQuery.all().where("passengerId", passengerId).where("surname", "Passenger")));
+        assertThrows(DatabaseActionException.class, () -> reservationDao.count(PageQuery.all().where("seatNumber", "1A")));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testFindWindowFilteredAndSortedByPassenger() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+        int otherPassengerId = passengerDao.save(new Passenger("Other", "Filtered", "other.filtered@example.com", "987654321"));
+
+        int id1 = reservationDao.save(new Reservation(flightId, passengerId, "4A"));
+        int id2 = reservationDao.save(new Reservation(flightId, otherPassengerId, "4B"));
+        int id3 = reservationDao.save(new Reservation(flightId, otherPassengerId, "4C"));
+
+        PageQuery filtered = PageQuery.all().where("flightId", flightId).where("surname", "Filtered");
+        assertEquals(2, reservationDao.count(filtered));
+        assertEquals(List.of(id2, id3), reservationDao.findWindow(filtered, 0, 10).stream().map(Reservation::getId).toList());
+
+        PageQuery sorted = PageQuery.all().where("flightId", flightId)
+                .sortedBy(List.of(new PageQuery.Sort("passengerSurname", true)));
+        List<Reservation> window = reservationDao.findWindow(sorted, 0, 10);
+        assertEquals(List.of(id2, id3, id1), window.stream().map(Reservation::getId).toList());
+        assertEquals("Filtered", window.get(0).getPassengerSurname());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id IN (" + passengerId + "," + otherPassengerId + ")");
+        }
+    }
+
+    @Test
+    void testFindWindowAtWindowBoundary() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        int id1 = reservationDao.save(new Reservation(flightId, passengerId, "5A"));
+        int id2 = reservationDao.save(new Reservation(flightId, passengerId, "5B"));
+        int id3 = reservationDao.save(new Reservation(flightId, passengerId, "5C"));
+
+        PageQuery query = PageQuery.all().where("flightId", flightId);
+
+        assertEquals(List.of(id1, id2), reservationDao.findWindow(query, 0, 2).stream().map(Reservation::getId).toList());
+        assertEquals(List.of(id3), reservationDao.findWindow(query, 2, 2).stream().map(Reservation::getId).toList());
+        assertEquals(List.of(), reservationDao.findWindow(query, 3, 2));
+        assertEquals(List.of(id3), reservationDao.findWindow(query.after(id2), 0, 2).stream().map(Reservation::getId).toList());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testStreamManifest() throws DatabaseActionException, SQLException {
+        int flightId = flightDao.save(createTestFlight());
+        int otherFlightId = flightDao.save(createTestFlight());
+        int passengerId = passengerDao.save(createTestPassenger());
+
+        int id1 = reservationDao.save(new Reservation(flightId, passengerId, "3A"));
+        int id2 = reservationDao.save(new Reservation(flightId, passengerId, "3B"));
+        reservationDao.save(new Reservation(otherFlightId, passengerId, "3A"));
+
+        List<ManifestEntry> manifest;
+        try (Stream<ManifestEntry> entries = reservationDao.streamManifest(flightId, 1)) {
+            manifest = entries.toList();
+        }
+        assertEquals(List.of(id1, id2), manifest.stream().map(ManifestEntry::getReservationId).toList());
+        assertEquals("3A", manifest.get(0).getSeatNumber());
+        assertEquals(passengerId, manifest.get(0).getPassengerId());
+        assertEquals("test@example.com", manifest.get(0).getEmail());
+        assertEquals("123123123", manifest.get(0).getPhoneNumber());
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + flightId + ", " + otherFlightId + ")");
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
     @Test
     void testUpdate() throws DatabaseActionException, SQLException {
         Flight flight1 = createTestFlight();
@@ -163,9 +383,9 @@ class ReservationDaoTest {
         int id = reservationDao.save(reservation);
 
         Reservation toUpdateReservation = new Reservation(id, flightId2, passengerId2, "4B");
-        reservationDao.update(toUpdateReservation);
+        assertEquals(1, reservationDao.update(toUpdateReservation));
 
-        Reservation updatedReservation = reservationDao.findById(id);
+        Reservation updatedReservation = reservationDao.findById(id).orElseThrow();
         assertEquals(flightId2, updatedReservation.getFlightId());
         assertEquals(passengerId2, updatedReservation.getPassengerId());
         assertEquals("4B", updatedReservation.getSeatNumber());
@@ -189,9 +409,41 @@ class ReservationDaoTest {
 
         int id = reservationDao.save(reservation);
 
-        reservationDao.delete(id);
+        assertEquals(1, reservationDao.delete(id));
+
+        assertTrue(reservationDao.findById(id).isEmpty());
+        assertEquals(0, reservationDao.delete(id));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+        }
+    }
+
+    @Test
+    void testSeatAvailabilityFollowsReservationChanges() throws DatabaseActionException, SQLException {
+        Flight flight = createTestFlight();
+        Passenger passenger = createTestPassenger();
+
+        int flightId = flightDao.save(flight);
+        int passengerId = passengerDao.save(passenger);
+
+        assertTrue(flightDao.isSeatAvailable(flightId, "2C"));
+        countingDataSource.reset();
+        assertTrue(flightDao.isSeatAvailable(flightId, "2D"));
+        assertEquals(0, countingDataSource.getConnectionsCount());
 
-        assertThrows(DatabaseActionException.class, () -> reservationDao.findById(id));
+        int id = reservationDao.save(new Reservation(flightId, passengerId, "2C"));
+        assertFalse(flightDao.isSeatAvailable(flightId, "2C"));
+
+        reservationDao.update(new Reservation(id, flightId, passengerId, "2D"));
+        assertTrue(flightDao.isSeatAvailable(flightId, "2C"));
+        assertFalse(flightDao.isSeatAvailable(flightId, "2D"));
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DELETE FROM reservations WHERE id = " + id);
+        }
+        assertTrue(flightDao.isSeatAvailable(flightId, "2D"));
 
         try (Connection conn = DatabaseInitializer.getConnection()) {
             conn.createStatement().execute("DELETE FROM flights WHERE id = " + flightId);
@@ -271,6 +523,13 @@ class ReservationDaoTest {
         DatabaseInitializer.resetToDefault();
     }
 
+    private void assertRejected(ReservationRejectedException.Reason reason, Reservation reservation) {
+        ReservationRejectedException e = assertThrows(ReservationRejectedException.class, () ->
+                reservationDao.saveValidated(reservation)
+        );
+        assertEquals(reason, e.getReason());
+    }
+
     private Flight createTestFlight() {
         Flight flight = new Flight("Test", "Flight", LocalDateTime.now().plusDays(1), 60, 5);
         return flight;
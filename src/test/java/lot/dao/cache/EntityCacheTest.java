@@ -0,0 +1,121 @@
+package lot.dao.cache;
+
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Passenger;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final EntityCache<Passenger> cache = new EntityCache<>("passengers", 2, Duration.ofSeconds(10),
+            p -> new Passenger(p.getId(), p.getName(), p.getSurname(), p.getEmail(), p.getPhoneNumber()), now::get);
+
+    private Optional<Passenger> load(int id) {
+        loads.incrementAndGet();
+        return Optional.of(new Passenger(id, "Name" + id, "Surname" + id, "p" + id + "@example.com", "123456789"));
+    }
+
+    @Test
+    void testHitsReturnIndependentCopies() throws DatabaseActionException {
+        Passenger first = cache.get(1, this::load).orElseThrow();
+        first.setName("Changed");
+        Passenger second = cache.get(1, this::load).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals("Name1", second.getName());
+        assertNotSame(first, second);
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenFull() throws DatabaseActionException {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getEvictions());
+    }
+
+    @Test
+    void testExpiresEntriesAfterTimeToLive() throws DatabaseActionException {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+
+        cache.cleanUp();
+        assertEquals(1, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void testInvalidationDuringLoadDiscardsLoadedEntity() throws DatabaseActionException {
+        cache.get(1, id -> {
+            cache.invalidate(id);
+            return load(id);
+        });
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStats().getHits());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(DatabaseActionException.class, () -> cache.get(1, id -> {
+            throw new DatabaseActionException("failure");
+        }));
+
+        assertEquals(0, cache.getStats().getSize());
+        assertTrue(cache.getStats().toString().startsWith("passengers: size=0 hits=0 misses=1"));
+    }
+
+    @Test
+    void testMissingEntityIsNotCached() throws DatabaseActionException {
+        assertTrue(cache.get(1, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        assertTrue(cache.get(1, this::load).isPresent());
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    void testDisabledCacheLoadsOnEveryCall() throws DatabaseActionException {
+        cache.get(1, this::load);
+        cache.setEnabled(false);
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.getStats().getSize());
+
+        cache.setEnabled(true);
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+        assertEquals(4, loads.get());
+    }
+}
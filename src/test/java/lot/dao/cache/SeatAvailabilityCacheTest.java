@@ -0,0 +1,77 @@
+package lot.dao.cache;
+
+import lot.exceptions.dao.DatabaseActionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatAvailabilityCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SeatAvailabilityCache cache = new SeatAvailabilityCache(Duration.ofSeconds(10), now::get);
+
+    private List<String> load(int flightId) {
+        loads.incrementAndGet();
+        return List.of("1A", "12F");
+    }
+
+    @Test
+    void testChecksSeatsOfCachedFlight() throws DatabaseActionException {
+        assertTrue(cache.isAvailable(1, "1A", this::load));
+        assertTrue(cache.isAvailable(1, "12F", this::load));
+        assertFalse(cache.isAvailable(1, "1B", this::load));
+        assertFalse(cache.isAvailable(1, "99A", this::load));
+        assertFalse(cache.isAvailable(1, "A1", this::load));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testReloadsExpiredAndInvalidatedFlights() throws DatabaseActionException {
+        cache.isAvailable(1, "1A", this::load);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.isAvailable(1, "1A", this::load);
+        assertEquals(1, loads.get());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.isAvailable(1, "1A", this::load);
+        assertEquals(2, loads.get());
+
+        cache.invalidate(1);
+        cache.isAvailable(1, "1A", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testDoesNotCacheSeatsLoadedBeforeInvalidation() throws DatabaseActionException {
+        assertTrue(cache.isAvailable(1, "1A", flightId -> {
+            cache.invalidate(flightId);
+            return load(flightId);
+        }));
+        assertFalse(cache.isAvailable(1, "1A", flightId -> {
+            loads.incrementAndGet();
+            return List.of();
+        }));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDisabledCacheLoadsOnEveryCheck() throws DatabaseActionException {
+        cache.isAvailable(1, "1A", this::load);
+        cache.setEnabled(false);
+        cache.isAvailable(1, "1A", this::load);
+        cache.isAvailable(1, "1A", this::load);
+        assertEquals(3, loads.get());
+
+        cache.setEnabled(true);
+        cache.isAvailable(1, "1A", this::load);
+        cache.isAvailable(1, "1A", this::load);
+        assertEquals(4, loads.get());
+    }
+}
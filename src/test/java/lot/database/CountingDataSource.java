@@ -0,0 +1,136 @@
+package lot.database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * DataSource wrapper used in tests to count borrowed connections and executed statements
+ * and to record SQL of prepared statements.
+ */
+public class CountingDataSource implements DataSource {
+    private final DataSource delegate;
+    private final AtomicInteger connectionsCount = new AtomicInteger();
+    private final AtomicInteger statementsCount = new AtomicInteger();
+    private final List<String> preparedQueries = new CopyOnWriteArrayList<>();
+
+    public CountingDataSource(DataSource delegate) {
+        this.delegate = delegate;
+    }
+
+    public int getConnectionsCount() {
+        return connectionsCount.get();
+    }
+
+    public int getStatementsCount() {
+        return statementsCount.get();
+    }
+
+    public List<String> getPreparedQueries() {
+        return List.copyOf(preparedQueries);
+    }
+
+    public void reset() {
+        connectionsCount.set(0);
+        statementsCount.set(0);
+        preparedQueries.clear();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        connectionsCount.incrementAndGet();
+        return countingConnection(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        connectionsCount.incrementAndGet();
+        return countingConnection(delegate.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        preparedQueries.add((String) args[0]);
+                    }
+                    Object result = invoke(conn, method, args);
+                    if (result instanceof Statement statement) {
+                        return countingStatement(statement);
+                    }
+                    return result;
+                }
+        );
+    }
+
+    private Statement countingStatement(Statement statement) {
+        Class<?> type = statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        statementsCount.incrementAndGet();
+                    }
+                    return invoke(statement, method, args);
+                }
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return delegate.isWrapperFor(iface);
+    }
+}
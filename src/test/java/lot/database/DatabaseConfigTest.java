@@ -0,0 +1,79 @@
+package lot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import lot.database.metrics.PoolMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConfigTest {
+    @Test
+    void testDefaults() {
+        DatabaseConfig config = DatabaseConfig.from(Map.<String, String>of()::get);
+
+        assertEquals("jdbc:h2:./lotdb;AUTO_SERVER=TRUE;DB_CLOSE_DELAY=-1", config.getJdbcUrl());
+        assertEquals(10, config.getMaximumPoolSize());
+        assertEquals(2, config.getMinimumIdle());
+        assertEquals(30_000, config.getConnectionTimeoutMs());
+        assertEquals(SeatMaintenance.TRIGGERS, config.getSeatMaintenance());
+        assertFalse(config.toHikariConfig(new PoolMetrics()).isRegisterMbeans());
+    }
+
+    @Test
+    void testModes() {
+        assertEquals("jdbc:h2:mem:lotdb;DB_CLOSE_DELAY=-1",
+                DatabaseConfig.from(Map.of("DB_MODE", "memory")::get).getJdbcUrl());
+        assertEquals("jdbc:h2:tcp://db.local:9123/~/lot",
+                DatabaseConfig.from(Map.of("DB_MODE", "tcp", "DB_TCP_HOST", "db.local:9123", "DB_PATH", "~/lot")::get).getJdbcUrl());
+        assertEquals("jdbc:h2:mem:other;QUERY_CACHE_SIZE=64",
+                DatabaseConfig.from(Map.of("DB_URL", "jdbc:h2:mem:other", "DB_MODE", "tcp", "DB_STATEMENT_CACHE_SIZE", "64")::get).getJdbcUrl());
+    }
+
+    @Test
+    void testSharedDatabases() {
+        assertTrue(DatabaseConfig.from(Map.<String, String>of()::get).isSharedWithOtherProcesses());
+        assertTrue(DatabaseConfig.from(Map.of("DB_MODE", "tcp")::get).isSharedWithOtherProcesses());
+        assertFalse(DatabaseConfig.from(Map.of("DB_MODE", "memory")::get).isSharedWithOtherProcesses());
+        assertFalse(DatabaseConfig.from(Map.of("DB_URL", "jdbc:h2:./local")::get).isSharedWithOtherProcesses());
+    }
+
+    @Test
+    void testSeatCache() {
+        assertFalse(DatabaseConfig.from(Map.<String, String>of()::get).isSeatCacheEnabled());
+        assertTrue(DatabaseConfig.from(Map.of("DB_MODE", "memory")::get).isSeatCacheEnabled());
+        assertTrue(DatabaseConfig.from(Map.of("DB_SEAT_CACHE", " ON ")::get).isSeatCacheEnabled());
+        assertFalse(DatabaseConfig.from(Map.of("DB_MODE", "memory", "DB_SEAT_CACHE", "off")::get).isSeatCacheEnabled());
+        assertThrows(IllegalStateException.class, () -> DatabaseConfig.from(Map.of("DB_SEAT_CACHE", "sometimes")::get));
+    }
+
+    @Test
+    void testPoolSettings() {
+        DatabaseConfig config = DatabaseConfig.from(Map.of(
+                "DB_POOL_MAX_SIZE", "4",
+                "DB_POOL_MIN_IDLE", "8",
+                "DB_CONNECTION_TIMEOUT_MS", "1500",
+                "DB_POOL_REGISTER_MBEANS", "true",
+                "DB_SEAT_MAINTENANCE", " Statements "
+        )::get);
+        PoolMetrics metrics = new PoolMetrics();
+
+        HikariConfig hikariConfig = config.toHikariConfig(metrics);
+
+        assertEquals(4, hikariConfig.getMaximumPoolSize());
+        assertEquals(4, hikariConfig.getMinimumIdle());
+        assertEquals(1500, hikariConfig.getConnectionTimeout());
+        assertTrue(hikariConfig.isRegisterMbeans());
+        assertEquals(SeatMaintenance.STATEMENTS, config.getSeatMaintenance());
+        assertSame(metrics, hikariConfig.getMetricsTrackerFactory());
+    }
+
+    @Test
+    void testInvalidValues() {
+        assertThrows(IllegalStateException.class, () -> DatabaseConfig.from(Map.of("DB_MODE", "cloud")::get));
+        assertThrows(IllegalStateException.class, () -> DatabaseConfig.from(Map.of("DB_POOL_MAX_SIZE", "many")::get));
+        assertThrows(IllegalStateException.class, () -> DatabaseConfig.from(Map.of("DB_POOL_MAX_SIZE", "0")::get));
+        assertThrows(IllegalStateException.class, () -> DatabaseConfig.from(Map.of("DB_SEAT_MAINTENANCE", "manual")::get));
+    }
+}
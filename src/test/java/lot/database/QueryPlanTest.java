@@ -0,0 +1,119 @@
+package lot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanTest {
+    private static CountingDataSource countingDataSource;
+    private final FlightDao flightDao = new FlightDao();
+    private final PassengerDao passengerDao = new PassengerDao();
+    private final ReservationDao reservationDao = new ReservationDao();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        countingDataSource = new CountingDataSource(new HikariDataSource(config));
+
+        DatabaseInitializer.overrideDataSource(countingDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @Test
+    void testFlightQueriesUseIndexes() throws Exception {
+        assertIndexed(() -> flightDao.findById(1), 1);
+        assertIndexed(() -> flightDao.existsById(1), 1);
+        assertIndexed(() -> flightDao.findByDeparture("Warszawa"), "Warszawa");
+        assertIndexed(() -> flightDao.findByDestination("Berlin"), "Berlin");
+        assertIndexed(() -> flightDao.findByDate(LocalDate.of(2025, 6, 15)),
+                LocalDate.of(2025, 6, 15).atStartOfDay(), LocalDate.of(2025, 6, 16).atStartOfDay());
+        assertIndexed(() -> flightDao.findByDateRange(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)),
+                LocalDate.of(2025, 6, 1).atStartOfDay(), LocalDate.of(2025, 7, 1).atStartOfDay());
+        assertIndexed(() -> flightDao.getAvailableSeatsNumbers(1), 1);
+        assertIndexed(() -> flightDao.findPage(0, 10), 0, 10);
+    }
+
+    @Test
+    void testPassengerQueriesUseIndexes() throws Exception {
+        assertIndexed(() -> passengerDao.findById(1), 1);
+        assertIndexed(() -> passengerDao.existsById(1), 1);
+        assertIndexed(() -> passengerDao.findBySurname("Kowalski"), "Kowalski");
+        assertIndexed(() -> passengerDao.findPage(0, 10), 0, 10);
+    }
+
+    @Test
+    void testReservationQueriesUseIndexes() throws Exception {
+        assertIndexed(() -> reservationDao.findById(1), 1);
+        assertIndexed(() -> reservationDao.existsById(1), 1);
+        assertIndexed(() -> reservationDao.findAllByForeignKey("flights", 1), 1);
+        assertIndexed(() -> reservationDao.findAllByForeignKey("passengers", 1), 1);
+        assertIndexed(() -> reservationDao.findAllBySurname("Kowalski"), "Kowalski");
+        assertIndexed(() -> reservationDao.findPage(0, 10), 0, 10);
+    }
+
+    @Test
+    void testSchemaMigrationsAreAppliedOnce() throws Exception {
+        DatabaseInitializer.initialize();
+
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM schema_version")
+        ) {
+            assertEquals(DatabaseInitializer.latestSchemaVersion(), DatabaseInitializer.schemaVersion(conn));
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            assertEquals(DatabaseInitializer.latestSchemaVersion(), rs.getInt(1));
+        }
+    }
+
+    @AfterAll
+    static void reset() {
+        DatabaseInitializer.resetToDefault();
+    }
+
+    private void assertIndexed(DaoCall call, Object... parameters) throws Exception {
+        countingDataSource.reset();
+        call.run();
+        List<String> queries = countingDataSource.getPreparedQueries();
+        assertEquals(1, queries.size());
+
+        String plan = explain(queries.get(0), parameters);
+        assertFalse(plan.contains("tableScan"), "Query falls back to a table scan:\n" + plan);
+    }
+
+    private String explain(String query, Object... parameters) throws SQLException {
+        try (
+                Connection conn = DatabaseInitializer.getConnection();
+                PreparedStatement ps = conn.prepareStatement("EXPLAIN " + query)
+        ) {
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DaoCall {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,178 @@
+package lot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.Flight;
+import lot.models.Passenger;
+import lot.models.Reservation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMaintenanceTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final ReservationDao reservationDao = new ReservationDao();
+    private final FlightDao flightDao = new FlightDao();
+    private final PassengerDao passengerDao = new PassengerDao();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:seatmaintenancedb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.overrideSeatMaintenance(SeatMaintenance.STATEMENTS);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testInitialDataIsInSync() throws SQLException {
+        assertEquals(0, countTriggers());
+        assertEquals(0, countSeatsOutOfSync());
+    }
+
+    @Test
+    void testReservationChangesKeepSeatsInSync() throws DatabaseActionException, SQLException {
+        int flightId = saveFlight();
+        int otherFlightId = saveFlight();
+        int passengerId = savePassenger();
+
+        int id = reservationDao.save(new Reservation(flightId, passengerId, "1A"));
+        assertFalse(isSeatAvailable(flightId, "1A"));
+
+        assertEquals(1, reservationDao.update(new Reservation(id, flightId, passengerId, "2B")));
+        assertTrue(isSeatAvailable(flightId, "1A"));
+        assertFalse(isSeatAvailable(flightId, "2B"));
+
+        assertEquals(1, reservationDao.update(new Reservation(id, otherFlightId, passengerId, "2B")));
+        assertTrue(isSeatAvailable(flightId, "2B"));
+        assertFalse(isSeatAvailable(otherFlightId, "2B"));
+
+        assertEquals(1, reservationDao.delete(id));
+        assertTrue(isSeatAvailable(otherFlightId, "2B"));
+
+        int validatedId = reservationDao.saveValidated(new Reservation(flightId, passengerId, "1C"));
+        assertFalse(isSeatAvailable(flightId, "1C"));
+        assertEquals(1, reservationDao.delete(validatedId));
+        assertEquals(0, countSeatsOutOfSync());
+    }
+
+    @Test
+    void testUpdateOfMissingReservationDoesNotClaimSeat() throws DatabaseActionException, SQLException {
+        int flightId = saveFlight();
+        int passengerId = savePassenger();
+
+        assertEquals(0, reservationDao.update(new Reservation(9999, flightId, passengerId, "1A")));
+
+        assertTrue(isSeatAvailable(flightId, "1A"));
+    }
+
+    @Test
+    void testDeletingPassengerReleasesAllSeats() throws DatabaseActionException, SQLException {
+        int flightId = saveFlight();
+        int otherFlightId = saveFlight();
+        int passengerId = savePassenger();
+        int otherPassengerId = savePassenger();
+        reservationDao.save(new Reservation(flightId, passengerId, "1A"));
+        reservationDao.save(new Reservation(otherFlightId, passengerId, "1B"));
+        reservationDao.save(new Reservation(flightId, otherPassengerId, "1B"));
+
+        assertEquals(1, passengerDao.delete(passengerId));
+
+        assertTrue(isSeatAvailable(flightId, "1A"));
+        assertTrue(isSeatAvailable(otherFlightId, "1B"));
+        assertFalse(isSeatAvailable(flightId, "1B"));
+        assertEquals(0, countSeatsOutOfSync());
+    }
+
+    @Test
+    void testResyncAfterReservationsChangedWithSql() throws DatabaseActionException, SQLException {
+        int flightId = saveFlight();
+        int passengerId = savePassenger();
+
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("INSERT INTO reservations (flightId, passengerId, seatNumber) VALUES ("
+                    + flightId + ", " + passengerId + ", '2A')");
+        }
+        assertTrue(isSeatAvailable(flightId, "2A"));
+
+        DatabaseInitializer.resyncSeats();
+
+        assertFalse(isSeatAvailable(flightId, "2A"));
+        assertEquals(0, countSeatsOutOfSync());
+    }
+
+    @Test
+    void testSwitchingToTriggersInstallsThem() throws Exception {
+        try {
+            DatabaseInitializer.overrideSeatMaintenance(SeatMaintenance.TRIGGERS);
+            DatabaseInitializer.initialize();
+            assertEquals(3, countTriggers());
+        }
+        finally {
+            DatabaseInitializer.overrideSeatMaintenance(SeatMaintenance.STATEMENTS);
+            DatabaseInitializer.initialize();
+        }
+        assertEquals(0, countTriggers());
+    }
+
+    private int saveFlight() throws DatabaseActionException {
+        return flightDao.save(new Flight("Warszawa", "Oslo", LocalDateTime.now().plusDays(5), 120, 2));
+    }
+
+    private int savePassenger() throws DatabaseActionException {
+        return passengerDao.save(new Passenger("Jan", "Nowak", "jan.nowak@example.com", "123456789"));
+    }
+
+    private boolean isSeatAvailable(int flightId, String seatNumber) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT available FROM seats WHERE flightId = ? AND seatNumber = ?")) {
+            ps.setInt(1, flightId);
+            ps.setString(2, seatNumber);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private int countTriggers() throws SQLException {
+        return count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TRIGGERS");
+    }
+
+    private int countSeatsOutOfSync() throws SQLException {
+        return count("""
+                SELECT COUNT(*) FROM seats s
+                WHERE s.available = (EXISTS(SELECT 1 FROM reservations r WHERE r.flightId = s.flightId AND r.seatNumber = s.seatNumber))
+                """);
+    }
+
+    private int count(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection(); ResultSet rs = conn.createStatement().executeQuery(query)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
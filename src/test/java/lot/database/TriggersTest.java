@@ -138,6 +138,32 @@ class TriggersTest {
         }
     }
 
+    @Test
+    void testFireOnUpdateWithFlightChange() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            int oldFlightId = insertTestFlight(conn);
+            int newFlightId = insertTestFlight(conn);
+            int passengerId = insertTestPassenger(conn);
+            insertTestSeat(conn, oldFlightId, "6F", false);
+            insertTestSeat(conn, newFlightId, "6F", true);
+
+            Trigger trigger = new ManageSeatAvailabilityAfterUpdateTrigger();
+            trigger.init(conn, null, null, "reservations", false, Trigger.UPDATE);
+
+            Object[] oldRow = new Object[]{1, oldFlightId, passengerId, "6F"};
+
+            Object[] newRow = new Object[]{1, newFlightId, passengerId, "6F"};
+
+            trigger.fire(conn, oldRow, newRow);
+
+            assertTrue(isSeatAvailable(conn, oldFlightId, "6F"));
+            assertFalse(isSeatAvailable(conn, newFlightId, "6F"));
+
+            conn.createStatement().execute("DELETE FROM passengers WHERE id = " + passengerId);
+            conn.createStatement().execute("DELETE FROM flights WHERE id IN (" + oldFlightId + "," + newFlightId + ")");
+        }
+    }
+
     private int insertTestFlight(Connection conn) throws SQLException {
         try (Statement stmt = conn.createStatement()) {
             stmt.executeUpdate("""
@@ -0,0 +1,113 @@
+package lot.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.services.ValidationException;
+import lot.models.Passenger;
+import lot.models.Reservation;
+import lot.services.ReservationService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitOfWorkTest {
+    private static HikariDataSource inMemoryDataSource;
+    private static CountingDataSource countingDataSource;
+
+    private final ReservationDao reservationDao = new ReservationDao();
+    private final FlightDao flightDao = new FlightDao();
+    private final PassengerDao passengerDao = new PassengerDao();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:unitofworkdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+        countingDataSource = new CountingDataSource(inMemoryDataSource);
+
+        DatabaseInitializer.overrideDataSource(countingDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @BeforeEach
+    void resetCounters() {
+        countingDataSource.reset();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testServiceCallBorrowsSingleConnection() throws DatabaseActionException {
+        ReservationService reservationService = new ReservationService(reservationDao, flightDao, passengerDao, null);
+        Reservation reservation = reservationDao.findById(1).orElseThrow();
+        String newSeat = flightDao.getAvailableSeatsNumbers(reservation.getFlightId()).get(0);
+
+        countingDataSource.reset();
+        assertTrue(reservationDao.existsById(1));
+        assertTrue(flightDao.existsById(reservation.getFlightId()));
+        assertTrue(passengerDao.existsById(reservation.getPassengerId()));
+        assertEquals(reservation.getSeatNumber(), reservationDao.findById(1).orElseThrow().getSeatNumber());
+        assertTrue(flightDao.isSeatAvailable(reservation.getFlightId(), newSeat));
+        int withoutUnitOfWork = countingDataSource.getConnectionsCount();
+
+        countingDataSource.reset();
+        reservationService.updateExistingReservation(1, reservation.getFlightId(), reservation.getPassengerId(), newSeat);
+
+        assertTrue(withoutUnitOfWork >= 4, "separate DAO calls borrow a connection each, but borrowed: " + withoutUnitOfWork);
+        assertEquals(1, countingDataSource.getConnectionsCount());
+        assertEquals(newSeat, reservationDao.findById(1).orElseThrow().getSeatNumber());
+        assertFalse(flightDao.isSeatAvailable(reservation.getFlightId(), newSeat));
+        assertEquals(0, inMemoryDataSource.getHikariPoolMXBean().getActiveConnections());
+    }
+
+    @Test
+    void testRollsBackOnException() {
+        Passenger passenger = new Passenger("Jan", "Rollback", "jan.rollback@example.com", "123456789");
+
+        assertThrows(ValidationException.class, () -> UnitOfWork.run(() -> {
+            passengerDao.save(passenger);
+            assertEquals(1, passengerDao.findBySurname("Rollback").size());
+            throw new ValidationException("invalid");
+        }));
+
+        assertDoesNotThrow(() -> assertTrue(passengerDao.findBySurname("Rollback").isEmpty()));
+        assertEquals(0, inMemoryDataSource.getHikariPoolMXBean().getActiveConnections());
+    }
+
+    @Test
+    void testNestedUnitsShareConnectionAndRunActionsAfterCommit() throws DatabaseActionException {
+        List<String> events = new ArrayList<>();
+
+        int id = UnitOfWork.call(() -> {
+            int saved = passengerDao.save(new Passenger("Anna", "Nested", "anna.nested@example.com", "987654321"));
+            UnitOfWork.afterCompletion(() -> events.add("completed"));
+            UnitOfWork.run(() -> {
+                assertEquals(1, passengerDao.findBySurname("Nested").size());
+                events.add("nested");
+            });
+            assertEquals(List.of("nested"), events);
+            return saved;
+        });
+
+        assertEquals(List.of("nested", "completed"), events);
+        assertEquals(1, countingDataSource.getConnectionsCount());
+        assertTrue(passengerDao.existsById(id));
+        passengerDao.delete(id);
+    }
+}
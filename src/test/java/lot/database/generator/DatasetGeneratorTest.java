@@ -0,0 +1,110 @@
+package lot.database.generator;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.database.DatabaseInitializer;
+import lot.models.Flight;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void setup() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:generatordb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+        DatabaseInitializer.overrideDataSource(dataSource);
+    }
+
+    @BeforeEach
+    void createSchema() throws Exception {
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterEach
+    void dropSchema() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        dataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testGeneratesConsistentData() throws Exception {
+        long flightsBefore = count("SELECT COUNT(*) FROM flights");
+        long reservationsBefore = count("SELECT COUNT(*) FROM reservations");
+
+        DatasetGenerator.Summary summary = new DatasetGenerator(7, 4).generate(120, 3_000, 8_000);
+
+        assertEquals(flightsBefore + 120, count("SELECT COUNT(*) FROM flights"));
+        assertEquals(summary.getReservations(), count("SELECT COUNT(*) FROM reservations") - reservationsBefore);
+        assertEquals(8_000, summary.getReservations(), 800);
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM reservations r
+                JOIN seats s ON s.flightId = r.flightId AND s.seatNumber = r.seatNumber
+                WHERE s.available
+                """));
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM seats s
+                WHERE NOT s.available
+                AND NOT EXISTS (SELECT 1 FROM reservations r WHERE r.flightId = s.flightId AND r.seatNumber = s.seatNumber)
+                """));
+        assertTrue(count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM passengers GROUP BY surname)") > 3_000 / 20,
+                "the most common surname should be much more frequent than average");
+
+        int newId = new FlightDao().save(new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(1), 90, 2));
+        assertEquals(count("SELECT MAX(id) FROM flights"), newId);
+    }
+
+    @Test
+    void testSameSeedGeneratesSameData() throws Exception {
+        new DatasetGenerator(11, 4).generate(150, 300, 3_000);
+        long first = checksum();
+
+        dropSchema();
+        createSchema();
+        new DatasetGenerator(11, 1).generate(150, 300, 3_000);
+
+        assertEquals(first, checksum());
+    }
+
+    private long checksum() throws SQLException {
+        return count("""
+                SELECT SUM(CAST(ORA_HASH(CONCAT(r.id, ':', r.flightId, ':', r.passengerId, ':', r.seatNumber, ':',
+                       p.surname, ':', f.departure, ':', f.destination, ':', f.departureDate)) AS BIGINT))
+                FROM reservations r
+                JOIN passengers p ON p.id = r.passengerId
+                JOIN flights f ON f.id = r.flightId
+                """);
+    }
+
+    private long count(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
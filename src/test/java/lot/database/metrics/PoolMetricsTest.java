@@ -0,0 +1,57 @@
+package lot.database.metrics;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolMetricsTest {
+    @Test
+    void testRecordsPoolUsage() throws SQLException {
+        PoolMetrics metrics = new PoolMetrics();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(2);
+        config.setConnectionTimeout(250);
+        config.setMetricsTrackerFactory(metrics);
+
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+                assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+                assertEquals(2, metrics.getMaxConnections());
+            }
+
+            assertEquals(3, metrics.getWaitTimeMicros().getCount());
+            assertEquals(2, metrics.getUsageTimeMillis().getCount());
+            assertEquals(1, metrics.getTimeouts());
+            assertTrue(metrics.getWaitTimeMicros().getMax() >= 250_000);
+            assertTrue(metrics.getCreationTimeMillis().getCount() >= 1);
+            assertTrue(metrics.toString().contains("timeouts=1"));
+        }
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(100, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+        assertEquals(5050 / 101.0, histogram.getMean(), 0.001);
+    }
+}
@@ -1,14 +1,17 @@
 package lot.services;
 
 import lot.dao.FlightDao;
+import lot.dao.PageQuery;
 import lot.exceptions.dao.DatabaseActionException;
 import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
 import lot.models.Flight;
+import lot.models.NotificationJob;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,9 +20,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -116,10 +122,68 @@ class FlightServiceTest {
         );
     }
 
+    @Test
+    void getFlightsPage_ShouldReturnPage() throws DatabaseActionException {
+        when(flightDao.findPage(0, 10)).thenReturn(Arrays.asList(testFlight));
+
+        List<Flight> result = flightService.getFlightsPage(0, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getFlightsPage_ShouldThrowValidationException_WhenPageSizeIsNotPositive() {
+        assertThrows(ValidationException.class, () ->
+                flightService.getFlightsPage(0, 0)
+        );
+    }
+
+    @Test
+    void getFlightsPage_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(flightDao.findPage(0, 10)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                flightService.getFlightsPage(0, 10)
+        );
+    }
+
+    @Test
+    void getFlightsWindow_ShouldThrowValidationException_WhenOffsetIsNegative() {
+        assertThrows(ValidationException.class, () ->
+                flightService.getFlightsWindow(PageQuery.all(), -1, 10)
+        );
+    }
+
+    @Test
+    void getIdsByPrefix_ShouldReturnIds() throws DatabaseActionException {
+        when(flightDao.findIdsByPrefix("12", 20)).thenReturn(List.of(12, 120, 121));
+
+        List<Integer> result = flightService.getIdsByPrefix(" 12 ", 20);
+
+        assertEquals(List.of(12, 120, 121), result);
+    }
+
+    @Test
+    void getIdsByPrefix_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(flightDao.findIdsByPrefix("12", 20)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                flightService.getIdsByPrefix("12", 20)
+        );
+    }
+
+    @Test
+    void forEachFlight_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        doThrow(new DatabaseActionException("DB error")).when(flightDao).forEach(eq(100), any());
+
+        assertThrows(ServiceException.class, () ->
+                flightService.forEachFlight(100, t -> {})
+        );
+    }
+
     @Test
     void getFlightById_ShouldReturnFlight() throws DatabaseActionException {
-        when(flightDao.findById(1)).thenReturn(testFlight);
-        when(flightDao.existsById(1)).thenReturn(true);
+        when(flightDao.findById(1)).thenReturn(Optional.of(testFlight));
 
         Flight result = flightService.getFlightById(1);
 
@@ -128,7 +192,7 @@ class FlightServiceTest {
 
     @Test
     void getFlightById_ShouldThrowValidationException_WhenFlightNotExists() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(false);
+        when(flightDao.findById(1)).thenReturn(Optional.empty());
 
         assertThrows(ValidationException.class, () ->
                 flightService.getFlightById(1)
@@ -137,7 +201,6 @@ class FlightServiceTest {
 
     @Test
     void getFlightById_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
         when(flightDao.findById(1)).thenThrow(new DatabaseActionException("DB error"));
 
         assertThrows(ServiceException.class, () ->
@@ -204,6 +267,34 @@ class FlightServiceTest {
         );
     }
 
+    @Test
+    void getFlightsByDateRange_ShouldReturnFlightList() throws DatabaseActionException {
+        LocalDate from = LocalDate.now();
+        LocalDate to = LocalDate.now().plusDays(7);
+        when(flightDao.findByDateRange(from, to)).thenReturn(Arrays.asList(testFlight));
+
+        List<Flight> result = flightService.getFlightsByDateRange(from, to);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getFlightsByDateRange_ShouldThrowValidationException_WhenRangeIsReversed() {
+        assertThrows(ValidationException.class, () ->
+                flightService.getFlightsByDateRange(LocalDate.now().plusDays(1), LocalDate.now())
+        );
+    }
+
+    @Test
+    void getFlightsByDateRange_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        LocalDate date = LocalDate.now();
+        when(flightDao.findByDateRange(date, date)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                flightService.getFlightsByDateRange(date, date)
+        );
+    }
+
     @Test
     void getIds_ShouldReturnIdList() throws DatabaseActionException {
         when(flightDao.findAllId()).thenReturn(Arrays.asList(1, 2, 3));
@@ -225,19 +316,30 @@ class FlightServiceTest {
 
     @Test
     void updateExistingFlight_ShouldUpdateFlight_WhenDataIsValid() throws DatabaseActionException {
-        when(flightDao.findById(1)).thenReturn(testFlight);
-        when(flightDao.existsById(1)).thenReturn(true);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(flightDao.update(any(Flight.class))).thenReturn(1);
 
         flightService.updateExistingFlight(1, "Berlin", "Paris",
                 LocalDate.now().plusDays(2), "14:00", 90, 10);
 
         verify(flightDao).update(any(Flight.class));
+        verify(flightDao, never()).findById(anyInt());
+    }
+
+    @Test
+    void updateExistingFlight_ShouldThrowValidationException_WhenFlightDeletedConcurrently() throws DatabaseActionException {
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(flightDao.update(any(Flight.class))).thenReturn(0);
+
+        assertThrows(ValidationException.class, () ->
+                flightService.updateExistingFlight(1, "Berlin", "Paris",
+                        LocalDate.now().plusDays(2), "14:00", 90, 10)
+        );
     }
 
     @Test
     void updateExistingFlight_ShouldThrowValidationException_WhenSeatRowsDecreased() throws DatabaseActionException {
-        when(flightDao.findById(1)).thenReturn(testFlight);
-        when(flightDao.existsById(1)).thenReturn(true);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
 
         assertThrows(ValidationException.class, () ->
                 flightService.updateExistingFlight(1, "Berlin", "Paris",
@@ -247,8 +349,7 @@ class FlightServiceTest {
 
     @Test
     void updateExistingFlight_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(flightDao.findById(1)).thenReturn(testFlight);
-        when(flightDao.existsById(1)).thenReturn(true);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
         doThrow(new DatabaseActionException("DB error")).when(flightDao).update(any(Flight.class));
 
         assertThrows(ServiceException.class, () ->
@@ -259,8 +360,7 @@ class FlightServiceTest {
 
     @Test
     void deleteFlight_ShouldCallDaoDelete() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
-        doNothing().when(flightDao).delete(1);
+        when(flightDao.delete(1)).thenReturn(1);
 
         flightService.deleteFlight(1);
 
@@ -269,7 +369,7 @@ class FlightServiceTest {
 
     @Test
     void deleteFlight_ShouldThrowValidationException_WhenFlightNotExists() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(false);
+        when(flightDao.delete(1)).thenReturn(0);
 
         assertThrows(ValidationException.class, () ->
                 flightService.deleteFlight(1)
@@ -278,11 +378,80 @@ class FlightServiceTest {
 
     @Test
     void deleteFlight_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
         doThrow(new DatabaseActionException("DB error")).when(flightDao).delete(1);
 
         assertThrows(ServiceException.class, () ->
                 flightService.deleteFlight(1)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteFlight_ShouldNotifyPassengers_WhenUpcomingFlightCancelled() throws DatabaseActionException {
+        FlightNotificationService notifications = mock(FlightNotificationService.class);
+        NotificationJob job = new NotificationJob(7, 1, "CANCELLATION", 3, 0, 0, LocalDateTime.now(), null);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(notifications.notifyCancellation(testFlight)).thenReturn(Optional.of(job));
+        when(flightDao.delete(1)).thenReturn(1);
+
+        Optional<NotificationJob> result = new FlightService(flightDao, notifications).deleteFlight(1);
+
+        assertEquals(Optional.of(job), result);
+        InOrder inOrder = inOrder(notifications, flightDao);
+        inOrder.verify(notifications).notifyCancellation(testFlight);
+        inOrder.verify(flightDao).delete(1);
+    }
+
+    @Test
+    void deleteFlight_ShouldNotNotifyPassengers_WhenFlightTookPlace() throws DatabaseActionException {
+        FlightNotificationService notifications = mock(FlightNotificationService.class);
+        testFlight.setDepartureDate(LocalDateTime.now().minusDays(1));
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(flightDao.delete(1)).thenReturn(1);
+
+        Optional<NotificationJob> result = new FlightService(flightDao, notifications).deleteFlight(1);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(notifications);
+    }
+
+    @Test
+    void deleteFlight_ShouldThrowValidationException_WhenNotifiedFlightNotExists() throws DatabaseActionException {
+        FlightNotificationService notifications = mock(FlightNotificationService.class);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.empty());
+
+        assertThrows(ValidationException.class, () ->
+                new FlightService(flightDao, notifications).deleteFlight(1)
+        );
+        verify(flightDao, never()).delete(anyInt());
+        verifyNoInteractions(notifications);
+    }
+
+    @Test
+    void updateExistingFlight_ShouldNotifyPassengers_WhenDepartureChanged() throws DatabaseActionException {
+        FlightNotificationService notifications = mock(FlightNotificationService.class);
+        NotificationJob job = new NotificationJob(7, 1, "DELAY", 3, 0, 0, LocalDateTime.now(), null);
+        LocalDateTime newDeparture = LocalDate.now().plusDays(2).atTime(14, 0);
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(flightDao.update(any(Flight.class))).thenReturn(1);
+        when(notifications.notifyDelay(testFlight, newDeparture)).thenReturn(Optional.of(job));
+
+        Optional<NotificationJob> result = new FlightService(flightDao, notifications).updateExistingFlight(1, "Warsaw", "London",
+                LocalDate.now().plusDays(2), "14:00", 120, 10);
+
+        assertEquals(Optional.of(job), result);
+    }
+
+    @Test
+    void updateExistingFlight_ShouldNotNotifyPassengers_WhenDepartureUnchanged() throws DatabaseActionException {
+        FlightNotificationService notifications = mock(FlightNotificationService.class);
+        testFlight.setDepartureDate(LocalDate.now().plusDays(2).atTime(14, 0));
+        when(flightDao.findByIdUncached(1)).thenReturn(Optional.of(testFlight));
+        when(flightDao.update(any(Flight.class))).thenReturn(1);
+
+        Optional<NotificationJob> result = new FlightService(flightDao, notifications).updateExistingFlight(1, "Berlin", "Paris",
+                LocalDate.now().plusDays(2), "14:00", 90, 10);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(notifications);
+    }
+}
@@ -1,5 +1,6 @@
 package lot.services;
 
+import lot.dao.PageQuery;
 import lot.dao.PassengerDao;
 import lot.exceptions.dao.DatabaseActionException;
 import lot.exceptions.services.ServiceException;
@@ -14,9 +15,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -92,6 +95,65 @@ class PassengerServiceTest {
         );
     }
 
+    @Test
+    void getPassengersPage_ShouldReturnPage() throws DatabaseActionException {
+        when(passengerDao.findPage(0, 10)).thenReturn(Arrays.asList(testPassenger));
+
+        List<Passenger> result = passengerService.getPassengersPage(0, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getPassengersPage_ShouldThrowValidationException_WhenPageSizeIsNotPositive() {
+        assertThrows(ValidationException.class, () ->
+                passengerService.getPassengersPage(0, 0)
+        );
+    }
+
+    @Test
+    void getPassengersPage_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(passengerDao.findPage(0, 10)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                passengerService.getPassengersPage(0, 10)
+        );
+    }
+
+    @Test
+    void getPassengersWindow_ShouldThrowValidationException_WhenOffsetIsNegative() {
+        assertThrows(ValidationException.class, () ->
+                passengerService.getPassengersWindow(PageQuery.all(), -1, 10)
+        );
+    }
+
+    @Test
+    void getIdsByPrefix_ShouldReturnIds() throws DatabaseActionException {
+        when(passengerDao.findIdsByPrefix("12", 20)).thenReturn(List.of(12, 120, 121));
+
+        List<Integer> result = passengerService.getIdsByPrefix(" 12 ", 20);
+
+        assertEquals(List.of(12, 120, 121), result);
+    }
+
+    @Test
+    void getIdsByPrefix_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(passengerDao.findIdsByPrefix("12", 20)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                passengerService.getIdsByPrefix("12", 20)
+        );
+    }
+
+    @Test
+    void forEachPassenger_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        doThrow(new DatabaseActionException("DB error")).when(passengerDao).forEach(eq(100), any());
+
+        assertThrows(ServiceException.class, () ->
+                passengerService.forEachPassenger(100, t -> {})
+        );
+    }
+
     @Test
     void getIds_ShouldReturnIdList() throws DatabaseActionException {
         when(passengerDao.findAllId()).thenReturn(Arrays.asList(1, 2, 3));
@@ -113,13 +175,22 @@ class PassengerServiceTest {
 
     @Test
     void getPassengerById_ShouldReturnPassenger() throws DatabaseActionException {
-        when(passengerDao.findById(1)).thenReturn(testPassenger);
+        when(passengerDao.findById(1)).thenReturn(Optional.of(testPassenger));
 
         Passenger result = passengerService.getPassengerById(1);
 
         assertEquals("John", result.getName());
     }
 
+    @Test
+    void getPassengerById_ShouldThrowValidationException_WhenPassengerNotExists() throws DatabaseActionException {
+        when(passengerDao.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(ValidationException.class, () ->
+                passengerService.getPassengerById(1)
+        );
+    }
+
     @Test
     void getPassengerById_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
         when(passengerDao.findById(1)).thenThrow(new DatabaseActionException("DB error"));
@@ -150,8 +221,7 @@ class PassengerServiceTest {
 
     @Test
     void updateExistingPassenger_ShouldUpdatePassenger_WhenDataIsValid() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(true);
-        doNothing().when(passengerDao).update(any(Passenger.class));
+        when(passengerDao.update(any(Passenger.class))).thenReturn(1);
 
         passengerService.updateExistingPassenger(
                 1, "Jane", "Doe", "jane.doe@example.com", "987654321"
@@ -162,7 +232,7 @@ class PassengerServiceTest {
 
     @Test
     void updateExistingPassenger_ShouldThrowValidationException_WhenPassengerNotExists() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(false);
+        when(passengerDao.update(any(Passenger.class))).thenReturn(0);
 
         assertThrows(ValidationException.class, () ->
                 passengerService.updateExistingPassenger(1, "Jane", "Doe", "jane.doe@example.com", "987654321")
@@ -179,7 +249,6 @@ class PassengerServiceTest {
 
     @Test
     void updateExistingPassenger_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(true);
         doThrow(new DatabaseActionException("DB error")).when(passengerDao).update(any(Passenger.class));
 
         assertThrows(ServiceException.class, () ->
@@ -189,8 +258,7 @@ class PassengerServiceTest {
 
     @Test
     void deletePassenger_ShouldCallDaoDelete() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(true);
-        doNothing().when(passengerDao).delete(1);
+        when(passengerDao.delete(1)).thenReturn(1);
 
         passengerService.deletePassenger(1);
 
@@ -199,7 +267,7 @@ class PassengerServiceTest {
 
     @Test
     void deletePassenger_ShouldThrowValidationException_WhenPassengerNotExists() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(false);
+        when(passengerDao.delete(1)).thenReturn(0);
 
         assertThrows(ValidationException.class, () ->
                 passengerService.deletePassenger(1)
@@ -208,7 +276,6 @@ class PassengerServiceTest {
 
     @Test
     void deletePassenger_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(passengerDao.existsById(1)).thenReturn(true);
         doThrow(new DatabaseActionException("DB error")).when(passengerDao).delete(1);
 
         assertThrows(ServiceException.class, () ->
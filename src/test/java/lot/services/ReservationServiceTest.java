@@ -1,12 +1,16 @@
 package lot.services;
 
 import lot.dao.FlightDao;
+import lot.dao.PageQuery;
 import lot.dao.PassengerDao;
 import lot.dao.ReservationDao;
 import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.dao.ReservationRejectedException;
 import lot.exceptions.services.EmailException;
+import lot.exceptions.services.SeatTakenException;
 import lot.exceptions.services.ServiceException;
 import lot.exceptions.services.ValidationException;
+import lot.models.Flight;
 import lot.models.Reservation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,11 +19,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,53 +57,61 @@ class ReservationServiceTest {
 
     @Test
     void makeNewReservation_ShouldReturnReservationId_WhenDataIsValid() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
-        when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1A", "1B"));
-        when(reservationDao.save(any(Reservation.class))).thenReturn(1);
+        when(reservationDao.saveValidated(any(Reservation.class))).thenReturn(1);
 
         int result = reservationService.makeNewReservation(1, 1, "1A");
 
         assertEquals(1, result);
-        verify(reservationDao).save(any(Reservation.class));
+        verify(reservationDao).saveValidated(any(Reservation.class));
+        verifyNoInteractions(flightDao, passengerDao);
     }
 
     @Test
     void makeNewReservation_ShouldThrowValidationException_WhenFlightNotExists() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(false);
+        when(reservationDao.saveValidated(any(Reservation.class)))
+                .thenThrow(new ReservationRejectedException(ReservationRejectedException.Reason.FLIGHT_NOT_FOUND));
 
-        assertThrows(ValidationException.class, () ->
+        ValidationException e = assertThrows(ValidationException.class, () ->
                 reservationService.makeNewReservation(1, 1, "1A")
         );
+        assertEquals("Flight assigned to the reservation must exists!", e.getMessage());
     }
 
     @Test
     void makeNewReservation_ShouldThrowValidationException_WhenPassengerNotExists() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
-        when(passengerDao.existsById(1)).thenReturn(false);
+        when(reservationDao.saveValidated(any(Reservation.class)))
+                .thenThrow(new ReservationRejectedException(ReservationRejectedException.Reason.PASSENGER_NOT_FOUND));
 
-        assertThrows(ValidationException.class, () ->
+        ValidationException e = assertThrows(ValidationException.class, () ->
                 reservationService.makeNewReservation(1, 1, "1A")
         );
+        assertEquals("Passenger assigned to the reservation must exists!", e.getMessage());
     }
 
     @Test
     void makeNewReservation_ShouldThrowValidationException_WhenSeatNotAvailable() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
-        when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1B", "1C"));
+        when(reservationDao.saveValidated(any(Reservation.class)))
+                .thenThrow(new ReservationRejectedException(ReservationRejectedException.Reason.SEAT_NOT_AVAILABLE));
 
-        assertThrows(ValidationException.class, () ->
+        ValidationException e = assertThrows(ValidationException.class, () ->
+                reservationService.makeNewReservation(1, 1, "1A")
+        );
+        assertEquals("Provided seat number is not available or it does not exist", e.getMessage());
+    }
+
+    @Test
+    void makeNewReservation_ShouldThrowSeatTakenException_WhenSeatClaimedConcurrently() throws DatabaseActionException {
+        when(reservationDao.saveValidated(any(Reservation.class)))
+                .thenThrow(new ReservationRejectedException(ReservationRejectedException.Reason.SEAT_TAKEN));
+
+        assertThrows(SeatTakenException.class, () ->
                 reservationService.makeNewReservation(1, 1, "1A")
         );
     }
 
     @Test
     void makeNewReservation_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(flightDao.existsById(1)).thenReturn(true);
-        when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1A", "1B"));
-        when(reservationDao.save(any(Reservation.class))).thenThrow(new DatabaseActionException("DB error"));
+        when(reservationDao.saveValidated(any(Reservation.class))).thenThrow(new DatabaseActionException("DB error"));
 
         assertThrows(ServiceException.class, () ->
                 reservationService.makeNewReservation(1, 1, "1A")
@@ -122,6 +137,65 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    void getReservationsPage_ShouldReturnPage() throws DatabaseActionException {
+        when(reservationDao.findPage(0, 10)).thenReturn(Arrays.asList(testReservation));
+
+        List<Reservation> result = reservationService.getReservationsPage(0, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getReservationsPage_ShouldThrowValidationException_WhenPageSizeIsNotPositive() {
+        assertThrows(ValidationException.class, () ->
+                reservationService.getReservationsPage(0, 0)
+        );
+    }
+
+    @Test
+    void getReservationsPage_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(reservationDao.findPage(0, 10)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                reservationService.getReservationsPage(0, 10)
+        );
+    }
+
+    @Test
+    void getReservationsWindow_ShouldThrowValidationException_WhenOffsetIsNegative() {
+        assertThrows(ValidationException.class, () ->
+                reservationService.getReservationsWindow(PageQuery.all(), -1, 10)
+        );
+    }
+
+    @Test
+    void getFlightIdsByPrefix_ShouldReturnIds() throws DatabaseActionException {
+        when(flightDao.findIdsByPrefix("12", 20)).thenReturn(List.of(12, 120, 121));
+
+        List<Integer> result = reservationService.getFlightIdsByPrefix(" 12 ", 20);
+
+        assertEquals(List.of(12, 120, 121), result);
+    }
+
+    @Test
+    void getFlightIdsByPrefix_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        when(flightDao.findIdsByPrefix("12", 20)).thenThrow(new DatabaseActionException("DB error"));
+
+        assertThrows(ServiceException.class, () ->
+                reservationService.getFlightIdsByPrefix("12", 20)
+        );
+    }
+
+    @Test
+    void forEachReservation_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
+        doThrow(new DatabaseActionException("DB error")).when(reservationDao).forEach(eq(100), any());
+
+        assertThrows(ServiceException.class, () ->
+                reservationService.forEachReservation(100, t -> {})
+        );
+    }
+
     @Test
     void getIds_ShouldReturnIdList() throws DatabaseActionException {
         when(reservationDao.findAllId()).thenReturn(Arrays.asList(1, 2, 3));
@@ -181,8 +255,7 @@ class ReservationServiceTest {
 
     @Test
     void getReservationById_ShouldReturnReservation() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
-        when(reservationDao.findById(1)).thenReturn(testReservation);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
 
         Reservation result = reservationService.getReservationById(1);
 
@@ -191,7 +264,7 @@ class ReservationServiceTest {
 
     @Test
     void getReservationById_ShouldThrowValidationException_WhenReservationNotExists() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(false);
+        when(reservationDao.findById(1)).thenReturn(Optional.empty());
 
         assertThrows(ValidationException.class, () ->
                 reservationService.getReservationById(1)
@@ -200,7 +273,6 @@ class ReservationServiceTest {
 
     @Test
     void getReservationById_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
         when(reservationDao.findById(1)).thenThrow(new DatabaseActionException("DB error"));
 
         assertThrows(ServiceException.class, () ->
@@ -288,12 +360,11 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldUpdateReservation_WhenDataIsValid() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
         when(flightDao.existsById(1)).thenReturn(true);
         when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1A", "1B"));
-        when(reservationDao.findById(1)).thenReturn(testReservation);
-        doNothing().when(reservationDao).update(any(Reservation.class));
+        when(flightDao.isSeatAvailable(1, "1B")).thenReturn(true);
+        when(reservationDao.update(any(Reservation.class))).thenReturn(1);
 
         reservationService.updateExistingReservation(1, 1, 1, "1B");
 
@@ -302,7 +373,7 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldThrowValidationException_WhenReservationNotExists() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(false);
+        when(reservationDao.findById(1)).thenReturn(Optional.empty());
 
         assertThrows(ValidationException.class, () ->
                 reservationService.updateExistingReservation(1, 1, 1, "1A")
@@ -311,7 +382,7 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldThrowValidationException_WhenFlightNotExists() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
         when(flightDao.existsById(1)).thenReturn(false);
 
         assertThrows(ValidationException.class, () ->
@@ -321,7 +392,7 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldThrowValidationException_WhenPassengerNotExists() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
         when(flightDao.existsById(1)).thenReturn(true);
         when(passengerDao.existsById(1)).thenReturn(false);
 
@@ -332,11 +403,10 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldThrowValidationException_WhenSeatNotAvailable() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
         when(flightDao.existsById(1)).thenReturn(true);
         when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1B", "1C"));
-        when(reservationDao.findById(1)).thenReturn(testReservation);
+        when(flightDao.isSeatAvailable(1, "1D")).thenReturn(false);
 
         assertThrows(ValidationException.class, () ->
                 reservationService.updateExistingReservation(1, 1, 1, "1D")
@@ -345,11 +415,10 @@ class ReservationServiceTest {
 
     @Test
     void updateExistingReservation_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
         when(flightDao.existsById(1)).thenReturn(true);
         when(passengerDao.existsById(1)).thenReturn(true);
-        when(flightDao.getAvailableSeatsNumbers(1)).thenReturn(Arrays.asList("1A", "1B"));
-        when(reservationDao.findById(1)).thenReturn(testReservation);
+        when(flightDao.isSeatAvailable(1, "1B")).thenReturn(true);
         doThrow(new DatabaseActionException("DB error")).when(reservationDao).update(any(Reservation.class));
 
         assertThrows(ServiceException.class, () ->
@@ -357,10 +426,22 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    void updateExistingReservation_ShouldThrowValidationException_WhenReservationDeletedConcurrently() throws DatabaseActionException {
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
+        when(flightDao.existsById(1)).thenReturn(true);
+        when(passengerDao.existsById(1)).thenReturn(true);
+        when(flightDao.isSeatAvailable(1, "1B")).thenReturn(true);
+        when(reservationDao.update(any(Reservation.class))).thenReturn(0);
+
+        assertThrows(ValidationException.class, () ->
+                reservationService.updateExistingReservation(1, 1, 1, "1B")
+        );
+    }
+
     @Test
     void deleteReservation_ShouldCallDaoDelete() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
-        doNothing().when(reservationDao).delete(1);
+        when(reservationDao.delete(1)).thenReturn(1);
 
         reservationService.deleteReservation(1);
 
@@ -369,7 +450,7 @@ class ReservationServiceTest {
 
     @Test
     void deleteReservation_ShouldThrowValidationException_WhenReservationNotExists() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(false);
+        when(reservationDao.delete(1)).thenReturn(0);
 
         assertThrows(ValidationException.class, () ->
                 reservationService.deleteReservation(1)
@@ -378,7 +459,6 @@ class ReservationServiceTest {
 
     @Test
     void deleteReservation_ShouldThrowServiceException_WhenDatabaseFails() throws DatabaseActionException {
-        when(reservationDao.existsById(1)).thenReturn(true);
         doThrow(new DatabaseActionException("DB error")).when(reservationDao).delete(1);
 
         assertThrows(ServiceException.class, () ->
@@ -407,6 +487,7 @@ class ReservationServiceTest {
 
     @Test
     void sendEmail_ShouldThrowEmailException_WhenReservationNotFound() throws DatabaseActionException {
+        when(emailService.isEnabled()).thenReturn(true);
         when(reservationDao.findById(1)).thenThrow(new DatabaseActionException("Not found"));
 
         assertThrows(EmailException.class, () ->
@@ -414,13 +495,34 @@ class ReservationServiceTest {
         );
     }
 
+    @Test
+    void sendEmail_ShouldThrowEmailException_WhenReservationDoesNotExist() throws DatabaseActionException {
+        when(emailService.isEnabled()).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(EmailException.class, () ->
+                reservationService.sendEmail(1)
+        );
+    }
+
     @Test
     void sendEmail_ShouldThrowEmailException_WhenPassengerNotFound() throws DatabaseActionException {
-        when(reservationDao.findById(1)).thenReturn(testReservation);
+        when(emailService.isEnabled()).thenReturn(true);
+        when(reservationDao.findById(1)).thenReturn(Optional.of(testReservation));
+        when(flightDao.findById(1)).thenReturn(Optional.of(new Flight(1, "Warsaw", "Berlin", LocalDateTime.now().plusDays(1), 90, 10)));
         when(passengerDao.findById(1)).thenThrow(new DatabaseActionException("Not found"));
 
         assertThrows(EmailException.class, () ->
                 reservationService.sendEmail(1)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void sendEmail_ShouldReturnFalse_WhenEmailsAreDisabled() {
+        when(emailService.isEnabled()).thenReturn(false);
+
+        assertFalse(reservationService.sendEmail(1));
+        verifyNoInteractions(reservationDao, flightDao, passengerDao);
+        verify(emailService, never()).sendConfirmationEmail(anyString(), anyString());
+    }
+}
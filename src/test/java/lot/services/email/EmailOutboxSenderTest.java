@@ -0,0 +1,194 @@
+package lot.services.email;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.EmailOutboxDao;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.models.OutboxEmail;
+import lot.services.EmailService;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxSenderTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final EmailOutboxDao outboxDao = new EmailOutboxDao();
+    private FakeSmtpServer smtpServer;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:emailsenderdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @BeforeEach
+    void startServer() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        try (Connection conn = DatabaseInitializer.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM email_outbox");
+        }
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void testQueuedEmailsAreSentOverOneConnection() throws Exception {
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(1, 6))) {
+            EmailService emailService = new EmailService(outboxDao, sender);
+            sender.start();
+            for (int i = 0; i < 5; i++) {
+                emailService.sendConfirmationEmail("passenger" + i + "@example.com", "Reservation " + i);
+            }
+
+            awaitUntil(() -> smtpServer.getMessages().size() == 5);
+            awaitUntil(() -> count(OutboxEmail.Status.SENT) == 5);
+            assertEquals(1, smtpServer.getConnections());
+            assertEquals(1, sender.getConnectionsOpened());
+            assertTrue(smtpServer.getMessages().get(0).contains("Subject: Flight's reservation confirmation"));
+        }
+    }
+
+    @Test
+    void testTransientFailureIsRetried() throws Exception {
+        smtpServer.rejectNext(2, 451);
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(1, 6))) {
+            sender.start();
+            outboxDao.enqueue(new OutboxEmail("passenger@example.com", "Subject", "Body"));
+            sender.wakeUp();
+
+            awaitUntil(() -> count(OutboxEmail.Status.SENT) == 1);
+            assertEquals(1, smtpServer.getMessages().size());
+            assertEquals(1, smtpServer.getConnections());
+        }
+    }
+
+    @Test
+    void testPermanentFailureIsNotRetried() throws Exception {
+        smtpServer.rejectNext(1, 550);
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(1, 6))) {
+            sender.start();
+            outboxDao.enqueue(new OutboxEmail("passenger@example.com", "Subject", "Body"));
+            sender.wakeUp();
+
+            awaitUntil(() -> count(OutboxEmail.Status.FAILED) == 1);
+            Thread.sleep(200);
+            assertEquals(0, count(OutboxEmail.Status.SENT));
+            assertTrue(smtpServer.getMessages().isEmpty());
+        }
+    }
+
+    @Test
+    void testEmailIsGivenUpAfterMaxAttempts() throws Exception {
+        smtpServer.rejectNext(3, 451);
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(1, 2))) {
+            sender.start();
+            outboxDao.enqueue(new OutboxEmail("passenger@example.com", "Subject", "Body"));
+            sender.wakeUp();
+
+            awaitUntil(() -> count(OutboxEmail.Status.FAILED) == 1);
+            assertEquals(0, count(OutboxEmail.Status.PENDING));
+            assertTrue(smtpServer.getMessages().isEmpty());
+        }
+    }
+
+    @Test
+    void testDroppedConnectionIsReopened() throws Exception {
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(1, 6))) {
+            EmailService emailService = new EmailService(outboxDao, sender);
+            sender.start();
+            emailService.sendConfirmationEmail("first@example.com", "Reservation 1");
+            awaitUntil(() -> count(OutboxEmail.Status.SENT) == 1);
+
+            smtpServer.dropConnections();
+            emailService.sendConfirmationEmail("second@example.com", "Reservation 2");
+
+            awaitUntil(() -> count(OutboxEmail.Status.SENT) == 2);
+            assertEquals(2, smtpServer.getConnections());
+            assertEquals(0, count(OutboxEmail.Status.FAILED));
+        }
+    }
+
+    @Test
+    void testSeveralSendersSendEveryEmailOnce() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            outboxDao.enqueue(new OutboxEmail("passenger" + i + "@example.com", "Subject " + i, "Body"));
+        }
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(3, 6))) {
+            sender.start();
+
+            awaitUntil(() -> count(OutboxEmail.Status.SENT) == 40);
+            assertEquals(40, smtpServer.getMessages().size());
+            assertTrue(smtpServer.getConnections() <= 3);
+        }
+    }
+
+    @Test
+    void testBackoffDoublesUpToMaximum() {
+        Duration base = Duration.ofSeconds(30);
+        Duration max = Duration.ofMinutes(5);
+
+        assertEquals(Duration.ofSeconds(30), EmailOutboxSender.backoff(1, base, max));
+        assertEquals(Duration.ofSeconds(60), EmailOutboxSender.backoff(2, base, max));
+        assertEquals(Duration.ofSeconds(240), EmailOutboxSender.backoff(4, base, max));
+        assertEquals(max, EmailOutboxSender.backoff(5, base, max));
+        assertEquals(max, EmailOutboxSender.backoff(1000, base, max));
+    }
+
+    private EmailConfig config(int threads, int maxAttempts) {
+        Map<String, String> settings = Map.of(
+                "EMAIL_SMTP_HOST", "localhost",
+                "EMAIL_SMTP_PORT", String.valueOf(smtpServer.getPort()),
+                "EMAIL_SENDER", "lot@example.com",
+                "EMAIL_SMTP_STARTTLS", "false",
+                "EMAIL_SENDER_THREADS", String.valueOf(threads),
+                "EMAIL_BATCH_SIZE", "5",
+                "EMAIL_MAX_ATTEMPTS", String.valueOf(maxAttempts),
+                "EMAIL_RETRY_DELAY_MS", "20",
+                "EMAIL_MAX_RETRY_DELAY_MS", "100",
+                "EMAIL_POLL_INTERVAL_MS", "20"
+        );
+        return EmailConfig.from(settings::get);
+    }
+
+    private int count(OutboxEmail.Status status) {
+        try {
+            return outboxDao.countByStatus(status);
+        }
+        catch (DatabaseActionException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package lot.services.email;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.*;
+import lot.database.DatabaseInitializer;
+import lot.models.*;
+import lot.services.FlightNotificationService;
+import lot.services.FlightService;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightNotificationTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final EmailOutboxDao outboxDao = new EmailOutboxDao();
+    private final FlightDao flightDao = new FlightDao();
+    private final PassengerDao passengerDao = new PassengerDao();
+    private final ReservationDao reservationDao = new ReservationDao();
+    private FakeSmtpServer smtpServer;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:flightnotificationdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @BeforeEach
+    void startServer() throws Exception {
+        smtpServer = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        smtpServer.close();
+    }
+
+    @Test
+    void testCancellationNotifiesEveryPassenger() throws Exception {
+        Flight flight = saveFlightWithPassengers(300);
+
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(0))) {
+            FlightService flightService = new FlightService(flightDao,
+                    new FlightNotificationService(new NotificationJobDao(), outboxDao, sender));
+            sender.start();
+
+            NotificationJob queued = flightService.deleteFlight(flight.getId()).orElseThrow();
+            assertEquals(300, queued.getTotal());
+            assertTrue(flightDao.findById(flight.getId()).isEmpty());
+
+            List<NotificationJob> reports = new ArrayList<>();
+            NotificationJob report = flightService.awaitNotification(queued.getId(), Duration.ofSeconds(60), reports::add);
+
+            assertTrue(report.isComplete());
+            assertEquals(300, report.getSent());
+            assertEquals(0, report.getFailed());
+            assertEquals(report, reports.get(reports.size() - 1));
+            assertEquals(300, smtpServer.getMessages().size());
+            assertTrue(smtpServer.getConnections() <= 3);
+            assertTrue(smtpServer.getMessages().stream().anyMatch(message ->
+                    message.contains("Subject: Your flight number " + flight.getId() + " from Warsaw to London has been cancelled")
+                            && message.contains("Dear Name0 Surname0")));
+        }
+    }
+
+    @Test
+    void testRescheduleNotifiesPassengersWithinRateLimit() throws Exception {
+        Flight flight = saveFlightWithPassengers(20);
+
+        try (EmailOutboxSender sender = new EmailOutboxSender(outboxDao, config(40))) {
+            FlightService flightService = new FlightService(flightDao,
+                    new FlightNotificationService(new NotificationJobDao(), outboxDao, sender));
+            sender.start();
+
+            long start = System.nanoTime();
+            NotificationJob queued = flightService.updateExistingFlight(flight.getId(), "Warsaw", "London",
+                    LocalDate.now().plusDays(12), "10:30", 120, 60).orElseThrow();
+            NotificationJob report = flightService.awaitNotification(queued.getId(), Duration.ofSeconds(60), job -> {});
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(20, report.getSent());
+            assertTrue(elapsed.compareTo(Duration.ofMillis(450)) >= 0, "20 emails at 40/s took " + elapsed);
+            assertTrue(smtpServer.getMessages().get(0).contains("has been changed from"));
+        }
+    }
+
+    @Test
+    void testFlightWithoutPassengersIsNotNotified() throws Exception {
+        Flight flight = saveFlightWithPassengers(0);
+        FlightNotificationService notifications = new FlightNotificationService(new NotificationJobDao(), outboxDao, null);
+
+        assertTrue(notifications.notifyCancellation(flight).isEmpty());
+    }
+
+    @Test
+    void testTemplateFillsPlaceholders() {
+        NotificationRecipient recipient = new NotificationRecipient(5, "John", "Doe", "john.doe@example.com", "3C");
+
+        OutboxEmail email = NotificationTemplate.DELAY.render(recipient, Map.of(
+                "flight", "number 1 from Warsaw to London",
+                "previousDepartureDate", "2030-01-01 10:00",
+                "departureDate", "2030-01-01 12:00"));
+
+        assertEquals("john.doe@example.com", email.getRecipient());
+        assertEquals("Your flight number 1 from Warsaw to London has been rescheduled", email.getSubject());
+        assertTrue(email.getBody().startsWith("Dear John Doe,"));
+        assertTrue(email.getBody().contains("from 2030-01-01 10:00 to 2030-01-01 12:00"));
+        assertTrue(email.getBody().contains("reservation number 5 for seat 3C"));
+    }
+
+    private Flight saveFlightWithPassengers(int passengers) throws Exception {
+        Flight flight = new Flight("Warsaw", "London", LocalDateTime.now().plusDays(10), 120, 60);
+        flight.setId(flightDao.save(flight));
+        for (int i = 0; i < passengers; i++) {
+            int passengerId = passengerDao.save(new Passenger("Name" + i, "Surname" + i, "passenger" + i + "@example.com", "123456789"));
+            reservationDao.save(new Reservation(flight.getId(), passengerId, (i / 6 + 1) + "ABCDEF".substring(i % 6, i % 6 + 1)));
+        }
+        return flight;
+    }
+
+    private EmailConfig config(int rateLimit) {
+        Map<String, String> settings = Map.of(
+                "EMAIL_SMTP_HOST", "localhost",
+                "EMAIL_SMTP_PORT", String.valueOf(smtpServer.getPort()),
+                "EMAIL_SENDER", "lot@example.com",
+                "EMAIL_SMTP_STARTTLS", "false",
+                "EMAIL_SENDER_THREADS", "3",
+                "EMAIL_RATE_LIMIT_PER_SECOND", String.valueOf(rateLimit),
+                "EMAIL_POLL_INTERVAL_MS", "20"
+        );
+        return EmailConfig.from(settings::get);
+    }
+}
@@ -0,0 +1,174 @@
+package lot.services.exporter;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.dao.FlightDao;
+import lot.dao.PassengerDao;
+import lot.dao.ReservationDao;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.dao.DatabaseActionException;
+import lot.exceptions.services.ServiceException;
+import lot.models.Flight;
+import lot.models.Passenger;
+import lot.models.Reservation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataExporterTest {
+    private static HikariDataSource inMemoryDataSource;
+
+    private final DataExporter exporter = new DataExporter(new FlightDao(), new PassengerDao(), new ReservationDao(), 2);
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:exporterdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        inMemoryDataSource = new HikariDataSource(config);
+
+        DatabaseInitializer.overrideDataSource(inMemoryDataSource);
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterAll
+    static void reset() {
+        inMemoryDataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testExportsPassengersToCsv() throws Exception {
+        int id = new PassengerDao().save(new Passenger("Anna, Maria", "O\"Brien", "anna@example.com", "123456789"));
+        Path file = dir.resolve("passengers.csv");
+
+        ExportReport report = exporter.exportPassengers(file, ExportFormat.CSV, false);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(count("SELECT COUNT(*) FROM passengers"), report.getRows());
+        assertEquals(report.getRows() + 1, lines.size());
+        assertEquals(Files.size(file), report.getBytes());
+        assertEquals("id,name,surname,email,phoneNumber", lines.get(0));
+        assertTrue(lines.contains(id + ",\"Anna, Maria\",\"O\"\"Brien\",anna@example.com,123456789"));
+    }
+
+    @Test
+    void testExportsFlightsToGzippedJson() throws Exception {
+        LocalDateTime departure = LocalDateTime.of(2031, 5, 4, 10, 30);
+        int id = new FlightDao().save(new Flight("Nowy \"Jork\"", "Oslo\\Gardermoen", departure, 480, 2));
+        Path file = dir.resolve("flights.json.gz");
+
+        ExportReport report = exporter.exportFlights(file, ExportFormat.JSON, true);
+
+        String json = gunzip(file);
+        assertEquals(count("SELECT COUNT(*) FROM flights"), report.getRows());
+        assertTrue(json.startsWith("[\n{\"id\":"));
+        assertTrue(json.endsWith("}\n]\n"));
+        assertEquals(report.getRows(), json.lines().filter(line -> line.startsWith("{")).count());
+        assertTrue(json.contains("{\"id\":" + id + ",\"departure\":\"Nowy \\\"Jork\\\"\","
+                + "\"destination\":\"Oslo\\\\Gardermoen\",\"departureDate\":\"2031-05-04T10:30\","
+                + "\"duration\":480,\"seatRowsAmount\":2}"));
+    }
+
+    @Test
+    void testExportsManifestOfOneFlight() throws Exception {
+        int flightId = new FlightDao().save(new Flight("Warszawa", "Berlin", LocalDateTime.now().plusDays(3), 90, 2));
+        int otherFlightId = new FlightDao().save(new Flight("Warszawa", "Praga", LocalDateTime.now().plusDays(3), 60, 2));
+        int passengerId = new PassengerDao().save(new Passenger("Jan", "Kowalski", "jan@example.com", "123456789"));
+        int reservationId = new ReservationDao().save(new Reservation(flightId, passengerId, "1A"));
+        new ReservationDao().save(new Reservation(otherFlightId, passengerId, "1B"));
+        Path file = dir.resolve("manifest.csv");
+
+        ExportReport report = exporter.exportManifest(flightId, file, ExportFormat.CSV, false);
+
+        assertEquals(1, report.getRows());
+        assertEquals(List.of("reservationId,seatNumber,passengerId,name,surname,email,phoneNumber",
+                        reservationId + ",1A," + passengerId + ",Jan,Kowalski,jan@example.com,123456789"),
+                Files.readAllLines(file));
+    }
+
+    @Test
+    void testExportsEmptyManifest() throws Exception {
+        Path file = dir.resolve("manifest.json");
+
+        ExportReport report = exporter.exportManifest(-1, file, ExportFormat.JSON, false);
+
+        assertEquals(0, report.getRows());
+        assertEquals("[\n]\n", Files.readString(file));
+    }
+
+    @Test
+    void testDeletesFileWhenDatabaseFails() throws Exception {
+        FlightDao flightDao = mock(FlightDao.class);
+        when(flightDao.streamAll(5)).thenThrow(new DatabaseActionException("Database error", new SQLException()));
+        Path file = dir.resolve("flights.csv");
+        Files.writeString(file, "old export");
+
+        DataExporter failingExporter = new DataExporter(flightDao, new PassengerDao(), new ReservationDao(), 5);
+
+        assertThrows(ServiceException.class, () -> failingExporter.exportFlights(file, ExportFormat.CSV, false));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testWriterEncodesTextLongerThanBuffer() throws Exception {
+        String text = "Zażółć gęślą jaźń ✈🛫 ".repeat(20_000);
+        Path file = dir.resolve("text.txt");
+
+        try (ChannelWriter writer = new ChannelWriter(Files.newByteChannel(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE))) {
+            for (int i = 0; i < text.length(); i += 7) {
+                writer.append(text.substring(i, Math.min(text.length(), i + 7)));
+            }
+            writer.append('!');
+        }
+
+        assertEquals(text + "!", Files.readString(file));
+    }
+
+    @Test
+    void testDetectsFormatFromFileName() {
+        assertEquals(ExportFormat.CSV, ExportFormat.of(Path.of("flights.csv")));
+        assertEquals(ExportFormat.JSON, ExportFormat.of(Path.of("out", "Manifest.JSON.gz")));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.of(Path.of("flights.xml")));
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Channels.newInputStream(Files.newByteChannel(file)))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long count(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection(); ResultSet rs = conn.createStatement().executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package lot.services.importer;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lot.database.DatabaseInitializer;
+import lot.exceptions.services.ValidationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImporterTest {
+    private static HikariDataSource dataSource;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setup() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:importerdb;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        dataSource = new HikariDataSource(config);
+        DatabaseInitializer.overrideDataSource(dataSource);
+    }
+
+    @BeforeEach
+    void createSchema() throws Exception {
+        DatabaseInitializer.initialize();
+    }
+
+    @AfterEach
+    void dropSchema() throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection()) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        dataSource.close();
+        DatabaseInitializer.resetToDefault();
+    }
+
+    @Test
+    void testImportsPassengersAndRejectsInvalidRows() throws Exception {
+        long before = count("SELECT COUNT(*) FROM passengers");
+        Path file = write("passengers.csv", "﻿Name,Surname,Email,PhoneNumber\r\n"
+                + "Jan,Kowalski,jan@example.com,123456789\r\n"
+                + "Anna,\"Nowak, Jr\",anna@example.com,987654321\r\n"
+                + "\r\n"
+                + "Piotr,Zieliński,not-an-email,123456789\r\n"
+                + "Ewa,Wójcik,ewa@example.com\r\n"
+                + ",Mazur,mazur@example.com,123456789\r\n"
+                + "Maria,\"Krawczyk,maria@example.com,123456789\r\n"
+                + "Adam,Nowak,adam@example.com,123456789");
+        Path rejectFile = dir.resolve("rejects.csv");
+
+        ImportReport report = new CsvImporter(3, 64).importPassengers(file, rejectFile);
+
+        assertEquals(7, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(before + 3, count("SELECT COUNT(*) FROM passengers"));
+        assertEquals(1, count("SELECT COUNT(*) FROM passengers WHERE surname = 'Nowak, Jr'"));
+
+        List<ImportReport.Rejection> rejections = report.getRejections();
+        assertEquals(List.of(5L, 6L, 7L, 8L), rejections.stream().map(ImportReport.Rejection::getLine).toList());
+        assertEquals("Invalid email format!", rejections.get(0).getReason());
+        assertEquals("Expected 4 fields, but found 3", rejections.get(1).getReason());
+        assertEquals("Name must not be empty!", rejections.get(2).getReason());
+        assertEquals("Quoted field is not closed", rejections.get(3).getReason());
+
+        List<String> rejectLines = Files.readAllLines(rejectFile);
+        assertEquals("line,reason,row", rejectLines.get(0));
+        assertEquals("5,\"Invalid email format!\",\"Piotr,Zieliński,not-an-email,123456789\"", rejectLines.get(1));
+        assertEquals("8,\"Quoted field is not closed\",\"Maria,\"\"Krawczyk,maria@example.com,123456789\"", rejectLines.get(4));
+    }
+
+    @Test
+    void testImportsManyPassengersInSmallChunks() throws Exception {
+        long before = count("SELECT COUNT(*) FROM passengers");
+        StringBuilder csv = new StringBuilder("name,surname,email,phoneNumber\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("Name").append(i).append(",Surname").append(i)
+                    .append(",p").append(i).append("@example.com,").append(100_000_000 + i).append('\n');
+        }
+        Path file = write("many.csv", csv.toString());
+
+        ImportReport report = new CsvImporter(4, 4096).importPassengers(file, null);
+
+        assertEquals(5_000, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(before + 5_000, count("SELECT COUNT(*) FROM passengers"));
+        assertEquals(5_000, count("SELECT COUNT(DISTINCT email) FROM passengers WHERE email LIKE 'p%@example.com'"));
+    }
+
+    @Test
+    void testImportsFlightsWithSeats() throws Exception {
+        long flightsBefore = count("SELECT COUNT(*) FROM flights");
+        long seatsBefore = count("SELECT COUNT(*) FROM seats");
+        String date = LocalDate.now().plusDays(30).toString();
+        Path file = write("flights.csv", "departure,destination,departureDate,time,duration,seatRowsAmount\n"
+                + "Warszawa,Berlin," + date + ",10:30,90,20\n"
+                + "Kraków,Paryż," + date + ",7:00,120,30\n"
+                + "Gdańsk,Oslo,2020-01-01,12:00,100,10\n"
+                + "Poznań,Rzym," + date + ",12:00,0,10\n"
+                + "Wrocław,Praga," + date + ",12:00,60,1000\n"
+                + "Katowice,Wiedeń,01.01.2030,12:00,60,10\n"
+                + "Oslo,Dublin," + date + ",08:15,150,25\n");
+
+        ImportReport report = new CsvImporter(2, 80).importFlights(file, null);
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(
+                        "Provided time is in wrong format! Required time in format: HH:mm",
+                        "Flight's date must be in the future!",
+                        "Flight's duration must be greater than 0!",
+                        "Flight's seat rows amount must be at most 999!",
+                        "Provided date is in wrong format! Required date in format: yyyy-MM-dd"),
+                report.getRejections().stream().map(ImportReport.Rejection::getReason).toList());
+        assertEquals(flightsBefore + 2, count("SELECT COUNT(*) FROM flights"));
+        assertEquals(seatsBefore + (20 + 25) * 6, count("SELECT COUNT(*) FROM seats"));
+        assertEquals(0, count("SELECT COUNT(*) FROM flights f WHERE f.seatRowsAmount * 6 "
+                + "<> (SELECT COUNT(*) FROM seats s WHERE s.flightId = f.id)"));
+    }
+
+    @Test
+    void testImportsReservationsAndRejectsConflicts() throws Exception {
+        String date = LocalDate.now().plusDays(10).toString();
+        new CsvImporter(1).importFlights(write("flights.csv",
+                "departure,destination,departureDate,time,duration,seatRowsAmount\n"
+                        + "Warszawa,Berlin," + date + ",10:30,90,2\n"), null);
+        long flightId = count("SELECT MAX(id) FROM flights");
+        long passengerId = count("SELECT MAX(id) FROM passengers");
+        long reservationsBefore = count("SELECT COUNT(*) FROM reservations");
+        Path file = write("reservations.csv", "flightId,passengerId,seatNumber\n"
+                + flightId + "," + passengerId + ",1a\n"
+                + flightId + "," + passengerId + ",1A\n"
+                + flightId + "," + (passengerId + 1000) + ",1B\n"
+                + (flightId + 1000) + "," + passengerId + ",1B\n"
+                + flightId + "," + passengerId + ",9Z\n"
+                + flightId + ",abc,1C\n"
+                + flightId + "," + passengerId + ",2F\n");
+
+        ImportReport report = new CsvImporter(2, 32).importReservations(file, null);
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(
+                        "Provided seat number is not available or it does not exist",
+                        "Passenger assigned to the reservation must exists!",
+                        "Flight assigned to the reservation must exists!",
+                        "Provided seat number is not available or it does not exist",
+                        "Passenger ID must be a number!"),
+                report.getRejections().stream().map(ImportReport.Rejection::getReason).toList());
+        assertEquals(reservationsBefore + 2, count("SELECT COUNT(*) FROM reservations"));
+        assertEquals(2, count("SELECT COUNT(*) FROM seats WHERE flightId = " + flightId + " AND available = false"));
+    }
+
+    @Test
+    void testRejectsFileWithWrongHeader() throws Exception {
+        Path file = write("passengers.csv", "name,surname,phoneNumber,email\nJan,Kowalski,123456789,jan@example.com\n");
+        Path empty = write("empty.csv", "");
+        CsvImporter importer = new CsvImporter(1);
+
+        assertThrows(ValidationException.class, () -> importer.importPassengers(file, null));
+        assertThrows(ValidationException.class, () -> importer.importPassengers(empty, null));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private long count(String query) throws SQLException {
+        try (Connection conn = DatabaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}